@@ -1,11 +1,13 @@
 package org.lucasnogueira.controller;
 
+import io.smallrye.common.annotation.NonBlocking;
 import jakarta.annotation.PostConstruct;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
@@ -16,8 +18,15 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.lucasnogueira.exceptions.SmartInvestApiException;
 import org.lucasnogueira.model.dto.*;
+import org.lucasnogueira.model.entities.Simulacao;
+import org.lucasnogueira.service.AlocacaoService;
+import org.lucasnogueira.service.ComparacaoService;
+import org.lucasnogueira.service.IdempotenciaService;
+import org.lucasnogueira.service.MetaService;
+import org.lucasnogueira.service.ProjecaoService;
 import org.lucasnogueira.service.SimulacaoService;
 import org.lucasnogueira.service.TelemetriaService;
+import org.lucasnogueira.service.VarreduraService;
 
 // OpenTelemetry imports
 import io.opentelemetry.api.OpenTelemetry;
@@ -31,6 +40,7 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -52,6 +62,24 @@ public class SimulacaoController {
     @Inject
     TelemetriaService telemetriaService;
 
+    @Inject
+    ProjecaoService projecaoService;
+
+    @Inject
+    VarreduraService varreduraService;
+
+    @Inject
+    IdempotenciaService idempotenciaService;
+
+    @Inject
+    ComparacaoService comparacaoService;
+
+    @Inject
+    AlocacaoService alocacaoService;
+
+    @Inject
+    MetaService metaService;
+
     // OpenTelemetry métricas
     private Meter meter;
     private DoubleHistogram httpServerDurationHistogram;
@@ -59,6 +87,8 @@ public class SimulacaoController {
     private final AtomicLong totalRequests = new AtomicLong(0);
     private final AtomicLong successRequests = new AtomicLong(0);
 
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
     // Attribute keys
     private static final AttributeKey<String> ENDPOINT_KEY = AttributeKey.stringKey("endpoint");
     private static final AttributeKey<String> METHOD_KEY = AttributeKey.stringKey("method");
@@ -101,7 +131,12 @@ public class SimulacaoController {
     @Path("/simular-investimento")
     @Operation(
             summary = "Processar simulação de investimentos",
-            description = "Recebe solicitação de simulação, valida dados, calcula SCORE, persiste no banco de dados de forma síncrona e retorna resultados"
+            description = "Recebe solicitação de simulação, valida dados, calcula SCORE, persiste no banco de dados de forma síncrona e retorna resultados. "
+                    + "Com o parâmetro top, retorna também o ranking dos melhores produtos com score e valor final projetado; "
+                    + "com projecao=true, inclui a série mensal do saldo; com estocastica=true, inclui os percentis p5/p50/p95 "
+                    + "do valor final por Monte Carlo para produtos de Ações e Fundos. "
+                    + "Repetições da mesma simulação (mesmo Idempotency-Key ou mesmos parâmetros) dentro da janela "
+                    + "de idempotência retornam a resposta original sem recalcular nem persistir"
     )
     @APIResponse(
             responseCode = "201",
@@ -123,7 +158,20 @@ public class SimulacaoController {
             responseCode = "500",
             description = "Erro interno do servidor"
     )
-    public Response simular(@Valid SimulacaoRequestDTO requestDTO) throws Exception {
+    public Response simular(
+            @Valid SimulacaoRequestDTO requestDTO,
+
+            @Parameter(description = "Chave de idempotência para repetições da mesma simulação (opcional)")
+            @HeaderParam("Idempotency-Key") String idempotencyKey,
+
+            @Parameter(description = "Quantidade de produtos do ranking de recomendações (opcional)", example = "5")
+            @QueryParam("top") Integer top,
+
+            @Parameter(description = "Incluir a série mensal do saldo projetado", example = "false")
+            @QueryParam("projecao") @DefaultValue("false") boolean projecao,
+
+            @Parameter(description = "Incluir a projeção estocástica (Monte Carlo) para produtos de renda variável", example = "false")
+            @QueryParam("estocastica") @DefaultValue("false") boolean estocastica) throws Exception {
         long startTime = System.nanoTime();
         totalRequests.incrementAndGet();
 
@@ -132,7 +180,9 @@ public class SimulacaoController {
         try {
             log.info("[REQUISICAO][SIMULACAO] - Iniciando requisicao de simulacao: {}", requestDTO);
 
-            SimulacaoResponseDTO simulacao = simulacaoService.simularInvestimento(requestDTO);
+            String opcoes = "top=" + top + ";projecao=" + projecao + ";estocastica=" + estocastica;
+            SimulacaoResponseDTO simulacao = idempotenciaService.executar(idempotencyKey, requestDTO, opcoes,
+                    () -> simulacaoService.simularInvestimento(requestDTO, top, projecao, estocastica));
 
             // Incrementar contador de sucesso
             successRequests.incrementAndGet();
@@ -178,6 +228,457 @@ public class SimulacaoController {
         }
     }
 
+    @POST
+    @Path("/simular-investimento/previa")
+    @NonBlocking
+    @Operation(
+            summary = "Prévia da simulação de investimentos",
+            description = "Calcula a mesma recomendação de /simular-investimento (com top e projecao) sem persistir: "
+                    + "usa o catálogo de produtos já compilado em memória, não abre transação nem conexão com o banco "
+                    + "e responde diretamente na thread de I/O. Não inclui a projeção estocástica nem usa idempotência"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Prévia calculada com sucesso",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = SimulacaoResponseDTO.class)
+            )
+    )
+    @APIResponse(
+            responseCode = "400",
+            description = "Dados de entrada inválidos"
+    )
+    @APIResponse(
+            responseCode = "500",
+            description = "Erro interno do servidor"
+    )
+    public Response simularPrevia(
+            @Valid SimulacaoRequestDTO requestDTO,
+
+            @Parameter(description = "Quantidade de produtos do ranking de recomendações (opcional)", example = "5")
+            @QueryParam("top") Integer top,
+
+            @Parameter(description = "Incluir a série mensal do saldo projetado", example = "false")
+            @QueryParam("projecao") @DefaultValue("false") boolean projecao) {
+        long startTime = System.nanoTime();
+        String status = "500"; // Default para erro
+
+        try {
+            SimulacaoResponseDTO previa = simulacaoService.simularPrevia(requestDTO, top, projecao);
+            status = "200";
+            return Response.ok(previa).build();
+
+        } catch (SmartInvestApiException exception) {
+            log.warn("[REQUISICAO][PREVIA] - Erro na requisicao: {}", exception.getMessage());
+            status = "400";
+            throw exception;
+
+        } finally {
+            double durationSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+
+            Attributes attributes = Attributes.of(
+                    ENDPOINT_KEY, "previa",
+                    METHOD_KEY, "POST",
+                    STATUS_KEY, status
+            );
+
+            httpServerDurationHistogram.record(durationSeconds, attributes);
+            httpServerRequestsCounter.add(1, attributes);
+            telemetriaService.registrarRequisicao("previa", durationSeconds, Integer.parseInt(status));
+        }
+    }
+
+    @POST
+    @Path("/lote")
+    @Operation(
+            summary = "Processar simulações de investimento em lote",
+            description = "Recebe uma lista de solicitações de simulação, calcula o SCORE de todas contra o mesmo catálogo, "
+                    + "persiste as simulações válidas em uma única transação e retorna o resultado de cada item"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Lote processado. Cada item informa sucesso ou o erro correspondente",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = SimulacaoLoteResponseDTO.class)
+            )
+    )
+    @APIResponse(
+            responseCode = "400",
+            description = "Lote vazio ou acima do tamanho máximo permitido"
+    )
+    @APIResponse(
+            responseCode = "500",
+            description = "Erro interno do servidor"
+    )
+    public Response simularLote(List<SimulacaoRequestDTO> requests) {
+        long startTime = System.nanoTime();
+        String status = "500"; // Default para erro
+
+        try {
+            log.info("[REQUISICAO][SIMULACAO LOTE] - Iniciando requisicao de simulacao em lote com {} itens",
+                    requests != null ? requests.size() : 0);
+
+            SimulacaoLoteResponseDTO resultado = simulacaoService.simularLote(requests);
+
+            status = "200";
+
+            long durationNanos = System.nanoTime() - startTime;
+            log.info("[REQUISICAO][SIMULACAO LOTE] - Finalizando lote ({} sucessos, {} erros) em {}ms",
+                    resultado.getQtdSucesso(), resultado.getQtdErro(), durationNanos / 1_000_000);
+
+            return Response.ok(resultado).build();
+
+        } catch (SmartInvestApiException exception) {
+            log.warn("[REQUISICAO][SIMULACAO LOTE] - Erro na requisicao: {}", exception.getMessage());
+            status = "400";
+            throw exception;
+
+        } finally {
+            double durationSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+
+            Attributes attributes = Attributes.of(
+                    ENDPOINT_KEY, "lote",
+                    METHOD_KEY, "POST",
+                    STATUS_KEY, status
+            );
+
+            httpServerDurationHistogram.record(durationSeconds, attributes);
+            httpServerRequestsCounter.add(1, attributes);
+            telemetriaService.registrarRequisicao("lote", durationSeconds, Integer.parseInt(status));
+        }
+    }
+
+    @POST
+    @Path("/comparar")
+    @Operation(
+            summary = "Comparar produtos lado a lado",
+            description = "Simula o mesmo valor e prazo em cada um dos produtos informados, retornando score, "
+                    + "rentabilidade líquida de IR e valor final de cada um, sem persistir"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Comparação calculada com sucesso",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = ComparacaoResponseDTO.class)
+            )
+    )
+    @APIResponse(
+            responseCode = "400",
+            description = "Dados de entrada inválidos ou produtos não encontrados"
+    )
+    public Response comparar(@Valid ComparacaoRequestDTO requestDTO) {
+        long startTime = System.nanoTime();
+        String status = "500"; // Default para erro
+
+        try {
+            log.info("[REQUISICAO][COMPARACAO] - Comparando {} produtos para cliente: {}",
+                    requestDTO.getProdutoIds().size(), requestDTO.getClienteId());
+
+            ComparacaoResponseDTO comparacao = comparacaoService.comparar(requestDTO);
+            status = "200";
+            return Response.ok(comparacao).build();
+
+        } catch (SmartInvestApiException exception) {
+            log.warn("[REQUISICAO][COMPARACAO] - Erro na requisicao: {}", exception.getMessage());
+            status = "400";
+            throw exception;
+
+        } finally {
+            double durationSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+
+            Attributes attributes = Attributes.of(
+                    ENDPOINT_KEY, "comparar",
+                    METHOD_KEY, "POST",
+                    STATUS_KEY, status
+            );
+
+            httpServerDurationHistogram.record(durationSeconds, attributes);
+            httpServerRequestsCounter.add(1, attributes);
+            telemetriaService.registrarRequisicao("comparar", durationSeconds, Integer.parseInt(status));
+        }
+    }
+
+    @POST
+    @Path("/alocacao")
+    @Operation(
+            summary = "Alocar o valor entre vários produtos",
+            description = "Distribui o valor investido entre os produtos que maximizam o score do perfil, respeitando "
+                    + "o percentual máximo por produto, o limite por nível de risco do perfil e a reserva de liquidez, "
+                    + "sem persistir"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Alocação calculada com sucesso",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = AlocacaoResponseDTO.class)
+            )
+    )
+    @APIResponse(
+            responseCode = "400",
+            description = "Dados de entrada inválidos ou produtos insuficientes para respeitar os limites"
+    )
+    public Response alocar(
+            @Valid SimulacaoRequestDTO requestDTO,
+            @Parameter(description = "Fração máxima do valor em um único produto (0 a 1)")
+            @QueryParam("maximoPorProduto") Double maximoPorProduto,
+            @Parameter(description = "Fração mínima do valor em produtos de liquidez imediata (0 a 1)")
+            @QueryParam("reservaLiquidez") Double reservaLiquidez) {
+        long startTime = System.nanoTime();
+        String status = "500"; // Default para erro
+
+        try {
+            log.info("[REQUISICAO][ALOCACAO] - Alocando valor {} para cliente: {}",
+                    requestDTO.getValor(), requestDTO.getClienteId());
+
+            AlocacaoResponseDTO alocacao = alocacaoService.alocar(requestDTO, maximoPorProduto, reservaLiquidez);
+            status = "200";
+            return Response.ok(alocacao).build();
+
+        } catch (SmartInvestApiException exception) {
+            log.warn("[REQUISICAO][ALOCACAO] - Erro na requisicao: {}", exception.getMessage());
+            status = "400";
+            throw exception;
+
+        } finally {
+            double durationSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+
+            Attributes attributes = Attributes.of(
+                    ENDPOINT_KEY, "alocacao",
+                    METHOD_KEY, "POST",
+                    STATUS_KEY, status
+            );
+
+            httpServerDurationHistogram.record(durationSeconds, attributes);
+            httpServerRequestsCounter.add(1, attributes);
+            telemetriaService.registrarRequisicao("alocacao", durationSeconds, Integer.parseInt(status));
+        }
+    }
+
+    @POST
+    @Path("/meta")
+    @Operation(
+            summary = "Calcular valor ou prazo para atingir uma meta",
+            description = "Informe valorMeta e apenas um entre valor e prazoMeses: o outro é calculado para que o valor "
+                    + "final líquido de IR, no produto escolhido pelo perfil, atinja a meta. Não persiste"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Meta calculada com sucesso",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = MetaResponseDTO.class)
+            )
+    )
+    @APIResponse(
+            responseCode = "400",
+            description = "Dados de entrada inválidos ou meta inatingível no prazo máximo"
+    )
+    public Response resolverMeta(@Valid MetaRequestDTO requestDTO) {
+        long startTime = System.nanoTime();
+        String status = "500"; // Default para erro
+
+        try {
+            log.info("[REQUISICAO][META] - Calculando meta {} para cliente: {}",
+                    requestDTO.getValorMeta(), requestDTO.getClienteId());
+
+            MetaResponseDTO meta = metaService.resolver(requestDTO);
+            status = "200";
+            return Response.ok(meta).build();
+
+        } catch (SmartInvestApiException exception) {
+            log.warn("[REQUISICAO][META] - Erro na requisicao: {}", exception.getMessage());
+            status = "400";
+            throw exception;
+
+        } finally {
+            double durationSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+
+            Attributes attributes = Attributes.of(
+                    ENDPOINT_KEY, "meta",
+                    METHOD_KEY, "POST",
+                    STATUS_KEY, status
+            );
+
+            httpServerDurationHistogram.record(durationSeconds, attributes);
+            httpServerRequestsCounter.add(1, attributes);
+            telemetriaService.registrarRequisicao("meta", durationSeconds, Integer.parseInt(status));
+        }
+    }
+
+    @POST
+    @Path("/meta/lote")
+    @Operation(
+            summary = "Calcular metas em lote",
+            description = "Calcula cada meta da lista contra o mesmo catálogo e retorna o resultado ou o erro de cada item"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Lote processado. Cada item informa sucesso ou o erro correspondente",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = MetaLoteResponseDTO.class)
+            )
+    )
+    @APIResponse(
+            responseCode = "400",
+            description = "Lote vazio ou acima do tamanho máximo permitido"
+    )
+    public Response resolverMetasLote(List<MetaRequestDTO> requests) {
+        long startTime = System.nanoTime();
+        String status = "500"; // Default para erro
+
+        try {
+            log.info("[REQUISICAO][META LOTE] - Calculando lote com {} metas", requests != null ? requests.size() : 0);
+
+            MetaLoteResponseDTO resultado = metaService.resolverLote(requests);
+            status = "200";
+
+            log.info("[REQUISICAO][META LOTE] - Finalizando lote ({} sucessos, {} erros) em {}ms",
+                    resultado.getQtdSucesso(), resultado.getQtdErro(), (System.nanoTime() - startTime) / 1_000_000);
+
+            return Response.ok(resultado).build();
+
+        } catch (SmartInvestApiException exception) {
+            log.warn("[REQUISICAO][META LOTE] - Erro na requisicao: {}", exception.getMessage());
+            status = "400";
+            throw exception;
+
+        } finally {
+            double durationSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+
+            Attributes attributes = Attributes.of(
+                    ENDPOINT_KEY, "meta-lote",
+                    METHOD_KEY, "POST",
+                    STATUS_KEY, status
+            );
+
+            httpServerDurationHistogram.record(durationSeconds, attributes);
+            httpServerRequestsCounter.add(1, attributes);
+            telemetriaService.registrarRequisicao("meta-lote", durationSeconds, Integer.parseInt(status));
+        }
+    }
+
+    @POST
+    @Path("/varredura")
+    @Produces(MEDIA_TYPE_NDJSON)
+    @Operation(
+            summary = "Varredura de simulações valor × prazo",
+            description = "Calcula o perfil, o produto recomendado e o valor final para cada célula da grade de valores e prazos, "
+                    + "sem persistir. As células são enviadas como NDJSON (uma por linha) à medida que são calculadas, "
+                    + "fora da ordem da grade"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Células da grade, uma por linha",
+            content = @Content(
+                    mediaType = MEDIA_TYPE_NDJSON,
+                    schema = @Schema(implementation = CelulaVarreduraDTO.class)
+            )
+    )
+    @APIResponse(
+            responseCode = "400",
+            description = "Grade inválida ou acima do limite de células"
+    )
+    public Response varrer(@Valid VarreduraRequestDTO requestDTO) {
+        long startTime = System.nanoTime();
+        String status = "500"; // Default para erro
+
+        try {
+            log.info("[REQUISICAO][VARREDURA] - Iniciando varredura para cliente: {}", requestDTO.getClienteId());
+
+            StreamingOutput celulas = varreduraService.varrer(requestDTO);
+            status = "200";
+            return Response.ok(celulas, MEDIA_TYPE_NDJSON).build();
+
+        } catch (SmartInvestApiException exception) {
+            log.warn("[REQUISICAO][VARREDURA] - Erro na requisicao: {}", exception.getMessage());
+            status = "400";
+            throw exception;
+
+        } finally {
+            // Mede a preparação da varredura; as células são calculadas durante o envio
+            double durationSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+
+            Attributes attributes = Attributes.of(
+                    ENDPOINT_KEY, "varredura",
+                    METHOD_KEY, "POST",
+                    STATUS_KEY, status
+            );
+
+            httpServerDurationHistogram.record(durationSeconds, attributes);
+            httpServerRequestsCounter.add(1, attributes);
+            telemetriaService.registrarRequisicao("varredura", durationSeconds, Integer.parseInt(status));
+        }
+    }
+
+    /**
+     * Endpoint para consultar a evolução mês a mês do saldo de uma simulação.
+     */
+    @GET
+    @Path("/{id}/projecao")
+    @Operation(
+            summary = "Projeção mensal de uma simulação",
+            description = "Retorna a série mensal do saldo projetado de uma simulação persistida, do mês 0 (valor investido) "
+                    + "até o prazo da simulação. A série é gerada e enviada de forma incremental."
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Série de projeção retornada com sucesso"
+    )
+    @APIResponse(
+            responseCode = "400",
+            description = "Prazo acima do limite da projeção"
+    )
+    @APIResponse(
+            responseCode = "404",
+            description = "Simulação não encontrada"
+    )
+    public Response projetarSimulacao(
+            @Parameter(description = "Identificador da simulação", example = "1")
+            @PathParam("id") Long id) {
+
+        long startTime = System.nanoTime();
+        String status = "500"; // Default para erro
+
+        try {
+            log.info("[REQUISICAO][PROJECAO] - Iniciando projeção da simulação {}", id);
+
+            Optional<Simulacao> simulacao = simulacaoService.buscarSimulacao(id);
+            if (simulacao.isEmpty()) {
+                status = "404";
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity(new ErrorResponse("NOT_FOUND", "Simulação não encontrada"))
+                        .build();
+            }
+
+            StreamingOutput serie = projecaoService.projetar(simulacao.get());
+            status = "200";
+            return Response.ok(serie, MediaType.APPLICATION_JSON).build();
+
+        } catch (SmartInvestApiException exception) {
+            log.warn("[REQUISICAO][PROJECAO] - Erro na requisicao: {}", exception.getMessage());
+            status = "400";
+            throw exception;
+
+        } finally {
+            double durationSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+
+            Attributes attributes = Attributes.of(
+                    ENDPOINT_KEY, "projecao",
+                    METHOD_KEY, "GET",
+                    STATUS_KEY, status
+            );
+
+            httpServerDurationHistogram.record(durationSeconds, attributes);
+            httpServerRequestsCounter.add(1, attributes);
+            telemetriaService.registrarRequisicao("projecao", durationSeconds, Integer.parseInt(status));
+        }
+    }
+
     /**
      * Endpoint para consultar o histórico completo de simulacaoes realizadas.
      */
@@ -0,0 +1,13 @@
+package org.lucasnogueira.exceptions;
+
+/**
+ * Lançada quando o catálogo de produtos ainda não foi compilado em memória (ex.: logo após a subida,
+ * com a compilação agendada em segundo plano). Respondida com 503 para o cliente repetir depois.
+ * Sem stack trace, como os demais erros esperados.
+ */
+public class CatalogoIndisponivelException extends RuntimeException {
+
+    public CatalogoIndisponivelException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,19 @@
+package org.lucasnogueira.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Lançada quando a requisição não consegue concluir uma etapa dentro do seu limite de tempo.
+ * Respondida com 503 para o cliente repetir depois, em vez de segurar a thread até o read-timeout.
+ * Sem stack trace, como os demais erros esperados.
+ */
+@Getter
+public class LimiteTempoExcedidoException extends RuntimeException {
+
+    private final String etapa;
+
+    public LimiteTempoExcedidoException(String etapa, Throwable causa) {
+        super("Limite de tempo da requisição excedido na etapa: " + etapa, causa, false, false);
+        this.etapa = etapa;
+    }
+}
@@ -3,6 +3,10 @@ package org.lucasnogueira.exceptions;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
+/**
+ * Erro de negócio esperado (respondido com 400). Sem stack trace: é lançado em volume por
+ * requisições inválidas e a pilha nunca é usada na resposta; a causa, quando houver, é mantida.
+ */
 @Builder
 @Getter
 @Setter
@@ -14,16 +18,16 @@ public class SmartInvestApiException extends RuntimeException {
     private String mensagem;
 
     public SmartInvestApiException(String mensagem) {
-        super(mensagem);
+        super(mensagem, null, false, false);
         this.codigoHTTP = 412; // código para quando pré-condição falhar
     }
 
     public SmartInvestApiException(String mensagem, Throwable causa) {
-        super(mensagem, causa);
+        super(mensagem, causa, false, false);
     }
 
     public SmartInvestApiException(int codigoHTTP, String mensagem) {
-        super(mensagem);
+        super(mensagem, null, false, false);
         this.codigoHTTP = codigoHTTP;
     }
 
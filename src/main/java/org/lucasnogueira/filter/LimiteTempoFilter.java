@@ -0,0 +1,47 @@
+package org.lucasnogueira.filter;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+import org.lucasnogueira.service.LimiteTempoService;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Define o limite de tempo da requisição na chegada, pelo header X-Request-Timeout-Ms
+ * ou pelo padrão configurado para o endpoint do método de recurso atendido
+ */
+@Provider
+@Priority(900) // Antes do rate limiting, para o limite contar desde a chegada
+public class LimiteTempoFilter implements ContainerRequestFilter {
+
+    @Inject
+    LimiteTempoService limiteTempoService;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    // Um nome por método de recurso: limitado à quantidade de endpoints, não aos caminhos requisitados
+    private final Map<Method, String> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        Method metodo = resourceInfo.getResourceMethod();
+        String endpoint = metodo != null ? endpoints.computeIfAbsent(metodo, this::endpoint) : null;
+        limiteTempoService.iniciar(endpoint, requestContext.getHeaderString(LimiteTempoService.HEADER));
+    }
+
+    private String endpoint(Method metodo) {
+        Path caminhoClasse = resourceInfo.getResourceClass().getAnnotation(Path.class);
+        Path caminhoMetodo = metodo.getAnnotation(Path.class);
+        return LimiteTempoService.endpoint(caminhoClasse != null ? caminhoClasse.value() : null,
+                caminhoMetodo != null ? caminhoMetodo.value() : null);
+    }
+}
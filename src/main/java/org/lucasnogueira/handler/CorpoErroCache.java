@@ -0,0 +1,144 @@
+package org.lucasnogueira.handler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Corpos de erro (mesmo JSON do {@link org.lucasnogueira.model.dto.ErroDetailDto}) montados a partir de
+ * bytes pré-serializados: o trecho {"timestamp":"..." é refeito uma vez por segundo e o restante
+ * (status e mensagem) é serializado uma vez por mensagem. As mensagens do message.properties já
+ * sobem prontas. Também conta as respostas de erro por código.
+ */
+@Slf4j
+@ApplicationScoped
+public class CorpoErroCache {
+
+    static final MediaType TIPO_JSON = MediaType.APPLICATION_JSON_TYPE.withCharset(StandardCharsets.UTF_8.name());
+
+    private static final String ARQUIVO_MENSAGENS = "message.properties";
+    private static final DateTimeFormatter FORMATO_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.of("Brazil/East"));
+    private static final AttributeKey<String> CODIGO_KEY = AttributeKey.stringKey("codigo");
+    private static final AttributeKey<Long> STATUS_KEY = AttributeKey.longKey("status");
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    OpenTelemetry openTelemetry;
+
+    @ConfigProperty(name = "app.erros.corpos-em-cache.maximo", defaultValue = "1024")
+    int maximoCorpos = 1024;
+
+    private final Map<String, String> mensagens = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> corpos = new ConcurrentHashMap<>();
+    private final Map<String, Attributes> atributosPorCodigo = new ConcurrentHashMap<>();
+    private volatile Timestamp timestamp = new Timestamp(Long.MIN_VALUE, new byte[0]);
+    private LongCounter errosCounter;
+
+    void onStart(@Observes StartupEvent event) {
+        carregar();
+    }
+
+    void carregar() {
+        Properties propriedades = new Properties();
+        try (InputStream entrada = Thread.currentThread().getContextClassLoader().getResourceAsStream(ARQUIVO_MENSAGENS)) {
+            if (entrada != null) {
+                propriedades.load(entrada);
+            }
+        } catch (IOException e) {
+            log.warn("[ERROS] - Não foi possível ler {}: {}", ARQUIVO_MENSAGENS, e.getMessage());
+        }
+        propriedades.forEach((chave, mensagem) -> {
+            mensagens.put((String) chave, (String) mensagem);
+            corpo(400, (String) mensagem);
+        });
+
+        if (openTelemetry != null) {
+            errosCounter = openTelemetry.getMeter("smartInvest")
+                    .counterBuilder("respostas_erro_total")
+                    .setDescription("Respostas de erro por código e status")
+                    .build();
+        }
+        log.info("[ERROS] - {} corpos de erro pré-serializados", corpos.size());
+    }
+
+    /**
+     * Mensagem do message.properties para a chave, ou null se não existir
+     */
+    public String mensagem(String chave) {
+        return mensagens.get(chave);
+    }
+
+    /**
+     * Corpo JSON {"timestamp","status","message"} da resposta de erro
+     */
+    public byte[] corpo(int status, String mensagem) {
+        String chave = status + ":" + mensagem;
+        byte[] restante = corpos.get(chave);
+        if (restante == null) {
+            restante = serializarRestante(status, mensagem);
+            // Mensagens com valores da requisição variam sem limite: acima do máximo apenas não entram no cache
+            if (corpos.size() < maximoCorpos) {
+                corpos.putIfAbsent(chave, restante);
+            }
+        }
+
+        byte[] inicio = inicio();
+        byte[] corpo = new byte[inicio.length + restante.length];
+        System.arraycopy(inicio, 0, corpo, 0, inicio.length);
+        System.arraycopy(restante, 0, corpo, inicio.length, restante.length);
+        return corpo;
+    }
+
+    public void registrar(String codigo, int status) {
+        if (errosCounter != null) {
+            errosCounter.add(1, atributosPorCodigo.computeIfAbsent(status + ":" + codigo,
+                    chave -> Attributes.of(CODIGO_KEY, codigo, STATUS_KEY, (long) status)));
+        }
+    }
+
+    // {"timestamp":"AAAA-MM-DD HH:MM:SS" do segundo atual, refeito apenas na virada do segundo
+    private byte[] inicio() {
+        long segundo = System.currentTimeMillis() / 1000;
+        Timestamp atual = timestamp;
+        if (atual.segundo() != segundo) {
+            String texto = "{\"timestamp\":\"" + FORMATO_TIMESTAMP.format(Instant.ofEpochSecond(segundo)) + "\"";
+            atual = new Timestamp(segundo, texto.getBytes(StandardCharsets.UTF_8));
+            timestamp = atual;
+        }
+        return atual.bytes();
+    }
+
+    private byte[] serializarRestante(int status, String mensagem) {
+        try {
+            return (",\"status\":" + status + ",\"message\":" + objectMapper.writeValueAsString(mensagem) + "}")
+                    .getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar a mensagem de erro", e);
+        }
+    }
+
+    private record Timestamp(long segundo, byte[] bytes) {}
+}
@@ -1,41 +1,80 @@
 package org.lucasnogueira.handler;
 
+import jakarta.inject.Inject;
+import jakarta.persistence.QueryTimeoutException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
+import org.lucasnogueira.exceptions.CatalogoIndisponivelException;
+import org.lucasnogueira.exceptions.LimiteTempoExcedidoException;
 import org.lucasnogueira.exceptions.SmartInvestApiException;
-import org.lucasnogueira.model.dto.ErroDetailDto;
+import org.lucasnogueira.service.LimiteTempoService;
 
-import java.util.Date;
+import java.sql.SQLTimeoutException;
 
 @Provider
 public class ExceptionHandler implements ExceptionMapper<Exception> {
 
+    static final String CODIGO_NEGOCIO = "negocio";
+    static final String CODIGO_LIMITE_TEMPO = "limite-tempo";
+    static final String CODIGO_CATALOGO_INDISPONIVEL = "catalogo-indisponivel";
+    static final String CODIGO_INTERNO = "interno";
+
+    @Inject
+    LimiteTempoService limiteTempoService;
+
+    @Inject
+    CorpoErroCache corpoErroCache;
+
     @Override
     public Response toResponse(Exception e) {
-        Throwable cause = getCause(e);
+        // Caminho comum: erro de negócio lançado diretamente, sem cadeia de causas para percorrer
+        if (e instanceof SmartInvestApiException exception && exception.getCause() == null) {
+            return responder(Response.Status.BAD_REQUEST, CODIGO_NEGOCIO, exception.getMessage());
+        }
 
         // Trata exceções customizadas da aplicação
+        Throwable cause = getCause(e);
         if (cause instanceof SmartInvestApiException exception) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(ErroDetailDto.builder()
-                            .message(exception.getMessage())
-                            .status(Response.Status.BAD_REQUEST.getStatusCode())
-                            .timestamp(new Date())
-                            .build())
-                    .build();
+            return responder(Response.Status.BAD_REQUEST, CODIGO_NEGOCIO, exception.getMessage());
+        }
+
+        // Limite de tempo da requisição excedido, ou consulta encerrada pelo timeout do banco
+        LimiteTempoExcedidoException limiteExcedido = getLimiteTempoExcedido(e);
+        if (limiteExcedido != null) {
+            return responder(Response.Status.SERVICE_UNAVAILABLE, CODIGO_LIMITE_TEMPO, limiteExcedido.getMessage());
+        }
+
+        // Catálogo ainda não compilado: indisponibilidade temporária, o cliente pode repetir
+        if (cause instanceof CatalogoIndisponivelException exception) {
+            return responder(Response.Status.SERVICE_UNAVAILABLE, CODIGO_CATALOGO_INDISPONIVEL, exception.getMessage());
         }
 
         // Trata outras exceções não previstas
-        return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity(ErroDetailDto.builder()
-                        .message(e.getMessage())
-                        .status(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode())
-                        .timestamp(new Date())
-                        .build())
+        return responder(Response.Status.INTERNAL_SERVER_ERROR, CODIGO_INTERNO, e.getMessage());
+    }
+
+    private Response responder(Response.Status status, String codigo, String mensagem) {
+        corpoErroCache.registrar(codigo, status.getStatusCode());
+        return Response.status(status)
+                .type(CorpoErroCache.TIPO_JSON)
+                .entity(corpoErroCache.corpo(status.getStatusCode(), mensagem))
                 .build();
     }
 
+    private LimiteTempoExcedidoException getLimiteTempoExcedido(Throwable throwable) {
+        for (Throwable atual = throwable; atual != null; atual = atual.getCause()) {
+            if (atual instanceof LimiteTempoExcedidoException limiteExcedido) {
+                return limiteExcedido;
+            }
+            if (atual instanceof QueryTimeoutException || atual instanceof org.hibernate.QueryTimeoutException
+                    || atual instanceof SQLTimeoutException) {
+                return limiteTempoService.excedido(LimiteTempoService.ETAPA_BANCO, throwable);
+            }
+        }
+        return null;
+    }
+
     private Throwable getCause(Throwable throwable) {
         Throwable cause;
         while ((cause = throwable.getCause()) != null) {
@@ -43,4 +82,4 @@ public class ExceptionHandler implements ExceptionMapper<Exception> {
         }
         return throwable;
     }
-}
\ No newline at end of file
+}
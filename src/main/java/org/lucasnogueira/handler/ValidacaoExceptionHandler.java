@@ -0,0 +1,49 @@
+package org.lucasnogueira.handler;
+
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Falhas de validação (@Valid) respondidas com o mesmo corpo dos demais erros da API, com as mensagens
+ * do message.properties já serializadas, e contadas pela chave da mensagem
+ */
+@Provider
+public class ValidacaoExceptionHandler implements ExceptionMapper<ConstraintViolationException> {
+
+    @Inject
+    CorpoErroCache corpoErroCache;
+
+    @Override
+    public Response toResponse(ConstraintViolationException e) {
+        List<String> mensagens = new ArrayList<>(e.getConstraintViolations().size());
+        for (ConstraintViolation<?> violacao : e.getConstraintViolations()) {
+            String chave = chave(violacao.getMessageTemplate());
+            String mensagem = chave != null ? corpoErroCache.mensagem(chave) : null;
+            corpoErroCache.registrar(chave != null ? chave : "validacao", Response.Status.BAD_REQUEST.getStatusCode());
+            mensagens.add(mensagem != null ? mensagem : violacao.getMessage());
+        }
+        // Mesma composição da validação dos itens de lote: mensagens ordenadas separadas por espaço
+        mensagens.sort(null);
+
+        return Response.status(Response.Status.BAD_REQUEST)
+                .type(CorpoErroCache.TIPO_JSON)
+                .entity(corpoErroCache.corpo(Response.Status.BAD_REQUEST.getStatusCode(), String.join(" ", mensagens)))
+                .build();
+    }
+
+    // "{chave}" do template da anotação, ou null para mensagens literais
+    private static String chave(String template) {
+        if (template != null && template.length() > 2 && template.charAt(0) == '{'
+                && template.charAt(template.length() - 1) == '}') {
+            return template.substring(1, template.length() - 1);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,235 @@
+package org.lucasnogueira.model;
+
+import org.lucasnogueira.model.entities.Produto;
+import org.lucasnogueira.model.enums.Indexador;
+import org.lucasnogueira.model.enums.NivelRiscoEnum;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Snapshot imutável do catálogo de produtos, compilado uma única vez por carga.
+ * Mantém os campos usados no score em arrays primitivos (risco já resolvido,
+ * isenção de IR, taxa, indexador e liquidez) e as estatísticas mínimas/máximas do catálogo,
+ * para que pontuar N produtos seja uma única passada sem trabalho com strings.
+ * O catálogo completo também indexa a resolução do tipo solicitado pelo cliente.
+ */
+public final class CatalogoCompilado {
+
+    // Entradas livres (fora do índice de substrings) memorizadas por versão do catálogo
+    private static final int MAXIMO_RESOLUCOES = 256;
+
+    private final long versao;
+    private final String tipo;
+    private final List<Produto> produtos;
+    private final double[] taxaBruta;
+    private final int[] liquidezDias;
+    private final double[] nivelRisco;
+    private final int[] grupoRisco;
+    private final boolean[] isentoIr;
+    private final boolean[] rendaVariavel;
+    private final boolean[] fundo;
+    private final double[] taxaAdministracao;
+    private final Indexador[] indexador;
+    private final double[] taxaIndexador;
+    private final boolean possuiIndexados;
+    private final double retornoMaximo;
+    private final double liquidezMinima;
+    private final double liquidezMaxima;
+    private final Map<String, CatalogoCompilado> catalogosPorTipo;
+    private final Map<String, Optional<CatalogoCompilado>> indiceTipos;
+    private final Map<Long, Integer> indicePorId;
+    private final Map<String, Optional<CatalogoCompilado>> resolucoes = new ConcurrentHashMap<>();
+
+    private CatalogoCompilado(long versao, String tipo, List<Produto> produtos, boolean particionar) {
+        int n = produtos.size();
+        this.versao = versao;
+        this.tipo = tipo;
+        this.produtos = Collections.unmodifiableList(new ArrayList<>(produtos));
+        this.taxaBruta = new double[n];
+        this.liquidezDias = new int[n];
+        this.nivelRisco = new double[n];
+        this.grupoRisco = new int[n];
+        this.isentoIr = new boolean[n];
+        this.rendaVariavel = new boolean[n];
+        this.fundo = new boolean[n];
+        this.taxaAdministracao = new double[n];
+        this.indexador = new Indexador[n];
+        this.taxaIndexador = new double[n];
+
+        boolean indexados = false;
+        double maxTaxa = Double.NEGATIVE_INFINITY;
+        double minLiquidez = Double.POSITIVE_INFINITY;
+        double maxLiquidez = Double.NEGATIVE_INFINITY;
+
+        for (int i = 0; i < n; i++) {
+            Produto produto = produtos.get(i);
+            String tipoProduto = produto.getTipo();
+
+            taxaBruta[i] = produto.getTaxaAnualOferecida().doubleValue();
+            liquidezDias[i] = produto.getLiquidezDias();
+            NivelRiscoEnum nivel = NivelRiscoEnum.fromString(produto.getRisco());
+            nivelRisco[i] = nivel.getValor();
+            grupoRisco[i] = nivel.ordinal();
+            isentoIr[i] = tipoProduto.equalsIgnoreCase("LCI") || tipoProduto.equalsIgnoreCase("LCA");
+            rendaVariavel[i] = tipoProduto.equalsIgnoreCase("Ações");
+            fundo[i] = tipoProduto.equalsIgnoreCase("Fundos");
+            taxaAdministracao[i] = produto.getTaxaAdministracao() != null ? produto.getTaxaAdministracao().doubleValue() : 0.0;
+            indexador[i] = produto.getIndexador() != null ? produto.getIndexador() : Indexador.PREFIXADO;
+            taxaIndexador[i] = produto.getTaxaIndexador() != null
+                    ? produto.getTaxaIndexador().doubleValue() : indexador[i].taxaPadrao();
+            indexados |= indexador[i].isIndexado();
+
+            maxTaxa = Math.max(maxTaxa, taxaBruta[i]);
+            minLiquidez = Math.min(minLiquidez, liquidezDias[i]);
+            maxLiquidez = Math.max(maxLiquidez, liquidezDias[i]);
+        }
+
+        this.possuiIndexados = indexados;
+        // Mesmos valores padrão usados pelo ProdutoScoreCalculator para listas vazias
+        this.retornoMaximo = n > 0 ? maxTaxa : 0.01;
+        this.liquidezMinima = n > 0 ? minLiquidez : 0.0;
+        this.liquidezMaxima = n > 0 ? maxLiquidez : 1.0;
+        this.catalogosPorTipo = particionar ? particionarPorTipo(versao, produtos) : Map.of();
+        this.indiceTipos = particionar ? indexarTipos(catalogosPorTipo) : Map.of();
+        this.indicePorId = particionar ? indexarIds(this.produtos) : Map.of();
+    }
+
+    private static Map<Long, Integer> indexarIds(List<Produto> produtos) {
+        Map<Long, Integer> indice = new HashMap<>(produtos.size() * 2);
+        for (int i = 0; i < produtos.size(); i++) {
+            indice.putIfAbsent(produtos.get(i).getId(), i);
+        }
+        return Collections.unmodifiableMap(indice);
+    }
+
+    /**
+     * Compila o catálogo completo, já particionado por tipo de produto
+     */
+    public static CatalogoCompilado compilar(List<Produto> produtos, long versao) {
+        return new CatalogoCompilado(versao, null, produtos, true);
+    }
+
+    private static Map<String, CatalogoCompilado> particionarPorTipo(long versao, List<Produto> produtos) {
+        // Mesma semântica do equalsIgnoreCase usado no filtro por tipo
+        Map<String, List<Produto>> grupos = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Produto produto : produtos) {
+            grupos.computeIfAbsent(produto.getTipo(), k -> new ArrayList<>()).add(produto);
+        }
+
+        Map<String, CatalogoCompilado> particoes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        grupos.forEach((tipo, grupo) -> particoes.put(tipo, new CatalogoCompilado(versao, tipo, grupo, false)));
+        return Collections.unmodifiableMap(particoes);
+    }
+
+    // Cada substring de cada tipo normalizado já aponta para a partição que o filtro escolheria
+    private static Map<String, Optional<CatalogoCompilado>> indexarTipos(Map<String, CatalogoCompilado> particoes) {
+        Map<String, Optional<CatalogoCompilado>> indice = new HashMap<>();
+        for (String tipo : particoes.keySet()) {
+            String normalizado = normalizarTipo(tipo);
+            for (int inicio = 0; inicio < normalizado.length(); inicio++) {
+                for (int fim = inicio + 1; fim <= normalizado.length(); fim++) {
+                    indice.computeIfAbsent(normalizado.substring(inicio, fim),
+                            trecho -> Optional.ofNullable(buscarTipo(particoes, trecho)));
+                }
+            }
+        }
+        return Collections.unmodifiableMap(indice);
+    }
+
+    /**
+     * Retorna o sub-catálogo dos produtos do tipo informado (sem diferenciar maiúsculas),
+     * ou null se o tipo não existir no catálogo
+     */
+    public CatalogoCompilado doTipo(String tipo) {
+        return catalogosPorTipo.get(tipo);
+    }
+
+    /**
+     * Posição do produto no catálogo completo, ou -1 se o id não existir
+     */
+    public int indiceDoProduto(Long id) {
+        Integer indice = indicePorId.get(id);
+        return indice != null ? indice : -1;
+    }
+
+    /**
+     * Resolve o tipo solicitado pelo cliente para o sub-catálogo correspondente, sem diferenciar
+     * maiúsculas nem acentos: o primeiro tipo (em ordem alfabética) que contém o texto solicitado
+     * ou está contido nele. Retorna null se nenhum tipo corresponder.
+     */
+    public CatalogoCompilado resolverTipo(String tipoSolicitado) {
+        Optional<CatalogoCompilado> resolvido = resolucoes.get(tipoSolicitado);
+        if (resolvido == null) {
+            String normalizado = normalizarTipo(tipoSolicitado);
+            resolvido = indiceTipos.get(normalizado);
+            if (resolvido == null) {
+                resolvido = Optional.ofNullable(buscarTipo(catalogosPorTipo, normalizado));
+            }
+            if (resolucoes.size() < MAXIMO_RESOLUCOES) {
+                resolucoes.putIfAbsent(tipoSolicitado, resolvido);
+            }
+        }
+        return resolvido.orElse(null);
+    }
+
+    private static CatalogoCompilado buscarTipo(Map<String, CatalogoCompilado> particoes, String solicitadoNormalizado) {
+        for (Map.Entry<String, CatalogoCompilado> particao : particoes.entrySet()) {
+            String tipo = normalizarTipo(particao.getKey());
+            if (tipo.contains(solicitadoNormalizado) || solicitadoNormalizado.contains(tipo)) {
+                return particao.getValue();
+            }
+        }
+        return null;
+    }
+
+    static String normalizarTipo(String tipo) {
+        String decomposto = Normalizer.normalize(tipo, Normalizer.Form.NFD);
+        StringBuilder normalizado = new StringBuilder(decomposto.length());
+        for (int i = 0; i < decomposto.length(); i++) {
+            char c = decomposto.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                normalizado.append(c);
+            }
+        }
+        return normalizado.toString().toLowerCase(Locale.ROOT);
+    }
+
+    public long getVersao() { return versao; }
+    /** Tipo de produto do sub-catálogo, ou null para o catálogo completo */
+    public String getTipo() { return tipo; }
+    public List<Produto> getProdutos() { return produtos; }
+    public int tamanho() { return taxaBruta.length; }
+    public boolean isVazio() { return taxaBruta.length == 0; }
+    public Produto produto(int indice) { return produtos.get(indice); }
+
+    public double taxaBruta(int indice) { return taxaBruta[indice]; }
+    public int liquidezDias(int indice) { return liquidezDias[indice]; }
+    public double nivelRisco(int indice) { return nivelRisco[indice]; }
+    /** Ordinal do NivelRiscoEnum do produto */
+    public int grupoRisco(int indice) { return grupoRisco[indice]; }
+    public boolean isentoIr(int indice) { return isentoIr[indice]; }
+    public boolean rendaVariavel(int indice) { return rendaVariavel[indice]; }
+    /** Fundos têm taxa de administração e come-cotas */
+    public boolean fundo(int indice) { return fundo[indice]; }
+    public double taxaAdministracao(int indice) { return taxaAdministracao[indice]; }
+    /** Índice da rentabilidade; a taxa bruta dos indexados é apenas a taxa de referência do cadastro */
+    public Indexador indexador(int indice) { return indexador[indice]; }
+    public boolean indexado(int indice) { return indexador[indice].isIndexado(); }
+    /** Percentual do CDI/Selic ou taxa real acima do IPCA */
+    public double taxaIndexador(int indice) { return taxaIndexador[indice]; }
+    /** Sem indexados, o score dispensa a curva do prazo */
+    public boolean possuiIndexados() { return possuiIndexados; }
+
+    public double getRetornoMaximo() { return retornoMaximo; }
+    public double getLiquidezMinima() { return liquidezMinima; }
+    public double getLiquidezMaxima() { return liquidezMaxima; }
+}
@@ -0,0 +1,45 @@
+package org.lucasnogueira.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO para retorno da alocação do valor investido entre vários produtos
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlocacaoResponseDTO {
+
+    @JsonProperty("perfil")
+    private String perfil;
+
+    @JsonProperty("valor")
+    private BigDecimal valor;
+
+    @JsonProperty("prazoMeses")
+    private Integer prazoMeses;
+
+    // Média dos scores ponderada pelos percentuais alocados
+    @JsonProperty("scorePonderado")
+    private double scorePonderado;
+
+    // Fração alocada em produtos com liquidez dentro da reserva
+    @JsonProperty("percentualLiquidez")
+    private BigDecimal percentualLiquidez;
+
+    // false quando o orçamento de tempo acabou antes da busca local convergir
+    @JsonProperty("otimoLocal")
+    private boolean otimoLocal;
+
+    @JsonProperty("valorFinalTotal")
+    private BigDecimal valorFinalTotal;
+
+    @JsonProperty("alocacoes")
+    private List<ItemAlocacaoDTO> alocacoes;
+}
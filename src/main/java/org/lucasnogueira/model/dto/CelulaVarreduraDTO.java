@@ -0,0 +1,41 @@
+package org.lucasnogueira.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO representando uma célula (valor, prazo) da varredura de simulações
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CelulaVarreduraDTO {
+
+    @JsonProperty("valor")
+    private BigDecimal valor;
+
+    @JsonProperty("prazoMeses")
+    private Integer prazoMeses;
+
+    @JsonProperty("perfil")
+    private String perfil;
+
+    @JsonProperty("produto")
+    private ProdutoValidadoDTO produto;
+
+    @JsonProperty("score")
+    private Double score;
+
+    @JsonProperty("valorFinal")
+    private BigDecimal valorFinal;
+
+    // Preenchido apenas na última linha quando a varredura é interrompida por erro
+    @JsonProperty("erro")
+    private String erro;
+}
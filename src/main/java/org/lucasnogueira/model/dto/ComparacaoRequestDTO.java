@@ -0,0 +1,35 @@
+package org.lucasnogueira.model.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO para entrada da comparação lado a lado de produtos
+ * Mesmo valor e prazo simulados em cada um dos produtos informados
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ComparacaoRequestDTO {
+
+    @NotNull(message = "{solicita_simulacao_investimento_cliente_id_nulo}")
+    @Positive(message = "{solicita_simulacao_investimento_cliente_id_menor_que_zero}")
+    private Integer clienteId;
+
+    @NotNull(message = "{solicita_simulacao_investimento_valor_desejado_nulo}")
+    @Positive(message = "{solicita_simulacao_investimento_valor_desejado_menor_que_zero}")
+    @Digits(integer = 12, fraction = 2, message = "{solicita_simulacao_investimento_valor_desejado_tipo_invalido}")
+    private BigDecimal valor;
+
+    @NotNull(message = "{solicita_simulacao_investimento_prazo_nulo}")
+    @Positive(message = "{solicita_simulacao_investimento_prazo_menor_que_zero}")
+    private Integer prazoMeses;
+
+    @NotEmpty(message = "{solicita_comparacao_produtos_vazio}")
+    private List<@NotNull(message = "{solicita_comparacao_produto_id_nulo}") Long> produtoIds;
+}
@@ -0,0 +1,31 @@
+package org.lucasnogueira.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO para retorno da comparação lado a lado de produtos
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ComparacaoResponseDTO {
+
+    @JsonProperty("perfil")
+    private String perfil;
+
+    @JsonProperty("valor")
+    private BigDecimal valor;
+
+    @JsonProperty("prazoMeses")
+    private Integer prazoMeses;
+
+    // Na ordem dos produtoIds informados
+    @JsonProperty("itens")
+    private List<ItemComparacaoDTO> itens;
+}
@@ -0,0 +1,33 @@
+package org.lucasnogueira.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO representando a parcela do valor investido alocada em um produto
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemAlocacaoDTO {
+
+    @JsonProperty("produto")
+    private ProdutoValidadoDTO produto;
+
+    // Fração do valor investido (0.25 = 25%)
+    @JsonProperty("percentual")
+    private BigDecimal percentual;
+
+    @JsonProperty("valor")
+    private BigDecimal valor;
+
+    @JsonProperty("score")
+    private double score;
+
+    @JsonProperty("valorFinal")
+    private BigDecimal valorFinal;
+}
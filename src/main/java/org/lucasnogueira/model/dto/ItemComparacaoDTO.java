@@ -0,0 +1,37 @@
+package org.lucasnogueira.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO representando o resultado de um produto na comparação lado a lado
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemComparacaoDTO {
+
+    @JsonProperty("produto")
+    private ProdutoValidadoDTO produto;
+
+    @JsonProperty("score")
+    private double score;
+
+    @JsonProperty("aliquotaIr")
+    private double aliquotaIr;
+
+    // Rentabilidade anual após o IR do prazo simulado
+    @JsonProperty("rentabilidadeLiquida")
+    private double rentabilidadeLiquida;
+
+    @JsonProperty("valorFinal")
+    private BigDecimal valorFinal;
+
+    // Valor final com o IR descontado sobre o rendimento
+    @JsonProperty("valorFinalLiquido")
+    private BigDecimal valorFinalLiquido;
+}
@@ -0,0 +1,29 @@
+package org.lucasnogueira.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+/**
+ * DTO representando o resultado de um item da busca de metas em lote
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemMetaLoteDTO {
+
+    @JsonProperty("indice")
+    private int indice;
+
+    @JsonProperty("sucesso")
+    private boolean sucesso;
+
+    @JsonProperty("meta")
+    private MetaResponseDTO meta;
+
+    @JsonProperty("erro")
+    private String erro;
+}
@@ -0,0 +1,30 @@
+package org.lucasnogueira.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO de resposta para busca de metas em lote
+ * Os itens mantêm a mesma ordem (indice) da requisição
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MetaLoteResponseDTO {
+
+    @JsonProperty("qtdItens")
+    private int qtdItens;
+
+    @JsonProperty("qtdSucesso")
+    private int qtdSucesso;
+
+    @JsonProperty("qtdErro")
+    private int qtdErro;
+
+    @JsonProperty("itens")
+    private List<ItemMetaLoteDTO> itens;
+}
@@ -0,0 +1,41 @@
+package org.lucasnogueira.model.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO para entrada da busca de meta
+ * Informe valor ou prazoMeses: o campo ausente é calculado para atingir valorMeta
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MetaRequestDTO {
+
+    @NotNull(message = "{solicita_simulacao_investimento_cliente_id_nulo}")
+    @Positive(message = "{solicita_simulacao_investimento_cliente_id_menor_que_zero}")
+    private Integer clienteId;
+
+    // Valor final líquido de IR desejado
+    @NotNull(message = "{solicita_meta_valor_meta_nulo}")
+    @Positive(message = "{solicita_meta_valor_meta_menor_que_zero}")
+    @Digits(integer = 12, fraction = 2, message = "{solicita_meta_valor_meta_tipo_invalido}")
+    private BigDecimal valorMeta;
+
+    @Positive(message = "{solicita_simulacao_investimento_valor_desejado_menor_que_zero}")
+    @Digits(integer = 12, fraction = 2, message = "{solicita_simulacao_investimento_valor_desejado_tipo_invalido}")
+    private BigDecimal valor;
+
+    @Positive(message = "{solicita_simulacao_investimento_prazo_menor_que_zero}")
+    private Integer prazoMeses;
+
+    @PositiveOrZero(message = "{solicita_simulacao_investimento_aporte_mensal_menor_que_zero}")
+    @Digits(integer = 12, fraction = 2, message = "{solicita_simulacao_investimento_aporte_mensal_tipo_invalido}")
+    private BigDecimal aporteMensal;
+
+    private String tipoProduto;
+}
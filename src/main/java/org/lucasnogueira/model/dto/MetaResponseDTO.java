@@ -0,0 +1,53 @@
+package org.lucasnogueira.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO para retorno da busca de meta
+ * valor e prazoMeses trazem o informado e o calculado (indicado em incognita)
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MetaResponseDTO {
+
+    // Campo calculado: "valor" ou "prazoMeses"
+    @JsonProperty("incognita")
+    private String incognita;
+
+    @JsonProperty("perfil")
+    private String perfil;
+
+    @JsonProperty("produto")
+    private ProdutoValidadoDTO produto;
+
+    @JsonProperty("valorMeta")
+    private BigDecimal valorMeta;
+
+    @JsonProperty("valor")
+    private BigDecimal valor;
+
+    @JsonProperty("prazoMeses")
+    private Integer prazoMeses;
+
+    @JsonProperty("aporteMensal")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal aporteMensal;
+
+    @JsonProperty("aliquotaIr")
+    private double aliquotaIr;
+
+    @JsonProperty("valorFinal")
+    private BigDecimal valorFinal;
+
+    // Sempre maior ou igual a valorMeta; mesmo valor líquido da simulação (com o retorno líquido habilitado,
+    // também de IOF, taxa de administração e come-cotas)
+    @JsonProperty("valorFinalLiquido")
+    private BigDecimal valorFinalLiquido;
+}
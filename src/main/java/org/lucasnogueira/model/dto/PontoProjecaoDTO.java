@@ -0,0 +1,23 @@
+package org.lucasnogueira.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO representando o saldo projetado de uma simulação ao final de um mês
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PontoProjecaoDTO {
+
+    @JsonProperty("mes")
+    private int mes;
+
+    @JsonProperty("saldo")
+    private BigDecimal saldo;
+}
@@ -0,0 +1,27 @@
+package org.lucasnogueira.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+/**
+ * DTO representando um produto do ranking de recomendações da simulação
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProdutoRankeadoDTO {
+
+    @JsonProperty("posicao")
+    private int posicao;
+
+    @JsonProperty("produto")
+    private ProdutoValidadoDTO produto;
+
+    @JsonProperty("score")
+    private double score;
+
+    @JsonProperty("resultadoSimulacao")
+    private ResultadoSimulacaoDTO resultadoSimulacao;
+}
@@ -0,0 +1,33 @@
+package org.lucasnogueira.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO com a distribuição do valor final obtida por simulação de Monte Carlo
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProjecaoEstocasticaDTO {
+
+    // Caminhos efetivamente simulados (pode ser menor que o solicitado se o orçamento de tempo acabar)
+    @JsonProperty("caminhos")
+    private int caminhos;
+
+    @JsonProperty("volatilidadeAnual")
+    private double volatilidadeAnual;
+
+    @JsonProperty("p5")
+    private BigDecimal p5;
+
+    @JsonProperty("p50")
+    private BigDecimal p50;
+
+    @JsonProperty("p95")
+    private BigDecimal p95;
+}
@@ -1,5 +1,6 @@
 package org.lucasnogueira.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
 import java.math.BigDecimal;
@@ -16,4 +17,16 @@ public class ResultadoSimulacaoDTO {
     private BigDecimal valorFinal ;
     private Double rentabilidadeEfetiva;
     private Integer prazoMeses;
+
+    // Presente apenas quando há aporte mensal: valor inicial mais os aportes do prazo
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal valorTotalInvestido;
+
+    // Presentes com o cálculo de rentabilidade líquida habilitado: o que o cliente resgata
+    // após IOF, IR, taxa de administração e come-cotas
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal valorFinalLiquido;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double rentabilidadeLiquida;
 }
\ No newline at end of file
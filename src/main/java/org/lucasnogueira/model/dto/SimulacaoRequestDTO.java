@@ -32,6 +32,21 @@ public class SimulacaoRequestDTO {
 //    @NotBlank(message = "{solicita_simulacao_investimento_tipo_produto_nulo}")
     private String tipoProduto;
 
+    // Opcional: aporte ao final de cada mês, somado ao valor inicial
+    @PositiveOrZero(message = "{solicita_simulacao_investimento_aporte_mensal_menor_que_zero}")
+    @Digits(integer = 12, fraction = 2, message = "{solicita_simulacao_investimento_aporte_mensal_tipo_invalido}")
+    private BigDecimal aporteMensal;
+
+    /**
+     * Valor inicial mais os aportes de todo o prazo
+     */
+    public BigDecimal valorTotalInvestido() {
+        if (aporteMensal == null || aporteMensal.signum() == 0 || prazoMeses == null) {
+            return valor;
+        }
+        return valor.add(aporteMensal.multiply(BigDecimal.valueOf(prazoMeses)));
+    }
+
     @Override
     public String toString() {
         StringJoiner joiner = new StringJoiner(", ", "{", "}");
@@ -39,6 +54,7 @@ public class SimulacaoRequestDTO {
         joiner.add("valor=" + valor);
         joiner.add("prazoMeses=" + prazoMeses);
         joiner.add("tipoProduto=" + tipoProduto);
+        joiner.add("aporteMensal=" + aporteMensal);
         return joiner.toString();
     }
 }
@@ -1,6 +1,7 @@
 package org.lucasnogueira.model.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
@@ -9,6 +10,7 @@ import jakarta.validation.constraints.Size;
 import lombok.*;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 
 /**
  * DTO para retorno da simulação de investimento
@@ -37,4 +39,19 @@ public class SimulacaoResponseDTO {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
     @NotNull
     private OffsetDateTime dataSimulacao;
+
+    // Presente apenas quando solicitado o ranking (?top=K); a primeira posição é o produto validado
+    @JsonProperty("ranking")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ProdutoRankeadoDTO> ranking;
+
+    // Presente apenas quando solicitada a projeção mensal (?projecao=true)
+    @JsonProperty("projecao")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<PontoProjecaoDTO> projecao;
+
+    // Presente apenas com ?estocastica=true e produto validado de renda variável (Ações ou Fundos)
+    @JsonProperty("projecaoEstocastica")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ProjecaoEstocasticaDTO projecaoEstocastica;
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package org.lucasnogueira.model.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO para entrada da varredura de simulações (grade valor × prazo), sem persistência
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VarreduraRequestDTO {
+
+    @Positive(message = "{solicita_simulacao_investimento_cliente_id_menor_que_zero}")
+    private Integer clienteId;
+
+    @NotNull(message = "{solicita_varredura_valor_minimo_nulo}")
+    @Positive(message = "{solicita_varredura_valor_menor_que_zero}")
+    @Digits(integer = 12, fraction = 2, message = "{solicita_simulacao_investimento_valor_desejado_tipo_invalido}")
+    private BigDecimal valorMinimo;
+
+    @NotNull(message = "{solicita_varredura_valor_maximo_nulo}")
+    @Positive(message = "{solicita_varredura_valor_menor_que_zero}")
+    @Digits(integer = 12, fraction = 2, message = "{solicita_simulacao_investimento_valor_desejado_tipo_invalido}")
+    private BigDecimal valorMaximo;
+
+    @NotNull(message = "{solicita_varredura_passo_valor_nulo}")
+    @Positive(message = "{solicita_varredura_valor_menor_que_zero}")
+    @Digits(integer = 12, fraction = 2, message = "{solicita_simulacao_investimento_valor_desejado_tipo_invalido}")
+    private BigDecimal passoValor;
+
+    @NotNull(message = "{solicita_varredura_prazo_minimo_nulo}")
+    @Positive(message = "{solicita_simulacao_investimento_prazo_menor_que_zero}")
+    private Integer prazoMinimo;
+
+    @NotNull(message = "{solicita_varredura_prazo_maximo_nulo}")
+    @Positive(message = "{solicita_simulacao_investimento_prazo_menor_que_zero}")
+    private Integer prazoMaximo;
+
+    @Positive(message = "{solicita_simulacao_investimento_prazo_menor_que_zero}")
+    private Integer passoPrazo;
+
+    private String tipoProduto;
+}
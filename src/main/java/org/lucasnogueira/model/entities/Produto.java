@@ -3,6 +3,7 @@ package org.lucasnogueira.model.entities;
 import jakarta.persistence.*;
 import lombok.*;
 
+import org.lucasnogueira.model.enums.Indexador;
 import org.lucasnogueira.model.enums.TipoPerfilRisco;
 
 import java.math.BigDecimal;
@@ -39,4 +40,17 @@ public class Produto {
     @Column(name = "NO_RISCO", length = 20)
     private String risco;
 
+    // Taxa de administração anual dos fundos; nula para os demais produtos
+    @Column(name = "PC_TAXA_ADMINISTRACAO", precision = 8, scale = 5)
+    private BigDecimal taxaAdministracao;
+
+    // Índice da rentabilidade; nulo para os prefixados, que rendem a taxa anual oferecida
+    @Enumerated(EnumType.STRING)
+    @Column(name = "IC_INDEXADOR", length = 10)
+    private Indexador indexador;
+
+    // Percentual do CDI/Selic (1.10 = 110%) ou taxa real acima do IPCA
+    @Column(name = "PC_TAXA_INDEXADOR", precision = 8, scale = 5)
+    private BigDecimal taxaIndexador;
+
 }
@@ -33,6 +33,9 @@ public class Simulacao {
     @Column(name = "VR_INVESTIDO", precision = 18, scale = 2, nullable = true)
     public BigDecimal valorInvestido;
 
+    @Column(name = "VR_APORTE_MENSAL", precision = 18, scale = 2, nullable = true)
+    public BigDecimal aporteMensal;
+
     @Column(name = "VR_FINAL", precision = 18, scale = 2, nullable = true)
     public BigDecimal valorFinal;
 
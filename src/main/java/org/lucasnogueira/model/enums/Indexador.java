@@ -0,0 +1,30 @@
+package org.lucasnogueira.model.enums;
+
+/**
+ * Índice de referência da rentabilidade de um produto.
+ * CDI e Selic rendem um percentual do índice (1.10 = 110% do CDI); o IPCA rende o índice
+ * mais uma taxa real. Produtos prefixados usam apenas a taxa anual oferecida.
+ */
+public enum Indexador {
+
+    PREFIXADO,
+    CDI,
+    SELIC,
+    IPCA;
+
+    /**
+     * Indexadores com série na curva (todos exceto o prefixado)
+     */
+    public static final Indexador[] COM_CURVA = {CDI, SELIC, IPCA};
+
+    public boolean isIndexado() {
+        return this != PREFIXADO;
+    }
+
+    /**
+     * Taxa do indexador quando o produto não informa: 100% do CDI/Selic ou apenas o IPCA
+     */
+    public double taxaPadrao() {
+        return this == CDI || this == SELIC ? 1.0 : 0.0;
+    }
+}
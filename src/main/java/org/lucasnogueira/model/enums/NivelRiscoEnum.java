@@ -1,17 +1,19 @@
 package org.lucasnogueira.model.enums;
 
 public enum NivelRiscoEnum {
-    MUITO_BAIXO(1.0, "muito baixo", "muito_baixo"),
-    BAIXO(3.0, "baixo"),
-    MEDIO(5.0, "medio", "médio"),
-    ALTO(7.0, "alto"),
-    MUITO_ALTO(9.0, "muito alto", "muito_alto");
+    MUITO_BAIXO(1.0, 0.01, "muito baixo", "muito_baixo"),
+    BAIXO(3.0, 0.03, "baixo"),
+    MEDIO(5.0, 0.08, "medio", "médio"),
+    ALTO(7.0, 0.18, "alto"),
+    MUITO_ALTO(9.0, 0.28, "muito alto", "muito_alto");
 
     private final double valor;
+    private final double volatilidadeAnual;
     private final String[] aliases;
 
-    NivelRiscoEnum(double valor, String... aliases) {
+    NivelRiscoEnum(double valor, double volatilidadeAnual, String... aliases) {
         this.valor = valor;
+        this.volatilidadeAnual = volatilidadeAnual;
         this.aliases = aliases;
     }
 
@@ -19,6 +21,11 @@ public enum NivelRiscoEnum {
         return valor;
     }
 
+    // Desvio-padrão anual do retorno usado na projeção estocástica
+    public double getVolatilidadeAnual() {
+        return volatilidadeAnual;
+    }
+
     public static NivelRiscoEnum fromString(String rating) {
         if (rating == null || rating.trim().isEmpty()) {
             return MEDIO; // Padrão
@@ -7,6 +7,7 @@ import jakarta.persistence.EntityManager;
 import org.lucasnogueira.model.dto.ProdutoRecomendadoResponse;
 import org.lucasnogueira.model.entities.Produto;
 import org.lucasnogueira.model.enums.TipoPerfilRisco;
+import org.lucasnogueira.service.LimiteTempoService;
 //import org.lucasnogueira.util.mappers.Mapper;
 
 import java.util.List;
@@ -18,6 +19,9 @@ public class ProdutoRepository implements PanacheRepository<Produto> {
     @Inject
     EntityManager entityManager;
 
+    @Inject
+    LimiteTempoService limiteTempoService;
+
 //    @Inject
 //    private Mapper mapper;
 
@@ -44,14 +48,23 @@ public class ProdutoRepository implements PanacheRepository<Produto> {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Todos os produtos, com o timeout do limite de tempo da requisição
+     */
+    public List<Produto> listarCatalogo() {
+        return limiteTempoService.aplicar(entityManager
+                .createQuery("SELECT p FROM Produto p", Produto.class))
+                .getResultList();
+    }
+
     public List<String> findTiposDistintos() {
-        return entityManager
+        return limiteTempoService.aplicar(entityManager
                 .createQuery(
                         "SELECT DISTINCT p.tipo " +
                                 "FROM Produto p " +
                                 "ORDER BY p.tipo ASC",
                         String.class
-                )
+                ))
                 .getResultList();
     }
 }
@@ -4,13 +4,19 @@ import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionImplementor;
 import org.lucasnogueira.model.dto.PerfilRiscoResponseDto;
 import org.lucasnogueira.model.dto.HistoricoSimulacaoResponseDTO;
 import org.lucasnogueira.model.dto.ValoresSimuladosPorProdutoDiaDTO;
 import org.lucasnogueira.model.entities.Simulacao;
 import org.lucasnogueira.model.enums.TipoPerfilRisco;
+import org.lucasnogueira.service.LimiteTempoService;
 import org.lucasnogueira.util.mappers.SimulacaoResumoMapper;
 
+import java.sql.PreparedStatement;
+import java.sql.Types;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
@@ -20,18 +26,83 @@ import java.util.stream.Collectors;
 @ApplicationScoped
 public class SimulacaoRepository implements PanacheRepository<Simulacao> {
 
+    private static final String INSERT_SIMULACAO =
+            "INSERT INTO SIMULACAO (CO_ClIENTE, CO_PRODUTO, NO_RISCO, VR_INVESTIDO, VR_FINAL, NU_PRAZO_MESES, " +
+                    "TS_CRIACAO_SIMULACAO, NU_PONTUACAO, IC_TIPO_PERFIL_RISCO, PC_RENTABILIDADE_EFETIVA, VR_APORTE_MENSAL) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     @Inject
     EntityManager entityManager;
 
+    @Inject
+    LimiteTempoService limiteTempoService;
+
+    /**
+     * Persiste a simulação pelo Hibernate. Com limite de tempo na requisição, o restante vira o
+     * timeout da transação na sessão, que o Hibernate aplica a cada statement que prepara (insert e flush).
+     */
+    @Transactional
+    public void persist(Simulacao simulacao) {
+        int timeoutSegundos = limiteTempoService.timeoutSegundos();
+        if (timeoutSegundos > 0) {
+            entityManager.unwrap(SessionImplementor.class).getJdbcCoordinator().setTransactionTimeOut(timeoutSegundos);
+        }
+        entityManager.persist(simulacao);
+    }
+
+    /**
+     * Persiste as simulações com JDBC batch na conexão da sessão atual (uma única transação).
+     * A chave IDENTITY impede o batch de inserts do próprio Hibernate, por isso o
+     * PreparedStatement é reaproveitado e enviado a cada tamanhoLote registros.
+     */
+    @Transactional
+    public void persistirEmLote(List<Simulacao> simulacoes, int tamanhoLote) {
+        if (simulacoes.isEmpty()) {
+            return;
+        }
+
+        int lote = Math.max(1, tamanhoLote);
+        int timeoutSegundos = limiteTempoService.timeoutSegundos();
+        entityManager.unwrap(Session.class).doWork(conexao -> {
+            try (PreparedStatement statement = conexao.prepareStatement(INSERT_SIMULACAO)) {
+                statement.setQueryTimeout(timeoutSegundos);
+                int pendentes = 0;
+                for (Simulacao simulacao : simulacoes) {
+                    statement.setObject(1, simulacao.getCodigoCliente(), Types.INTEGER);
+                    statement.setObject(2, simulacao.getCodigoProduto(), Types.BIGINT);
+                    statement.setString(3, simulacao.getRisco());
+                    statement.setBigDecimal(4, simulacao.getValorInvestido());
+                    statement.setBigDecimal(5, simulacao.getValorFinal());
+                    statement.setObject(6, simulacao.getPrazoMeses(), Types.INTEGER);
+                    statement.setObject(7, simulacao.getDataSimulacao());
+                    statement.setObject(8, simulacao.getPontuacao(), Types.INTEGER);
+                    statement.setObject(9, simulacao.getTipoPerfilRisco() != null
+                            ? simulacao.getTipoPerfilRisco().ordinal() : null, Types.SMALLINT);
+                    statement.setBigDecimal(10, simulacao.getRentabilidadeEfetiva());
+                    statement.setBigDecimal(11, simulacao.getAporteMensal());
+                    statement.addBatch();
+
+                    if (++pendentes == lote) {
+                        statement.executeBatch();
+                        pendentes = 0;
+                    }
+                }
+                if (pendentes > 0) {
+                    statement.executeBatch();
+                }
+            }
+        });
+    }
+
     public List<HistoricoSimulacaoResponseDTO> listarSimulacoesPaginado(int pagina, int tamanhoPagina) {
-        List<Object[]> resultados = entityManager
+        List<Object[]> resultados = limiteTempoService.aplicar(entityManager
                 .createQuery(
                         "SELECT s.id, s.codigoCliente, p.nome, s.valorInvestido, s.valorFinal, s.prazoMeses, s.dataSimulacao " +
                                 "FROM Simulacao s " +
                                 "JOIN Produto p ON s.codigoProduto = p.id " +
                                 "ORDER BY s.dataSimulacao DESC",
                         Object[].class
-                )
+                ))
                 .setFirstResult(pagina * tamanhoPagina)
                 .setMaxResults(tamanhoPagina)
                 .getResultList();
@@ -45,14 +116,14 @@ public class SimulacaoRepository implements PanacheRepository<Simulacao> {
         OffsetDateTime inicioDia = dataReferencia.atStartOfDay().atOffset(java.time.ZoneOffset.UTC);
         OffsetDateTime fimDia = dataReferencia.plusDays(1).atStartOfDay().atOffset(java.time.ZoneOffset.UTC);
 
-        List<Object[]> resultados = entityManager.createQuery(
+        List<Object[]> resultados = limiteTempoService.aplicar(entityManager.createQuery(
                         "SELECT p.nome, :dataRef, COUNT(s), AVG(s.valorFinal) " +
                                 "FROM Simulacao s " +
                                 "JOIN Produto p ON s.codigoProduto = p.id " +
                                 "WHERE s.dataSimulacao >= :inicioDia AND s.dataSimulacao < :fimDia " +
                                 "GROUP BY p.nome",
                         Object[].class
-                )
+                ))
                 .setParameter("inicioDia", inicioDia)
                 .setParameter("fimDia", fimDia)
                 .setParameter("dataRef", inicioDia)
@@ -69,13 +140,13 @@ public class SimulacaoRepository implements PanacheRepository<Simulacao> {
     }
 
     public PerfilRiscoResponseDto buscarPerfilPorCliente(Long clienteId) {
-        Object[] resultado = (Object[]) entityManager
+        Object[] resultado = (Object[]) limiteTempoService.aplicar(entityManager
                 .createQuery(
                         "SELECT s.codigoCliente, s.tipoPerfilRisco, AVG(s.pontuacao) " +
                                 "FROM Simulacao s " +
                                 "WHERE s.codigoCliente = :clienteId " +
                                 "ORDER BY s.dataSimulacao DESC"
-                )
+                ))
                 .setParameter("clienteId", clienteId)
                 .getSingleResult();
 
@@ -92,7 +163,7 @@ public class SimulacaoRepository implements PanacheRepository<Simulacao> {
     }
 
     public List<Object[]> buscaSimulacoesPorCliente(Long clienteId) {
-       return entityManager
+       return limiteTempoService.aplicar(entityManager
                 .createQuery(
                         "SELECT s.id, p.tipo, s.valorFinal, p.taxaAnualOferecida, s.dataSimulacao " +
                                 "FROM Simulacao s " +
@@ -100,9 +171,16 @@ public class SimulacaoRepository implements PanacheRepository<Simulacao> {
                                 "WHERE s.codigoCliente = :clienteId " +
                                 "ORDER BY s.dataSimulacao ASC",
                         Object[].class
-                )
+                ))
                 .setParameter("clienteId", clienteId)
                 .getResultList();
     }
 
+    @Override
+    public long count() {
+        return limiteTempoService.aplicar(entityManager
+                .createQuery("SELECT COUNT(s) FROM Simulacao s", Long.class))
+                .getSingleResult();
+    }
+
 }
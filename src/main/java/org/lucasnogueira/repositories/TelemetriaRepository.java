@@ -8,6 +8,7 @@ import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.lucasnogueira.model.entities.Telemetria;
+import org.lucasnogueira.service.LimiteTempoService;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -20,6 +21,9 @@ public class TelemetriaRepository implements PanacheRepository<Telemetria> {
     @Inject
     private EntityManager entityManager;
 
+    @Inject
+    LimiteTempoService limiteTempoService;
+
     @Transactional
     public void persist(Telemetria telemetria) {
         try {
@@ -85,52 +89,52 @@ public class TelemetriaRepository implements PanacheRepository<Telemetria> {
     }
 
     private List<Telemetria> buscarEntreDatas(LocalDate dataInicio, LocalDate dataFim) {
-        return entityManager
+        return limiteTempoService.aplicar(entityManager
                 .createQuery(
                         "SELECT t FROM Telemetria t WHERE t.dataReferencia BETWEEN :dataInicio AND :dataFim ORDER BY t.dataReferencia DESC",
-                        Telemetria.class)
+                        Telemetria.class))
                 .setParameter("dataInicio", dataInicio)
                 .setParameter("dataFim", dataFim)
                 .getResultList();
     }
 
     private List<Telemetria> buscarAPartirDe(LocalDate dataInicio) {
-        return entityManager
+        return limiteTempoService.aplicar(entityManager
                 .createQuery(
                         "SELECT t FROM Telemetria t WHERE t.dataReferencia >= :dataInicio ORDER BY t.dataReferencia DESC",
-                        Telemetria.class)
+                        Telemetria.class))
                 .setParameter("dataInicio", dataInicio)
                 .getResultList();
     }
 
     private List<Telemetria> buscarAte(LocalDate dataFim) {
-        return entityManager
+        return limiteTempoService.aplicar(entityManager
                 .createQuery(
                         "SELECT t FROM Telemetria t WHERE t.dataReferencia <= :dataFim ORDER BY t.dataReferencia DESC",
-                        Telemetria.class)
+                        Telemetria.class))
                 .setParameter("dataFim", dataFim)
                 .getResultList();
     }
 
     private List<Telemetria> buscarTodos() {
-        return entityManager
+        return limiteTempoService.aplicar(entityManager
                 .createQuery(
                         "SELECT t FROM Telemetria t ORDER BY t.dataReferencia DESC",
-                        Telemetria.class)
+                        Telemetria.class))
                 .getResultList();
     }
 
     public long count() {
-        return entityManager
-                .createQuery("SELECT COUNT(t) FROM Telemetria t", Long.class)
+        return limiteTempoService.aplicar(entityManager
+                .createQuery("SELECT COUNT(t) FROM Telemetria t", Long.class))
                 .getSingleResult();
     }
 
     public List<Telemetria> buscarPaginado(int pagina, int tamanhoPagina) {
         log.info("[TELEMETRIA] - Buscando página {} com {} registros", pagina, tamanhoPagina);
 
-        return entityManager
-                .createQuery("SELECT t FROM Telemetria t ORDER BY t.dataReferencia DESC", Telemetria.class)
+        return limiteTempoService.aplicar(entityManager
+                .createQuery("SELECT t FROM Telemetria t ORDER BY t.dataReferencia DESC", Telemetria.class))
                 .setFirstResult((pagina - 1) * tamanhoPagina)
                 .setMaxResults(tamanhoPagina)
                 .getResultList();
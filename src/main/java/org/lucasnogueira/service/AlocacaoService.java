@@ -0,0 +1,232 @@
+package org.lucasnogueira.service;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.metrics.LongCounter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.dto.AlocacaoResponseDTO;
+import org.lucasnogueira.model.dto.ItemAlocacaoDTO;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.enums.NivelRiscoEnum;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+import org.lucasnogueira.service.ProdutoScoreCalculator.ParametrosScore;
+import org.lucasnogueira.util.SelecaoTopK;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Distribui o valor investido entre vários produtos maximizando o score ponderado do perfil.
+ * Restrições: percentual máximo por produto, percentual máximo por nível de risco (conforme o
+ * perfil) e reserva mínima em produtos com liquidez de até {@code liquidez-dias}.
+ * <p>
+ * Produtos da mesma classe (nível de risco × líquido/não líquido) são intercambiáveis nas
+ * restrições, então a alocação ótima usa no máximo os {@code ceil(100% / máximo por produto)}
+ * melhores de cada classe. Apenas esses candidatos chegam ao {@link OtimizadorAlocacao}, e o
+ * custo da otimização não cresce com o catálogo.
+ */
+@Slf4j
+@ApplicationScoped
+public class AlocacaoService {
+
+    // Percentual máximo por nível de risco (ordem do NivelRiscoEnum), por perfil (ordem do TipoPerfilRisco)
+    private static final int[][] LIMITE_POR_RISCO = {
+            //  MUITO_BAIXO, BAIXO, MEDIO, ALTO, MUITO_ALTO
+            {100, 100, 30, 10, 0},     // CONSERVADOR
+            {100, 100, 60, 30, 10},    // MODERADO
+            {100, 100, 100, 60, 40}    // AGRESSIVO
+    };
+
+    private static final int CLASSES = NivelRiscoEnum.values().length * 2;
+
+    @Inject
+    OpenTelemetry openTelemetry;
+
+    @Inject
+    SimulacaoService simulacaoService;
+
+    @Inject
+    ProdutoCacheService produtoCacheService;
+
+    @Inject
+    PerfilRiscoCalculator perfilRiscoCalculator;
+
+    @Inject
+    CrescimentoCompostoCalculator crescimentoCompostoCalculator;
+
+    @Inject
+    RentabilidadeLiquidaCalculator rentabilidadeLiquidaCalculator;
+
+    @ConfigProperty(name = "app.simulacao.alocacao.maximo-por-produto", defaultValue = "0.40")
+    double maximoPorProdutoPadrao;
+
+    @ConfigProperty(name = "app.simulacao.alocacao.reserva-liquidez", defaultValue = "0.20")
+    double reservaLiquidezPadrao;
+
+    @ConfigProperty(name = "app.simulacao.alocacao.liquidez-dias", defaultValue = "30")
+    int liquidezDias;
+
+    @ConfigProperty(name = "app.simulacao.alocacao.orcamento-ms", defaultValue = "20")
+    long orcamentoMs;
+
+    private LongCounter orcamentoExcedidoCounter;
+
+    @PostConstruct
+    void initMetrics() {
+        orcamentoExcedidoCounter = openTelemetry.getMeter("smartInvest")
+                .counterBuilder("simulacao_alocacao_orcamento_excedido_total")
+                .setDescription("Alocações retornadas antes da busca local convergir por esgotar o orçamento de tempo")
+                .build();
+    }
+
+    /**
+     * @param maximoPorProduto fração máxima por produto, ou null para o padrão configurado
+     * @param reservaLiquidez  fração mínima em produtos líquidos, ou null para o padrão configurado
+     */
+    public AlocacaoResponseDTO alocar(SimulacaoRequestDTO requestDTO, Double maximoPorProduto, Double reservaLiquidez) {
+        int limiteProduto = paraUnidades(maximoPorProduto != null ? maximoPorProduto : maximoPorProdutoPadrao, "maximoPorProduto");
+        int unidadesLiquidez = paraUnidades(reservaLiquidez != null ? reservaLiquidez : reservaLiquidezPadrao, "reservaLiquidez");
+        if (limiteProduto == 0) {
+            throw new SmartInvestApiException("O parâmetro maximoPorProduto deve ser de pelo menos 0.01.");
+        }
+
+        TipoPerfilRisco perfil = perfilRiscoCalculator.calcular(requestDTO);
+        CatalogoCompilado catalogo = simulacaoService.obterProdutosFiltrados(
+                produtoCacheService.obterCatalogoCompilado(), requestDTO);
+        if (catalogo.isVazio()) {
+            throw new SmartInvestApiException("Nenhum produto disponível para simulação.");
+        }
+
+        ParametrosScore parametros = ProdutoScoreCalculator.prepararParametros(catalogo, requestDTO, perfil,
+                rentabilidadeLiquidaCalculator, crescimentoCompostoCalculator);
+        double[] scores = new double[catalogo.tamanho()];
+        parametros.kernel().pontuarFaixa(catalogo, parametros, scores, 0, scores.length);
+
+        SelecaoTopK candidatos = selecionarCandidatos(catalogo, scores, limiteProduto);
+        int n = candidatos.tamanho();
+        double[] scoresCandidatos = new double[n];
+        int[] grupos = new int[n];
+        boolean[] liquidos = new boolean[n];
+        for (int c = 0; c < n; c++) {
+            int i = candidatos.indice(c);
+            scoresCandidatos[c] = candidatos.score(c);
+            grupos[c] = catalogo.grupoRisco(i);
+            liquidos[c] = catalogo.liquidezDias(i) <= liquidezDias;
+        }
+
+        // O orçamento cobre a otimização; a leitura do catálogo e o score não dependem do número de candidatos
+        long limiteNanos = System.nanoTime() + orcamentoMs * 1_000_000L;
+        OtimizadorAlocacao.Resultado resultado = OtimizadorAlocacao.otimizar(scoresCandidatos, grupos, liquidos,
+                LIMITE_POR_RISCO[perfil.ordinal()], limiteProduto, unidadesLiquidez, limiteNanos);
+
+        if (!resultado.viavel()) {
+            throw new SmartInvestApiException(
+                    "Não há produtos suficientes para alocar todo o valor respeitando os limites por produto, "
+                            + "por nível de risco do perfil " + perfil.getNome() + " e a reserva de liquidez.");
+        }
+        if (!resultado.convergiu()) {
+            log.warn("[ALOCACAO] - Orçamento de {} ms esgotado antes da busca local convergir", orcamentoMs);
+            if (orcamentoExcedidoCounter != null) {
+                orcamentoExcedidoCounter.add(1);
+            }
+        }
+
+        return criarResponse(requestDTO, perfil, catalogo, candidatos, liquidos, resultado, scoresCandidatos);
+    }
+
+    // Candidatos: os melhores de cada classe (nível de risco × líquido), já ordenados por score
+    private SelecaoTopK selecionarCandidatos(CatalogoCompilado catalogo, double[] scores, int limiteProduto) {
+        int porClasse = Math.min(scores.length, (OtimizadorAlocacao.UNIDADES + limiteProduto - 1) / limiteProduto);
+        SelecaoTopK[] classes = new SelecaoTopK[CLASSES];
+        for (int i = 0; i < scores.length; i++) {
+            int classe = catalogo.grupoRisco(i) * 2 + (catalogo.liquidezDias(i) <= liquidezDias ? 1 : 0);
+            if (classes[classe] == null) {
+                classes[classe] = new SelecaoTopK(porClasse);
+            }
+            classes[classe].oferecer(i, scores[i]);
+        }
+
+        int total = 0;
+        for (SelecaoTopK classe : classes) {
+            total += classe != null ? classe.tamanho() : 0;
+        }
+        SelecaoTopK candidatos = new SelecaoTopK(total);
+        for (SelecaoTopK classe : classes) {
+            if (classe != null) {
+                for (int posicao = 0; posicao < classe.tamanho(); posicao++) {
+                    candidatos.oferecer(classe.indice(posicao), classe.score(posicao));
+                }
+            }
+        }
+        return candidatos.ordenar();
+    }
+
+    private AlocacaoResponseDTO criarResponse(SimulacaoRequestDTO requestDTO, TipoPerfilRisco perfil,
+                                              CatalogoCompilado catalogo, SelecaoTopK candidatos, boolean[] liquidos,
+                                              OtimizadorAlocacao.Resultado resultado, double[] scoresCandidatos) {
+        BigDecimal valor = requestDTO.getValor();
+        int[] unidades = resultado.unidades();
+
+        List<ItemAlocacaoDTO> alocacoes = new ArrayList<>();
+        BigDecimal restante = valor;
+        BigDecimal valorFinalTotal = BigDecimal.ZERO;
+        int unidadesLiquidas = 0;
+        int unidadesRestantes = OtimizadorAlocacao.UNIDADES;
+
+        for (int c = 0; c < unidades.length; c++) {
+            if (unidades[c] == 0) {
+                continue;
+            }
+            unidadesRestantes -= unidades[c];
+            BigDecimal percentual = BigDecimal.valueOf(unidades[c], 2);
+            // A última parcela recebe o arredondamento para que a soma seja exatamente o valor investido
+            BigDecimal parcela = unidadesRestantes == 0 ? restante : valor.multiply(percentual).setScale(2, RoundingMode.HALF_UP);
+            restante = restante.subtract(parcela);
+
+            var produto = catalogo.produto(candidatos.indice(c));
+            // O aporte mensal, quando houver, é dividido na mesma proporção do valor inicial
+            BigDecimal aporte = requestDTO.getAporteMensal() == null ? null
+                    : requestDTO.getAporteMensal().multiply(percentual).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal valorFinal = crescimentoCompostoCalculator.calcularValorFinal(
+                    produto, parcela, aporte, requestDTO.getPrazoMeses());
+            valorFinalTotal = valorFinalTotal.add(valorFinal);
+            if (liquidos[c]) {
+                unidadesLiquidas += unidades[c];
+            }
+
+            alocacoes.add(ItemAlocacaoDTO.builder()
+                    .produto(simulacaoService.criarProdutoValidadoDTO(produto))
+                    .percentual(percentual)
+                    .valor(parcela)
+                    .score(scoresCandidatos[c])
+                    .valorFinal(valorFinal)
+                    .build());
+        }
+
+        return AlocacaoResponseDTO.builder()
+                .perfil(perfil.name())
+                .valor(valor)
+                .prazoMeses(requestDTO.getPrazoMeses())
+                .scorePonderado(resultado.scorePonderado(scoresCandidatos))
+                .percentualLiquidez(BigDecimal.valueOf(unidadesLiquidas, 2))
+                .otimoLocal(resultado.convergiu())
+                .valorFinalTotal(valorFinalTotal)
+                .alocacoes(alocacoes)
+                .build();
+    }
+
+    private static int paraUnidades(double fracao, String parametro) {
+        if (Double.isNaN(fracao) || fracao < 0.0 || fracao > 1.0) {
+            throw new SmartInvestApiException(String.format("O parâmetro %s deve estar entre 0 e 1.", parametro));
+        }
+        // Frações abaixo de 1% são arredondadas para baixo
+        return (int) Math.floor(fracao * OtimizadorAlocacao.UNIDADES + 1e-9);
+    }
+}
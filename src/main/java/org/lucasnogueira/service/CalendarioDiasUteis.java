@@ -0,0 +1,149 @@
+package org.lucasnogueira.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+import org.lucasnogueira.util.ArquivoDados;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Calendário de dias úteis (segunda a sexta, exceto feriados do arquivo configurado).
+ * Cada dia do período coberto é um bit de um long[] (1 = dia útil) e, para cada palavra de
+ * 64 dias, guarda-se a quantidade de dias úteis anteriores a ela. A contagem entre duas
+ * datas é a diferença de duas somas de prefixo, cada uma com um único bitCount: O(1),
+ * sem laço por dia, com ~1 KB por década coberta. Depois do último ano do arquivo, em prazos
+ * longos, contam como úteis os dias de segunda a sexta, sem feriados.
+ */
+@Slf4j
+@ApplicationScoped
+public class CalendarioDiasUteis {
+
+    @ConfigProperty(name = "app.simulacao.calendario.arquivo", defaultValue = "feriados.txt")
+    String arquivo = "feriados.txt";
+
+    private long inicio;
+    private long fim;
+    private long[] diasUteis;
+    private int[] acumulado;
+
+    @PostConstruct
+    void carregar() {
+        List<LocalDate> feriados = lerFeriados(arquivo);
+        if (feriados.isEmpty()) {
+            throw new IllegalStateException("Arquivo de feriados sem datas: " + arquivo);
+        }
+
+        int anoInicial = feriados.stream().mapToInt(LocalDate::getYear).min().getAsInt();
+        int anoFinal = feriados.stream().mapToInt(LocalDate::getYear).max().getAsInt();
+        montar(LocalDate.of(anoInicial, 1, 1), LocalDate.of(anoFinal + 1, 1, 1), feriados);
+        log.info("[CALENDARIO] - {} feriados carregados de {} ({} a {})", feriados.size(), arquivo, anoInicial, anoFinal);
+    }
+
+    /**
+     * Calendário sobre [inicio, fim) com os feriados informados; datas fora do período são ignoradas
+     */
+    static CalendarioDiasUteis de(LocalDate inicio, LocalDate fim, Collection<LocalDate> feriados) {
+        CalendarioDiasUteis calendario = new CalendarioDiasUteis();
+        calendario.montar(inicio, fim, feriados);
+        return calendario;
+    }
+
+    /**
+     * Dias úteis em [inicio, fim): o dia inicial conta e o final não, como na contagem du/252
+     */
+    public int diasUteis(LocalDate inicio, LocalDate fim) {
+        return contarAte(fim.toEpochDay()) - contarAte(inicio.toEpochDay());
+    }
+
+    public boolean isDiaUtil(LocalDate data) {
+        long dia = indice(data.toEpochDay());
+        if (dia >= fim - inicio) {
+            return !isFimDeSemana(data.getDayOfWeek());
+        }
+        return (diasUteis[(int) (dia >>> 6)] & (1L << dia)) != 0;
+    }
+
+    public LocalDate getInicio() {
+        return LocalDate.ofEpochDay(inicio);
+    }
+
+    public LocalDate getFim() {
+        return LocalDate.ofEpochDay(fim);
+    }
+
+    private void montar(LocalDate de, LocalDate ate, Collection<LocalDate> feriados) {
+        inicio = de.toEpochDay();
+        fim = ate.toEpochDay();
+        int dias = Math.toIntExact(fim - inicio);
+        // Uma palavra a mais para que a contagem até o fim do período não saia do array
+        diasUteis = new long[(dias >>> 6) + 1];
+        acumulado = new int[diasUteis.length];
+
+        for (int dia = 0; dia < dias; dia++) {
+            if (!isFimDeSemana(LocalDate.ofEpochDay(inicio + dia).getDayOfWeek())) {
+                diasUteis[dia >>> 6] |= 1L << dia;
+            }
+        }
+        for (LocalDate feriado : feriados) {
+            long dia = feriado.toEpochDay() - inicio;
+            if (dia >= 0 && dia < dias) {
+                diasUteis[(int) (dia >>> 6)] &= ~(1L << dia);
+            }
+        }
+        for (int i = 1; i < acumulado.length; i++) {
+            acumulado[i] = acumulado[i - 1] + Long.bitCount(diasUteis[i - 1]);
+        }
+    }
+
+    // Dias úteis de inicio até o dia anterior a epochDay
+    private int contarAte(long epochDay) {
+        long dia = indice(epochDay);
+        if (epochDay > fim) {
+            return contarAte(fim) + diasDeSemana(fim, epochDay);
+        }
+        int palavra = (int) (dia >>> 6);
+        return acumulado[palavra] + Long.bitCount(diasUteis[palavra] & ((1L << dia) - 1));
+    }
+
+    // Segunda a sexta em [de, ate): semanas completas e o resto, sem laço pelo período
+    private static int diasDeSemana(long de, long ate) {
+        long dias = ate - de;
+        long contagem = dias / 7 * 5;
+        DayOfWeek diaSemana = LocalDate.ofEpochDay(de).getDayOfWeek();
+        for (long resto = dias % 7; resto > 0; resto--) {
+            if (!isFimDeSemana(diaSemana)) {
+                contagem++;
+            }
+            diaSemana = diaSemana.plus(1);
+        }
+        return Math.toIntExact(contagem);
+    }
+
+    private static boolean isFimDeSemana(DayOfWeek diaSemana) {
+        return diaSemana == DayOfWeek.SATURDAY || diaSemana == DayOfWeek.SUNDAY;
+    }
+
+    private long indice(long epochDay) {
+        if (epochDay < inicio) {
+            throw new SmartInvestApiException(String.format(
+                    "Data %s anterior ao calendário de dias úteis disponível (a partir de %s).",
+                    LocalDate.ofEpochDay(epochDay), getInicio()));
+        }
+        return epochDay - inicio;
+    }
+
+    private static List<LocalDate> lerFeriados(String arquivo) {
+        List<LocalDate> feriados = new ArrayList<>();
+        for (String linha : ArquivoDados.lerLinhas(arquivo, "feriados")) {
+            feriados.add(LocalDate.parse(linha));
+        }
+        return feriados;
+    }
+}
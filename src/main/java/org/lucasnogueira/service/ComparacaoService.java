@@ -0,0 +1,137 @@
+package org.lucasnogueira.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.dto.ComparacaoRequestDTO;
+import org.lucasnogueira.model.dto.ComparacaoResponseDTO;
+import org.lucasnogueira.model.dto.ItemComparacaoDTO;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.entities.Produto;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+import org.lucasnogueira.service.ProdutoScoreCalculator.ParametrosScore;
+import org.lucasnogueira.service.RentabilidadeLiquidaCalculator.PrazoTributario;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Comparação lado a lado: o mesmo valor e prazo simulados em cada produto informado,
+ * sem persistência. Os produtos são localizados por id no catálogo compilado em cache e
+ * pontuados contra as estatísticas do catálogo completo (calculadas uma vez na compilação),
+ * com os parâmetros da requisição resolvidos uma única vez para toda a comparação.
+ */
+@Slf4j
+@ApplicationScoped
+public class ComparacaoService {
+
+    @Inject
+    ProdutoCacheService produtoCacheService;
+
+    @Inject
+    PerfilRiscoCalculator perfilRiscoCalculator;
+
+    @Inject
+    CrescimentoCompostoCalculator crescimentoCompostoCalculator;
+
+    @Inject
+    SimulacaoService simulacaoService;
+
+    @Inject
+    RentabilidadeLiquidaCalculator rentabilidadeLiquidaCalculator;
+
+    @ConfigProperty(name = "app.simulacao.comparar.maximo-produtos", defaultValue = "20")
+    int maximoProdutos;
+
+    public ComparacaoResponseDTO comparar(ComparacaoRequestDTO requestDTO) {
+        // Ids repetidos aparecem uma única vez, na posição da primeira ocorrência
+        Set<Long> produtoIds = new LinkedHashSet<>(requestDTO.getProdutoIds());
+        if (produtoIds.size() > maximoProdutos) {
+            throw new SmartInvestApiException(String.format(
+                    "A comparação aceita no máximo %d produtos.", maximoProdutos));
+        }
+
+        CatalogoCompilado catalogo = produtoCacheService.obterCatalogoCompilado();
+        int[] indices = localizarProdutos(catalogo, produtoIds);
+
+        SimulacaoRequestDTO simulacao = new SimulacaoRequestDTO();
+        simulacao.setClienteId(requestDTO.getClienteId());
+        simulacao.setValor(requestDTO.getValor());
+        simulacao.setPrazoMeses(requestDTO.getPrazoMeses());
+
+        TipoPerfilRisco perfil = perfilRiscoCalculator.calcular(simulacao);
+        ParametrosScore parametros = ProdutoScoreCalculator.prepararParametros(catalogo, simulacao, perfil,
+                rentabilidadeLiquidaCalculator, crescimentoCompostoCalculator);
+
+        List<ItemComparacaoDTO> itens = new ArrayList<>(indices.length);
+        for (int indice : indices) {
+            itens.add(criarItem(catalogo, indice, parametros, requestDTO.getValor(), requestDTO.getPrazoMeses()));
+        }
+
+        log.debug("[COMPARACAO] - {} produtos comparados para cliente {}", itens.size(), requestDTO.getClienteId());
+        return ComparacaoResponseDTO.builder()
+                .perfil(perfil.name())
+                .valor(requestDTO.getValor())
+                .prazoMeses(requestDTO.getPrazoMeses())
+                .itens(itens)
+                .build();
+    }
+
+    private static int[] localizarProdutos(CatalogoCompilado catalogo, Set<Long> produtoIds) {
+        int[] indices = new int[produtoIds.size()];
+        List<Long> naoEncontrados = new ArrayList<>();
+        int posicao = 0;
+        for (Long id : produtoIds) {
+            indices[posicao] = catalogo.indiceDoProduto(id);
+            if (indices[posicao] < 0) {
+                naoEncontrados.add(id);
+            }
+            posicao++;
+        }
+
+        if (!naoEncontrados.isEmpty()) {
+            throw new SmartInvestApiException("Produtos não encontrados: " + naoEncontrados);
+        }
+        return indices;
+    }
+
+    private ItemComparacaoDTO criarItem(CatalogoCompilado catalogo, int indice, ParametrosScore parametros,
+                                        BigDecimal valor, int prazoMeses) {
+        Produto produto = catalogo.produto(indice);
+        BigDecimal valorFinal = crescimentoCompostoCalculator.calcularValorFinal(produto, valor, null, prazoMeses);
+        double taxaBruta = ProdutoScoreCalculator.taxaBruta(catalogo, indice, parametros);
+        ItemComparacaoDTO.ItemComparacaoDTOBuilder item = ItemComparacaoDTO.builder()
+                .produto(simulacaoService.criarProdutoValidadoDTO(produto))
+                .score(parametros.kernel().pontuar(catalogo, indice, parametros))
+                .valorFinal(valorFinal);
+
+        PrazoTributario tributacao = parametros.tributacao();
+        if (tributacao != null) {
+            // IOF, IR pelos dias corridos, taxa de administração e come-cotas
+            return item
+                    .aliquotaIr(tributacao.aliquotaIr(catalogo, indice))
+                    .rentabilidadeLiquida(tributacao.taxaLiquidaAnual(catalogo, indice, taxaBruta))
+                    .valorFinalLiquido(BigDecimal.valueOf(valor.doubleValue()
+                            * tributacao.multiploLiquido(catalogo, indice, taxaBruta)).setScale(2, RoundingMode.HALF_UP))
+                    .build();
+        }
+
+        // O IR incide apenas sobre o rendimento positivo
+        double aliquotaIr = ProdutoScoreCalculator.aliquotaIr(catalogo, indice, parametros);
+        BigDecimal rendimento = valorFinal.subtract(valor);
+        BigDecimal rendimentoLiquido = rendimento.signum() > 0
+                ? rendimento.multiply(BigDecimal.valueOf(1 - aliquotaIr)) : rendimento;
+        return item
+                .aliquotaIr(aliquotaIr)
+                .rentabilidadeLiquida(taxaBruta * (1 - aliquotaIr))
+                .valorFinalLiquido(valor.add(rendimentoLiquido).setScale(2, RoundingMode.HALF_UP))
+                .build();
+    }
+}
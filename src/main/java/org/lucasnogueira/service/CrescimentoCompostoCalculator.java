@@ -0,0 +1,343 @@
+package org.lucasnogueira.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.lucasnogueira.model.entities.Produto;
+import org.lucasnogueira.model.enums.Indexador;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Calcula o valor final por juros compostos com fatores de crescimento em cache.
+ * O fator de cada par (taxa anual, prazo em meses) é calculado uma única vez, com a mesma
+ * aritmética da projeção original, e depois aplicado ao valor investido com uma única
+ * multiplicação e arredondamento — o resultado com 2 casas decimais é idêntico.
+ * Aportes mensais usam a fórmula fechada do valor futuro de uma série de pagamentos, sem
+ * laço por mês: o custo é o mesmo para 6 meses ou 30 anos.
+ * Com {@code app.simulacao.capitalizacao=dias-uteis}, o prazo em meses é convertido nos
+ * dias úteis entre a data da simulação e o vencimento ({@link CalendarioDiasUteis}, O(1)) e o
+ * fator passa a ser (1 + taxa) ^ (du / 252), como na renda fixa brasileira.
+ * Produtos indexados (% do CDI/Selic, IPCA + taxa) usam o fator acumulado da
+ * {@link CurvaIndexadores} entre hoje e o vencimento, também O(1) para qualquer prazo.
+ */
+@ApplicationScoped
+public class CrescimentoCompostoCalculator {
+
+    private static final BigDecimal DOZE = BigDecimal.valueOf(12);
+    private static final String CAPITALIZACAO_DIAS_UTEIS = "dias-uteis";
+    private static final double DIAS_UTEIS_ANO = 252.0;
+    // Nenhum intervalo de um mês tem mais de 23 dias úteis; a tabela de potências cobre o mês inteiro
+    private static final int MAXIMO_DIAS_MES = 31;
+
+    @Inject
+    CalendarioDiasUteis calendarioDiasUteis;
+
+    @Inject
+    CurvaIndexadores curvaIndexadores;
+
+    @ConfigProperty(name = "app.simulacao.capitalizacao", defaultValue = "meses")
+    String capitalizacao = "meses";
+
+    @ConfigProperty(name = "app.simulacao.fator-crescimento.prazo-maximo-meses", defaultValue = "600")
+    int prazoMaximoMeses = 600;
+
+    @ConfigProperty(name = "app.simulacao.fator-crescimento.maximo-taxas", defaultValue = "1024")
+    int maximoTaxas = 1024;
+
+    // Fatores por taxa, indexados pelo prazo em meses e preenchidos sob demanda
+    private final Map<BigDecimal, BigDecimal[]> fatoresPorTaxa = new ConcurrentHashMap<>();
+
+    // Fatores e anuidades por dias úteis a partir de hoje, com o mesmo formato de fatoresPorTaxa
+    private volatile FatoresDoDia fatoresDiasUteis;
+
+    // Fatores dos indexadores a partir de hoje, indexados pelo prazo em meses
+    private volatile IndexadoresDoDia indexadoresDoDia;
+
+    // Dia de referência do prazo em dias úteis (início da contagem du)
+    Clock relogio = Clock.system(ZoneId.of("America/Sao_Paulo"));
+
+    public BigDecimal calcularValorFinal(BigDecimal valorInicial, BigDecimal taxa, int meses) {
+        return valorInicial.multiply(fator(taxa, meses)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Valor final com aportes ao final de cada mês; sem aporte, idêntico a
+     * {@link #calcularValorFinal(BigDecimal, BigDecimal, int)}
+     */
+    public BigDecimal calcularValorFinal(BigDecimal valorInicial, BigDecimal aporteMensal, BigDecimal taxa, int meses) {
+        if (aporteMensal == null || aporteMensal.signum() == 0) {
+            return calcularValorFinal(valorInicial, taxa, meses);
+        }
+        return valorInicial.multiply(fator(taxa, meses))
+                .add(aporteMensal.multiply(fatorAnuidade(taxa, meses)))
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Valor final do produto: prefixados pela taxa anual oferecida, indexados pela curva do índice.
+     * Os aportes de um indexado rendem a taxa mensal equivalente ao fator do prazo.
+     */
+    public BigDecimal calcularValorFinal(Produto produto, BigDecimal valorInicial, BigDecimal aporteMensal, int meses) {
+        if (!isIndexado(produto)) {
+            return calcularValorFinal(valorInicial, aporteMensal, produto.getTaxaAnualOferecida(), meses);
+        }
+        BigDecimal valorFinal = valorInicial.multiply(fator(produto, meses));
+        if (aporteMensal != null && aporteMensal.signum() != 0) {
+            valorFinal = valorFinal.add(aporteMensal.multiply(fatorAnuidade(produto, meses)));
+        }
+        return valorFinal.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Fator de crescimento do produto no prazo, a partir de hoje
+     */
+    public BigDecimal fator(Produto produto, int meses) {
+        if (!isIndexado(produto)) {
+            return fator(produto.getTaxaAnualOferecida(), meses);
+        }
+        return BigDecimal.valueOf(Math.exp(taxasIndexadas(meses).logFator(produto.getIndexador(),
+                taxaIndexador(produto))));
+    }
+
+    /**
+     * Valor futuro de um aporte unitário ao final de cada mês no produto; para indexados,
+     * (F - 1) / (F ^ (1 / meses) - 1) com o fator F da curva
+     */
+    public BigDecimal fatorAnuidade(Produto produto, int meses) {
+        if (!isIndexado(produto)) {
+            return fatorAnuidade(produto.getTaxaAnualOferecida(), meses);
+        }
+        if (meses <= 0) {
+            return BigDecimal.ZERO;
+        }
+        double logFator = taxasIndexadas(meses).logFator(produto.getIndexador(), taxaIndexador(produto));
+        if (logFator == 0.0) {
+            return BigDecimal.valueOf(meses);
+        }
+        return BigDecimal.valueOf(Math.expm1(logFator) / Math.expm1(logFator / meses));
+    }
+
+    /**
+     * Taxa anual do produto no prazo: a oferecida para prefixados e, para indexados, a taxa
+     * equivalente ao fator da curva no mesmo expoente de {@link #fator(BigDecimal, int)}
+     */
+    public BigDecimal taxaAnual(Produto produto, int meses) {
+        if (!isIndexado(produto)) {
+            return produto.getTaxaAnualOferecida();
+        }
+        return BigDecimal.valueOf(taxasIndexadas(meses).taxaAnual(produto.getIndexador(), taxaIndexador(produto)));
+    }
+
+    /**
+     * Fatores acumulados dos indexadores entre hoje e hoje + meses, em cache até a virada do dia
+     */
+    public TaxasIndexadas taxasIndexadas(int meses) {
+        LocalDate hoje = dataReferencia();
+        IndexadoresDoDia doDia = indexadoresDoDia;
+        if (doDia == null || !doDia.data().equals(hoje)) {
+            doDia = new IndexadoresDoDia(hoje, new TaxasIndexadas[prazoMaximoMeses + 1]);
+            indexadoresDoDia = doDia;
+        }
+        if (meses < 0 || meses >= doDia.taxas().length) {
+            return calcularTaxasIndexadas(meses, hoje);
+        }
+
+        // Registro imutável: uma corrida entre threads no máximo recalcula o mesmo prazo
+        TaxasIndexadas taxas = doDia.taxas()[meses];
+        if (taxas == null) {
+            taxas = calcularTaxasIndexadas(meses, hoje);
+            doDia.taxas()[meses] = taxas;
+        }
+        return taxas;
+    }
+
+    TaxasIndexadas calcularTaxasIndexadas(int meses, LocalDate inicio) {
+        LocalDate fim = inicio.plusMonths(meses);
+        double anos = isDiasUteis() ? calendarioDiasUteis.diasUteis(inicio, fim) / DIAS_UTEIS_ANO : meses / 12.0;
+        double[] logFatores = new double[Indexador.values().length];
+        for (Indexador indexador : Indexador.COM_CURVA) {
+            logFatores[indexador.ordinal()] = curvaIndexadores.logFator(indexador, inicio, fim);
+        }
+        return new TaxasIndexadas(anos, logFatores);
+    }
+
+    public static boolean isIndexado(Produto produto) {
+        return produto.getIndexador() != null && produto.getIndexador().isIndexado();
+    }
+
+    private static double taxaIndexador(Produto produto) {
+        return produto.getTaxaIndexador() != null
+                ? produto.getTaxaIndexador().doubleValue() : produto.getIndexador().taxaPadrao();
+    }
+
+    /**
+     * Valor futuro de um aporte unitário ao final de cada mês: (F(meses) - 1) / (F(1) - 1),
+     * onde F é o {@link #fator(BigDecimal, int) fator de crescimento}; com taxa zero, o número de meses.
+     * Por dias úteis, a soma dos fatores de cada aporte até o vencimento
+     */
+    public BigDecimal fatorAnuidade(BigDecimal taxa, int meses) {
+        if (isDiasUteis()) {
+            FatoresDoDia doDia = fatoresDoDia();
+            return emCache(doDia.anuidades(), taxa, meses, () -> calcularAnuidadeDiasUteis(taxa, meses, doDia.data()));
+        }
+        BigDecimal taxaMensal = fator(taxa, 1).subtract(BigDecimal.ONE);
+        if (taxaMensal.signum() == 0) {
+            return BigDecimal.valueOf(meses);
+        }
+        return fator(taxa, meses).subtract(BigDecimal.ONE).divide(taxaMensal, MathContext.DECIMAL64);
+    }
+
+    /**
+     * Fator de crescimento (1 + taxa) ^ (meses / 12), ou (1 + taxa) ^ (du / 252) com os dias
+     * úteis entre hoje e hoje + meses quando a capitalização é por dias úteis
+     */
+    public BigDecimal fator(BigDecimal taxa, int meses) {
+        if (isDiasUteis()) {
+            FatoresDoDia doDia = fatoresDoDia();
+            LocalDate inicio = doDia.data();
+            return emCache(doDia.fatores(), taxa, meses, () ->
+                    fatorDiasUteis(taxa, calendarioDiasUteis.diasUteis(inicio, inicio.plusMonths(meses))));
+        }
+        return emCache(fatoresPorTaxa, taxa, meses, () -> calcularFator(taxa, meses));
+    }
+
+    private BigDecimal emCache(Map<BigDecimal, BigDecimal[]> porTaxa, BigDecimal taxa, int meses,
+                               Supplier<BigDecimal> calculo) {
+        if (meses < 0 || meses > prazoMaximoMeses) {
+            return calculo.get();
+        }
+
+        BigDecimal[] fatores = porTaxa.get(taxa);
+        if (fatores == null) {
+            if (porTaxa.size() >= maximoTaxas) {
+                return calculo.get();
+            }
+            fatores = porTaxa.computeIfAbsent(taxa, t -> new BigDecimal[prazoMaximoMeses + 1]);
+        }
+
+        // BigDecimal é imutável: uma corrida entre threads no máximo recalcula o mesmo fator
+        BigDecimal fator = fatores[meses];
+        if (fator == null) {
+            fator = calculo.get();
+            fatores[meses] = fator;
+        }
+        return fator;
+    }
+
+    // Os dias úteis até o vencimento dependem da data de início: o cache é trocado na virada do dia
+    private FatoresDoDia fatoresDoDia() {
+        LocalDate hoje = dataReferencia();
+        FatoresDoDia doDia = fatoresDiasUteis;
+        if (doDia == null || !doDia.data().equals(hoje)) {
+            doDia = new FatoresDoDia(hoje, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+            fatoresDiasUteis = doDia;
+        }
+        return doDia;
+    }
+
+    // Meses com quantidades diferentes de dias úteis: acumula mês a mês (sem laço por dia)
+    private BigDecimal calcularAnuidadeDiasUteis(BigDecimal taxa, int meses, LocalDate inicio) {
+        double anuidade = 0.0;
+        for (double fatorMes : fatoresMensais(taxa.doubleValue(), meses, inicio)) {
+            anuidade = anuidade * fatorMes + 1.0;
+        }
+        return BigDecimal.valueOf(anuidade);
+    }
+
+    public boolean isDiasUteis() {
+        return CAPITALIZACAO_DIAS_UTEIS.equalsIgnoreCase(capitalizacao);
+    }
+
+    public LocalDate dataReferencia() {
+        return LocalDate.now(relogio);
+    }
+
+    /**
+     * Dia, no fuso da contagem de dias úteis, em que uma simulação já gravada foi feita
+     */
+    public LocalDate dataReferencia(OffsetDateTime instante) {
+        return instante != null ? instante.atZoneSameInstant(relogio.getZone()).toLocalDate() : dataReferencia();
+    }
+
+    /**
+     * Fator de crescimento de cada mês de [inicio, inicio + meses) pelos dias úteis do mês:
+     * (1 + taxa) ^ (du / 252) quando a capitalização é por dias úteis, (1 + taxa) ^ (1 / 12) caso contrário
+     */
+    public double[] fatoresMensais(double taxaAnual, int meses, LocalDate inicio) {
+        double[] fatores = new double[meses];
+        if (!isDiasUteis()) {
+            Arrays.fill(fatores, Math.pow(1.0 + taxaAnual, 1.0 / 12.0));
+            return fatores;
+        }
+
+        // Potências do fator diário: cada mês custa uma consulta ao calendário e uma leitura de tabela
+        double[] potencias = new double[MAXIMO_DIAS_MES + 1];
+        double fatorDia = Math.pow(1.0 + taxaAnual, 1.0 / DIAS_UTEIS_ANO);
+        potencias[0] = 1.0;
+        for (int du = 1; du < potencias.length; du++) {
+            potencias[du] = potencias[du - 1] * fatorDia;
+        }
+
+        LocalDate anterior = inicio;
+        for (int mes = 1; mes <= meses; mes++) {
+            LocalDate atual = inicio.plusMonths(mes);
+            fatores[mes - 1] = potencias[calendarioDiasUteis.diasUteis(anterior, atual)];
+            anterior = atual;
+        }
+        return fatores;
+    }
+
+    static BigDecimal fatorDiasUteis(BigDecimal taxa, int diasUteis) {
+        double potencia = Math.pow(BigDecimal.ONE.add(taxa).doubleValue(), diasUteis / DIAS_UTEIS_ANO);
+        return BigDecimal.valueOf(potencia);
+    }
+
+    static BigDecimal calcularFator(BigDecimal taxa, int meses) {
+        BigDecimal anos = BigDecimal.valueOf(meses).divide(DOZE, 10, RoundingMode.HALF_UP);
+        BigDecimal umMaisTaxa = BigDecimal.ONE.add(taxa);
+        double potencia = Math.pow(umMaisTaxa.doubleValue(), anos.doubleValue());
+        return BigDecimal.valueOf(potencia);
+    }
+
+    private record IndexadoresDoDia(LocalDate data, TaxasIndexadas[] taxas) {}
+
+    /**
+     * Log do fator acumulado de cada indexador (por ordinal) em um prazo e os anos do expoente
+     * do fator de crescimento nesse prazo (meses / 12 ou du / 252)
+     */
+    public record TaxasIndexadas(double anos, double[] logFatores) {
+
+        /**
+         * Log do fator do produto: percentual do CDI/Selic sobre o log do índice (aproximação
+         * de primeira ordem do fator diário 1 + p * cdi) ou IPCA mais a taxa real
+         */
+        public double logFator(Indexador indexador, double taxaIndexador) {
+            return switch (indexador) {
+                case CDI, SELIC -> taxaIndexador * logFatores[indexador.ordinal()];
+                case IPCA -> logFatores[indexador.ordinal()] + Math.log1p(taxaIndexador) * anos;
+                case PREFIXADO -> Math.log1p(taxaIndexador) * anos;
+            };
+        }
+
+        public double taxaAnual(Indexador indexador, double taxaIndexador) {
+            if (anos <= 0.0) {
+                return 0.0;
+            }
+            return Math.expm1(logFator(indexador, taxaIndexador) / anos);
+        }
+    }
+
+    private record FatoresDoDia(LocalDate data, Map<BigDecimal, BigDecimal[]> fatores,
+                                Map<BigDecimal, BigDecimal[]> anuidades) {}
+}
@@ -0,0 +1,153 @@
+package org.lucasnogueira.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+import org.lucasnogueira.model.enums.Indexador;
+import org.lucasnogueira.util.ArquivoDados;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Curvas diárias do CDI, da Selic e do IPCA sobre o período do {@link CalendarioDiasUteis}.
+ * Cada índice é um double[] com a soma de prefixo dos logaritmos dos fatores diários
+ * (cada dia útil rende (1 + taxa) ^ (1 / 252)); o fator acumulado entre duas datas é uma
+ * subtração e uma exponencial: O(1), seja um mês ou décadas de dados diários. Depois do fim
+ * do calendário, em prazos longos, cada índice segue com a taxa da sua última vigência.
+ */
+@Slf4j
+@ApplicationScoped
+public class CurvaIndexadores {
+
+    private static final double DIAS_UTEIS_ANO = 252.0;
+
+    @Inject
+    CalendarioDiasUteis calendarioDiasUteis;
+
+    @ConfigProperty(name = "app.simulacao.indexadores.arquivo", defaultValue = "indexadores.txt")
+    String arquivo = "indexadores.txt";
+
+    private long inicio;
+    private long fim;
+    // Por ordinal do indexador: log do fator acumulado do início do período até o dia anterior
+    private double[][] logAcumulado;
+    // Por ordinal do indexador: log do fator diário da última vigência, usado depois do fim
+    private double[] logDiaFinal;
+
+    @PostConstruct
+    void carregar() {
+        List<Vigencia> vigencias = lerVigencias(arquivo);
+        montar(calendarioDiasUteis, vigencias);
+        log.info("[INDEXADORES] - {} vigências carregadas de {} ({} a {})", vigencias.size(), arquivo,
+                getInicio(), getFim().minusDays(1));
+    }
+
+    /**
+     * Curva sobre o período do calendário com as vigências informadas
+     */
+    static CurvaIndexadores de(CalendarioDiasUteis calendario, Collection<Vigencia> vigencias) {
+        CurvaIndexadores curva = new CurvaIndexadores();
+        curva.montar(calendario, vigencias);
+        return curva;
+    }
+
+    /**
+     * Logaritmo do fator acumulado do índice em [de, ate): o dia inicial rende e o final não
+     */
+    public double logFator(Indexador indexador, LocalDate de, LocalDate ate) {
+        double[] curva = logAcumulado[indexador.ordinal()];
+        if (curva == null) {
+            return 0.0;
+        }
+        return logAcumuladoAte(indexador, curva, ate) - logAcumuladoAte(indexador, curva, de);
+    }
+
+    public double fator(Indexador indexador, LocalDate de, LocalDate ate) {
+        return Math.exp(logFator(indexador, de, ate));
+    }
+
+    public LocalDate getInicio() {
+        return LocalDate.ofEpochDay(inicio);
+    }
+
+    public LocalDate getFim() {
+        return LocalDate.ofEpochDay(fim);
+    }
+
+    private void montar(CalendarioDiasUteis calendario, Collection<Vigencia> vigencias) {
+        inicio = calendario.getInicio().toEpochDay();
+        fim = calendario.getFim().toEpochDay();
+        int dias = Math.toIntExact(fim - inicio);
+        calendarioDiasUteis = calendario;
+        logAcumulado = new double[Indexador.values().length][];
+        logDiaFinal = new double[Indexador.values().length];
+
+        for (Indexador indexador : Indexador.COM_CURVA) {
+            List<Vigencia> doIndice = vigencias.stream()
+                    .filter(vigencia -> vigencia.indexador() == indexador)
+                    .sorted(Comparator.comparing(Vigencia::data))
+                    .toList();
+            if (doIndice.isEmpty()) {
+                throw new IllegalStateException("Arquivo de indexadores sem taxas de " + indexador);
+            }
+
+            // Antes da primeira vigência vale a primeira taxa
+            double[] curva = new double[dias + 1];
+            int vigente = 0;
+            double logDia = Math.log1p(doIndice.get(0).taxa()) / DIAS_UTEIS_ANO;
+            for (int dia = 0; dia < dias; dia++) {
+                LocalDate data = LocalDate.ofEpochDay(inicio + dia);
+                while (vigente + 1 < doIndice.size() && !doIndice.get(vigente + 1).data().isAfter(data)) {
+                    vigente++;
+                    logDia = Math.log1p(doIndice.get(vigente).taxa()) / DIAS_UTEIS_ANO;
+                }
+                curva[dia + 1] = curva[dia] + (calendario.isDiaUtil(data) ? logDia : 0.0);
+            }
+            logAcumulado[indexador.ordinal()] = curva;
+            logDiaFinal[indexador.ordinal()] = Math.log1p(doIndice.get(doIndice.size() - 1).taxa()) / DIAS_UTEIS_ANO;
+        }
+    }
+
+    // Depois do fim, soma a última vigência em cada dia útil do calendário estendido
+    private double logAcumuladoAte(Indexador indexador, double[] curva, LocalDate data) {
+        long epochDay = data.toEpochDay();
+        if (epochDay <= fim) {
+            return curva[indice(epochDay)];
+        }
+        return curva[curva.length - 1]
+                + calendarioDiasUteis.diasUteis(getFim(), data) * logDiaFinal[indexador.ordinal()];
+    }
+
+    private int indice(long epochDay) {
+        if (epochDay < inicio) {
+            throw new SmartInvestApiException(String.format(
+                    "Data %s anterior à curva de indexadores disponível (a partir de %s).",
+                    LocalDate.ofEpochDay(epochDay), getInicio()));
+        }
+        return (int) (epochDay - inicio);
+    }
+
+    private static List<Vigencia> lerVigencias(String arquivo) {
+        List<Vigencia> vigencias = new ArrayList<>();
+        for (String linha : ArquivoDados.lerLinhas(arquivo, "indexadores")) {
+            String[] campos = linha.split(";");
+            vigencias.add(new Vigencia(LocalDate.parse(campos[0].trim()),
+                    Indexador.valueOf(campos[1].trim().toUpperCase(Locale.ROOT)),
+                    Double.parseDouble(campos[2].trim())));
+        }
+        return vigencias;
+    }
+
+    /**
+     * Taxa anual do indexador a partir da data, até a próxima vigência do mesmo indexador
+     */
+    record Vigencia(LocalDate data, Indexador indexador, double taxa) {}
+}
@@ -0,0 +1,202 @@
+package org.lucasnogueira.service;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.metrics.Meter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.dto.SimulacaoResponseDTO;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Colapsa simulações repetidas dentro de uma janela de tempo.
+ * A chave é o header Idempotency-Key (por cliente) ou, sem ele, a forma canônica da
+ * requisição (clienteId, valor, prazoMeses, tipoProduto e opções da resposta). A primeira
+ * requisição calcula e persiste; repetições dentro da janela recebem a mesma resposta sem
+ * recalcular nem gravar, e repetições concorrentes aguardam o cálculo em andamento.
+ */
+@Slf4j
+@ApplicationScoped
+public class IdempotenciaService {
+
+    static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    @Inject
+    OpenTelemetry openTelemetry;
+
+    @ConfigProperty(name = "app.simulacao.idempotencia.enabled", defaultValue = "true")
+    boolean habilitado = true;
+
+    @ConfigProperty(name = "app.simulacao.idempotencia.janela-s", defaultValue = "60")
+    long janelaSegundos = 60;
+
+    @ConfigProperty(name = "app.simulacao.idempotencia.maximo-entradas", defaultValue = "10000")
+    int maximoEntradas = 10_000;
+
+    @ConfigProperty(name = "app.simulacao.idempotencia.timeout-espera-ms", defaultValue = "30000")
+    long timeoutEsperaMs = 30_000;
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final LongAdder reaproveitadas = new LongAdder();
+
+    @PostConstruct
+    void initMetrics() {
+        Meter meter = openTelemetry.getMeter("smartInvest");
+
+        meter.counterBuilder("simulacao_idempotencia_reaproveitadas_total")
+                .setDescription("Simulações repetidas atendidas com a resposta original, sem recalcular nem persistir")
+                .buildWithCallback(measurement -> measurement.record(reaproveitadas.sum()));
+
+        meter.gaugeBuilder("simulacao_idempotencia_entradas")
+                .setDescription("Respostas mantidas na janela de idempotência")
+                .ofLongs()
+                .buildWithCallback(measurement -> measurement.record(entradas.size()));
+    }
+
+    /**
+     * Executa a simulação uma única vez por chave dentro da janela
+     *
+     * @param idempotencyKey valor do header Idempotency-Key, ou null
+     * @param opcoes         opções da requisição que alteram a resposta (top, projecao, ...)
+     * @param simular        simulação (cálculo e persistência), executada apenas pela primeira requisição
+     */
+    public SimulacaoResponseDTO executar(String idempotencyKey, SimulacaoRequestDTO requestDTO, String opcoes,
+                                         Supplier<SimulacaoResponseDTO> simular) {
+        if (!habilitado) {
+            return simular.get();
+        }
+
+        String assinatura = assinatura(requestDTO, opcoes);
+        String chave = criarChave(idempotencyKey, requestDTO, assinatura);
+        long agora = System.nanoTime();
+
+        Entrada nova = new Entrada(assinatura, agora + TimeUnit.SECONDS.toNanos(janelaSegundos));
+        Entrada existente = registrar(chave, nova, agora);
+        if (existente == null) {
+            return calcular(chave, nova, simular);
+        }
+
+        if (!existente.assinatura.equals(assinatura)) {
+            throw new SmartInvestApiException(
+                    "Idempotency-Key já utilizada com outros parâmetros de simulação.");
+        }
+
+        log.info("[IDEMPOTENCIA] - Simulação repetida para cliente {}; reaproveitando a resposta original",
+                requestDTO.getClienteId());
+        reaproveitadas.increment();
+        return aguardar(existente);
+    }
+
+    public long getReaproveitadas() {
+        return reaproveitadas.sum();
+    }
+
+    int tamanho() {
+        return entradas.size();
+    }
+
+    /**
+     * Forma canônica dos campos que definem a simulação; valores numericamente iguais
+     * (1000 e 1000.00) e tipos que diferem apenas em maiúsculas geram a mesma assinatura
+     */
+    static String assinatura(SimulacaoRequestDTO requestDTO, String opcoes) {
+        String tipo = requestDTO.getTipoProduto() == null ? "" : requestDTO.getTipoProduto().trim().toLowerCase(Locale.ROOT);
+        String valor = requestDTO.getValor() == null ? "" : requestDTO.getValor().stripTrailingZeros().toPlainString();
+        String aporte = requestDTO.getAporteMensal() == null || requestDTO.getAporteMensal().signum() == 0
+                ? "" : requestDTO.getAporteMensal().stripTrailingZeros().toPlainString();
+        return requestDTO.getClienteId() + "|" + valor + "|" + requestDTO.getPrazoMeses() + "|" + tipo + "|" + aporte
+                + "|" + opcoes;
+    }
+
+    private static String criarChave(String idempotencyKey, SimulacaoRequestDTO requestDTO, String assinatura) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return "requisicao:" + assinatura;
+        }
+        if (idempotencyKey.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new SmartInvestApiException(String.format(
+                    "O header Idempotency-Key deve ter no máximo %d caracteres.", TAMANHO_MAXIMO_CHAVE));
+        }
+        // A chave é escopada pelo cliente para que clientes diferentes não compartilhem respostas
+        return "chave:" + requestDTO.getClienteId() + ":" + idempotencyKey;
+    }
+
+    // Retorna a entrada vigente para a chave, ou null se a nova entrada foi registrada
+    private Entrada registrar(String chave, Entrada nova, long agora) {
+        if (entradas.size() >= maximoEntradas) {
+            entradas.values().removeIf(entrada -> entrada.expirada(agora));
+            if (entradas.size() >= maximoEntradas) {
+                // Janela cheia: a requisição segue sem proteção contra repetição, mas continua
+                // visível para repetições concorrentes da mesma chave
+                Entrada existente = entradas.get(chave);
+                return existente != null && !existente.expirada(agora) ? existente : null;
+            }
+        }
+
+        Entrada[] vigente = new Entrada[1];
+        entradas.compute(chave, (k, atual) -> {
+            if (atual != null && !atual.expirada(agora)) {
+                vigente[0] = atual;
+                return atual;
+            }
+            return nova;
+        });
+        return vigente[0];
+    }
+
+    private SimulacaoResponseDTO calcular(String chave, Entrada entrada, Supplier<SimulacaoResponseDTO> simular) {
+        try {
+            SimulacaoResponseDTO resposta = simular.get();
+            entrada.resposta.complete(resposta);
+            return resposta;
+        } catch (RuntimeException e) {
+            // Falhas não ficam na janela: a próxima tentativa calcula novamente
+            entradas.remove(chave, entrada);
+            entrada.resposta.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private SimulacaoResponseDTO aguardar(Entrada entrada) {
+        try {
+            return entrada.resposta.get(timeoutEsperaMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("Falha na simulação original", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Tempo esgotado aguardando a simulação original", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando a simulação original", e);
+        }
+    }
+
+    private static final class Entrada {
+        private final String assinatura;
+        private final long expiraEmNanos;
+        private final CompletableFuture<SimulacaoResponseDTO> resposta = new CompletableFuture<>();
+
+        private Entrada(String assinatura, long expiraEmNanos) {
+            this.assinatura = assinatura;
+            this.expiraEmNanos = expiraEmNanos;
+        }
+
+        private boolean expirada(long agora) {
+            return agora - expiraEmNanos > 0;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.lucasnogueira.service;
+
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+import org.lucasnogueira.service.ProdutoScoreCalculator.ParametrosScore;
+
+import static org.lucasnogueira.service.ProdutoScoreCalculator.aliquotaScore;
+import static org.lucasnogueira.service.ProdutoScoreCalculator.retornoMaximo;
+import static org.lucasnogueira.service.ProdutoScoreCalculator.taxaScore;
+
+/**
+ * Kernel de score especializado por perfil de risco.
+ * Cada implementação é final, com os pesos como constantes e a normalização de risco
+ * do perfil escrita diretamente, e traz os próprios laços sobre o catálogo: o kernel é
+ * escolhido uma vez por requisição e, dentro do laço, todas as chamadas são estáticas
+ * ou para a própria classe final, portanto inlináveis pelo JIT com as constantes dobradas.
+ */
+sealed interface KernelScore permits KernelScore.Conservador, KernelScore.Moderado, KernelScore.Agressivo {
+
+    static KernelScore para(TipoPerfilRisco perfil) {
+        return switch (perfil) {
+            case CONSERVADOR -> Conservador.INSTANCIA;
+            case MODERADO -> Moderado.INSTANCIA;
+            default -> Agressivo.INSTANCIA;
+        };
+    }
+
+    /**
+     * Score a partir dos atributos já resolvidos de um produto
+     */
+    double pontuar(double taxaBruta, double aliquotaIr, int liquidezDias, double nivelRisco, int prazoMeses,
+                   double volumeNorm, double retornoMaximo, double liquidezMinima, double liquidezMaxima);
+
+    /**
+     * Score de um produto do catálogo compilado, sem alocação e sem trabalho com strings
+     */
+    double pontuar(CatalogoCompilado catalogo, int i, ParametrosScore parametros);
+
+    /**
+     * Preenche {@code scores[inicio..fim)} com o score de cada produto do catálogo
+     */
+    void pontuarFaixa(CatalogoCompilado catalogo, ParametrosScore parametros, double[] scores, int inicio, int fim);
+
+    /**
+     * Índice do produto de maior score (o primeiro em caso de empate), ou -1 se o catálogo estiver vazio
+     */
+    int melhorIndice(CatalogoCompilado catalogo, ParametrosScore parametros);
+
+    // Combinação comum aos perfis, na mesma ordem de operações do cálculo original
+    private static double combinar(double pesoRetorno, double pesoLiquidez, double pesoRisco, double riscoNorm,
+                                   double taxaBruta, double aliquotaIr, int liquidezDias, int prazoMeses, double volumeNorm,
+                                   double retornoMaximo, double liquidezMinima, double liquidezMaxima) {
+        double taxaLiquida = taxaBruta * (1 - aliquotaIr);
+
+        double retornoNorm = taxaLiquida / retornoMaximo;
+        double liquidezNorm = ProdutoScoreCalculator.normalizarLiquidez(liquidezDias, prazoMeses * 30, liquidezMinima, liquidezMaxima);
+        double frequenciaNorm = ProdutoScoreCalculator.normalizarFrequencia(liquidezDias, prazoMeses);
+
+        double score = pesoRetorno * retornoNorm +
+                pesoLiquidez * liquidezNorm +
+                pesoRisco * riscoNorm +
+                0.10 * volumeNorm +
+                0.10 * frequenciaNorm;
+
+        return Math.max(0.0, Math.min(1.0, score));
+    }
+
+    final class Conservador implements KernelScore {
+        static final Conservador INSTANCIA = new Conservador();
+
+        private static final double PESO_RETORNO = 0.12;
+        private static final double PESO_LIQUIDEZ = 0.36;
+        private static final double PESO_RISCO = 0.32;
+
+        private Conservador() {}
+
+        @Override
+        public double pontuar(double taxaBruta, double aliquotaIr, int liquidezDias, double nivelRisco, int prazoMeses,
+                              double volumeNorm, double retornoMaximo, double liquidezMinima, double liquidezMaxima) {
+            // Menor risco pontua mais
+            double riscoNorm = 1.0 - (nivelRisco - 1.0) / 9.0;
+            return combinar(PESO_RETORNO, PESO_LIQUIDEZ, PESO_RISCO, riscoNorm, taxaBruta, aliquotaIr, liquidezDias,
+                    prazoMeses, volumeNorm, retornoMaximo, liquidezMinima, liquidezMaxima);
+        }
+
+        @Override
+        public double pontuar(CatalogoCompilado catalogo, int i, ParametrosScore parametros) {
+            return pontuar(taxaScore(catalogo, i, parametros), aliquotaScore(catalogo, i, parametros), catalogo.liquidezDias(i),
+                    catalogo.nivelRisco(i), parametros.prazoMeses(), parametros.volumeNorm(),
+                    retornoMaximo(catalogo, parametros), catalogo.getLiquidezMinima(), catalogo.getLiquidezMaxima());
+        }
+
+        @Override
+        public void pontuarFaixa(CatalogoCompilado catalogo, ParametrosScore parametros, double[] scores, int inicio, int fim) {
+            for (int i = inicio; i < fim; i++) {
+                scores[i] = pontuar(catalogo, i, parametros);
+            }
+        }
+
+        @Override
+        public int melhorIndice(CatalogoCompilado catalogo, ParametrosScore parametros) {
+            int melhorIndice = -1;
+            double melhorScore = 0.0;
+            for (int i = 0; i < catalogo.tamanho(); i++) {
+                double score = pontuar(catalogo, i, parametros);
+                if (melhorIndice < 0 || score > melhorScore) {
+                    melhorIndice = i;
+                    melhorScore = score;
+                }
+            }
+            return melhorIndice;
+        }
+    }
+
+    final class Moderado implements KernelScore {
+        static final Moderado INSTANCIA = new Moderado();
+
+        private static final double PESO_RETORNO = 0.24;
+        private static final double PESO_LIQUIDEZ = 0.20;
+        private static final double PESO_RISCO = 0.36;
+
+        private Moderado() {}
+
+        @Override
+        public double pontuar(double taxaBruta, double aliquotaIr, int liquidezDias, double nivelRisco, int prazoMeses,
+                              double volumeNorm, double retornoMaximo, double liquidezMinima, double liquidezMaxima) {
+            // Risco médio (5) pontua mais
+            double riscoNorm = 1.0 - Math.abs(5.0 - nivelRisco) / 5.0;
+            return combinar(PESO_RETORNO, PESO_LIQUIDEZ, PESO_RISCO, riscoNorm, taxaBruta, aliquotaIr, liquidezDias,
+                    prazoMeses, volumeNorm, retornoMaximo, liquidezMinima, liquidezMaxima);
+        }
+
+        @Override
+        public double pontuar(CatalogoCompilado catalogo, int i, ParametrosScore parametros) {
+            return pontuar(taxaScore(catalogo, i, parametros), aliquotaScore(catalogo, i, parametros), catalogo.liquidezDias(i),
+                    catalogo.nivelRisco(i), parametros.prazoMeses(), parametros.volumeNorm(),
+                    retornoMaximo(catalogo, parametros), catalogo.getLiquidezMinima(), catalogo.getLiquidezMaxima());
+        }
+
+        @Override
+        public void pontuarFaixa(CatalogoCompilado catalogo, ParametrosScore parametros, double[] scores, int inicio, int fim) {
+            for (int i = inicio; i < fim; i++) {
+                scores[i] = pontuar(catalogo, i, parametros);
+            }
+        }
+
+        @Override
+        public int melhorIndice(CatalogoCompilado catalogo, ParametrosScore parametros) {
+            int melhorIndice = -1;
+            double melhorScore = 0.0;
+            for (int i = 0; i < catalogo.tamanho(); i++) {
+                double score = pontuar(catalogo, i, parametros);
+                if (melhorIndice < 0 || score > melhorScore) {
+                    melhorIndice = i;
+                    melhorScore = score;
+                }
+            }
+            return melhorIndice;
+        }
+    }
+
+    final class Agressivo implements KernelScore {
+        static final Agressivo INSTANCIA = new Agressivo();
+
+        private static final double PESO_RETORNO = 0.32;
+        private static final double PESO_LIQUIDEZ = 0.08;
+        private static final double PESO_RISCO = 0.40;
+
+        private Agressivo() {}
+
+        @Override
+        public double pontuar(double taxaBruta, double aliquotaIr, int liquidezDias, double nivelRisco, int prazoMeses,
+                              double volumeNorm, double retornoMaximo, double liquidezMinima, double liquidezMaxima) {
+            // Maior risco pontua mais
+            double riscoNorm = (nivelRisco - 1.0) / 9.0;
+            return combinar(PESO_RETORNO, PESO_LIQUIDEZ, PESO_RISCO, riscoNorm, taxaBruta, aliquotaIr, liquidezDias,
+                    prazoMeses, volumeNorm, retornoMaximo, liquidezMinima, liquidezMaxima);
+        }
+
+        @Override
+        public double pontuar(CatalogoCompilado catalogo, int i, ParametrosScore parametros) {
+            return pontuar(taxaScore(catalogo, i, parametros), aliquotaScore(catalogo, i, parametros), catalogo.liquidezDias(i),
+                    catalogo.nivelRisco(i), parametros.prazoMeses(), parametros.volumeNorm(),
+                    retornoMaximo(catalogo, parametros), catalogo.getLiquidezMinima(), catalogo.getLiquidezMaxima());
+        }
+
+        @Override
+        public void pontuarFaixa(CatalogoCompilado catalogo, ParametrosScore parametros, double[] scores, int inicio, int fim) {
+            for (int i = inicio; i < fim; i++) {
+                scores[i] = pontuar(catalogo, i, parametros);
+            }
+        }
+
+        @Override
+        public int melhorIndice(CatalogoCompilado catalogo, ParametrosScore parametros) {
+            int melhorIndice = -1;
+            double melhorScore = 0.0;
+            for (int i = 0; i < catalogo.tamanho(); i++) {
+                double score = pontuar(catalogo, i, parametros);
+                if (melhorIndice < 0 || score > melhorScore) {
+                    melhorIndice = i;
+                    melhorScore = score;
+                }
+            }
+            return melhorIndice;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.lucasnogueira.service;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * Limite de tempo da requisição atual, como instante de System.nanoTime
+ */
+@RequestScoped
+class LimiteTempoRequisicao {
+
+    private volatile boolean ativo;
+    private volatile long expiraEmNanos;
+
+    boolean isAtivo() {
+        return ativo;
+    }
+
+    long getExpiraEmNanos() {
+        return expiraEmNanos;
+    }
+
+    void definir(long expiraEmNanos) {
+        this.expiraEmNanos = expiraEmNanos;
+        this.ativo = true;
+    }
+}
@@ -0,0 +1,218 @@
+package org.lucasnogueira.service;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.lucasnogueira.exceptions.LimiteTempoExcedidoException;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limite de tempo (deadline) da requisição, informado no header {@value #HEADER} ou pelo padrão do endpoint
+ * (app.requisicao.limite-tempo.&lt;endpoint&gt;-ms, senão app.requisicao.limite-tempo.padrao-ms). O endpoint
+ * é o template do método de recurso sem o /api e sem parâmetros (ver {@link #endpoint(String, String)}).
+ * As etapas da requisição verificam o tempo restante antes de começar, e as consultas ao banco recebem
+ * o restante como timeout: uma lentidão do banco falha rápido com 503 em vez de segurar a thread
+ * até o read-timeout. Fora de uma requisição (startup, threads de gravação) não há limite.
+ */
+@Slf4j
+@ApplicationScoped
+public class LimiteTempoService {
+
+    public static final String HEADER = "X-Request-Timeout-Ms";
+    public static final String ETAPA_BANCO = "banco";
+
+    private static final String HINT_TIMEOUT = "jakarta.persistence.query.timeout";
+    private static final String PREFIXO_ENDPOINT = "app.requisicao.limite-tempo.";
+    private static final String SUFIXO_ENDPOINT = "-ms";
+    private static final AttributeKey<String> ETAPA_KEY = AttributeKey.stringKey("etapa");
+
+    @Inject
+    LimiteTempoRequisicao requisicao;
+
+    @Inject
+    Config config;
+
+    @Inject
+    OpenTelemetry openTelemetry;
+
+    @ConfigProperty(name = "app.requisicao.limite-tempo.padrao-ms", defaultValue = "0")
+    long padraoMs = 0;
+
+    // Montado uma vez a partir da configuração; requisições apenas consultam
+    private Map<String, Long> padraoPorEndpoint = Map.of();
+    private LongCounter excedidosCounter;
+
+    @PostConstruct
+    void carregar() {
+        Map<String, Long> padroes = new HashMap<>();
+        for (String propriedade : config.getPropertyNames()) {
+            if (propriedade.startsWith(PREFIXO_ENDPOINT) && propriedade.endsWith(SUFIXO_ENDPOINT)
+                    && !propriedade.equals(PREFIXO_ENDPOINT + "padrao-ms")) {
+                padroes.put(propriedade.substring(PREFIXO_ENDPOINT.length(),
+                        propriedade.length() - SUFIXO_ENDPOINT.length()), config.getValue(propriedade, Long.class));
+            }
+        }
+        padraoPorEndpoint = Map.copyOf(padroes);
+
+        if (openTelemetry != null) {
+            excedidosCounter = openTelemetry.getMeter("smartInvest")
+                    .counterBuilder("requisicoes_limite_tempo_excedido_total")
+                    .setDescription("Requisições encerradas com 503 por exceder o limite de tempo, por etapa")
+                    .build();
+        }
+    }
+
+    /**
+     * Nome do endpoint para a configuração: caminho da classe e do método sem /api e sem parâmetros,
+     * com os segmentos unidos por hífen (/api/simulacoes + /meta/lote = simulacoes-meta-lote)
+     */
+    public static String endpoint(String caminhoClasse, String caminhoMetodo) {
+        StringJoiner endpoint = new StringJoiner("-");
+        for (String caminho : new String[]{caminhoClasse, caminhoMetodo}) {
+            if (caminho == null) {
+                continue;
+            }
+            for (String segmento : caminho.split("/")) {
+                if (!segmento.isEmpty() && !segmento.startsWith("{") && !(endpoint.length() == 0 && segmento.equals("api"))) {
+                    endpoint.add(segmento);
+                }
+            }
+        }
+        return endpoint.toString();
+    }
+
+    /**
+     * Define o limite da requisição atual: o menor entre o header e o padrão do endpoint (0 = sem limite)
+     */
+    public void iniciar(String endpoint, String header) {
+        LimiteTempoRequisicao atual = daRequisicao();
+        if (atual == null) {
+            return;
+        }
+
+        long limiteMs = padraoDoEndpoint(endpoint);
+        if (header != null && !header.isBlank()) {
+            long informado;
+            try {
+                informado = Long.parseLong(header.trim());
+            } catch (NumberFormatException e) {
+                throw new SmartInvestApiException("O header " + HEADER + " deve ser um número de milissegundos.");
+            }
+            if (informado <= 0) {
+                throw new SmartInvestApiException("O header " + HEADER + " deve ser maior que zero.");
+            }
+            limiteMs = limiteMs > 0 ? Math.min(limiteMs, informado) : informado;
+        }
+
+        if (limiteMs > 0) {
+            atual.definir(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(limiteMs));
+        }
+    }
+
+    public boolean isAtivo() {
+        return atual() != null;
+    }
+
+    /**
+     * Milissegundos restantes da requisição atual; Long.MAX_VALUE quando não há limite
+     */
+    public long restanteMs() {
+        LimiteTempoRequisicao atual = atual();
+        if (atual == null) {
+            return Long.MAX_VALUE;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(atual.getExpiraEmNanos() - System.nanoTime());
+    }
+
+    public boolean isExpirado() {
+        return restanteMs() <= 0;
+    }
+
+    /**
+     * Falha com 503 se o limite já passou, antes de começar a etapa
+     */
+    public void verificar(String etapa) {
+        if (isExpirado()) {
+            throw excedido(etapa, null);
+        }
+    }
+
+    /**
+     * Espera máxima de uma etapa com timeout próprio, limitada ao restante da requisição
+     */
+    public long limitar(long timeoutMs) {
+        return Math.max(0, Math.min(timeoutMs, restanteMs()));
+    }
+
+    /**
+     * Timeout em segundos para Statement.setQueryTimeout (arredondado para cima; 0 = sem limite)
+     */
+    public int timeoutSegundos() {
+        if (!isAtivo()) {
+            return 0;
+        }
+        verificar(ETAPA_BANCO);
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, (restanteMs() + 999) / 1000));
+    }
+
+    /**
+     * Aplica o restante da requisição como timeout da consulta. O JDBC trabalha em segundos e o
+     * Hibernate trunca o hint, por isso o valor vai arredondado para cima em segundos inteiros.
+     */
+    public <T> TypedQuery<T> aplicar(TypedQuery<T> query) {
+        int segundos = timeoutSegundos();
+        return segundos > 0 ? query.setHint(HINT_TIMEOUT, segundos * 1000) : query;
+    }
+
+    public Query aplicar(Query query) {
+        int segundos = timeoutSegundos();
+        return segundos > 0 ? query.setHint(HINT_TIMEOUT, segundos * 1000) : query;
+    }
+
+    /**
+     * Exceção de limite excedido na etapa, já contabilizada na métrica
+     */
+    public LimiteTempoExcedidoException excedido(String etapa, Throwable causa) {
+        if (excedidosCounter != null) {
+            excedidosCounter.add(1, Attributes.of(ETAPA_KEY, etapa));
+        }
+        log.warn("[LIMITE-TEMPO] - Requisição excedeu o limite de tempo na etapa: {}", etapa);
+        return new LimiteTempoExcedidoException(etapa, causa);
+    }
+
+    private long padraoDoEndpoint(String endpoint) {
+        Long padrao = endpoint != null ? padraoPorEndpoint.get(endpoint) : null;
+        return padrao != null ? padrao : padraoMs;
+    }
+
+    // Limite definido para a requisição em andamento, ou null
+    private LimiteTempoRequisicao atual() {
+        LimiteTempoRequisicao atual = daRequisicao();
+        return atual != null && atual.isAtivo() ? atual : null;
+    }
+
+    // Sem contexto de requisição ativo (startup, threads de gravação) não há limite
+    private LimiteTempoRequisicao daRequisicao() {
+        ArcContainer container = Arc.container();
+        if (requisicao == null || (container != null && !container.requestContext().isActive())) {
+            return null;
+        }
+        return requisicao;
+    }
+}
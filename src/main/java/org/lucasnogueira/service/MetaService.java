@@ -0,0 +1,396 @@
+package org.lucasnogueira.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.dto.ItemMetaLoteDTO;
+import org.lucasnogueira.model.dto.MetaLoteResponseDTO;
+import org.lucasnogueira.model.dto.MetaRequestDTO;
+import org.lucasnogueira.model.dto.MetaResponseDTO;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.entities.Produto;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Busca de meta: calcula o valor a investir (ou o prazo) para que o valor final líquido de IR
+ * atinja o valor desejado, com o produto escolhido pelo perfil como na simulação.
+ * Com o retorno líquido habilitado, o líquido é o mesmo da simulação ({@link RentabilidadeLiquidaCalculator}:
+ * IOF, IR pelos dias corridos, taxa de administração e come-cotas); caso contrário, IR da tabela
+ * regressiva apenas sobre o rendimento positivo.
+ * A raiz é encontrada em double pelo {@link ResolvedorMeta} e depois ajustada ao centavo (ou ao
+ * mês) com o mesmo {@link CrescimentoCompostoCalculator} da simulação, para que simular o
+ * resultado devolva exatamente o valor final informado. Nada é persistido.
+ */
+@Slf4j
+@ApplicationScoped
+public class MetaService {
+
+    static final String INCOGNITA_VALOR = "valor";
+    static final String INCOGNITA_PRAZO = "prazoMeses";
+
+    private static final BigDecimal CENTAVO = new BigDecimal("0.01");
+    private static final double TOLERANCIA_VALOR = 1e-4;
+    private static final double TOLERANCIA_PRAZO = 1e-6;
+    // O prazo de partida só influencia o primeiro palpite de perfil quando o prazo é a incógnita
+    private static final int PRAZO_INICIAL = 12;
+    // O produto depende do valor e do prazo calculados; poucas rodadas bastam para ele se estabilizar
+    private static final int MAXIMO_RODADAS_PRODUTO = 4;
+    // Ajustes ao centavo ou ao mês após a busca em double
+    private static final int MAXIMO_AJUSTES = 100;
+
+    @Inject
+    SimulacaoService simulacaoService;
+
+    @Inject
+    ProdutoCacheService produtoCacheService;
+
+    @Inject
+    PerfilRiscoCalculator perfilRiscoCalculator;
+
+    @Inject
+    CrescimentoCompostoCalculator crescimentoCompostoCalculator;
+
+    @Inject
+    RentabilidadeLiquidaCalculator rentabilidadeLiquidaCalculator;
+
+    @Inject
+    Validator validator;
+
+    @ConfigProperty(name = "app.simulacao.meta.prazo-maximo-meses", defaultValue = "600")
+    int prazoMaximoMeses = 600;
+
+    @ConfigProperty(name = "app.simulacao.meta.tamanho-maximo-lote", defaultValue = "10000")
+    int tamanhoMaximoLote = 10000;
+
+    public MetaResponseDTO resolver(MetaRequestDTO requestDTO) {
+        return resolver(produtoCacheService.obterCatalogoCompilado(), requestDTO);
+    }
+
+    /**
+     * Resolve todas as metas contra o mesmo snapshot do catálogo; erros são reportados por item
+     */
+    public MetaLoteResponseDTO resolverLote(List<MetaRequestDTO> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new SmartInvestApiException("A lista de metas não pode estar vazia.");
+        }
+        if (requests.size() > tamanhoMaximoLote) {
+            throw new SmartInvestApiException(String.format(
+                    "O lote excede o limite de %d metas por requisição.", tamanhoMaximoLote));
+        }
+
+        CatalogoCompilado catalogo = produtoCacheService.obterCatalogoCompilado();
+        List<ItemMetaLoteDTO> itens = new ArrayList<>(requests.size());
+        int sucessos = 0;
+
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                validarItemLote(requests.get(i));
+                MetaResponseDTO meta = resolver(catalogo, requests.get(i));
+                itens.add(ItemMetaLoteDTO.builder().indice(i).sucesso(true).meta(meta).build());
+                sucessos++;
+            } catch (RuntimeException e) {
+                log.debug("Erro no item {} do lote de metas: {}", i, e.getMessage());
+                itens.add(ItemMetaLoteDTO.builder().indice(i).sucesso(false).erro(e.getMessage()).build());
+            }
+        }
+
+        return MetaLoteResponseDTO.builder()
+                .qtdItens(itens.size())
+                .qtdSucesso(sucessos)
+                .qtdErro(itens.size() - sucessos)
+                .itens(itens)
+                .build();
+    }
+
+    MetaResponseDTO resolver(CatalogoCompilado catalogo, MetaRequestDTO requestDTO) {
+        boolean incognitaValor = validarIncognita(requestDTO);
+        BigDecimal aporte = requestDTO.getAporteMensal() != null ? requestDTO.getAporteMensal() : BigDecimal.ZERO;
+
+        SimulacaoRequestDTO simulacao = new SimulacaoRequestDTO();
+        simulacao.setClienteId(requestDTO.getClienteId());
+        simulacao.setTipoProduto(requestDTO.getTipoProduto());
+        simulacao.setAporteMensal(requestDTO.getAporteMensal());
+        simulacao.setValor(incognitaValor ? requestDTO.getValorMeta() : requestDTO.getValor());
+        simulacao.setPrazoMeses(incognitaValor ? requestDTO.getPrazoMeses() : PRAZO_INICIAL);
+
+        CatalogoCompilado produtos = simulacaoService.obterProdutosFiltrados(catalogo, simulacao);
+        if (produtos.isVazio()) {
+            throw new SmartInvestApiException("Nenhum produto disponível para simulação.");
+        }
+
+        // Perfil e produto são recalculados com a solução até o produto se repetir
+        Solucao solucao = null;
+        long menor = Long.MAX_VALUE;
+        long maior = Long.MIN_VALUE;
+        for (int rodada = 0; ; rodada++) {
+            TipoPerfilRisco perfil = perfilRiscoCalculator.calcular(simulacao);
+            Produto produto = simulacaoService.encontrarMelhorProduto(produtos, simulacao, perfil).getProduto();
+            if (solucao != null && produto.getId().equals(solucao.produto().getId())) {
+                return criarResponse(requestDTO, incognitaValor, perfil, solucao);
+            }
+            if (rodada == MAXIMO_RODADAS_PRODUTO) {
+                break;
+            }
+
+            int indice = catalogo.indiceDoProduto(produto.getId());
+            solucao = incognitaValor
+                    ? resolverValor(catalogo, indice, requestDTO.getValorMeta(), aporte, requestDTO.getPrazoMeses())
+                    : resolverPrazo(catalogo, indice, requestDTO.getValorMeta(), aporte, requestDTO.getValor());
+            simulacao.setValor(solucao.valor());
+            simulacao.setPrazoMeses(solucao.prazoMeses());
+            menor = Math.min(menor, incognita(solucao, incognitaValor));
+            maior = Math.max(maior, incognita(solucao, incognitaValor));
+        }
+
+        Busca busca = new Busca(catalogo, produtos, requestDTO, incognitaValor, simulacao);
+        return resolverNaFronteira(busca, menor, maior, solucao);
+    }
+
+    /**
+     * O produto alterna entre as rodadas quando a solução cruza uma fronteira de perfil ou de faixa de
+     * volume. Busca binária entre a menor e a maior solução pelo menor valor (em centavos) ou prazo
+     * que atinge a meta com o produto que a própria simulação escolhe para ele.
+     */
+    private MetaResponseDTO resolverNaFronteira(Busca busca, long inferior, long superior, Solucao ultima) {
+        Avaliacao melhor = avaliarComProdutoDaSimulacao(busca, superior);
+        if (!busca.atinge(melhor.solucao())) {
+            return criarResponse(busca.requestDTO(), busca.incognitaValor(), melhor.perfil(), ultima);
+        }
+
+        Avaliacao avaliacao = avaliarComProdutoDaSimulacao(busca, inferior);
+        if (busca.atinge(avaliacao.solucao())) {
+            melhor = avaliacao;
+        } else {
+            while (superior - inferior > 1) {
+                long meio = inferior + (superior - inferior) / 2;
+                avaliacao = avaliarComProdutoDaSimulacao(busca, meio);
+                if (busca.atinge(avaliacao.solucao())) {
+                    superior = meio;
+                    melhor = avaliacao;
+                } else {
+                    inferior = meio;
+                }
+            }
+        }
+        return criarResponse(busca.requestDTO(), busca.incognitaValor(), melhor.perfil(), melhor.solucao());
+    }
+
+    private Avaliacao avaliarComProdutoDaSimulacao(Busca busca, long incognita) {
+        SimulacaoRequestDTO simulacao = busca.simulacao();
+        if (busca.incognitaValor()) {
+            simulacao.setValor(BigDecimal.valueOf(incognita, 2));
+        } else {
+            simulacao.setPrazoMeses((int) incognita);
+        }
+        TipoPerfilRisco perfil = perfilRiscoCalculator.calcular(simulacao);
+        Produto produto = simulacaoService.encontrarMelhorProduto(busca.produtos(), simulacao, perfil).getProduto();
+        int indice = busca.catalogo().indiceDoProduto(produto.getId());
+        BigDecimal aporte = simulacao.getAporteMensal() != null ? simulacao.getAporteMensal() : BigDecimal.ZERO;
+        return new Avaliacao(perfil, avaliar(produto, simulacao.getValor(), aporte, simulacao.getPrazoMeses(),
+                aliquotaIr(busca.catalogo(), indice, simulacao.getPrazoMeses())));
+    }
+
+    // Incógnita como inteiro: centavos do valor ou meses do prazo
+    private static long incognita(Solucao solucao, boolean incognitaValor) {
+        return incognitaValor ? solucao.valor().movePointRight(2).longValueExact() : solucao.prazoMeses();
+    }
+
+    private Solucao resolverValor(CatalogoCompilado catalogo, int indice, BigDecimal valorMeta, BigDecimal aporte,
+                                  int prazoMeses) {
+        validarPrazoMaximo(prazoMeses);
+        Produto produto = catalogo.produto(indice);
+        double aliquotaIr = aliquotaIr(catalogo, indice, prazoMeses);
+        double meta = valorMeta.doubleValue();
+        double aporteMensal = aporte.doubleValue();
+
+        DoubleUnaryOperator falta;
+        if (rentabilidadeLiquidaCalculator.isHabilitado()) {
+            falta = valor -> rentabilidadeLiquidaCalculator.valorFinalLiquido(produto, valor, aporteMensal, prazoMeses)
+                    - meta;
+        } else {
+            // Prazo fixo: os fatores da simulação (por meses, dias úteis ou curva do índice) valem para qualquer valor
+            double fator = crescimentoCompostoCalculator.fator(produto, prazoMeses).doubleValue();
+            double anuidade = aporte.signum() != 0
+                    ? crescimentoCompostoCalculator.fatorAnuidade(produto, prazoMeses).doubleValue() : 0.0;
+            falta = valor ->
+                    ResolvedorMeta.valorLiquido(valor, aporteMensal, fator, anuidade, prazoMeses, aliquotaIr) - meta;
+        }
+        double raiz = 0.0;
+        if (falta.applyAsDouble(0.0) < 0) {
+            // Com taxa não negativa a meta investida à vista já basta; com taxa negativa o limite é dobrado
+            double superior = meta;
+            for (int i = 0; i < 64 && falta.applyAsDouble(superior) < 0; i++) {
+                superior *= 2;
+            }
+            raiz = ResolvedorMeta.resolver(falta, 0.0, superior, TOLERANCIA_VALOR);
+        }
+
+        // Ajuste ao centavo com a aritmética da simulação: o menor valor que atinge a meta
+        BigDecimal valor = BigDecimal.valueOf(raiz).setScale(2, RoundingMode.CEILING).max(CENTAVO);
+        Solucao solucao = avaliar(produto, valor, aporte, prazoMeses, aliquotaIr);
+        for (int i = 0; i < MAXIMO_AJUSTES && solucao.valorFinalLiquido().compareTo(valorMeta) < 0; i++) {
+            solucao = avaliar(produto, solucao.valor().add(CENTAVO), aporte, prazoMeses, aliquotaIr);
+        }
+        for (int i = 0; i < MAXIMO_AJUSTES && solucao.valor().compareTo(CENTAVO) > 0; i++) {
+            Solucao anterior = avaliar(produto, solucao.valor().subtract(CENTAVO), aporte, prazoMeses, aliquotaIr);
+            if (anterior.valorFinalLiquido().compareTo(valorMeta) < 0) {
+                break;
+            }
+            solucao = anterior;
+        }
+        return solucao;
+    }
+
+    private Solucao resolverPrazo(CatalogoCompilado catalogo, int indice, BigDecimal valorMeta, BigDecimal aporte,
+                                  BigDecimal valor) {
+        Produto produto = catalogo.produto(indice);
+        double taxa = catalogo.taxaBruta(indice);
+        double meta = valorMeta.doubleValue();
+        double valorInicial = valor.doubleValue();
+        double aporteMensal = aporte.doubleValue();
+
+        boolean indexado = catalogo.indexado(indice);
+        boolean liquido = rentabilidadeLiquidaCalculator.isHabilitado();
+
+        // Prazo contínuo; a alíquota (e, nos indexados, a taxa da curva) segue o mês inteiro correspondente.
+        // O retorno líquido só existe em meses inteiros: a função vira uma escada, que a busca também isola
+        DoubleUnaryOperator falta = meses -> {
+            int mes = Math.max(1, (int) Math.ceil(meses));
+            if (liquido) {
+                return rentabilidadeLiquidaCalculator.valorFinalLiquido(produto, valorInicial, aporteMensal, mes) - meta;
+            }
+            double taxaPrazo = indexado ? crescimentoCompostoCalculator.taxaAnual(produto, mes).doubleValue() : taxa;
+            return ResolvedorMeta.valorLiquido(valorInicial, aporteMensal, taxaPrazo, meses,
+                    aliquotaIr(catalogo, indice, mes)) - meta;
+        };
+
+        if (falta.applyAsDouble(prazoMaximoMeses) < 0) {
+            throw metaInatingivel(produto);
+        }
+        double raiz = falta.applyAsDouble(0.0) >= 0
+                ? 1.0 : ResolvedorMeta.resolver(falta, 0.0, prazoMaximoMeses, TOLERANCIA_PRAZO);
+
+        // Ajuste ao mês com a aritmética da simulação: o menor prazo que atinge a meta
+        int prazo = Math.min(prazoMaximoMeses, Math.max(1, (int) Math.ceil(raiz - TOLERANCIA_PRAZO)));
+        Solucao solucao = avaliar(produto, valor, aporte, prazo, aliquotaIr(catalogo, indice, prazo));
+        for (int i = 0; i < MAXIMO_AJUSTES && solucao.valorFinalLiquido().compareTo(valorMeta) < 0; i++) {
+            if (solucao.prazoMeses() == prazoMaximoMeses) {
+                throw metaInatingivel(produto);
+            }
+            int proximo = solucao.prazoMeses() + 1;
+            solucao = avaliar(produto, valor, aporte, proximo, aliquotaIr(catalogo, indice, proximo));
+        }
+        for (int i = 0; i < MAXIMO_AJUSTES && solucao.prazoMeses() > 1; i++) {
+            int anteriorPrazo = solucao.prazoMeses() - 1;
+            Solucao anterior = avaliar(produto, valor, aporte, anteriorPrazo,
+                    aliquotaIr(catalogo, indice, anteriorPrazo));
+            if (anterior.valorFinalLiquido().compareTo(valorMeta) < 0) {
+                break;
+            }
+            solucao = anterior;
+        }
+        return solucao;
+    }
+
+    // Mesmos valores final e líquido da simulação; sem o retorno líquido, IR apenas sobre o rendimento positivo
+    private Solucao avaliar(Produto produto, BigDecimal valor, BigDecimal aporte, int prazoMeses, double aliquotaIr) {
+        BigDecimal valorFinal = crescimentoCompostoCalculator.calcularValorFinal(produto, valor, aporte, prazoMeses);
+        if (rentabilidadeLiquidaCalculator.isHabilitado()) {
+            return new Solucao(produto, valor, prazoMeses, aliquotaIr, valorFinal,
+                    rentabilidadeLiquidaCalculator.calcularValorFinalLiquido(produto, valor, aporte, prazoMeses));
+        }
+        BigDecimal investido = valor.add(aporte.multiply(BigDecimal.valueOf(prazoMeses)));
+        BigDecimal rendimento = valorFinal.subtract(investido);
+        BigDecimal rendimentoLiquido = rendimento.signum() > 0
+                ? rendimento.multiply(BigDecimal.valueOf(1 - aliquotaIr)) : rendimento;
+        return new Solucao(produto, valor, prazoMeses, aliquotaIr, valorFinal,
+                investido.add(rendimentoLiquido).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    // Alíquota de IR do resgate: pelos dias corridos reais com o retorno líquido, por 30 dias ao mês sem ele
+    private double aliquotaIr(CatalogoCompilado catalogo, int indice, int prazoMeses) {
+        return rentabilidadeLiquidaCalculator.isHabilitado()
+                ? rentabilidadeLiquidaCalculator.prazo(prazoMeses).aliquotaIr(catalogo, indice)
+                : ProdutoScoreCalculator.aliquotaIr(catalogo, indice, prazoMeses);
+    }
+
+    private MetaResponseDTO criarResponse(MetaRequestDTO requestDTO, boolean incognitaValor, TipoPerfilRisco perfil,
+                                          Solucao solucao) {
+        return MetaResponseDTO.builder()
+                .incognita(incognitaValor ? INCOGNITA_VALOR : INCOGNITA_PRAZO)
+                .perfil(perfil.name())
+                .produto(simulacaoService.criarProdutoValidadoDTO(solucao.produto()))
+                .valorMeta(requestDTO.getValorMeta())
+                .valor(solucao.valor())
+                .prazoMeses(solucao.prazoMeses())
+                .aporteMensal(requestDTO.getAporteMensal())
+                .aliquotaIr(solucao.aliquotaIr())
+                .valorFinal(solucao.valorFinal())
+                .valorFinalLiquido(solucao.valorFinalLiquido())
+                .build();
+    }
+
+    // true quando o valor é a incógnita, false quando é o prazo
+    private boolean validarIncognita(MetaRequestDTO requestDTO) {
+        boolean semValor = requestDTO.getValor() == null;
+        boolean semPrazo = requestDTO.getPrazoMeses() == null;
+        if (semValor == semPrazo) {
+            throw new SmartInvestApiException(
+                    "Informe apenas um entre valor e prazoMeses: o outro é calculado para atingir valorMeta.");
+        }
+        return semValor;
+    }
+
+    private SmartInvestApiException metaInatingivel(Produto produto) {
+        return new SmartInvestApiException(String.format(
+                "A meta não é atingível em até %d meses com o produto %s.", prazoMaximoMeses, produto.getNome()));
+    }
+
+    private void validarPrazoMaximo(int prazoMeses) {
+        if (prazoMeses > prazoMaximoMeses) {
+            throw new SmartInvestApiException(String.format(
+                    "A busca de meta está disponível para prazos de até %d meses.", prazoMaximoMeses));
+        }
+    }
+
+    private void validarItemLote(MetaRequestDTO requestDTO) {
+        if (requestDTO == null) {
+            throw new SmartInvestApiException("Item da meta não informado.");
+        }
+
+        Set<ConstraintViolation<MetaRequestDTO>> violacoes = validator.validate(requestDTO);
+        if (!violacoes.isEmpty()) {
+            throw new SmartInvestApiException(violacoes.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(" ")));
+        }
+    }
+
+    private record Solucao(Produto produto, BigDecimal valor, int prazoMeses, double aliquotaIr,
+                           BigDecimal valorFinal, BigDecimal valorFinalLiquido) {}
+
+    private record Avaliacao(TipoPerfilRisco perfil, Solucao solucao) {}
+
+    // Estado da busca de uma meta; a simulação é reaproveitada a cada ponto avaliado
+    private record Busca(CatalogoCompilado catalogo, CatalogoCompilado produtos, MetaRequestDTO requestDTO,
+                         boolean incognitaValor, SimulacaoRequestDTO simulacao) {
+
+        boolean atinge(Solucao solucao) {
+            return solucao.valorFinalLiquido().compareTo(requestDTO.getValorMeta()) >= 0;
+        }
+    }
+}
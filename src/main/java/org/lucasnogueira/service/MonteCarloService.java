@@ -0,0 +1,222 @@
+package org.lucasnogueira.service;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.metrics.LongCounter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.lucasnogueira.model.dto.ProjecaoEstocasticaDTO;
+import org.lucasnogueira.model.entities.Produto;
+import org.lucasnogueira.model.enums.NivelRiscoEnum;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Projeção estocástica do valor final para produtos de renda variável (Ações e Fundos).
+ * O retorno segue um movimento browniano geométrico cuja média é a taxa anual oferecida e
+ * cuja volatilidade vem do nível de risco do produto. Como os retornos mensais são normais
+ * independentes em escala logarítmica, a soma dos {@code prazoMeses} choques é exatamente
+ * normal: cada caminho sorteia o valor final com um único número, em vez de um por mês.
+ * Os caminhos são divididos em blocos no ForkJoinPool, cada bloco com seu próprio
+ * SplittableRandom, e blocos que começariam após o orçamento de tempo são descartados.
+ */
+@Slf4j
+@ApplicationScoped
+public class MonteCarloService {
+
+    @Inject
+    OpenTelemetry openTelemetry;
+
+    @ConfigProperty(name = "app.simulacao.monte-carlo.caminhos", defaultValue = "100000")
+    int caminhos = 100_000;
+
+    @ConfigProperty(name = "app.simulacao.monte-carlo.caminhos-por-tarefa", defaultValue = "8192")
+    int caminhosPorTarefa = 8192;
+
+    @ConfigProperty(name = "app.simulacao.monte-carlo.orcamento-ms", defaultValue = "50")
+    long orcamentoMs = 50;
+
+    private LongCounter orcamentoExcedidoCounter;
+
+    @PostConstruct
+    void initMetrics() {
+        orcamentoExcedidoCounter = openTelemetry.getMeter("smartInvest")
+                .counterBuilder("simulacao_monte_carlo_orcamento_excedido_total")
+                .setDescription("Projeções estocásticas encerradas pelo orçamento de tempo antes de todos os caminhos")
+                .build();
+    }
+
+    public static boolean isRendaVariavel(Produto produto) {
+        String tipo = produto.getTipo();
+        return tipo != null && (tipo.equalsIgnoreCase("Ações") || tipo.equalsIgnoreCase("Fundos"));
+    }
+
+    /**
+     * Distribuição do valor final do produto, ou vazio se o produto não for de renda variável
+     */
+    public Optional<ProjecaoEstocasticaDTO> projetar(Produto produto, BigDecimal valorInicial, int prazoMeses) {
+        if (!isRendaVariavel(produto)) {
+            return Optional.empty();
+        }
+
+        double volatilidade = NivelRiscoEnum.fromString(produto.getRisco()).getVolatilidadeAnual();
+        long limiteNanos = System.nanoTime() + orcamentoMs * 1_000_000L;
+        double[] fatores = simularFatores(produto.getTaxaAnualOferecida().doubleValue(), volatilidade, prazoMeses,
+                caminhos, Math.max(1, caminhosPorTarefa), new SplittableRandom(), limiteNanos);
+
+        if (fatores.length < caminhos) {
+            log.warn("[MONTE-CARLO] - Orçamento de {} ms excedido: {} de {} caminhos simulados",
+                    orcamentoMs, fatores.length, caminhos);
+            if (orcamentoExcedidoCounter != null) {
+                orcamentoExcedidoCounter.add(1);
+            }
+        }
+
+        double valor = valorInicial.doubleValue();
+        return Optional.of(ProjecaoEstocasticaDTO.builder()
+                .caminhos(fatores.length)
+                .volatilidadeAnual(volatilidade)
+                .p5(centavos(valor * percentil(fatores, 0.05)))
+                .p50(centavos(valor * percentil(fatores, 0.50)))
+                .p95(centavos(valor * percentil(fatores, 0.95)))
+                .build());
+    }
+
+    /**
+     * Simula os fatores de crescimento finais (valor final / valor inicial) de cada caminho.
+     * Retorna apenas os caminhos dos blocos concluídos; o primeiro bloco é sempre simulado.
+     */
+    static double[] simularFatores(double taxaAnual, double volatilidade, int prazoMeses, int caminhos,
+                                   int caminhosPorTarefa, SplittableRandom raiz, long limiteNanos) {
+        double anos = prazoMeses / 12.0;
+        double media = (Math.log1p(taxaAnual) - volatilidade * volatilidade / 2) * anos;
+        double desvio = volatilidade * Math.sqrt(anos);
+
+        int blocos = (caminhos + caminhosPorTarefa - 1) / caminhosPorTarefa;
+        // Geradores derivados na ordem dos blocos: o resultado não depende do escalonamento das threads
+        SplittableRandom[] geradores = new SplittableRandom[blocos];
+        for (int b = 0; b < blocos; b++) {
+            geradores[b] = raiz.split();
+        }
+
+        double[] fatores = new double[caminhos];
+        boolean[] concluidos = new boolean[blocos];
+        ForkJoinPool.commonPool().invoke(new SimularBlocos(
+                new Execucao(media, desvio, caminhos, caminhosPorTarefa, limiteNanos, geradores, fatores, concluidos),
+                0, blocos));
+
+        return compactar(fatores, concluidos, caminhosPorTarefa);
+    }
+
+    /**
+     * Percentil pelo método do posto mais próximo, com seleção parcial O(n); reordena o array
+     */
+    static double percentil(double[] valores, double p) {
+        int k = Math.min(valores.length - 1, Math.max(0, (int) Math.ceil(p * valores.length) - 1));
+        return selecionar(valores, k);
+    }
+
+    // Quickselect iterativo: ao final, valores[k] é o k-ésimo menor elemento
+    private static double selecionar(double[] valores, int k) {
+        int inicio = 0;
+        int fim = valores.length - 1;
+        while (inicio < fim) {
+            double pivo = valores[(inicio + fim) >>> 1];
+            int i = inicio;
+            int j = fim;
+            while (i <= j) {
+                while (valores[i] < pivo) i++;
+                while (valores[j] > pivo) j--;
+                if (i <= j) {
+                    double tmp = valores[i];
+                    valores[i] = valores[j];
+                    valores[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                fim = j;
+            } else if (k >= i) {
+                inicio = i;
+            } else {
+                break;
+            }
+        }
+        return valores[k];
+    }
+
+    private static double[] compactar(double[] fatores, boolean[] concluidos, int caminhosPorTarefa) {
+        int total = 0;
+        for (int b = 0; b < concluidos.length; b++) {
+            if (concluidos[b]) {
+                total += Math.min(caminhosPorTarefa, fatores.length - b * caminhosPorTarefa);
+            }
+        }
+        if (total == fatores.length) {
+            return fatores;
+        }
+
+        double[] resultado = new double[total];
+        int destino = 0;
+        for (int b = 0; b < concluidos.length; b++) {
+            if (concluidos[b]) {
+                int inicio = b * caminhosPorTarefa;
+                int tamanho = Math.min(caminhosPorTarefa, fatores.length - inicio);
+                System.arraycopy(fatores, inicio, resultado, destino, tamanho);
+                destino += tamanho;
+            }
+        }
+        return resultado;
+    }
+
+    private static BigDecimal centavos(double valor) {
+        return BigDecimal.valueOf(valor).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private record Execucao(double media, double desvio, int caminhos, int caminhosPorTarefa, long limiteNanos,
+                            SplittableRandom[] geradores, double[] fatores, boolean[] concluidos) {}
+
+    private static final class SimularBlocos extends RecursiveAction {
+        private final Execucao execucao;
+        private final int inicio;
+        private final int fim;
+
+        SimularBlocos(Execucao execucao, int inicio, int fim) {
+            this.execucao = execucao;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - inicio > 1) {
+                int meio = (inicio + fim) >>> 1;
+                invokeAll(new SimularBlocos(execucao, inicio, meio), new SimularBlocos(execucao, meio, fim));
+                return;
+            }
+
+            int bloco = inicio;
+            if (bloco > 0 && System.nanoTime() > execucao.limiteNanos()) {
+                return;
+            }
+
+            SplittableRandom gerador = execucao.geradores()[bloco];
+            double[] fatores = execucao.fatores();
+            int primeiro = bloco * execucao.caminhosPorTarefa();
+            int ultimo = Math.min(execucao.caminhos(), primeiro + execucao.caminhosPorTarefa());
+            for (int i = primeiro; i < ultimo; i++) {
+                fatores[i] = Math.exp(execucao.media() + execucao.desvio() * gerador.nextGaussian());
+            }
+            // Visível para a thread que invocou: invoke() estabelece happens-before ao concluir
+            execucao.concluidos()[bloco] = true;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.lucasnogueira.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.ProdutoComScore;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+import org.lucasnogueira.service.ProdutoScoreCalculator.ParametrosScore;
+import org.lucasnogueira.util.SelecaoTopK;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Motor de score colunar para catálogos grandes.
+ * Calcula o score de todos os produtos em um único laço sobre as colunas primitivas
+ * do catálogo compilado (sem dependência entre iterações, permitindo auto-vetorização
+ * pelo JIT) e divide o trabalho no ForkJoinPool acima de um limiar de tamanho.
+ * Usa o mesmo kernel por perfil do ProdutoScoreCalculator, portanto os vencedores são idênticos.
+ */
+@ApplicationScoped
+public class MotorScoreColunar {
+
+    @Inject
+    RentabilidadeLiquidaCalculator rentabilidadeLiquidaCalculator;
+
+    @Inject
+    CrescimentoCompostoCalculator crescimentoCompostoCalculator;
+
+    @ConfigProperty(name = "app.score.colunar.limiar-paralelo", defaultValue = "4096")
+    int limiarParalelo;
+
+    /**
+     * Calcula o score de todos os produtos do catálogo
+     */
+    public double[] calcularScores(CatalogoCompilado catalogo, SimulacaoRequestDTO req, TipoPerfilRisco perfil) {
+        ParametrosScore parametros = ProdutoScoreCalculator.prepararParametros(catalogo, req, perfil,
+                rentabilidadeLiquidaCalculator, crescimentoCompostoCalculator);
+        double[] scores = new double[catalogo.tamanho()];
+        int limiar = Math.max(1, limiarParalelo);
+
+        if (scores.length < limiar) {
+            pontuarFaixa(catalogo, parametros, scores, 0, scores.length);
+        } else {
+            ForkJoinPool.commonPool().invoke(new PontuarFaixa(catalogo, parametros, scores, 0, scores.length, limiar));
+        }
+        return scores;
+    }
+
+    /**
+     * Encontra o produto de maior score. Em caso de empate, prevalece o primeiro produto do catálogo.
+     */
+    public ProdutoComScore encontrarMelhorProduto(CatalogoCompilado catalogo, SimulacaoRequestDTO req, TipoPerfilRisco perfil) {
+        if (catalogo.isVazio()) {
+            throw new IllegalStateException("Nenhum produto disponível para simulação");
+        }
+
+        double[] scores = calcularScores(catalogo, req, perfil);
+
+        int melhorIndice = 0;
+        for (int i = 1; i < scores.length; i++) {
+            if (scores[i] > scores[melhorIndice]) {
+                melhorIndice = i;
+            }
+        }
+        return new ProdutoComScore(catalogo.produto(melhorIndice), scores[melhorIndice]);
+    }
+
+    /**
+     * Encontra os K produtos de maior score, do melhor para o pior. Mesmo desempate do
+     * {@link ProdutoScoreCalculator}: em empate, prevalece o primeiro produto do catálogo.
+     */
+    public List<ProdutoComScore> encontrarMelhoresProdutos(CatalogoCompilado catalogo, SimulacaoRequestDTO req,
+                                                           TipoPerfilRisco perfil, int k) {
+        if (catalogo.isVazio()) {
+            throw new IllegalStateException("Nenhum produto disponível para simulação");
+        }
+
+        double[] scores = calcularScores(catalogo, req, perfil);
+
+        SelecaoTopK selecao = new SelecaoTopK(Math.min(k, scores.length));
+        for (int i = 0; i < scores.length; i++) {
+            selecao.oferecer(i, scores[i]);
+        }
+        return ProdutoScoreCalculator.paraLista(catalogo, selecao.ordenar());
+    }
+
+    private static void pontuarFaixa(CatalogoCompilado catalogo, ParametrosScore parametros,
+                                     double[] scores, int inicio, int fim) {
+        parametros.kernel().pontuarFaixa(catalogo, parametros, scores, inicio, fim);
+    }
+
+    private static class PontuarFaixa extends RecursiveAction {
+        private final CatalogoCompilado catalogo;
+        private final ParametrosScore parametros;
+        private final double[] scores;
+        private final int inicio;
+        private final int fim;
+        private final int limiar;
+
+        PontuarFaixa(CatalogoCompilado catalogo, ParametrosScore parametros, double[] scores,
+                     int inicio, int fim, int limiar) {
+            this.catalogo = catalogo;
+            this.parametros = parametros;
+            this.scores = scores;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.limiar = limiar;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - inicio <= limiar) {
+                pontuarFaixa(catalogo, parametros, scores, inicio, fim);
+                return;
+            }
+            int meio = (inicio + fim) >>> 1;
+            invokeAll(new PontuarFaixa(catalogo, parametros, scores, inicio, meio, limiar),
+                    new PontuarFaixa(catalogo, parametros, scores, meio, fim, limiar));
+        }
+    }
+}
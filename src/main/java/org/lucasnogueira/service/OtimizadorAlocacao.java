@@ -0,0 +1,130 @@
+package org.lucasnogueira.service;
+
+/**
+ * Otimizador da alocação do valor investido entre produtos candidatos.
+ * O valor é dividido em {@link #UNIDADES} unidades (1% cada) e o objetivo é maximizar a soma
+ * das unidades ponderadas pelo score de cada produto, respeitando o limite por produto, o
+ * limite por nível de risco e a reserva mínima em produtos líquidos. A solução inicial é
+ * gulosa (primeiro a reserva de liquidez, depois o restante, sempre pelos maiores scores) e
+ * é refinada por busca local: mover unidades de um produto para outro de score maior enquanto
+ * houver movimento viável, até convergir ou esgotar o orçamento de tempo. Tudo em arrays
+ * primitivos; o custo depende apenas da quantidade de candidatos, não do catálogo.
+ */
+final class OtimizadorAlocacao {
+
+    static final int UNIDADES = 100;
+
+    private OtimizadorAlocacao() {}
+
+    /**
+     * @param unidades    unidades alocadas por candidato
+     * @param viavel      todas as unidades alocadas e a reserva de liquidez atendida
+     * @param convergiu   a busca local terminou sem movimentos de melhora (ótimo local) dentro do orçamento
+     */
+    record Resultado(int[] unidades, boolean viavel, boolean convergiu) {
+
+        double scorePonderado(double[] scores) {
+            double total = 0.0;
+            for (int i = 0; i < unidades.length; i++) {
+                total += unidades[i] * scores[i];
+            }
+            return total / UNIDADES;
+        }
+    }
+
+    /**
+     * @param scores           score de cada candidato, em ordem decrescente
+     * @param grupo            grupo de risco de cada candidato (índice em {@code limiteGrupo})
+     * @param liquido          se o candidato conta para a reserva de liquidez
+     * @param limiteGrupo      máximo de unidades por grupo de risco
+     * @param limiteProduto    máximo de unidades por candidato
+     * @param reservaLiquidez  mínimo de unidades em candidatos líquidos
+     * @param limiteNanos      instante (System.nanoTime) em que a busca local é interrompida
+     */
+    static Resultado otimizar(double[] scores, int[] grupo, boolean[] liquido, int[] limiteGrupo,
+                              int limiteProduto, int reservaLiquidez, long limiteNanos) {
+        int n = scores.length;
+        int[] unidades = new int[n];
+        int[] usoGrupo = new int[limiteGrupo.length];
+
+        // Construção gulosa: a reserva de liquidez com os melhores líquidos e depois o restante
+        int alocadas = preencher(unidades, usoGrupo, grupo, liquido, limiteGrupo, limiteProduto, reservaLiquidez, true, 0);
+        alocadas = preencher(unidades, usoGrupo, grupo, liquido, limiteGrupo, limiteProduto, UNIDADES, false, alocadas);
+
+        int usoLiquido = 0;
+        for (int i = 0; i < n; i++) {
+            if (liquido[i]) {
+                usoLiquido += unidades[i];
+            }
+        }
+
+        boolean viavel = alocadas == UNIDADES && usoLiquido >= reservaLiquidez;
+        if (!viavel) {
+            return new Resultado(unidades, false, true);
+        }
+
+        return new Resultado(unidades, true,
+                buscaLocal(scores, grupo, liquido, limiteGrupo, limiteProduto, reservaLiquidez,
+                        unidades, usoGrupo, usoLiquido, limiteNanos));
+    }
+
+    private static int preencher(int[] unidades, int[] usoGrupo, int[] grupo, boolean[] liquido, int[] limiteGrupo,
+                                 int limiteProduto, int meta, boolean apenasLiquidos, int alocadas) {
+        for (int i = 0; i < unidades.length && alocadas < meta; i++) {
+            if (apenasLiquidos && !liquido[i]) {
+                continue;
+            }
+            int delta = Math.min(meta - alocadas,
+                    Math.min(limiteProduto - unidades[i], limiteGrupo[grupo[i]] - usoGrupo[grupo[i]]));
+            if (delta > 0) {
+                unidades[i] += delta;
+                usoGrupo[grupo[i]] += delta;
+                alocadas += delta;
+            }
+        }
+        return alocadas;
+    }
+
+    // Cada movimento aumenta estritamente o objetivo, portanto a busca sempre termina
+    private static boolean buscaLocal(double[] scores, int[] grupo, boolean[] liquido, int[] limiteGrupo,
+                                      int limiteProduto, int reservaLiquidez, int[] unidades, int[] usoGrupo,
+                                      int usoLiquido, long limiteNanos) {
+        int n = scores.length;
+        boolean melhorou = true;
+        while (melhorou) {
+            if (System.nanoTime() - limiteNanos > 0) {
+                return false;
+            }
+            melhorou = false;
+
+            for (int destino = 0; destino < n; destino++) {
+                for (int origem = n - 1; origem > destino; origem--) {
+                    if (unidades[origem] == 0 || scores[origem] >= scores[destino]) {
+                        continue;
+                    }
+
+                    int delta = Math.min(unidades[origem], limiteProduto - unidades[destino]);
+                    if (grupo[origem] != grupo[destino]) {
+                        delta = Math.min(delta, limiteGrupo[grupo[destino]] - usoGrupo[grupo[destino]]);
+                    }
+                    if (liquido[origem] && !liquido[destino]) {
+                        delta = Math.min(delta, usoLiquido - reservaLiquidez);
+                    }
+                    if (delta <= 0) {
+                        continue;
+                    }
+
+                    unidades[origem] -= delta;
+                    unidades[destino] += delta;
+                    usoGrupo[grupo[origem]] -= delta;
+                    usoGrupo[grupo[destino]] += delta;
+                    if (liquido[origem] != liquido[destino]) {
+                        usoLiquido += liquido[destino] ? delta : -delta;
+                    }
+                    melhorou = true;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -4,63 +4,81 @@ import jakarta.enterprise.context.ApplicationScoped;
 import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
 import org.lucasnogueira.model.enums.TipoPerfilRisco;
 
-import java.math.BigDecimal;
+import java.util.Arrays;
 
+/**
+ * Classifica o perfil de risco a partir do valor e do prazo da simulação.
+ * As curvas de score são pré-calculadas: o prazo (inteiro) indexa diretamente uma tabela
+ * e o valor é localizado por busca binária na tabela de pontos de quebra. Nenhum objeto
+ * é alocado por requisição.
+ */
 @ApplicationScoped
 public class PerfilRiscoCalculator {
 
+    // Curva de valor: interpolação linear entre os pontos-chave; acima do último ponto o score é fixo
+    private static final double[] VALOR_PONTOS = {20000, 50000, 100000, 300000, 1000000, 5000000};
+    private static final double[] VALOR_SCORES = {-1.0, 0.5, 1.5, 2.5, 3.5, 4.5};
+    private static final double SCORE_VALOR_MAXIMO = 5.0;   // > 5M = +5
+
+    // Curva de prazo: interpolação linear entre os pontos-chave; acima do último ponto o score é fixo
+    private static final int[] PRAZO_PONTOS = {3, 6, 12, 24, 48, 72};
+    private static final double[] PRAZO_SCORES = {-3.0, -2.0, -0.5, 0.5, 1.5, 2.0};
+    private static final int PRAZO_MAXIMO_TABELADO = PRAZO_PONTOS[PRAZO_PONTOS.length - 1];
+    private static final double[] SCORE_POR_PRAZO = tabelarScorePrazo();
+
+    // Índice = quantidade de limites ultrapassados (<= 0.5 CONSERVADOR, <= 4.0 MODERADO, acima AGRESSIVO)
+    private static final TipoPerfilRisco[] PERFIS = {
+            TipoPerfilRisco.CONSERVADOR, TipoPerfilRisco.MODERADO, TipoPerfilRisco.AGRESSIVO
+    };
+
     public TipoPerfilRisco calcular(SimulacaoRequestDTO requestDTO) {
-        double score = calcularScoreTotal(requestDTO);
+        double score = calcularScoreValor(requestDTO.getValor().doubleValue())
+                + calcularScorePrazo(requestDTO.getPrazoMeses());
         return determinarPerfil(score);
     }
 
-    private double calcularScoreTotal(SimulacaoRequestDTO requestDTO) {
-        BigDecimal valor = requestDTO.getValor();
-        int prazo = requestDTO.getPrazoMeses();
-
-        // Score baseado em valor (usando interpolação)
-        double scoreValor = calcularScoreValor(valor);
+    static double calcularScoreValor(double v) {
+        int busca = Arrays.binarySearch(VALOR_PONTOS, v);
+        // Primeiro ponto >= v: o valor pertence ao segmento que termina nesse ponto
+        int segmento = busca >= 0 ? busca : -busca - 1;
 
-        // Score baseado em prazo (usando interpolação)
-        double scorePrazo = calcularScorePrazo(prazo);
+        if (segmento == 0) return VALOR_SCORES[0];                     // <= 20K = -1
+        if (segmento == VALOR_PONTOS.length) return SCORE_VALOR_MAXIMO;
+        return interpolate(VALOR_SCORES[segmento - 1], VALOR_SCORES[segmento], v,
+                VALOR_PONTOS[segmento - 1], VALOR_PONTOS[segmento]);
+    }
 
-        return scoreValor + scorePrazo;
+    static double calcularScorePrazo(int prazo) {
+        // Prazos abaixo de zero têm o mesmo score de prazo zero; acima da tabela o score é fixo
+        return SCORE_POR_PRAZO[Math.min(Math.max(prazo, 0), PRAZO_MAXIMO_TABELADO + 1)];
     }
 
-    private double calcularScoreValor(BigDecimal valor) {
-        double v = valor.doubleValue();
+    static TipoPerfilRisco determinarPerfil(double score) {
+        return PERFIS[(score > 0.5 ? 1 : 0) + (score > 4.0 ? 1 : 0)];
+    }
 
-        // Interpolação linear entre pontos-chave
-        if (v <= 20000) return -1.0;                    // <= 20K = -1
-        if (v <= 50000) return interpolate(-1.0, 0.5, v, 20000, 50000);   // 20K-50K = -1 a +0.5
-        if (v <= 100000) return interpolate(0.5, 1.5, v, 50000, 100000);  // 50K-100K = +0.5 a +1.5
-        if (v <= 300000) return interpolate(1.5, 2.5, v, 100000, 300000); // 100K-300K = +1.5 a +2.5
-        if (v <= 1000000) return interpolate(2.5, 3.5, v, 300000, 1000000); // 300K-1M = +2.5 a +3.5
-        if (v <= 5000000) return interpolate(3.5, 4.5, v, 1000000, 5000000); // 1M-5M = +3.5 a +4.5
-        return 5.0;                                     // > 5M = +5
+    private static double[] tabelarScorePrazo() {
+        double[] tabela = new double[PRAZO_MAXIMO_TABELADO + 2];
+        for (int prazo = 0; prazo < tabela.length; prazo++) {
+            tabela[prazo] = interpolarPrazo(prazo);
+        }
+        return tabela;
     }
 
-    private double calcularScorePrazo(int prazo) {
-        // Interpolação linear para prazos
-        if (prazo <= 3) return -3.0;                    // <= 3 meses = -3
-        if (prazo <= 6) return interpolate(-3.0, -2.0, prazo, 3, 6);     // 3-6 meses = -3 a -2
-        if (prazo <= 12) return interpolate(-2.0, -0.5, prazo, 6, 12);   // 6-12 meses = -2 a -0.5
-        if (prazo <= 24) return interpolate(-0.5, 0.5, prazo, 12, 24);   // 12-24 meses = -0.5 a +0.5
-        if (prazo <= 48) return interpolate(0.5, 1.5, prazo, 24, 48);    // 24-48 meses = +0.5 a +1.5
-        if (prazo <= 72) return interpolate(1.5, 2.0, prazo, 48, 72);    // 48-72 meses = +1.5 a +2
-        return 2.0;                                     // > 72 meses = +2
+    private static double interpolarPrazo(int prazo) {
+        if (prazo <= PRAZO_PONTOS[0]) return PRAZO_SCORES[0];           // <= 3 meses = -3
+        for (int i = 1; i < PRAZO_PONTOS.length; i++) {
+            if (prazo <= PRAZO_PONTOS[i]) {
+                return interpolate(PRAZO_SCORES[i - 1], PRAZO_SCORES[i], prazo, PRAZO_PONTOS[i - 1], PRAZO_PONTOS[i]);
+            }
+        }
+        return PRAZO_SCORES[PRAZO_SCORES.length - 1];                  // > 72 meses = +2
     }
 
     // Função de interpolação linear
-    private double interpolate(double minVal, double maxVal, double current, double minRange, double maxRange) {
+    private static double interpolate(double minVal, double maxVal, double current, double minRange, double maxRange) {
         if (maxRange <= minRange) return minVal;
         double ratio = (current - minRange) / (maxRange - minRange);
         return minVal + ratio * (maxVal - minVal);
     }
-
-    private TipoPerfilRisco determinarPerfil(double score) {
-        if (score <= 0.5) return TipoPerfilRisco.CONSERVADOR;    // -4 a +0.5
-        if (score <= 4.0) return TipoPerfilRisco.MODERADO;       // +0.6 a +4.0
-        return TipoPerfilRisco.AGRESSIVO;                         // +4.1+
-    }
-}
\ No newline at end of file
+}
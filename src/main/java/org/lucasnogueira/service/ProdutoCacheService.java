@@ -1,17 +1,29 @@
 package org.lucasnogueira.service;
 
 import io.quarkus.cache.CacheResult;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.context.api.ManagedExecutorConfig;
+import io.smallrye.context.api.NamedInstance;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.eclipse.microprofile.context.ThreadContext;
 import org.jboss.logging.Logger;
+import org.lucasnogueira.exceptions.CatalogoIndisponivelException;
+import org.lucasnogueira.model.CatalogoCompilado;
 import org.lucasnogueira.model.entities.Produto;
 import org.lucasnogueira.repositories.ProdutoRepository;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Serviço responsável pelo cache da entidade Produto
@@ -25,10 +37,41 @@ public class ProdutoCacheService {
     @Inject
     ProdutoRepository produtoRepository;
 
+    @Inject
+    RecomendacaoCacheService recomendacaoCacheService;
+
+    @Inject
+    LimiteTempoService limiteTempoService;
+
+    @Inject
+    @ManagedExecutorConfig(propagated = ThreadContext.ALL_REMAINING)
+    @NamedInstance("MyExecutor")
+    ManagedExecutor managedExecutor;
+
+    @ConfigProperty(name = "app.simulacao.previa.renovacao-catalogo-s", defaultValue = "300")
+    long renovacaoCatalogoSegundos = 300;
+
     private final AtomicLong cacheHits = new AtomicLong(0);
     private final AtomicLong cacheMisses = new AtomicLong(0);
     private volatile LocalDateTime lastAccess;
 
+    private final AtomicLong versaoCatalogo = new AtomicLong(0);
+    private final AtomicReference<CatalogoCarregado> catalogoCompilado = new AtomicReference<>();
+    private final AtomicBoolean renovando = new AtomicBoolean(false);
+    private final Object compilacao = new Object();
+    private volatile long verificadoEmNanos;
+
+    /**
+     * Compila o catálogo na subida para que a prévia já encontre o snapshot em memória
+     */
+    void onStart(@Observes StartupEvent event) {
+        try {
+            obterCatalogoCompilado();
+        } catch (RuntimeException e) {
+            LOG.warnf(e, "[CATALOGO] Falha ao compilar o catálogo na inicialização");
+        }
+    }
+
     /**
      * Busca todos os produtos com cache sob demanda
      * Cache expira 5 minutos após o último acesso
@@ -51,7 +94,8 @@ public class ProdutoCacheService {
             LOG.infof("🔍 [CACHE MISS] Consultando banco de dados. Total misses: %d", cacheMisses.get());
         }
 
-        List<Produto> produtos = produtoRepository.listAll();
+        limiteTempoService.verificar("catalogo");
+        List<Produto> produtos = produtoRepository.listarCatalogo();
         LOG.infof("[BANCO] %d produtos carregados às %s",
                 produtos.size(), LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss")));
 
@@ -83,4 +127,69 @@ public class ProdutoCacheService {
 
         return produtoRepository.findTiposDistintos();
     }
+
+    /**
+     * Retorna o catálogo compilado correspondente à lista atualmente em cache.
+     * O snapshot só é recompilado quando o cache de produtos é recarregado.
+     */
+    public CatalogoCompilado obterCatalogoCompilado() {
+        List<Produto> produtos = findAllProdutos();
+        verificadoEmNanos = System.nanoTime();
+
+        CatalogoCarregado atual = catalogoCompilado.get();
+        if (atual != null && atual.origem() == produtos) {
+            return atual.catalogo();
+        }
+
+        // Compilação serializada: o snapshot publicado e a versão invalidada na tabela de
+        // recomendações avançam juntos, sem que uma compilação mais antiga sobrescreva a mais nova
+        synchronized (compilacao) {
+            atual = catalogoCompilado.get();
+            if (atual != null && atual.origem() == produtos) {
+                return atual.catalogo();
+            }
+
+            CatalogoCompilado novo = CatalogoCompilado.compilar(produtos, versaoCatalogo.incrementAndGet());
+            catalogoCompilado.set(new CatalogoCarregado(produtos, novo));
+            recomendacaoCacheService.invalidar(novo.getVersao());
+            LOG.infof("[CATALOGO] Catálogo compilado (versão %d) com %d produtos", novo.getVersao(), novo.tamanho());
+
+            return novo;
+        }
+    }
+
+    /**
+     * Último catálogo compilado, sem consultar o banco nem bloquear: pode ser chamado na thread de I/O.
+     * Se o snapshot não foi conferido com o cache de produtos há mais de
+     * app.simulacao.previa.renovacao-catalogo-s, a conferência é agendada em segundo plano
+     * e a chamada atual usa o snapshot vigente.
+     */
+    public CatalogoCompilado obterCatalogoEmMemoria() {
+        CatalogoCarregado atual = catalogoCompilado.get();
+        if (atual == null) {
+            renovarEmSegundoPlano();
+            throw new CatalogoIndisponivelException("Catálogo de produtos ainda não carregado");
+        }
+        if (System.nanoTime() - verificadoEmNanos > TimeUnit.SECONDS.toNanos(renovacaoCatalogoSegundos)) {
+            renovarEmSegundoPlano();
+        }
+        return atual.catalogo();
+    }
+
+    private void renovarEmSegundoPlano() {
+        if (managedExecutor == null || !renovando.compareAndSet(false, true)) {
+            return;
+        }
+        managedExecutor.runAsync(() -> {
+            try {
+                obterCatalogoCompilado();
+            } catch (RuntimeException e) {
+                LOG.warnf(e, "[CATALOGO] Falha ao renovar o catálogo em segundo plano");
+            } finally {
+                renovando.set(false);
+            }
+        });
+    }
+
+    private record CatalogoCarregado(List<Produto> origem, CatalogoCompilado catalogo) {}
 }
\ No newline at end of file
@@ -1,46 +1,192 @@
 package org.lucasnogueira.service;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.ProdutoComScore;
 import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
 
 import org.lucasnogueira.model.entities.Produto;
 import org.lucasnogueira.model.enums.NivelRiscoEnum;
 import org.lucasnogueira.model.enums.TipoPerfilRisco;
+import org.lucasnogueira.service.CrescimentoCompostoCalculator.TaxasIndexadas;
+import org.lucasnogueira.service.RentabilidadeLiquidaCalculator.PrazoTributario;
+import org.lucasnogueira.util.SelecaoTopK;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
 @ApplicationScoped
 public class ProdutoScoreCalculator {
 
-    public double calcular(Produto produto, SimulacaoRequestDTO req, TipoPerfilRisco perfil, List<Produto> todosProdutos) {
-        PesosScore pesos = obterPesosPorPerfil(perfil);
+    @Inject
+    RentabilidadeLiquidaCalculator rentabilidadeLiquidaCalculator;
+
+    @Inject
+    CrescimentoCompostoCalculator crescimentoCompostoCalculator;
 
+    public double calcular(Produto produto, SimulacaoRequestDTO req, TipoPerfilRisco perfil, List<Produto> todosProdutos) {
         double retornoMaximo = calcularRetornoMaximo(todosProdutos);
         double liquidezMinima = calcularLiquidezMinima(todosProdutos);
         double liquidezMaxima = calcularLiquidezMaxima(todosProdutos);
 
-        double taxaBruta = produto.getTaxaAnualOferecida().doubleValue();
         double aliquotaIr = calcularAliquotaIr(req.getPrazoMeses() * 30, produto.getTipo());
-        double taxaLiquida = taxaBruta * (1 - aliquotaIr);
 
-        double retornoNorm = taxaLiquida / retornoMaximo;
-        double liquidezNorm = normalizarLiquidez(produto.getLiquidezDias(), req.getPrazoMeses() * 30, liquidezMinima, liquidezMaxima);
-        double riscoNorm = normalizarRisco(produto.getRisco(), perfil);
+        return KernelScore.para(perfil).pontuar(produto.getTaxaAnualOferecida().doubleValue(), aliquotaIr,
+                produto.getLiquidezDias(), NivelRiscoEnum.fromString(produto.getRisco()).getValor(), req.getPrazoMeses(),
+                normalizarVolume(req.valorTotalInvestido()), retornoMaximo, liquidezMinima, liquidezMaxima);
+    }
+
+    /**
+     * Calcula o score de um produto do catálogo compilado, usando as estatísticas
+     * do próprio catálogo (equivalente a {@link #calcular(Produto, SimulacaoRequestDTO, TipoPerfilRisco, List)})
+     */
+    public double calcular(CatalogoCompilado catalogo, int indice, SimulacaoRequestDTO req, TipoPerfilRisco perfil) {
+        return pontuar(catalogo, indice, prepararParametros(catalogo, req, perfil, rentabilidadeLiquidaCalculator,
+                crescimentoCompostoCalculator));
+    }
+
+    /**
+     * Encontra o produto de maior score do catálogo em uma única passada.
+     * Em caso de empate, prevalece o primeiro produto do catálogo.
+     */
+    public ProdutoComScore encontrarMelhorProduto(CatalogoCompilado catalogo, SimulacaoRequestDTO req, TipoPerfilRisco perfil) {
+        ParametrosScore parametros = prepararParametros(catalogo, req, perfil, rentabilidadeLiquidaCalculator,
+                crescimentoCompostoCalculator);
+        int melhorIndice = parametros.kernel().melhorIndice(catalogo, parametros);
+
+        if (melhorIndice < 0) {
+            throw new IllegalStateException("Nenhum produto disponível para simulação");
+        }
+        return new ProdutoComScore(catalogo.produto(melhorIndice), parametros.kernel().pontuar(catalogo, melhorIndice, parametros));
+    }
+
+    /**
+     * Encontra os K produtos de maior score, do melhor para o pior, em uma única passada.
+     * Apenas os K vencedores são convertidos em {@link ProdutoComScore}; o primeiro é o
+     * mesmo produto retornado por {@link #encontrarMelhorProduto(CatalogoCompilado, SimulacaoRequestDTO, TipoPerfilRisco)}.
+     */
+    public List<ProdutoComScore> encontrarMelhoresProdutos(CatalogoCompilado catalogo, SimulacaoRequestDTO req,
+                                                           TipoPerfilRisco perfil, int k) {
+        if (catalogo.isVazio()) {
+            throw new IllegalStateException("Nenhum produto disponível para simulação");
+        }
+
+        ParametrosScore parametros = prepararParametros(catalogo, req, perfil, rentabilidadeLiquidaCalculator,
+                crescimentoCompostoCalculator);
+        double[] scores = new double[catalogo.tamanho()];
+        parametros.kernel().pontuarFaixa(catalogo, parametros, scores, 0, scores.length);
+
+        SelecaoTopK selecao = new SelecaoTopK(Math.min(k, scores.length));
+        for (int i = 0; i < scores.length; i++) {
+            selecao.oferecer(i, scores[i]);
+        }
+        return paraLista(catalogo, selecao.ordenar());
+    }
+
+    static List<ProdutoComScore> paraLista(CatalogoCompilado catalogo, SelecaoTopK selecao) {
+        List<ProdutoComScore> vencedores = new ArrayList<>(selecao.tamanho());
+        for (int posicao = 0; posicao < selecao.tamanho(); posicao++) {
+            vencedores.add(new ProdutoComScore(catalogo.produto(selecao.indice(posicao)), selecao.score(posicao)));
+        }
+        return vencedores;
+    }
+
+    /**
+     * Resolve uma única vez por requisição tudo o que não depende do produto, inclusive o kernel do perfil
+     */
+    static ParametrosScore prepararParametros(SimulacaoRequestDTO req, TipoPerfilRisco perfil) {
+        return prepararParametros(null, req, perfil, null, null);
+    }
+
+    /**
+     * Como {@link #prepararParametros(SimulacaoRequestDTO, TipoPerfilRisco)}; com o cálculo de rentabilidade
+     * líquida habilitado, o retorno do score passa a ser a taxa líquida anual do prazo e, se o catálogo
+     * tiver produtos indexados, eles pontuam pela taxa da curva no prazo. Nesses casos o retorno máximo
+     * que normaliza o score é calculado na mesma base, uma vez por requisição.
+     */
+    static ParametrosScore prepararParametros(CatalogoCompilado catalogo, SimulacaoRequestDTO req,
+                                              TipoPerfilRisco perfil,
+                                              RentabilidadeLiquidaCalculator rentabilidadeLiquida,
+                                              CrescimentoCompostoCalculator crescimento) {
+        int prazoMeses = req.getPrazoMeses();
+        PrazoTributario tributacao = rentabilidadeLiquida != null && rentabilidadeLiquida.isHabilitado()
+                ? rentabilidadeLiquida.prazo(prazoMeses) : null;
+        TaxasIndexadas indexadas = crescimento != null && catalogo != null && catalogo.possuiIndexados()
+                ? crescimento.taxasIndexadas(prazoMeses) : null;
+        ParametrosScore parametros = new ParametrosScore(KernelScore.para(perfil), prazoMeses,
+                calcularAliquotaIr(prazoMeses * 30, false, false), normalizarVolume(req.valorTotalInvestido()),
+                tributacao, indexadas, Double.NaN);
+        if (catalogo == null || catalogo.isVazio() || (tributacao == null && indexadas == null)) {
+            return parametros;
+        }
+
+        double maximo = taxaScore(catalogo, 0, parametros);
+        for (int i = 1; i < catalogo.tamanho(); i++) {
+            maximo = Math.max(maximo, taxaScore(catalogo, i, parametros));
+        }
+        return new ParametrosScore(parametros.kernel(), prazoMeses, parametros.aliquotaTributavel(),
+                parametros.volumeNorm(), tributacao, indexadas, maximo);
+    }
 
-        double volumeNorm = normalizarVolume(req.getValor());
-        double frequenciaNorm = normalizarFrequencia(produto, req.getPrazoMeses());
+    /**
+     * Retorno máximo que normaliza o retorno do score, na mesma base de {@link #taxaScore}
+     */
+    static double retornoMaximo(CatalogoCompilado catalogo, ParametrosScore parametros) {
+        return Double.isNaN(parametros.retornoMaximo()) ? catalogo.getRetornoMaximo() : parametros.retornoMaximo();
+    }
 
-        double score = pesos.retorno() * retornoNorm +
-                pesos.liquidez() * liquidezNorm +
-                pesos.risco() * riscoNorm +
-                0.10 * volumeNorm +
-                0.10 * frequenciaNorm;
+    /**
+     * Score de um produto do catálogo compilado, sem alocação e sem trabalho com strings
+     */
+    static double pontuar(CatalogoCompilado catalogo, int i, ParametrosScore parametros) {
+        return parametros.kernel().pontuar(catalogo, i, parametros);
+    }
+
+    /**
+     * Alíquota de IR do produto do catálogo para o prazo da requisição
+     */
+    static double aliquotaIr(CatalogoCompilado catalogo, int i, ParametrosScore parametros) {
+        return catalogo.isentoIr(i) ? 0.0 : catalogo.rendaVariavel(i) ? 0.15 : parametros.aliquotaTributavel();
+    }
+
+    /**
+     * Taxa bruta do produto no prazo: a da curva para indexados ou, sem ela, a taxa do catálogo
+     */
+    static double taxaBruta(CatalogoCompilado catalogo, int i, ParametrosScore parametros) {
+        return parametros.indexadas() != null && catalogo.indexado(i)
+                ? parametros.indexadas().taxaAnual(catalogo.indexador(i), catalogo.taxaIndexador(i))
+                : catalogo.taxaBruta(i);
+    }
 
-        return Math.max(0.0, Math.min(1.0, score));
+    /**
+     * Taxa usada no retorno do score: a taxa líquida anual do prazo ou, sem ela, a taxa bruta
+     */
+    static double taxaScore(CatalogoCompilado catalogo, int i, ParametrosScore parametros) {
+        double taxa = taxaBruta(catalogo, i, parametros);
+        return parametros.tributacao() != null
+                ? parametros.tributacao().taxaLiquidaAnual(catalogo, i, taxa) : taxa;
     }
 
-    private double normalizarVolume(BigDecimal valorInvestimento) {
+    /**
+     * Alíquota aplicada à taxa do score; zero quando a taxa já é líquida
+     */
+    static double aliquotaScore(CatalogoCompilado catalogo, int i, ParametrosScore parametros) {
+        return parametros.tributacao() != null ? 0.0 : aliquotaIr(catalogo, i, parametros);
+    }
+
+    /**
+     * Alíquota de IR do produto do catálogo para um prazo qualquer, sem preparar os parâmetros da requisição
+     */
+    static double aliquotaIr(CatalogoCompilado catalogo, int i, int prazoMeses) {
+        return calcularAliquotaIr(prazoMeses * 30, catalogo.isentoIr(i), catalogo.rendaVariavel(i));
+    }
+
+    /**
+     * Faixa de volume do valor investido; valores da mesma faixa pontuam igual
+     */
+    static double normalizarVolume(BigDecimal valorInvestimento) {
         double valor = valorInvestimento.doubleValue();
 
         if (valor >= 100000) return 1.0;      // Alto volume
@@ -50,28 +196,20 @@ public class ProdutoScoreCalculator {
         return 0.2;                           // Muito baixo
     }
 
-    private double normalizarFrequencia(Produto produto, int prazoMeses) {
+    static double normalizarFrequencia(int liquidezDias, int prazoMeses) {
         // Clientes com prazos menores tendem a movimentar mais
         if (prazoMeses <= 6) {
             // Prazo curto = alta frequência esperada = prefere liquidez
-            return produto.getLiquidezDias() <= 30 ? 1.0 : 0.3;
+            return liquidezDias <= 30 ? 1.0 : 0.3;
         } else if (prazoMeses <= 24) {
             // Prazo médio = frequência moderada
-            return produto.getLiquidezDias() <= 90 ? 0.8 : 0.6;
+            return liquidezDias <= 90 ? 0.8 : 0.6;
         } else {
             // Prazo longo = baixa frequência = aceita menor liquidez
-            return produto.getLiquidezDias() >= 90 ? 1.0 : 0.7;
+            return liquidezDias >= 90 ? 1.0 : 0.7;
         }
     }
 
-    private PesosScore obterPesosPorPerfil(TipoPerfilRisco perfil) {
-        return switch (perfil) {
-            case CONSERVADOR -> new PesosScore(0.12, 0.36, 0.32);
-            case MODERADO -> new PesosScore(0.24, 0.20, 0.36);
-            default -> new PesosScore(0.32, 0.08, 0.40);
-        };
-    }
-
     private double calcularRetornoMaximo(List<Produto> produtos) {
         return produtos.stream()
                 .mapToDouble(p -> p.getTaxaAnualOferecida().doubleValue())
@@ -93,29 +231,30 @@ public class ProdutoScoreCalculator {
                 .orElse(1.0);
     }
 
-    private double calcularAliquotaIr(int dias, String tipo) {
-        if (tipo.equalsIgnoreCase("LCI") || tipo.equalsIgnoreCase("LCA")) return 0.0;
-        if (tipo.equalsIgnoreCase("Ações")) return 0.15;
+    private static double calcularAliquotaIr(int dias, String tipo) {
+        return calcularAliquotaIr(dias,
+                tipo.equalsIgnoreCase("LCI") || tipo.equalsIgnoreCase("LCA"),
+                tipo.equalsIgnoreCase("Ações"));
+    }
+
+    private static double calcularAliquotaIr(int dias, boolean isentoIr, boolean rendaVariavel) {
+        if (isentoIr) return 0.0;
+        if (rendaVariavel) return 0.15;
         if (dias <= 180) return 0.225;
         if (dias <= 360) return 0.20;
         if (dias <= 720) return 0.175;
         return 0.15;
     }
 
-    private double normalizarLiquidez(double diasLiquidez, int prazoClienteDias, double liquidezMin, double liquidezMax) {
+    static double normalizarLiquidez(double diasLiquidez, int prazoClienteDias, double liquidezMin, double liquidezMax) {
         if (diasLiquidez <= prazoClienteDias) return 1.0;
         if (liquidezMax <= liquidezMin) return 0.0;
         return Math.max(0, 1.0 - (diasLiquidez - prazoClienteDias) / (liquidezMax - liquidezMin));
     }
 
-    private double normalizarRisco(String rating, TipoPerfilRisco perfil) {
-        double nivelRisco = NivelRiscoEnum.fromString(rating).getValor();
-        return switch (perfil) {
-            case CONSERVADOR -> 1.0 - (nivelRisco - 1.0) / 9.0;
-            case MODERADO -> 1.0 - Math.abs(5.0 - nivelRisco) / 5.0;
-            default -> (nivelRisco - 1.0) / 9.0;
-        };
-    }
-
-    private record PesosScore(double retorno, double liquidez, double risco) {}
+    // tributacao é nula quando o score usa a taxa bruta com a alíquota de IR do prazo;
+    // indexadas é nula quando os indexados pontuam pela taxa de referência do catálogo;
+    // retornoMaximo é NaN quando a base é a taxa bruta do catálogo (vale o máximo do próprio catálogo)
+    record ParametrosScore(KernelScore kernel, int prazoMeses, double aliquotaTributavel, double volumeNorm,
+                           PrazoTributario tributacao, TaxasIndexadas indexadas, double retornoMaximo) {}
 }
\ No newline at end of file
@@ -0,0 +1,187 @@
+package org.lucasnogueira.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+import org.lucasnogueira.model.dto.PontoProjecaoDTO;
+import org.lucasnogueira.model.entities.Produto;
+import org.lucasnogueira.model.entities.Simulacao;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Série mensal do saldo projetado de uma simulação.
+ * A série é calculada de forma incremental (saldo(m+1) = saldo(m) × fator mensal + aporte) em uma
+ * única passada sobre doubles. O último ponto é o valor final da simulação, para que o
+ * gráfico termine exatamente no valor apresentado ao cliente. Com capitalização por dias úteis,
+ * cada mês usa o fator dos seus próprios dias úteis, a partir da data da simulação.
+ */
+@ApplicationScoped
+public class ProjecaoService {
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    ProdutoCacheService produtoCacheService;
+
+    @Inject
+    CrescimentoCompostoCalculator crescimentoCompostoCalculator;
+
+    @ConfigProperty(name = "app.simulacao.projecao.prazo-maximo-meses", defaultValue = "1200")
+    int prazoMaximoMeses;
+
+    /**
+     * Recebe cada ponto da série à medida que é calculado
+     */
+    @FunctionalInterface
+    public interface ConsumidorPonto {
+        void aceitar(int mes, double saldo) throws IOException;
+    }
+
+    /**
+     * Gera os saldos dos meses 0..prazoMeses; o mês 0 é o valor investido
+     */
+    public static void gerarSerie(double valorInicial, double taxaAnual, int prazoMeses, ConsumidorPonto consumidor)
+            throws IOException {
+        gerarSerie(valorInicial, 0.0, taxaAnual, prazoMeses, consumidor);
+    }
+
+    /**
+     * Como {@link #gerarSerie(double, double, int, ConsumidorPonto)}, com o aporte somado ao final de cada mês
+     */
+    public static void gerarSerie(double valorInicial, double aporteMensal, double taxaAnual, int prazoMeses,
+                                  ConsumidorPonto consumidor) throws IOException {
+        double fatorMensal = Math.pow(1.0 + taxaAnual, 1.0 / 12.0);
+        double saldo = valorInicial;
+
+        consumidor.aceitar(0, saldo);
+        for (int mes = 1; mes <= prazoMeses; mes++) {
+            saldo = saldo * fatorMensal + aporteMensal;
+            consumidor.aceitar(mes, saldo);
+        }
+    }
+
+    /**
+     * Gera os saldos com o fator de crescimento de cada mês (fatoresMensais[m - 1] leva o mês m - 1 ao mês m)
+     */
+    public static void gerarSerie(double valorInicial, double aporteMensal, double[] fatoresMensais,
+                                  ConsumidorPonto consumidor) throws IOException {
+        double saldo = valorInicial;
+
+        consumidor.aceitar(0, saldo);
+        for (int mes = 1; mes <= fatoresMensais.length; mes++) {
+            saldo = saldo * fatoresMensais[mes - 1] + aporteMensal;
+            consumidor.aceitar(mes, saldo);
+        }
+    }
+
+    public void validarPrazo(int prazoMeses) {
+        if (prazoMeses > prazoMaximoMeses) {
+            throw new SmartInvestApiException(String.format(
+                    "A projeção mensal está disponível para prazos de até %d meses.", prazoMaximoMeses));
+        }
+    }
+
+    /**
+     * Série completa para retorno junto com a simulação
+     */
+    public List<PontoProjecaoDTO> projetar(BigDecimal valorInicial, BigDecimal taxaAnual, int prazoMeses, BigDecimal valorFinal) {
+        return projetar(valorInicial, null, taxaAnual, prazoMeses, valorFinal);
+    }
+
+    /**
+     * Série completa com aporte mensal opcional (null ou zero para apenas o valor inicial)
+     */
+    public List<PontoProjecaoDTO> projetar(BigDecimal valorInicial, BigDecimal aporteMensal, BigDecimal taxaAnual,
+                                           int prazoMeses, BigDecimal valorFinal) {
+        List<PontoProjecaoDTO> serie = new ArrayList<>(prazoMeses + 1);
+        try {
+            gerarSerie(valorInicial.doubleValue(), valorAporte(aporteMensal), taxaAnual.doubleValue(), prazoMeses,
+                    crescimentoCompostoCalculator.dataReferencia(), (mes, saldo) -> serie.add(new PontoProjecaoDTO(mes,
+                            mes == prazoMeses && valorFinal != null ? valorFinal : centavos(saldo))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return serie;
+    }
+
+    /**
+     * Série da simulação persistida, escrita no corpo da resposta à medida que é gerada
+     */
+    public StreamingOutput projetar(Simulacao simulacao) {
+        int prazoMeses = simulacao.getPrazoMeses();
+        validarPrazo(prazoMeses);
+        BigDecimal taxaAnual = obterTaxaAnual(simulacao);
+
+        return saida -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(saida)) {
+                json.writeStartObject();
+                json.writeNumberField("simulacaoId", simulacao.getId());
+                json.writeNumberField("valorInvestido", simulacao.getValorInvestido());
+                json.writeNumberField("taxaAnual", taxaAnual);
+                json.writeNumberField("prazoMeses", prazoMeses);
+                if (simulacao.getAporteMensal() != null) {
+                    json.writeNumberField("aporteMensal", simulacao.getAporteMensal());
+                }
+                json.writeNumberField("valorFinal", simulacao.getValorFinal());
+
+                json.writeArrayFieldStart("serie");
+                gerarSerie(simulacao.getValorInvestido().doubleValue(), valorAporte(simulacao.getAporteMensal()),
+                        taxaAnual.doubleValue(), prazoMeses,
+                        crescimentoCompostoCalculator.dataReferencia(simulacao.getDataSimulacao()), (mes, saldo) -> {
+                    json.writeStartObject();
+                    json.writeNumberField("mes", mes);
+                    json.writeNumberField("saldo", mes == prazoMeses && simulacao.getValorFinal() != null
+                            ? simulacao.getValorFinal() : centavos(saldo));
+                    json.writeEndObject();
+                });
+                json.writeEndArray();
+
+                json.writeEndObject();
+            }
+        };
+    }
+
+    private void gerarSerie(double valorInicial, double aporteMensal, double taxaAnual, int prazoMeses,
+                            LocalDate inicio, ConsumidorPonto consumidor) throws IOException {
+        if (crescimentoCompostoCalculator.isDiasUteis()) {
+            gerarSerie(valorInicial, aporteMensal,
+                    crescimentoCompostoCalculator.fatoresMensais(taxaAnual, prazoMeses, inicio), consumidor);
+        } else {
+            gerarSerie(valorInicial, aporteMensal, taxaAnual, prazoMeses, consumidor);
+        }
+    }
+
+    // Simulações gravadas antes da rentabilidade ser persistida usam a taxa atual do produto
+    private BigDecimal obterTaxaAnual(Simulacao simulacao) {
+        if (simulacao.getRentabilidadeEfetiva() != null) {
+            return simulacao.getRentabilidadeEfetiva();
+        }
+
+        return produtoCacheService.findAllProdutos().stream()
+                .filter(produto -> produto.getId().equals(simulacao.getCodigoProduto()))
+                .map(Produto::getTaxaAnualOferecida)
+                .findFirst()
+                .orElseThrow(() -> new SmartInvestApiException(
+                        "Produto da simulação não encontrado para calcular a projeção."));
+    }
+
+    private static double valorAporte(BigDecimal aporteMensal) {
+        return aporteMensal != null ? aporteMensal.doubleValue() : 0.0;
+    }
+
+    private static BigDecimal centavos(double saldo) {
+        return BigDecimal.valueOf(saldo).setScale(2, RoundingMode.HALF_UP);
+    }
+}
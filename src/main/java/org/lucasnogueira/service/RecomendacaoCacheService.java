@@ -0,0 +1,137 @@
+package org.lucasnogueira.service;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.metrics.Meter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.ProdutoComScore;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Memoização do produto recomendado.
+ * O vencedor do score depende apenas do perfil, do prazo, da faixa de volume do valor
+ * investido, do tipo de produto resolvido, da versão do catálogo e da data de referência
+ * (curvas dos indexados e tributação partem de hoje); clienteId e o valor exato dentro da
+ * faixa não alteram o resultado. A tabela é mantida por versão do catálogo e por dia e
+ * substituída de forma atômica quando o catálogo é recarregado ou o dia vira.
+ */
+@Slf4j
+@ApplicationScoped
+public class RecomendacaoCacheService {
+
+    @Inject
+    OpenTelemetry openTelemetry;
+
+    @Inject
+    CrescimentoCompostoCalculator crescimentoCompostoCalculator;
+
+    @ConfigProperty(name = "app.simulacao.recomendacao-cache.enabled", defaultValue = "true")
+    boolean habilitado;
+
+    @ConfigProperty(name = "app.simulacao.recomendacao-cache.maximo-entradas", defaultValue = "10000")
+    int maximoEntradas;
+
+    private final AtomicReference<TabelaRecomendacoes> tabela =
+            new AtomicReference<>(new TabelaRecomendacoes(0, LocalDate.MIN, new ConcurrentHashMap<>()));
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @PostConstruct
+    void initMetrics() {
+        Meter meter = openTelemetry.getMeter("smartInvest");
+
+        meter.counterBuilder("recomendacao_cache_hits_total")
+                .setDescription("Recomendações atendidas pela tabela memoizada")
+                .buildWithCallback(measurement -> measurement.record(hits.sum()));
+
+        meter.counterBuilder("recomendacao_cache_misses_total")
+                .setDescription("Recomendações calculadas pelo motor de score")
+                .buildWithCallback(measurement -> measurement.record(misses.sum()));
+
+        meter.gaugeBuilder("recomendacao_cache_entradas")
+                .setDescription("Quantidade de recomendações memoizadas para a versão atual do catálogo")
+                .ofLongs()
+                .buildWithCallback(measurement -> measurement.record(tabela.get().recomendacoes().size()));
+    }
+
+    /**
+     * Retorna o produto recomendado memoizado ou calcula e memoriza o resultado
+     *
+     * @param catalogo catálogo (ou sub-catálogo do tipo resolvido) usado no score
+     * @param calcular cálculo do vencedor, executado apenas em caso de miss
+     */
+    public ProdutoComScore obter(CatalogoCompilado catalogo, SimulacaoRequestDTO req, TipoPerfilRisco perfil,
+                                 Supplier<ProdutoComScore> calcular) {
+        if (!habilitado) {
+            return calcular.get();
+        }
+
+        TabelaRecomendacoes atual = tabelaDaVersao(catalogo.getVersao(), crescimentoCompostoCalculator.dataReferencia());
+        if (atual == null) {
+            // Requisição ainda usando um catálogo (ou um dia) anterior ao da tabela
+            misses.increment();
+            return calcular.get();
+        }
+
+        ChaveRecomendacao chave = new ChaveRecomendacao(perfil, req.getPrazoMeses(),
+                ProdutoScoreCalculator.normalizarVolume(req.valorTotalInvestido()), catalogo.getTipo());
+
+        ProdutoComScore memoizado = atual.recomendacoes().get(chave);
+        if (memoizado != null) {
+            hits.increment();
+            return memoizado;
+        }
+
+        misses.increment();
+        ProdutoComScore calculado = calcular.get();
+        if (atual.recomendacoes().size() < maximoEntradas) {
+            atual.recomendacoes().putIfAbsent(chave, calculado);
+        }
+        return calculado;
+    }
+
+    /**
+     * Descarta as recomendações de versões anteriores do catálogo
+     */
+    public void invalidar(long versaoCatalogo) {
+        tabelaDaVersao(versaoCatalogo, crescimentoCompostoCalculator.dataReferencia());
+        log.debug("[RECOMENDACAO-CACHE] - Tabela de recomendações reiniciada para a versão {} do catálogo", versaoCatalogo);
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+
+    // Retorna a tabela da versão e do dia informados, substituindo a atual se ela for anterior a eles
+    private TabelaRecomendacoes tabelaDaVersao(long versaoCatalogo, LocalDate data) {
+        while (true) {
+            TabelaRecomendacoes atual = tabela.get();
+            if (atual.versaoCatalogo() == versaoCatalogo && atual.data().equals(data)) {
+                return atual;
+            }
+            if (atual.versaoCatalogo() > versaoCatalogo || atual.data().isAfter(data)) {
+                return null;
+            }
+            TabelaRecomendacoes nova = new TabelaRecomendacoes(versaoCatalogo, data, new ConcurrentHashMap<>());
+            if (tabela.compareAndSet(atual, nova)) {
+                return nova;
+            }
+        }
+    }
+
+    private record ChaveRecomendacao(TipoPerfilRisco perfil, int prazoMeses, double faixaVolume, String tipoProduto) {}
+
+    private record TabelaRecomendacoes(long versaoCatalogo, LocalDate data, Map<ChaveRecomendacao, ProdutoComScore> recomendacoes) {}
+}
@@ -0,0 +1,292 @@
+package org.lucasnogueira.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.entities.Produto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.Month;
+
+/**
+ * Rentabilidade líquida do que o cliente efetivamente resgata: IOF regressivo nos primeiros
+ * 29 dias, IR regressivo pelos dias corridos reais (ou 15% em Ações), taxa de administração
+ * e come-cotas semestral dos Fundos.
+ * Tudo o que depende apenas do prazo (dias corridos, alíquotas, datas de come-cotas) fica em
+ * um {@link PrazoTributario} calculado uma vez por prazo e por dia. Cada produto é então
+ * avaliado por fórmulas fechadas: os come-cotas de intervalos iguais viram uma potência,
+ * sem laço por dia nem por evento, em poucas centenas de nanossegundos.
+ */
+@ApplicationScoped
+public class RentabilidadeLiquidaCalculator {
+
+    // IOF sobre o rendimento por dias corridos desde a aplicação; a partir do 30º dia é zero
+    private static final double[] IOF_POR_DIA = {
+            1.00, 0.96, 0.93, 0.90, 0.86, 0.83, 0.80, 0.76, 0.73, 0.70,
+            0.66, 0.63, 0.60, 0.56, 0.53, 0.50, 0.46, 0.43, 0.40, 0.36,
+            0.33, 0.30, 0.26, 0.23, 0.20, 0.16, 0.13, 0.10, 0.06, 0.03
+    };
+    // IR regressivo da renda fixa por dias corridos; após o último dia tabelado, 15%
+    private static final double[] IR_POR_DIA = tabelarIr();
+    private static final double ALIQUOTA_RENDA_VARIAVEL = 0.15;
+
+    @Inject
+    CrescimentoCompostoCalculator crescimentoCompostoCalculator;
+
+    @Inject
+    CalendarioDiasUteis calendarioDiasUteis;
+
+    @ConfigProperty(name = "app.simulacao.retorno-liquido.enabled", defaultValue = "false")
+    boolean habilitado;
+
+    @ConfigProperty(name = "app.simulacao.retorno-liquido.aliquota-come-cotas", defaultValue = "0.15")
+    double aliquotaComeCotas = 0.15;
+
+    // Prazos tributários a partir de hoje, indexados pelo prazo em meses e preenchidos sob demanda
+    private volatile PrazosDoDia prazosDoDia;
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Dados tributários de um prazo iniciado hoje, em cache até a virada do dia
+     */
+    public PrazoTributario prazo(int prazoMeses) {
+        LocalDate hoje = crescimentoCompostoCalculator.dataReferencia();
+        PrazosDoDia doDia = prazosDoDia;
+        if (doDia == null || !doDia.data().equals(hoje)) {
+            doDia = new PrazosDoDia(hoje, new PrazoTributario[crescimentoCompostoCalculator.prazoMaximoMeses + 1]);
+            prazosDoDia = doDia;
+        }
+        if (prazoMeses < 0 || prazoMeses >= doDia.prazos().length) {
+            return calcularPrazo(prazoMeses, hoje);
+        }
+
+        // Registro imutável: uma corrida entre threads no máximo recalcula o mesmo prazo
+        PrazoTributario prazo = doDia.prazos()[prazoMeses];
+        if (prazo == null) {
+            prazo = calcularPrazo(prazoMeses, hoje);
+            doDia.prazos()[prazoMeses] = prazo;
+        }
+        return prazo;
+    }
+
+    /**
+     * Valor final líquido do valor inicial e dos aportes mensais, arredondado ao centavo
+     */
+    public BigDecimal calcularValorFinalLiquido(Produto produto, BigDecimal valorInicial, BigDecimal aporteMensal,
+                                                int prazoMeses) {
+        double valorFinal = valorFinalLiquido(produto, valorInicial.doubleValue(),
+                aporteMensal != null ? aporteMensal.doubleValue() : 0.0, prazoMeses);
+        return BigDecimal.valueOf(valorFinal).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Valor final líquido sem arredondamento, para a busca de meta em double
+     */
+    public double valorFinalLiquido(Produto produto, double valorInicial, double aporteMensal, int prazoMeses) {
+        PrazoTributario prazo = prazo(prazoMeses);
+        Caracteristicas c = Caracteristicas.de(produto, crescimentoCompostoCalculator.taxaAnual(produto, prazoMeses));
+        double valorFinal = valorInicial * prazo.multiploLiquido(c.taxa(), c.taxaAdministracao(),
+                c.isentoIr(), c.rendaVariavel(), c.fundo());
+        if (aporteMensal > 0) {
+            valorFinal += aporteMensal * prazo.multiploAportes(c.taxa(), c.taxaAdministracao(),
+                    c.isentoIr(), c.rendaVariavel());
+        }
+        return valorFinal;
+    }
+
+    /**
+     * Taxa anual equivalente ao valor líquido resgatado pelo valor inicial
+     */
+    public double calcularTaxaLiquidaAnual(Produto produto, int prazoMeses) {
+        Caracteristicas c = Caracteristicas.de(produto, crescimentoCompostoCalculator.taxaAnual(produto, prazoMeses));
+        return prazo(prazoMeses).taxaLiquidaAnual(c.taxa(), c.taxaAdministracao(), c.isentoIr(), c.rendaVariavel(),
+                c.fundo());
+    }
+
+    PrazoTributario calcularPrazo(int prazoMeses, LocalDate inicio) {
+        LocalDate fim = inicio.plusMonths(prazoMeses);
+        int dias = (int) (fim.toEpochDay() - inicio.toEpochDay());
+        double anos = crescimentoCompostoCalculator.isDiasUteis()
+                ? calendarioDiasUteis.diasUteis(inicio, fim) / 252.0 : prazoMeses / 12.0;
+
+        // Come-cotas no último dia de maio e de novembro, estritamente dentro do prazo
+        int eventos = 0;
+        long primeiro = 0;
+        long ultimo = 0;
+        for (int ano = inicio.getYear(); ano <= fim.getYear(); ano++) {
+            LocalDate[] datas = {LocalDate.of(ano, Month.MAY, 31), LocalDate.of(ano, Month.NOVEMBER, 30)};
+            for (LocalDate evento : datas) {
+                if (evento.isAfter(inicio) && evento.isBefore(fim)) {
+                    primeiro = eventos == 0 ? evento.toEpochDay() : primeiro;
+                    ultimo = evento.toEpochDay();
+                    eventos++;
+                }
+            }
+        }
+        // Posição dos eventos na mesma escala de anos do fator de crescimento
+        double anosPorDia = dias > 0 ? anos / dias : 0.0;
+        double primeiroEvento = (primeiro - inicio.toEpochDay()) * anosPorDia;
+        double intervaloEventos = eventos > 1 ? (ultimo - primeiro) * anosPorDia / (eventos - 1) : 0.0;
+
+        double aliquotaIr = IR_POR_DIA[Math.min(Math.max(dias, 0), IR_POR_DIA.length - 1)];
+        return new PrazoTributario(prazoMeses, dias, anos, aliquotaIr,
+                dias >= 0 && dias < IOF_POR_DIA.length ? IOF_POR_DIA[dias] : 0.0,
+                eventos, primeiroEvento, intervaloEventos, aliquotaComeCotas,
+                ultimoMesAte(inicio, fim, prazoMeses, 180), ultimoMesAte(inicio, fim, prazoMeses, 360),
+                ultimoMesAte(inicio, fim, prazoMeses, 720));
+    }
+
+    // Maior quantidade de meses (até prazoMeses - 1) que um aporte pode render sem passar de {@code dias} corridos
+    private static int ultimoMesAte(LocalDate inicio, LocalDate fim, int prazoMeses, int dias) {
+        int meses = Math.min(prazoMeses - 1, dias / 31);
+        while (meses + 1 <= prazoMeses - 1 && fim.toEpochDay() - fim.minusMonths(meses + 1).toEpochDay() <= dias) {
+            meses++;
+        }
+        return meses;
+    }
+
+    private static double[] tabelarIr() {
+        double[] tabela = new double[722];
+        for (int dias = 0; dias < tabela.length; dias++) {
+            if (dias <= 180) tabela[dias] = 0.225;
+            else if (dias <= 360) tabela[dias] = 0.20;
+            else if (dias <= 720) tabela[dias] = 0.175;
+            else tabela[dias] = 0.15;
+        }
+        return tabela;
+    }
+
+    private record PrazosDoDia(LocalDate data, PrazoTributario[] prazos) {}
+
+    // Mesmas regras de tipo do CatalogoCompilado, para produtos fora do catálogo compilado
+    private record Caracteristicas(double taxa, double taxaAdministracao, boolean isentoIr, boolean rendaVariavel,
+                                   boolean fundo) {
+        static Caracteristicas de(Produto produto, BigDecimal taxa) {
+            String tipo = produto.getTipo();
+            return new Caracteristicas(taxa.doubleValue(),
+                    produto.getTaxaAdministracao() != null ? produto.getTaxaAdministracao().doubleValue() : 0.0,
+                    tipo.equalsIgnoreCase("LCI") || tipo.equalsIgnoreCase("LCA"),
+                    tipo.equalsIgnoreCase("Ações"),
+                    tipo.equalsIgnoreCase("Fundos"));
+        }
+    }
+
+    /**
+     * Tudo o que depende apenas do prazo: dias corridos até o resgate, anos no expoente do
+     * fator de crescimento, alíquotas de IR e IOF do resgate e os come-cotas (quantidade,
+     * posição do primeiro e intervalo médio, em anos). Os limites de aporte são o último mês
+     * de rendimento de um aporte em cada faixa do IR (180, 360 e 720 dias).
+     */
+    public record PrazoTributario(int prazoMeses, int dias, double anos, double aliquotaIr, double iof,
+                                  int eventos, double primeiroEvento, double intervaloEventos,
+                                  double aliquotaComeCotas, int aporteAte180, int aporteAte360, int aporteAte720) {
+
+        /**
+         * Valor líquido por unidade do valor inicial do produto do catálogo, com a taxa bruta
+         * do prazo (a da curva para indexados)
+         */
+        public double multiploLiquido(CatalogoCompilado catalogo, int i, double taxa) {
+            return multiploLiquido(taxa, catalogo.taxaAdministracao(i), catalogo.isentoIr(i),
+                    catalogo.rendaVariavel(i), catalogo.fundo(i));
+        }
+
+        /**
+         * Alíquota de IR do resgate do produto neste prazo
+         */
+        public double aliquotaIr(CatalogoCompilado catalogo, int i) {
+            return catalogo.isentoIr(i) ? 0.0 : catalogo.rendaVariavel(i) ? ALIQUOTA_RENDA_VARIAVEL : aliquotaIr;
+        }
+
+        public double taxaLiquidaAnual(CatalogoCompilado catalogo, int i, double taxa) {
+            return taxaLiquidaAnual(taxa, catalogo.taxaAdministracao(i), catalogo.isentoIr(i),
+                    catalogo.rendaVariavel(i), catalogo.fundo(i));
+        }
+
+        public double taxaLiquidaAnual(double taxa, double taxaAdministracao, boolean isentoIr, boolean rendaVariavel,
+                                       boolean fundo) {
+            if (anos <= 0.0) {
+                return 0.0;
+            }
+            return Math.pow(multiploLiquido(taxa, taxaAdministracao, isentoIr, rendaVariavel, fundo), 1.0 / anos) - 1.0;
+        }
+
+        /**
+         * Valor líquido resgatado por unidade do valor inicial
+         */
+        public double multiploLiquido(double taxa, double taxaAdministracao, boolean isentoIr, boolean rendaVariavel,
+                                      boolean fundo) {
+            // Crescimento da cota por ano, já descontada a taxa de administração
+            double logCota = Math.log1p(taxa) + Math.log1p(-taxaAdministracao);
+            double cotaFinal = Math.exp(logCota * anos);
+            double rendimento = cotaFinal - 1.0;
+            if (rendaVariavel) {
+                return cotaFinal - ALIQUOTA_RENDA_VARIAVEL * Math.max(0.0, rendimento);
+            }
+
+            double aliquota = isentoIr ? 0.0 : aliquotaIr;
+            if (!fundo || eventos == 0) {
+                double iofDevido = iof * Math.max(0.0, rendimento);
+                return cotaFinal - iofDevido - aliquota * Math.max(0.0, rendimento - iofDevido);
+            }
+
+            // Cada come-cotas retém em cotas o IR antecipado sobre o ganho desde o evento anterior;
+            // com intervalos iguais, a retenção dos eventos seguintes ao primeiro é uma potência
+            double cotaPrimeiro = Math.exp(logCota * primeiroEvento);
+            double cotas = reter(cotaPrimeiro);
+            double cotaUltimo = cotaPrimeiro;
+            if (eventos > 1) {
+                cotas *= Math.pow(reter(Math.exp(logCota * intervaloEventos)), eventos - 1);
+                cotaUltimo = Math.exp(logCota * (primeiroEvento + intervaloEventos * (eventos - 1)));
+            }
+
+            // No resgate, a alíquota do prazo sobre todo o ganho das cotas restantes, menos o que já foi antecipado
+            double rendimentoCotas = cotas * rendimento;
+            double iofDevido = iof * Math.max(0.0, rendimentoCotas);
+            double irDevido = aliquota * (rendimentoCotas - iofDevido)
+                    - aliquotaComeCotas * cotas * Math.max(0.0, cotaUltimo - 1.0);
+            return cotas * cotaFinal - iofDevido - Math.max(0.0, irDevido);
+        }
+
+        /**
+         * Valor líquido resgatado por unidade de aporte mensal: o aporte do fim do mês m rende
+         * prazoMeses - m meses, e os aportes de cada faixa do IR somam uma progressão geométrica.
+         * O come-cotas não é aplicado aos aportes.
+         */
+        public double multiploAportes(double taxa, double taxaAdministracao, boolean isentoIr, boolean rendaVariavel) {
+            if (prazoMeses <= 0) {
+                return 0.0;
+            }
+            double logMes = (Math.log1p(taxa) + Math.log1p(-taxaAdministracao)) * anos / prazoMeses;
+            if (rendaVariavel || isentoIr) {
+                double aliquota = rendaVariavel ? ALIQUOTA_RENDA_VARIAVEL : 0.0;
+                return liquidoFaixa(logMes, 0, prazoMeses - 1, aliquota);
+            }
+            return liquidoFaixa(logMes, 0, aporteAte180, 0.225)
+                    + liquidoFaixa(logMes, aporteAte180 + 1, aporteAte360, 0.20)
+                    + liquidoFaixa(logMes, aporteAte360 + 1, aporteAte720, 0.175)
+                    + liquidoFaixa(logMes, aporteAte720 + 1, prazoMeses - 1, 0.15);
+        }
+
+        // Aportes que rendem de 'de' a 'ate' meses, todos com a mesma alíquota
+        private static double liquidoFaixa(double logMes, int de, int ate, double aliquota) {
+            if (ate < de) {
+                return 0.0;
+            }
+            int quantidade = ate - de + 1;
+            double bruto = logMes == 0.0 ? quantidade
+                    : Math.exp(logMes * de) * Math.expm1(logMes * quantidade) / Math.expm1(logMes);
+            double rendimento = bruto - quantidade;
+            return bruto - aliquota * Math.max(0.0, rendimento);
+        }
+
+        private double reter(double crescimento) {
+            return 1.0 - aliquotaComeCotas * Math.max(0.0, crescimento - 1.0) / crescimento;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.lucasnogueira.service;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Busca de raiz para as metas de valor final (quanto investir ou por quanto tempo).
+ * O valor líquido é monotônico no valor investido e no prazo, então a raiz é isolada em um
+ * intervalo e refinada pelo método da secante com intervalo (regula falsi, variante de
+ * Illinois): converge em poucas iterações sem derivadas e continua correto nos saltos da
+ * tabela regressiva de IR. Tudo em double; o resultado final é conferido em BigDecimal
+ * pelo {@link MetaService}.
+ */
+final class ResolvedorMeta {
+
+    static final int MAXIMO_ITERACOES = 100;
+
+    private ResolvedorMeta() {}
+
+    /**
+     * Menor x (a menos da tolerância) em [a, b] com f(x) >= 0, dado f(a) < 0 <= f(b) e f crescente
+     */
+    static double resolver(DoubleUnaryOperator f, double a, double b, double tolerancia) {
+        double fa = f.applyAsDouble(a);
+        double fb = f.applyAsDouble(b);
+        int ultimoLado = 0;
+
+        for (int iteracao = 0; iteracao < MAXIMO_ITERACOES && b - a > tolerancia; iteracao++) {
+            double x = (a * fb - b * fa) / (fb - fa);
+            if (!(x > a && x < b)) {
+                x = 0.5 * (a + b);
+            }
+
+            double fx = f.applyAsDouble(x);
+            if (fx >= 0) {
+                b = x;
+                fb = fx;
+                // A mesma extremidade mantida duas vezes seguidas tem o peso reduzido à metade (Illinois)
+                if (ultimoLado > 0) {
+                    fa *= 0.5;
+                }
+                ultimoLado = 1;
+            } else {
+                a = x;
+                fa = fx;
+                if (ultimoLado < 0) {
+                    fb *= 0.5;
+                }
+                ultimoLado = -1;
+            }
+        }
+        return b;
+    }
+
+    /**
+     * Valor final líquido de IR com aportes ao final de cada mês; o IR incide apenas sobre o rendimento positivo.
+     * Aceita prazos fracionários para que a busca trate o prazo como contínuo.
+     */
+    static double valorLiquido(double valor, double aporteMensal, double taxaAnual, double meses, double aliquotaIr) {
+        double fator = Math.pow(1.0 + taxaAnual, meses / 12.0);
+        double taxaMensal = Math.pow(1.0 + taxaAnual, 1.0 / 12.0) - 1.0;
+        double anuidade = taxaMensal == 0.0 ? meses : (fator - 1.0) / taxaMensal;
+        return valorLiquido(valor, aporteMensal, fator, anuidade, meses, aliquotaIr);
+    }
+
+    /**
+     * Como {@link #valorLiquido(double, double, double, double, double)}, com o fator de crescimento e o
+     * fator de anuidade já calculados (por exemplo, por dias úteis)
+     */
+    static double valorLiquido(double valor, double aporteMensal, double fator, double anuidade, double meses,
+                               double aliquotaIr) {
+        double investido = valor + aporteMensal * meses;
+        double rendimento = valor * fator + aporteMensal * anuidade - investido;
+        return investido + (rendimento > 0 ? rendimento * (1.0 - aliquotaIr) : rendimento);
+    }
+}
@@ -0,0 +1,132 @@
+package org.lucasnogueira.service;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.lucasnogueira.model.entities.Simulacao;
+import org.lucasnogueira.repositories.SimulacaoRepository;
+import org.lucasnogueira.util.AgrupadorCommit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit (opcional) das simulações.
+ * Inserções concorrentes que chegam dentro da janela configurada são gravadas em uma única
+ * transação com batch JDBC. Diferente do write-behind, o chamador só é liberado depois do
+ * commit, portanto a simulação retornada já está persistida.
+ */
+@Slf4j
+@ApplicationScoped
+public class SimulacaoGroupCommitService {
+
+    @Inject
+    SimulacaoRepository simulacaoRepository;
+
+    @Inject
+    OpenTelemetry openTelemetry;
+
+    @Inject
+    LimiteTempoService limiteTempoService;
+
+    @ConfigProperty(name = "app.simulacao.group-commit.enabled", defaultValue = "false")
+    boolean habilitado;
+
+    @ConfigProperty(name = "app.simulacao.group-commit.janela-us", defaultValue = "2000")
+    long janelaMicros;
+
+    @ConfigProperty(name = "app.simulacao.group-commit.max-lote", defaultValue = "64")
+    int maxLote;
+
+    @ConfigProperty(name = "app.simulacao.group-commit.capacidade", defaultValue = "4096")
+    int capacidade;
+
+    @ConfigProperty(name = "app.simulacao.group-commit.timeout-ms", defaultValue = "5000")
+    long timeoutMs;
+
+    private AgrupadorCommit<Simulacao> agrupador;
+
+    // OpenTelemetry métricas
+    private LongCounter gravacoesSincronasCounter;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!habilitado) {
+            return;
+        }
+
+        agrupador = new AgrupadorCommit<>(
+                lote -> simulacaoRepository.persistirEmLote(lote, maxLote),
+                simulacaoRepository::persist,
+                TimeUnit.MICROSECONDS.toNanos(janelaMicros),
+                maxLote,
+                capacidade);
+        initMetrics();
+        agrupador.iniciar("simulacao-group-commit");
+
+        log.info("[GROUP-COMMIT] - Group commit habilitado (janela: {}us, lote: {}, capacidade: {})",
+                janelaMicros, maxLote, capacidade);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (agrupador == null) {
+            return;
+        }
+
+        log.info("[GROUP-COMMIT] - Desligando, gravando simulações pendentes (fila: {})", agrupador.tamanhoFila());
+        agrupador.encerrar(timeoutMs);
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Grava a simulação no próximo lote e aguarda o commit.
+     *
+     * @return false se o modo estiver desabilitado, em desligamento ou com a fila cheia;
+     * nesse caso o chamador deve persistir de forma síncrona
+     */
+    public boolean gravar(Simulacao simulacao) {
+        if (agrupador == null) {
+            return false;
+        }
+
+        // A espera pelo commit também respeita o limite de tempo da requisição
+        boolean aceita;
+        try {
+            aceita = agrupador.gravarEAguardar(simulacao, limiteTempoService.limitar(timeoutMs));
+        } catch (IllegalStateException e) {
+            if (limiteTempoService.isExpirado()) {
+                throw limiteTempoService.excedido("persistencia", e);
+            }
+            throw e;
+        }
+        if (!aceita) {
+            gravacoesSincronasCounter.add(1);
+        }
+        return aceita;
+    }
+
+    private void initMetrics() {
+        Meter meter = openTelemetry.getMeter("smartInvest");
+
+        meter.counterBuilder("simulacao_group_commit_commits_total")
+                .setDescription("Quantidade de commits realizados pelo group commit")
+                .buildWithCallback(measurement -> measurement.record(agrupador.getCommits()));
+
+        meter.counterBuilder("simulacao_group_commit_simulacoes_total")
+                .setDescription("Quantidade de simulações gravadas pelo group commit")
+                .buildWithCallback(measurement -> measurement.record(agrupador.getItensGravados()));
+
+        gravacoesSincronasCounter = meter
+                .counterBuilder("simulacao_group_commit_fila_cheia_total")
+                .setDescription("Simulações gravadas de forma síncrona por fila cheia")
+                .build();
+    }
+}
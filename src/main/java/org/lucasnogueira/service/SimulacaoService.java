@@ -3,9 +3,14 @@ package org.lucasnogueira.service;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
 import org.lucasnogueira.model.dto.*;
 
+import org.lucasnogueira.model.CatalogoCompilado;
 import org.lucasnogueira.model.ProdutoComScore;
 import org.lucasnogueira.model.entities.Produto;
 import org.lucasnogueira.model.entities.Simulacao;
@@ -25,6 +30,10 @@ import java.util.stream.Collectors;
 @ApplicationScoped
 public class SimulacaoService {
 
+    private static final String MOTOR_COLUNAR = "colunar";
+    // Itens do lote entre verificações do limite de tempo (potência de 2)
+    private static final int VERIFICACAO_LIMITE_LOTE = 256;
+
     @Inject
     ProdutoCacheService produtoCacheService;
 
@@ -37,25 +46,181 @@ public class SimulacaoService {
     @Inject
     ProdutoScoreCalculator scoreCalculator;
 
+    @Inject
+    MotorScoreColunar motorScoreColunar;
+
+    @Inject
+    RecomendacaoCacheService recomendacaoCacheService;
+
+    @Inject
+    CrescimentoCompostoCalculator crescimentoCompostoCalculator;
+
+    @Inject
+    RentabilidadeLiquidaCalculator rentabilidadeLiquidaCalculator;
+
+    @Inject
+    ProjecaoService projecaoService;
+
+    @Inject
+    MonteCarloService monteCarloService;
+
     @Inject
     SimulacaoFactory simulacaoFactory;
 
-    @Transactional
+    @Inject
+    SimulacaoWriteBehindService simulacaoWriteBehindService;
+
+    @Inject
+    SimulacaoGroupCommitService simulacaoGroupCommitService;
+
+    @Inject
+    Validator validator;
+
+    @Inject
+    LimiteTempoService limiteTempoService;
+
+    @ConfigProperty(name = "app.score.motor", defaultValue = "sequencial")
+    String motorScore;
+
+    @ConfigProperty(name = "app.simulacao.lote.tamanho-maximo", defaultValue = "10000")
+    int tamanhoMaximoLote;
+
+    @ConfigProperty(name = "app.simulacao.lote.jdbc-batch-size", defaultValue = "500")
+    int tamanhoBatchJdbc;
+
+    @ConfigProperty(name = "app.simulacao.top.maximo", defaultValue = "20")
+    int topMaximo;
+
     public SimulacaoResponseDTO simularInvestimento(SimulacaoRequestDTO requestDTO) {
+        return simularInvestimento(requestDTO, null, false, false);
+    }
+
+    /**
+     * Simula o investimento e, quando {@code top} é informado, devolve também o ranking
+     * dos {@code top} melhores produtos com score e valor final projetado.
+     * Com {@code projecao}, inclui a série mensal do saldo do produto validado e, com
+     * {@code estocastica}, os percentis do valor final por Monte Carlo quando o produto
+     * validado é de renda variável. Apenas o primeiro colocado é persistido.
+     */
+    public SimulacaoResponseDTO simularInvestimento(SimulacaoRequestDTO requestDTO, Integer top, boolean projecao,
+                                                    boolean estocastica) {
         log.info("Iniciando simulação para cliente: {}", requestDTO.getClienteId());
+        validarOpcoes(requestDTO, top, projecao);
 
         TipoPerfilRisco perfil = perfilRiscoCalculator.calcular(requestDTO);
-        List<Produto> produtos = obterProdutosFiltrados(requestDTO);
+        Simulado simulado = simular(obterProdutosFiltrados(requestDTO), requestDTO, perfil, top, projecao);
+        SimulacaoResponseDTO response = simulado.response();
 
-        ProdutoComScore melhorProduto = encontrarMelhorProduto(produtos, requestDTO, perfil);
+        if (estocastica) {
+            monteCarloService.projetar(simulado.melhorProduto().getProduto(), requestDTO.getValor(),
+                    requestDTO.getPrazoMeses()).ifPresent(response::setProjecaoEstocastica);
+        }
 
-        SimulacaoResponseDTO response = criarResponseSimulacao(melhorProduto, requestDTO, perfil);
-        persistirSimulacao(melhorProduto, requestDTO, perfil, response);
+        persistirSimulacao(simulado.melhorProduto(), requestDTO, perfil, response);
 
         log.debug("Simulação concluída com sucesso para cliente: {}", requestDTO.getClienteId());
         return response;
     }
 
+    /**
+     * Prévia da simulação, com o mesmo resultado de {@link #simularInvestimento(SimulacaoRequestDTO, Integer,
+     * boolean, boolean)} sem a projeção estocástica: usa apenas o catálogo compilado em memória e não
+     * abre transação, não cria a {@link Simulacao} nem grava nada. Não bloqueia e pode rodar na thread de I/O.
+     */
+    public SimulacaoResponseDTO simularPrevia(SimulacaoRequestDTO requestDTO, Integer top, boolean projecao) {
+        validarOpcoes(requestDTO, top, projecao);
+
+        TipoPerfilRisco perfil = perfilRiscoCalculator.calcular(requestDTO);
+        CatalogoCompilado produtos = obterProdutosFiltrados(produtoCacheService.obterCatalogoEmMemoria(), requestDTO);
+        return simular(produtos, requestDTO, perfil, top, projecao).response();
+    }
+
+    private Simulado simular(CatalogoCompilado produtos, SimulacaoRequestDTO requestDTO, TipoPerfilRisco perfil,
+                             Integer top, boolean projecao) {
+        limiteTempoService.verificar("score");
+        SimulacaoResponseDTO response;
+        ProdutoComScore melhorProduto;
+        if (top == null) {
+            melhorProduto = encontrarMelhorProduto(produtos, requestDTO, perfil);
+            response = criarResponseSimulacao(melhorProduto, requestDTO, perfil);
+        } else {
+            List<ProdutoComScore> melhoresProdutos = encontrarMelhoresProdutos(produtos, requestDTO, perfil, top);
+            melhorProduto = melhoresProdutos.get(0);
+            response = criarResponseSimulacao(melhorProduto, requestDTO, perfil);
+            response.setRanking(criarRanking(melhoresProdutos, requestDTO, response.getResultadoSimulacao()));
+        }
+
+        if (projecao) {
+            response.setProjecao(projecaoService.projetar(requestDTO.getValor(), requestDTO.getAporteMensal(),
+                    crescimentoCompostoCalculator.taxaAnual(melhorProduto.getProduto(), requestDTO.getPrazoMeses()),
+                    requestDTO.getPrazoMeses(),
+                    response.getResultadoSimulacao().getValorFinal()));
+        }
+        return new Simulado(melhorProduto, response);
+    }
+
+    private void validarOpcoes(SimulacaoRequestDTO requestDTO, Integer top, boolean projecao) {
+        validarTop(top);
+        if (projecao) {
+            projecaoService.validarPrazo(requestDTO.getPrazoMeses());
+        }
+    }
+
+    /**
+     * Simula todos os itens contra o mesmo snapshot do catálogo e persiste as simulações
+     * bem-sucedidas em uma única transação, com JDBC batch. Erros são reportados por item.
+     */
+    @Transactional
+    public SimulacaoLoteResponseDTO simularLote(List<SimulacaoRequestDTO> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new SmartInvestApiException("A lista de simulações não pode estar vazia.");
+        }
+        if (requests.size() > tamanhoMaximoLote) {
+            throw new SmartInvestApiException(String.format(
+                    "O lote excede o limite de %d simulações por requisição.", tamanhoMaximoLote));
+        }
+
+        log.info("Iniciando simulação em lote com {} itens", requests.size());
+
+        CatalogoCompilado catalogo = produtoCacheService.obterCatalogoCompilado();
+        List<ItemSimulacaoLoteDTO> itens = new ArrayList<>(requests.size());
+        List<Simulacao> simulacoes = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            // Fora do try: o limite de tempo encerra o lote, não vira erro do item
+            if ((i & (VERIFICACAO_LIMITE_LOTE - 1)) == 0) {
+                limiteTempoService.verificar("score");
+            }
+            SimulacaoRequestDTO requestDTO = requests.get(i);
+            try {
+                validarItemLote(requestDTO);
+
+                TipoPerfilRisco perfil = perfilRiscoCalculator.calcular(requestDTO);
+                ProdutoComScore melhorProduto = encontrarMelhorProduto(
+                        obterProdutosFiltrados(catalogo, requestDTO), requestDTO, perfil);
+
+                SimulacaoResponseDTO response = criarResponseSimulacao(melhorProduto, requestDTO, perfil);
+                simulacoes.add(criarSimulacao(melhorProduto, requestDTO, perfil, response));
+
+                itens.add(ItemSimulacaoLoteDTO.builder().indice(i).sucesso(true).simulacao(response).build());
+            } catch (RuntimeException e) {
+                log.warn("Erro no item {} do lote: {}", i, e.getMessage());
+                itens.add(ItemSimulacaoLoteDTO.builder().indice(i).sucesso(false).erro(e.getMessage()).build());
+            }
+        }
+
+        limiteTempoService.verificar("persistencia");
+        simulacaoRepository.persistirEmLote(simulacoes, tamanhoBatchJdbc);
+
+        log.debug("Lote concluído: {} sucessos, {} erros", simulacoes.size(), itens.size() - simulacoes.size());
+        return SimulacaoLoteResponseDTO.builder()
+                .qtdItens(itens.size())
+                .qtdSucesso(simulacoes.size())
+                .qtdErro(itens.size() - simulacoes.size())
+                .itens(itens)
+                .build();
+    }
+
     public ListagemSimulacoesResponseDTO buscarHistoricoSimulacoes(Integer pagina, Integer tamanhoPagina) {
         List<HistoricoSimulacaoResponseDTO> simulacoes = simulacaoRepository.listarSimulacoesPaginado(pagina, tamanhoPagina);
         long totalRegistros = simulacaoRepository.count();
@@ -68,6 +233,10 @@ public class SimulacaoService {
                 .build();
     }
 
+    public Optional<Simulacao> buscarSimulacao(Long id) {
+        return simulacaoRepository.findByIdOptional(id);
+    }
+
     public List<ValoresSimuladosPorProdutoDiaDTO> buscarValoresSimuladosPorProdutoEDia(LocalDate dataReferencia) {
         return simulacaoRepository.buscarValoresSimuladosPorProdutoEDia(dataReferencia);
     }
@@ -86,57 +255,86 @@ public class SimulacaoService {
                 .collect(Collectors.toList());
     }
 
-    private List<Produto> obterProdutosFiltrados(SimulacaoRequestDTO requestDTO) {
-        List<Produto> todosProdutos = produtoCacheService.findAllProdutos();
+    private void validarItemLote(SimulacaoRequestDTO requestDTO) {
+        if (requestDTO == null) {
+            throw new SmartInvestApiException("Item da simulação não informado.");
+        }
 
-        if (requestDTO.getTipoProduto() == null || requestDTO.getTipoProduto().trim().isEmpty()) {
-            return todosProdutos;
+        Set<ConstraintViolation<SimulacaoRequestDTO>> violacoes = validator.validate(requestDTO);
+        if (!violacoes.isEmpty()) {
+            throw new SmartInvestApiException(violacoes.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(" ")));
         }
+    }
 
-        return aplicarFiltroPorTipo(todosProdutos, requestDTO.getTipoProduto().trim());
+    private void validarTop(Integer top) {
+        if (top != null && (top < 1 || top > topMaximo)) {
+            throw new SmartInvestApiException(String.format(
+                    "O parâmetro top deve estar entre 1 e %d.", topMaximo));
+        }
     }
 
-    private List<Produto> aplicarFiltroPorTipo(List<Produto> produtos, String tipoSolicitado) {
-        Optional<String> tipoEncontrado = produtoCacheService.findTiposDistintos()
-                .stream()
-                .filter(tipo -> correspondeAoTipo(tipo, tipoSolicitado))
-                .findFirst();
+    private CatalogoCompilado obterProdutosFiltrados(SimulacaoRequestDTO requestDTO) {
+        return obterProdutosFiltrados(produtoCacheService.obterCatalogoCompilado(), requestDTO);
+    }
 
-        if (tipoEncontrado.isEmpty()) {
-            log.warn("Tipo '{}' não encontrado. Usando todos os produtos.", tipoSolicitado);
-            return produtos;
+    CatalogoCompilado obterProdutosFiltrados(CatalogoCompilado catalogo, SimulacaoRequestDTO requestDTO) {
+        if (requestDTO.getTipoProduto() == null || requestDTO.getTipoProduto().trim().isEmpty()) {
+            return catalogo;
         }
 
-        List<Produto> produtosFiltrados = produtos.stream()
-                .filter(p -> p.getTipo().equalsIgnoreCase(tipoEncontrado.get()))
-                .toList();
+        return aplicarFiltroPorTipo(catalogo, requestDTO.getTipoProduto().trim());
+    }
+
+    private CatalogoCompilado aplicarFiltroPorTipo(CatalogoCompilado catalogo, String tipoSolicitado) {
+        CatalogoCompilado produtosFiltrados = catalogo.resolverTipo(tipoSolicitado);
 
-        if (produtosFiltrados.isEmpty()) {
-            log.warn("Nenhum produto encontrado para o tipo: {}. Usando todos os produtos.", tipoEncontrado.get());
-            return produtos;
+        if (produtosFiltrados == null) {
+            log.warn("Tipo '{}' não encontrado. Usando todos os produtos.", tipoSolicitado);
+            return catalogo;
         }
 
-        log.debug("Filtrados {} produtos do tipo: {}", produtosFiltrados.size(), tipoEncontrado.get());
+        log.debug("Filtrados {} produtos do tipo: {}", produtosFiltrados.tamanho(), produtosFiltrados.getTipo());
         return produtosFiltrados;
     }
 
-    private boolean correspondeAoTipo(String tipoDisponivel, String tipoSolicitado) {
-        String tipoDisponivelLower = tipoDisponivel.toLowerCase();
-        String tipoSolicitadoLower = tipoSolicitado.toLowerCase();
+    ProdutoComScore encontrarMelhorProduto(CatalogoCompilado produtos, SimulacaoRequestDTO requestDTO, TipoPerfilRisco perfil) {
+        if (produtos.isVazio()) {
+            throw new IllegalStateException("Nenhum produto disponível para simulação");
+        }
 
-        return tipoDisponivelLower.contains(tipoSolicitadoLower) ||
-                tipoSolicitadoLower.contains(tipoDisponivelLower);
+        return recomendacaoCacheService.obter(produtos, requestDTO, perfil, () -> {
+            if (MOTOR_COLUNAR.equalsIgnoreCase(motorScore)) {
+                return motorScoreColunar.encontrarMelhorProduto(produtos, requestDTO, perfil);
+            }
+            return scoreCalculator.encontrarMelhorProduto(produtos, requestDTO, perfil);
+        });
     }
 
-    private ProdutoComScore encontrarMelhorProduto(List<Produto> produtos, SimulacaoRequestDTO requestDTO, TipoPerfilRisco perfil) {
-        if (produtos.isEmpty()) {
-            throw new IllegalStateException("Nenhum produto disponível para simulação");
+    private List<ProdutoComScore> encontrarMelhoresProdutos(CatalogoCompilado produtos, SimulacaoRequestDTO requestDTO,
+                                                            TipoPerfilRisco perfil, int top) {
+        if (MOTOR_COLUNAR.equalsIgnoreCase(motorScore)) {
+            return motorScoreColunar.encontrarMelhoresProdutos(produtos, requestDTO, perfil, top);
         }
+        return scoreCalculator.encontrarMelhoresProdutos(produtos, requestDTO, perfil, top);
+    }
 
-        return produtos.stream()
-                .map(produto -> new ProdutoComScore(produto, scoreCalculator.calcular(produto, requestDTO, perfil, produtos)))
-                .max(Comparator.comparingDouble(ProdutoComScore::getScore))
-                .orElseThrow(() -> new IllegalStateException("Erro ao calcular melhor produto"));
+    private List<ProdutoRankeadoDTO> criarRanking(List<ProdutoComScore> melhoresProdutos, SimulacaoRequestDTO requestDTO,
+                                                  ResultadoSimulacaoDTO resultadoVencedor) {
+        List<ProdutoRankeadoDTO> ranking = new ArrayList<>(melhoresProdutos.size());
+        for (int i = 0; i < melhoresProdutos.size(); i++) {
+            Produto produto = melhoresProdutos.get(i).getProduto();
+            ranking.add(ProdutoRankeadoDTO.builder()
+                    .posicao(i + 1)
+                    .produto(criarProdutoValidadoDTO(produto))
+                    .score(melhoresProdutos.get(i).getScore())
+                    // A projeção do vencedor já foi calculada para a resposta principal
+                    .resultadoSimulacao(i == 0 ? resultadoVencedor : criarResultadoSimulacaoDTO(requestDTO, produto))
+                    .build());
+        }
+        return ranking;
     }
 
     private SimulacaoResponseDTO criarResponseSimulacao(ProdutoComScore melhorProduto, SimulacaoRequestDTO requestDTO, TipoPerfilRisco perfil) {
@@ -152,18 +350,33 @@ public class SimulacaoService {
 
     private void persistirSimulacao(ProdutoComScore melhorProduto, SimulacaoRequestDTO requestDTO,
                                     TipoPerfilRisco perfil, SimulacaoResponseDTO response) {
-        Simulacao simulacao = simulacaoFactory.criar(
+        limiteTempoService.verificar("persistencia");
+        Simulacao simulacao = criarSimulacao(melhorProduto, requestDTO, perfil, response);
+
+        // No modo write-behind a resposta é devolvida assim que a simulação é aceita na fila
+        if (simulacaoWriteBehindService.isHabilitado() && simulacaoWriteBehindService.enfileirar(simulacao)) {
+            return;
+        }
+        // No modo group commit a resposta é devolvida após o commit do lote que contém a simulação
+        if (simulacaoGroupCommitService.isHabilitado() && simulacaoGroupCommitService.gravar(simulacao)) {
+            return;
+        }
+        simulacaoRepository.persist(simulacao);
+    }
+
+    private Simulacao criarSimulacao(ProdutoComScore melhorProduto, SimulacaoRequestDTO requestDTO,
+                                     TipoPerfilRisco perfil, SimulacaoResponseDTO response) {
+        return simulacaoFactory.criar(
                 melhorProduto,
                 requestDTO,
                 perfil,
                 response.getDataSimulacao(),
-                response.getResultadoSimulacao().getValorFinal()
+                response.getResultadoSimulacao().getValorFinal(),
+                BigDecimal.valueOf(response.getResultadoSimulacao().getRentabilidadeEfetiva())
         );
-
-        simulacaoRepository.persist(simulacao);
     }
 
-    private ProdutoValidadoDTO criarProdutoValidadoDTO(Produto produto) {
+    ProdutoValidadoDTO criarProdutoValidadoDTO(Produto produto) {
         ProdutoValidadoDTO dto = new ProdutoValidadoDTO();
         dto.setId(produto.getId());
         dto.setNome(produto.getNome());
@@ -175,17 +388,22 @@ public class SimulacaoService {
 
     private ResultadoSimulacaoDTO criarResultadoSimulacaoDTO(SimulacaoRequestDTO requestDTO, Produto produto) {
         ResultadoSimulacaoDTO dto = new ResultadoSimulacaoDTO();
-        dto.setValorFinal(calcularValorFinal(requestDTO.getValor(), produto.getTaxaAnualOferecida(), requestDTO.getPrazoMeses()));
-        dto.setRentabilidadeEfetiva(produto.getTaxaAnualOferecida().doubleValue());
+        dto.setValorFinal(crescimentoCompostoCalculator.calcularValorFinal(produto, requestDTO.getValor(),
+                requestDTO.getAporteMensal(), requestDTO.getPrazoMeses()));
+        dto.setRentabilidadeEfetiva(crescimentoCompostoCalculator.taxaAnual(produto, requestDTO.getPrazoMeses())
+                .doubleValue());
         dto.setPrazoMeses(requestDTO.getPrazoMeses());
+        if (requestDTO.getAporteMensal() != null && requestDTO.getAporteMensal().signum() > 0) {
+            dto.setValorTotalInvestido(requestDTO.valorTotalInvestido());
+        }
+        if (rentabilidadeLiquidaCalculator.isHabilitado()) {
+            dto.setValorFinalLiquido(rentabilidadeLiquidaCalculator.calcularValorFinalLiquido(produto,
+                    requestDTO.getValor(), requestDTO.getAporteMensal(), requestDTO.getPrazoMeses()));
+            dto.setRentabilidadeLiquida(rentabilidadeLiquidaCalculator.calcularTaxaLiquidaAnual(produto,
+                    requestDTO.getPrazoMeses()));
+        }
         return dto;
     }
 
-    private BigDecimal calcularValorFinal(BigDecimal valorInicial, BigDecimal taxa, int meses) {
-        BigDecimal anos = BigDecimal.valueOf(meses).divide(BigDecimal.valueOf(12), 10, RoundingMode.HALF_UP);
-        BigDecimal umMaisTaxa = BigDecimal.ONE.add(taxa);
-        double potencia = Math.pow(umMaisTaxa.doubleValue(), anos.doubleValue());
-        BigDecimal fator = BigDecimal.valueOf(potencia);
-        return valorInicial.multiply(fator).setScale(2, RoundingMode.HALF_UP);
-    }
-}
\ No newline at end of file
+    private record Simulado(ProdutoComScore melhorProduto, SimulacaoResponseDTO response) {}
+}
@@ -0,0 +1,224 @@
+package org.lucasnogueira.service;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.lucasnogueira.model.entities.Simulacao;
+import org.lucasnogueira.repositories.SimulacaoRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Persistência write-behind (opcional) das simulações.
+ * As simulações são aceitas em uma fila limitada em memória e gravadas em lote por uma
+ * thread de fundo, respeitando o tamanho máximo do lote e o atraso máximo configurados.
+ * Com a fila cheia (ou o modo desabilitado) o chamador deve gravar de forma síncrona.
+ */
+@Slf4j
+@ApplicationScoped
+public class SimulacaoWriteBehindService {
+
+    // Intervalo máximo de espera na fila antes de verificar novamente o desligamento
+    private static final long INTERVALO_VERIFICACAO_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Inject
+    SimulacaoRepository simulacaoRepository;
+
+    @Inject
+    OpenTelemetry openTelemetry;
+
+    @ConfigProperty(name = "app.simulacao.write-behind.enabled", defaultValue = "false")
+    boolean habilitado;
+
+    @ConfigProperty(name = "app.simulacao.write-behind.capacidade", defaultValue = "10000")
+    int capacidade;
+
+    @ConfigProperty(name = "app.simulacao.write-behind.max-lote", defaultValue = "500")
+    int maxLote;
+
+    @ConfigProperty(name = "app.simulacao.write-behind.max-atraso-ms", defaultValue = "50")
+    long maxAtrasoMs;
+
+    @ConfigProperty(name = "app.simulacao.write-behind.timeout-desligamento-s", defaultValue = "30")
+    long timeoutDesligamentoSegundos;
+
+    private BlockingQueue<Simulacao> fila;
+    private Thread gravador;
+    private volatile boolean executando;
+    // Leitura: verificar e enfileirar; escrita: desligar. Nenhuma simulação entra na fila depois da drenagem final
+    private final ReadWriteLock desligamento = new ReentrantReadWriteLock();
+
+    // OpenTelemetry métricas
+    private DoubleHistogram duracaoGravacaoHistogram;
+    private LongCounter gravacoesSincronasCounter;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!habilitado) {
+            return;
+        }
+
+        fila = new ArrayBlockingQueue<>(Math.max(1, capacidade));
+        initMetrics();
+
+        executando = true;
+        gravador = Thread.ofPlatform()
+                .name("simulacao-write-behind")
+                .daemon(true)
+                .start(this::drenarFila);
+
+        log.info("[WRITE-BEHIND] - Persistência write-behind habilitada (capacidade: {}, lote: {}, atraso máximo: {}ms)",
+                capacidade, maxLote, maxAtrasoMs);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (gravador == null) {
+            return;
+        }
+
+        log.info("[WRITE-BEHIND] - Desligando, aguardando a gravação das simulações pendentes (fila: {})", fila.size());
+        desligamento.writeLock().lock();
+        try {
+            executando = false;
+        } finally {
+            desligamento.writeLock().unlock();
+        }
+        try {
+            gravador.join(TimeUnit.SECONDS.toMillis(timeoutDesligamentoSegundos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Itens que o gravador não alcançou dentro do timeout são gravados na própria thread de desligamento
+        List<Simulacao> restantes = new ArrayList<>();
+        fila.drainTo(restantes);
+        if (!restantes.isEmpty()) {
+            log.warn("[WRITE-BEHIND] - Gravando {} simulações restantes no desligamento", restantes.size());
+            gravarLote(restantes);
+        }
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Aceita a simulação para gravação assíncrona.
+     *
+     * @return false se o modo estiver desabilitado, em desligamento ou com a fila cheia;
+     * nesse caso o chamador deve persistir de forma síncrona
+     */
+    public boolean enfileirar(Simulacao simulacao) {
+        boolean aceita;
+        desligamento.readLock().lock();
+        try {
+            if (!executando) {
+                return false;
+            }
+            aceita = fila.offer(simulacao);
+        } finally {
+            desligamento.readLock().unlock();
+        }
+
+        if (!aceita) {
+            gravacoesSincronasCounter.add(1);
+            log.warn("[WRITE-BEHIND] - Fila cheia ({} itens), gravando de forma síncrona", fila.size());
+        }
+        return aceita;
+    }
+
+    private void initMetrics() {
+        Meter meter = openTelemetry.getMeter("smartInvest");
+
+        meter.gaugeBuilder("simulacao_write_behind_fila")
+                .setDescription("Quantidade de simulações aguardando gravação")
+                .ofLongs()
+                .buildWithCallback(measurement -> measurement.record(fila.size()));
+
+        duracaoGravacaoHistogram = meter
+                .histogramBuilder("simulacao_write_behind_gravacao_seconds")
+                .setDescription("Tempo de gravação de cada lote de simulações")
+                .setUnit("s")
+                .build();
+
+        gravacoesSincronasCounter = meter
+                .counterBuilder("simulacao_write_behind_fila_cheia_total")
+                .setDescription("Simulações gravadas de forma síncrona por fila cheia")
+                .build();
+    }
+
+    private void drenarFila() {
+        List<Simulacao> lote = new ArrayList<>(maxLote);
+
+        while (executando || !fila.isEmpty()) {
+            try {
+                Simulacao primeira = fila.poll(INTERVALO_VERIFICACAO_NANOS, TimeUnit.NANOSECONDS);
+                if (primeira == null) {
+                    continue;
+                }
+                lote.add(primeira);
+
+                // O primeiro item do lote espera no máximo maxAtrasoMs para ser gravado;
+                // no desligamento o lote é fechado imediatamente com o que estiver na fila
+                long prazo = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxAtrasoMs);
+                while (lote.size() < maxLote) {
+                    long restante = prazo - System.nanoTime();
+                    if (restante <= 0 || !executando) {
+                        fila.drainTo(lote, maxLote - lote.size());
+                        break;
+                    }
+                    Simulacao proxima = fila.poll(Math.min(restante, INTERVALO_VERIFICACAO_NANOS), TimeUnit.NANOSECONDS);
+                    if (proxima != null) {
+                        lote.add(proxima);
+                    }
+                }
+
+                gravarLote(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!lote.isEmpty()) {
+                    gravarLote(lote);
+                }
+                break;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void gravarLote(List<Simulacao> lote) {
+        long inicio = System.nanoTime();
+        try {
+            simulacaoRepository.persistirEmLote(lote, maxLote);
+        } catch (Exception e) {
+            log.error("[WRITE-BEHIND] - Erro ao gravar lote de {} simulações, gravando individualmente", lote.size(), e);
+            gravarIndividualmente(lote);
+        } finally {
+            duracaoGravacaoHistogram.record((System.nanoTime() - inicio) / 1_000_000_000.0);
+        }
+        log.debug("[WRITE-BEHIND] - Lote de {} simulações gravado em {}ms", lote.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private void gravarIndividualmente(List<Simulacao> lote) {
+        for (Simulacao simulacao : lote) {
+            try {
+                simulacaoRepository.persist(simulacao);
+            } catch (Exception e) {
+                log.error("[WRITE-BEHIND] - Simulação descartada para o cliente {}", simulacao.getCodigoCliente(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package org.lucasnogueira.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.StreamingOutput;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.ProdutoComScore;
+import org.lucasnogueira.model.dto.CelulaVarreduraDTO;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.dto.VarreduraRequestDTO;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Varredura de simulações sobre uma grade valor × prazo, sem persistência.
+ * A grade é dividida no ForkJoinPool e cada bloco de células calculado é enviado ao
+ * cliente como NDJSON (uma célula por linha) assim que fica pronto, portanto as linhas
+ * não seguem a ordem da grade. O catálogo é lido e filtrado por tipo uma única vez.
+ * A espera por blocos respeita o limite de tempo da requisição (ou o tempo máximo da
+ * varredura, sem limite); ao estourar, a última linha traz o erro e as tarefas param.
+ */
+@Slf4j
+@ApplicationScoped
+public class VarreduraService {
+
+    static final String ETAPA_VARREDURA = "varredura";
+
+    @Inject
+    SimulacaoService simulacaoService;
+
+    @Inject
+    ProdutoCacheService produtoCacheService;
+
+    @Inject
+    PerfilRiscoCalculator perfilRiscoCalculator;
+
+    @Inject
+    CrescimentoCompostoCalculator crescimentoCompostoCalculator;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    LimiteTempoService limiteTempoService;
+
+    @ConfigProperty(name = "app.simulacao.varredura.maximo-celulas", defaultValue = "20000")
+    int maximoCelulas;
+
+    @ConfigProperty(name = "app.simulacao.varredura.celulas-por-tarefa", defaultValue = "64")
+    int celulasPorTarefa;
+
+    @ConfigProperty(name = "app.simulacao.varredura.tempo-maximo-ms", defaultValue = "120000")
+    long tempoMaximoMs = 120000;
+
+    /**
+     * Valida a grade e prepara o envio; o cálculo começa quando a resposta começa a ser escrita
+     */
+    public StreamingOutput varrer(VarreduraRequestDTO requestDTO) {
+        Grade grade = criarGrade(requestDTO);
+
+        SimulacaoRequestDTO filtro = new SimulacaoRequestDTO();
+        filtro.setTipoProduto(requestDTO.getTipoProduto());
+        CatalogoCompilado catalogo = simulacaoService.obterProdutosFiltrados(
+                produtoCacheService.obterCatalogoCompilado(), filtro);
+        if (catalogo.isVazio()) {
+            throw new SmartInvestApiException("Nenhum produto disponível para simulação.");
+        }
+
+        // O prazo conta desde a requisição; a escrita pode rodar fora do contexto dela
+        limiteTempoService.verificar(ETAPA_VARREDURA);
+        long limiteNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(limiteTempoService.limitar(tempoMaximoMs));
+
+        log.info("[VARREDURA] - Grade com {} valores x {} prazos ({} células)",
+                grade.valores().length, grade.prazos().length, grade.tamanho());
+
+        return saida -> {
+            Execucao execucao = new Execucao(grade, catalogo, requestDTO.getClienteId(), requestDTO.getTipoProduto());
+            ForkJoinPool.commonPool().execute(new VarrerFaixa(execucao, 0, grade.tamanho(), Math.max(1, celulasPorTarefa)));
+
+            ObjectWriter writer = objectMapper.writerFor(CelulaVarreduraDTO.class);
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(saida)) {
+                // Sem o separador padrão (espaço) entre valores raiz: cada linha começa com a célula
+                json.setRootValueSeparator(null);
+                int enviadas = 0;
+                while (enviadas < grade.tamanho()) {
+                    Bloco bloco = execucao.blocos.poll(limiteNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (bloco == null) {
+                        bloco = new Bloco(null, limiteTempoService.excedido(ETAPA_VARREDURA, null).getMessage());
+                    }
+                    if (bloco.erro() != null) {
+                        writer.writeValue(json, CelulaVarreduraDTO.builder().erro(bloco.erro()).build());
+                        json.writeRaw('\n');
+                        break;
+                    }
+                    for (CelulaVarreduraDTO celula : bloco.celulas()) {
+                        writer.writeValue(json, celula);
+                        json.writeRaw('\n');
+                    }
+                    json.flush();
+                    enviadas += bloco.celulas().size();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Varredura interrompida", e);
+            } finally {
+                // Cliente desconectado ou erro: as tarefas restantes param na próxima célula
+                execucao.cancelada = true;
+            }
+        };
+    }
+
+    private Grade criarGrade(VarreduraRequestDTO requestDTO) {
+        if (requestDTO.getValorMinimo().compareTo(requestDTO.getValorMaximo()) > 0) {
+            throw new SmartInvestApiException("valorMinimo deve ser menor ou igual a valorMaximo.");
+        }
+        if (requestDTO.getPrazoMinimo() > requestDTO.getPrazoMaximo()) {
+            throw new SmartInvestApiException("prazoMinimo deve ser menor ou igual a prazoMaximo.");
+        }
+
+        BigDecimal qtdValores = requestDTO.getValorMaximo().subtract(requestDTO.getValorMinimo())
+                .divideToIntegralValue(requestDTO.getPassoValor()).add(BigDecimal.ONE);
+        int passoPrazo = requestDTO.getPassoPrazo() != null ? requestDTO.getPassoPrazo() : 1;
+        long qtdPrazos = ((long) requestDTO.getPrazoMaximo() - requestDTO.getPrazoMinimo()) / passoPrazo + 1;
+
+        if (qtdValores.multiply(BigDecimal.valueOf(qtdPrazos)).compareTo(BigDecimal.valueOf(maximoCelulas)) > 0) {
+            throw new SmartInvestApiException(String.format(
+                    "A varredura excede o limite de %d células por requisição.", maximoCelulas));
+        }
+
+        BigDecimal[] valores = new BigDecimal[qtdValores.intValue()];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = requestDTO.getValorMinimo().add(requestDTO.getPassoValor().multiply(BigDecimal.valueOf(i)));
+        }
+        int[] prazos = new int[(int) qtdPrazos];
+        for (int i = 0; i < prazos.length; i++) {
+            prazos[i] = requestDTO.getPrazoMinimo() + i * passoPrazo;
+        }
+        return new Grade(valores, prazos);
+    }
+
+    private CelulaVarreduraDTO calcularCelula(Execucao execucao, int indice) {
+        int[] prazos = execucao.grade.prazos();
+        BigDecimal valor = execucao.grade.valores()[indice / prazos.length];
+        int prazo = prazos[indice % prazos.length];
+
+        SimulacaoRequestDTO requestDTO = new SimulacaoRequestDTO();
+        requestDTO.setClienteId(execucao.clienteId);
+        requestDTO.setValor(valor);
+        requestDTO.setPrazoMeses(prazo);
+        requestDTO.setTipoProduto(execucao.tipoProduto);
+
+        TipoPerfilRisco perfil = perfilRiscoCalculator.calcular(requestDTO);
+        ProdutoComScore melhorProduto = simulacaoService.encontrarMelhorProduto(execucao.catalogo, requestDTO, perfil);
+
+        return CelulaVarreduraDTO.builder()
+                .valor(valor)
+                .prazoMeses(prazo)
+                .perfil(perfil.name())
+                .produto(simulacaoService.criarProdutoValidadoDTO(melhorProduto.getProduto()))
+                .score(melhorProduto.getScore())
+                .valorFinal(crescimentoCompostoCalculator.calcularValorFinal(
+                        melhorProduto.getProduto(), valor, null, prazo))
+                .build();
+    }
+
+    private record Grade(BigDecimal[] valores, int[] prazos) {
+        int tamanho() {
+            return valores.length * prazos.length;
+        }
+    }
+
+    // Lote de células calculadas por uma tarefa, ou o erro que interrompeu a varredura
+    private record Bloco(List<CelulaVarreduraDTO> celulas, String erro) {}
+
+    private static final class Execucao {
+        private final Grade grade;
+        private final CatalogoCompilado catalogo;
+        private final Integer clienteId;
+        private final String tipoProduto;
+        private final BlockingQueue<Bloco> blocos = new LinkedBlockingQueue<>();
+        private volatile boolean cancelada;
+
+        private Execucao(Grade grade, CatalogoCompilado catalogo, Integer clienteId, String tipoProduto) {
+            this.grade = grade;
+            this.catalogo = catalogo;
+            this.clienteId = clienteId;
+            this.tipoProduto = tipoProduto;
+        }
+    }
+
+    private class VarrerFaixa extends RecursiveAction {
+        private final Execucao execucao;
+        private final int inicio;
+        private final int fim;
+        private final int limiar;
+
+        VarrerFaixa(Execucao execucao, int inicio, int fim, int limiar) {
+            this.execucao = execucao;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.limiar = limiar;
+        }
+
+        // Qualquer falha (inclusive Error ou fork rejeitado) vira um bloco de erro: sem ele o envio esperaria até o limite
+        @Override
+        protected void compute() {
+            if (execucao.cancelada) {
+                return;
+            }
+            try {
+                if (fim - inicio > limiar) {
+                    int meio = (inicio + fim) >>> 1;
+                    invokeAll(new VarrerFaixa(execucao, inicio, meio, limiar),
+                            new VarrerFaixa(execucao, meio, fim, limiar));
+                    return;
+                }
+
+                List<CelulaVarreduraDTO> celulas = new ArrayList<>(fim - inicio);
+                for (int i = inicio; i < fim && !execucao.cancelada; i++) {
+                    celulas.add(calcularCelula(execucao, i));
+                }
+                execucao.blocos.add(new Bloco(celulas, null));
+            } catch (Throwable e) {
+                log.error("[VARREDURA] - Erro ao calcular células {}..{}", inicio, fim - 1, e);
+                execucao.cancelada = true;
+                execucao.blocos.add(new Bloco(null, e.getMessage() != null ? e.getMessage() : e.toString()));
+            }
+        }
+    }
+}
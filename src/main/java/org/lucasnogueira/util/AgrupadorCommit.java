@@ -0,0 +1,224 @@
+package org.lucasnogueira.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Group commit: agrupa gravações concorrentes que chegam dentro de uma pequena janela
+ * (ou até um número máximo de itens) em uma única gravação em lote. Cada chamador só é
+ * liberado depois que o lote do qual faz parte foi gravado com sucesso.
+ *
+ * @param <T> tipo do item gravado
+ */
+@Slf4j
+public class AgrupadorCommit<T> {
+
+    // Intervalo máximo de espera na fila antes de verificar novamente o desligamento
+    private static final long INTERVALO_VERIFICACAO_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    // Estados de um item na fila: só é gravado se sair de AGUARDANDO para GRAVANDO antes de ser cancelado
+    private static final int AGUARDANDO = 0;
+    private static final int GRAVANDO = 1;
+    private static final int CANCELADO = 2;
+
+    private final Consumer<List<T>> gravadorLote;
+    private final Consumer<T> gravadorIndividual;
+    private final long janelaNanos;
+    private final int maxLote;
+    private final BlockingQueue<Pendente<T>> fila;
+
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder itensGravados = new LongAdder();
+
+    private volatile boolean executando;
+    private Thread gravador;
+
+    /**
+     * @param gravadorLote       grava uma lista de itens em uma única transação
+     * @param gravadorIndividual grava um item isolado (usado quando o lote falha)
+     * @param janelaNanos        tempo máximo que o primeiro item do lote espera por outros
+     * @param maxLote            quantidade máxima de itens por lote
+     * @param capacidade         quantidade máxima de itens aguardando gravação
+     */
+    public AgrupadorCommit(Consumer<List<T>> gravadorLote, Consumer<T> gravadorIndividual,
+                           long janelaNanos, int maxLote, int capacidade) {
+        this.gravadorLote = gravadorLote;
+        this.gravadorIndividual = gravadorIndividual;
+        this.janelaNanos = Math.max(0, janelaNanos);
+        this.maxLote = Math.max(1, maxLote);
+        this.fila = new ArrayBlockingQueue<>(Math.max(1, capacidade));
+    }
+
+    public void iniciar(String nomeThread) {
+        executando = true;
+        gravador = Thread.ofPlatform()
+                .name(nomeThread)
+                .daemon(true)
+                .start(this::gravarContinuamente);
+    }
+
+    /**
+     * Encerra a thread de gravação e grava, na thread chamadora, o que restar na fila
+     */
+    public void encerrar(long timeoutMs) {
+        executando = false;
+        if (gravador != null) {
+            try {
+                gravador.join(timeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        List<Pendente<T>> restantes = new ArrayList<>();
+        fila.drainTo(restantes);
+        if (!restantes.isEmpty()) {
+            gravar(restantes);
+        }
+    }
+
+    /**
+     * Grava o item no próximo lote e aguarda o commit.
+     * Se o tempo esgotar antes do item entrar em um lote, ele é cancelado e retirado da fila:
+     * um chamador que recebeu erro nunca tem o item gravado depois. Se o lote com o item já
+     * estiver em gravação, aguarda o resultado dessa gravação.
+     *
+     * @return false se o item não foi aceito (fila cheia ou em desligamento);
+     * nesse caso o chamador deve gravar de forma síncrona
+     * @throws IllegalStateException se o commit falhar ou não ocorrer dentro do timeout
+     */
+    public boolean gravarEAguardar(T item, long timeoutMs) {
+        if (!executando) {
+            return false;
+        }
+
+        Pendente<T> pendente = new Pendente<>(item, new CompletableFuture<>(), new AtomicInteger(AGUARDANDO));
+        if (!fila.offer(pendente)) {
+            return false;
+        }
+
+        try {
+            try {
+                pendente.commit().get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (pendente.cancelar()) {
+                    fila.remove(pendente);
+                    throw new IllegalStateException("Tempo esgotado aguardando a gravação do lote", e);
+                }
+                // O lote com o item já está sendo gravado: o resultado dele é o resultado do chamador
+                pendente.commit().get();
+            }
+            return true;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erro ao gravar lote: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (pendente.cancelar()) {
+                fila.remove(pendente);
+            }
+            throw new IllegalStateException("Interrompido aguardando a gravação do lote", e);
+        }
+    }
+
+    public int tamanhoFila() { return fila.size(); }
+    public long getCommits() { return commits.sum(); }
+    public long getItensGravados() { return itensGravados.sum(); }
+
+    private void gravarContinuamente() {
+        List<Pendente<T>> lote = new ArrayList<>(maxLote);
+
+        while (executando || !fila.isEmpty()) {
+            try {
+                Pendente<T> primeiro = fila.poll(INTERVALO_VERIFICACAO_NANOS, TimeUnit.NANOSECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                fila.drainTo(lote, maxLote - lote.size());
+
+                // Aguarda outros chamadores até o fim da janela ou até completar o lote
+                long prazo = System.nanoTime() + janelaNanos;
+                while (lote.size() < maxLote && executando) {
+                    long restante = prazo - System.nanoTime();
+                    if (restante <= 0) {
+                        break;
+                    }
+                    Pendente<T> proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+                    if (proximo == null) {
+                        break;
+                    }
+                    lote.add(proximo);
+                    fila.drainTo(lote, maxLote - lote.size());
+                }
+
+                gravar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!lote.isEmpty()) {
+                    gravar(lote);
+                }
+                break;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void gravar(List<Pendente<T>> lote) {
+        // Itens cancelados pelo chamador (timeout) ficam fora; os demais não podem mais ser cancelados
+        lote.removeIf(pendente -> !pendente.reservar());
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        List<T> itens = new ArrayList<>(lote.size());
+        for (Pendente<T> pendente : lote) {
+            itens.add(pendente.item());
+        }
+
+        try {
+            gravadorLote.accept(itens);
+            commits.increment();
+            itensGravados.add(itens.size());
+            lote.forEach(pendente -> pendente.commit().complete(null));
+        } catch (RuntimeException e) {
+            log.error("[GROUP-COMMIT] - Erro ao gravar lote de {} itens, gravando individualmente", itens.size(), e);
+            gravarIndividualmente(lote);
+        }
+    }
+
+    private void gravarIndividualmente(List<Pendente<T>> lote) {
+        for (Pendente<T> pendente : lote) {
+            try {
+                gravadorIndividual.accept(pendente.item());
+                commits.increment();
+                itensGravados.increment();
+                pendente.commit().complete(null);
+            } catch (RuntimeException e) {
+                pendente.commit().completeExceptionally(e);
+            }
+        }
+    }
+
+    private record Pendente<T>(T item, CompletableFuture<Void> commit, AtomicInteger estado) {
+
+        boolean cancelar() {
+            return estado.compareAndSet(AGUARDANDO, CANCELADO);
+        }
+
+        boolean reservar() {
+            return estado.compareAndSet(AGUARDANDO, GRAVANDO);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.lucasnogueira.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitura dos arquivos de dados de referência (feriados, vigências dos indexadores).
+ * O arquivo é procurado no sistema de arquivos e, se não existir, no classpath; é lido em
+ * UTF-8, ignorando linhas em branco e comentários iniciados por #.
+ */
+public final class ArquivoDados {
+
+    private ArquivoDados() {}
+
+    /**
+     * Linhas com dados do arquivo, sem espaços nas pontas
+     *
+     * @param descricao conteúdo do arquivo, usado na mensagem de erro (ex.: "feriados")
+     */
+    public static List<String> lerLinhas(String arquivo, String descricao) {
+        try (InputStream entrada = abrir(arquivo);
+             BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            List<String> linhas = new ArrayList<>();
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                linha = linha.trim();
+                if (!linha.isEmpty() && !linha.startsWith("#")) {
+                    linhas.add(linha);
+                }
+            }
+            return linhas;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler o arquivo de " + descricao + ": " + arquivo, e);
+        }
+    }
+
+    // Caminho no sistema de arquivos ou, se não existir, recurso do classpath
+    private static InputStream abrir(String arquivo) throws IOException {
+        Path caminho = Path.of(arquivo);
+        if (Files.isRegularFile(caminho)) {
+            return Files.newInputStream(caminho);
+        }
+        InputStream recurso = Thread.currentThread().getContextClassLoader().getResourceAsStream(arquivo);
+        if (recurso == null) {
+            throw new IOException("arquivo não encontrado");
+        }
+        return recurso;
+    }
+}
@@ -0,0 +1,110 @@
+package org.lucasnogueira.util;
+
+/**
+ * Seleção dos K maiores scores com um min-heap limitado sobre arrays primitivos.
+ * Nenhum objeto é alocado por candidato: o heap guarda apenas o índice e o score.
+ * Em caso de empate, o menor índice (primeiro produto do catálogo) fica à frente.
+ */
+public final class SelecaoTopK {
+
+    private final int[] indices;
+    private final double[] scores;
+    private int tamanho;
+
+    public SelecaoTopK(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("K deve ser maior que zero");
+        }
+        this.indices = new int[k];
+        this.scores = new double[k];
+    }
+
+    /**
+     * Oferece um candidato; ele só entra no heap se for melhor que o pior dos K atuais
+     */
+    public void oferecer(int indice, double score) {
+        if (tamanho < indices.length) {
+            indices[tamanho] = indice;
+            scores[tamanho] = score;
+            subir(tamanho++);
+        } else if (pior(0, indice, score)) {
+            indices[0] = indice;
+            scores[0] = score;
+            descer(0, tamanho);
+        }
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Ordena os selecionados do melhor para o pior (heapsort in-place) e encerra a seleção
+     */
+    public SelecaoTopK ordenar() {
+        for (int fim = tamanho - 1; fim > 0; fim--) {
+            trocar(0, fim);
+            descer(0, fim);
+        }
+        return this;
+    }
+
+    /**
+     * Índice na posição informada; válido após {@link #ordenar()}
+     */
+    public int indice(int posicao) {
+        return indices[posicao];
+    }
+
+    /**
+     * Score na posição informada; válido após {@link #ordenar()}
+     */
+    public double score(int posicao) {
+        return scores[posicao];
+    }
+
+    // true se o elemento do heap na posição i é pior que o candidato (indice, score)
+    private boolean pior(int i, int indice, double score) {
+        return scores[i] < score || (scores[i] == score && indices[i] > indice);
+    }
+
+    private void subir(int i) {
+        while (i > 0) {
+            int pai = (i - 1) >>> 1;
+            if (!pior(i, indices[pai], scores[pai])) {
+                return;
+            }
+            trocar(i, pai);
+            i = pai;
+        }
+    }
+
+    private void descer(int i, int limite) {
+        while (true) {
+            int esquerda = 2 * i + 1;
+            if (esquerda >= limite) {
+                return;
+            }
+            int menor = esquerda;
+            int direita = esquerda + 1;
+            if (direita < limite && pior(direita, indices[esquerda], scores[esquerda])) {
+                menor = direita;
+            }
+            if (!pior(menor, indices[i], scores[i])) {
+                return;
+            }
+            trocar(i, menor);
+            i = menor;
+        }
+    }
+
+    private void trocar(int a, int b) {
+        int indice = indices[a];
+        indices[a] = indices[b];
+        indices[b] = indice;
+
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -7,13 +7,19 @@ import org.lucasnogueira.model.entities.Simulacao;
 import org.lucasnogueira.model.enums.TipoPerfilRisco;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.OffsetDateTime;
 
 @ApplicationScoped
 public class SimulacaoFactory {
 
+    /**
+     * A rentabilidade efetiva é a taxa anual usada no valor final: a oferecida para prefixados
+     * e a da curva no prazo para indexados
+     */
     public Simulacao criar(ProdutoComScore melhorProduto, SimulacaoRequestDTO requestDTO,
-                           TipoPerfilRisco perfil, OffsetDateTime dataSimulacao, BigDecimal valorFinal) {
+                           TipoPerfilRisco perfil, OffsetDateTime dataSimulacao, BigDecimal valorFinal,
+                           BigDecimal rentabilidadeEfetiva) {
 
         Simulacao simulacao = new Simulacao();
         simulacao.setCodigoCliente(requestDTO.getClienteId());
@@ -21,6 +27,8 @@ public class SimulacaoFactory {
         simulacao.setPrazoMeses(requestDTO.getPrazoMeses());
         simulacao.setValorFinal(valorFinal);
         simulacao.setValorInvestido(requestDTO.getValor());
+        simulacao.setAporteMensal(requestDTO.getAporteMensal());
+        simulacao.setRentabilidadeEfetiva(rentabilidadeEfetiva.setScale(4, RoundingMode.HALF_UP));
         simulacao.setDataSimulacao(dataSimulacao);
 
         // Calcula score baseado no risco do produto
@@ -0,0 +1,90 @@
+package org.lucasnogueira.benchmark;
+
+import org.lucasnogueira.service.CrescimentoCompostoCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Projeção do valor final: fatores de crescimento em cache x cálculo original a cada chamada
+ * (divide em escala 10, Math.pow e BigDecimal.valueOf). As taxas vêm de um catálogo pequeno.
+ * <p>
+ * Execução: ver {@link GroupCommitBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CrescimentoCompostoBenchmark {
+
+    private static final int CHAMADAS = 1024;
+
+    private final CrescimentoCompostoCalculator calculator = new CrescimentoCompostoCalculator();
+    private BigDecimal[] valores;
+    private BigDecimal[] taxas;
+    private int[] prazos;
+
+    @Setup
+    public void preparar() {
+        BigDecimal[] catalogo = {
+                new BigDecimal("0.12"), new BigDecimal("0.13"), new BigDecimal("0.095"), new BigDecimal("0.06"),
+                new BigDecimal("0.18"), new BigDecimal("0.08"), new BigDecimal("0.105"), new BigDecimal("0.15")
+        };
+        Random random = new Random(42L);
+        valores = new BigDecimal[CHAMADAS];
+        taxas = new BigDecimal[CHAMADAS];
+        prazos = new int[CHAMADAS];
+        for (int i = 0; i < CHAMADAS; i++) {
+            valores[i] = BigDecimal.valueOf(random.nextInt(100_000_000) + 100L, 2);
+            taxas[i] = catalogo[random.nextInt(catalogo.length)];
+            prazos[i] = random.nextInt(120) + 1;
+        }
+    }
+
+    @Benchmark
+    public void fatorEmCache(Blackhole blackhole) {
+        for (int i = 0; i < CHAMADAS; i++) {
+            blackhole.consume(calculator.calcularValorFinal(valores[i], taxas[i], prazos[i]));
+        }
+    }
+
+    @Benchmark
+    public void calculoOriginal(Blackhole blackhole) {
+        for (int i = 0; i < CHAMADAS; i++) {
+            blackhole.consume(calcularValorFinalOriginal(valores[i], taxas[i], prazos[i]));
+        }
+    }
+
+    private static BigDecimal calcularValorFinalOriginal(BigDecimal valorInicial, BigDecimal taxa, int meses) {
+        BigDecimal anos = BigDecimal.valueOf(meses).divide(BigDecimal.valueOf(12), 10, RoundingMode.HALF_UP);
+        BigDecimal umMaisTaxa = BigDecimal.ONE.add(taxa);
+        double potencia = Math.pow(umMaisTaxa.doubleValue(), anos.doubleValue());
+        BigDecimal fator = BigDecimal.valueOf(potencia);
+        return valorInicial.multiply(fator).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CrescimentoCompostoBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,108 @@
+package org.lucasnogueira.benchmark;
+
+import org.lucasnogueira.util.AgrupadorCommit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Throughput x latência do group commit para diferentes janelas, com 64 chamadores concorrentes.
+ * O banco é simulado: cada commit custa um valor fixo (round-trip + flush do log) mais um custo
+ * por linha, e no modo direto as gravações concorrentes são limitadas pelo pool de conexões.
+ * <p>
+ * Execução: {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt}
+ * e em seguida {@code java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.lucasnogueira.benchmark.GroupCommitBenchmark}
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(64)
+@Fork(1)
+public class GroupCommitBenchmark {
+
+    private static final long CUSTO_COMMIT_NANOS = TimeUnit.MICROSECONDS.toNanos(1000);
+    private static final long CUSTO_LINHA_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+    private static final int TAMANHO_POOL = 16;
+
+    @State(Scope.Benchmark)
+    public static class Agrupado {
+
+        @Param({"0", "500", "2000", "5000"})
+        long janelaUs;
+
+        @Param({"64"})
+        int maxLote;
+
+        AgrupadorCommit<Object> agrupador;
+
+        @Setup(Level.Trial)
+        public void iniciar() {
+            agrupador = new AgrupadorCommit<>(
+                    lote -> simularCommit(lote.size()),
+                    item -> simularCommit(1),
+                    TimeUnit.MICROSECONDS.toNanos(janelaUs),
+                    maxLote,
+                    4096);
+            agrupador.iniciar("benchmark-group-commit");
+        }
+
+        @TearDown(Level.Trial)
+        public void encerrar() {
+            agrupador.encerrar(1000);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Direto {
+        final Semaphore pool = new Semaphore(TAMANHO_POOL);
+    }
+
+    @Benchmark
+    public boolean groupCommit(Agrupado estado) {
+        return estado.agrupador.gravarEAguardar(new Object(), 5000);
+    }
+
+    /**
+     * Referência: um commit por simulação, limitado pelo pool de conexões
+     */
+    @Benchmark
+    public void commitIndividual(Direto estado) throws InterruptedException {
+        estado.pool.acquire();
+        try {
+            simularCommit(1);
+        } finally {
+            estado.pool.release();
+        }
+    }
+
+    private static void simularCommit(int linhas) {
+        LockSupport.parkNanos(CUSTO_COMMIT_NANOS + linhas * CUSTO_LINHA_NANOS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GroupCommitBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,99 @@
+package org.lucasnogueira.benchmark;
+
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.entities.Produto;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+import org.lucasnogueira.service.ProdutoScoreCalculator;
+import org.lucasnogueira.service.ProdutoScoreCalculatorReferencia;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escolha do melhor produto: kernels por perfil x cálculo original com switch por produto.
+ * Cada invocação percorre os três perfis, como em tráfego real, para que o perfil de tipos
+ * visto pelo JIT não fique artificialmente restrito a um único perfil.
+ * <p>
+ * Execução: ver {@link GroupCommitBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KernelScoreBenchmark {
+
+    private static final String[] TIPOS = {"CDB", "LCI", "LCA", "Ações", "Fundos", "Tesouro Direto"};
+    private static final String[] RISCOS = {"Muito Baixo", "Baixo", "Medio", "Alto", "Muito Alto"};
+
+    @Param({"20", "1000"})
+    int tamanhoCatalogo;
+
+    private final ProdutoScoreCalculator calculator = new ProdutoScoreCalculator();
+    private final ProdutoScoreCalculatorReferencia referencia = new ProdutoScoreCalculatorReferencia();
+    private CatalogoCompilado catalogo;
+    private SimulacaoRequestDTO request;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42L);
+        List<Produto> produtos = new ArrayList<>(tamanhoCatalogo);
+        for (int i = 0; i < tamanhoCatalogo; i++) {
+            Produto produto = new Produto();
+            produto.setId((long) i);
+            produto.setNome("Produto " + i);
+            produto.setTipo(TIPOS[random.nextInt(TIPOS.length)]);
+            produto.setTaxaAnualOferecida(BigDecimal.valueOf(random.nextInt(300) + 1, 3));
+            produto.setRisco(RISCOS[random.nextInt(RISCOS.length)]);
+            produto.setLiquidezDias(random.nextInt(720));
+            produtos.add(produto);
+        }
+        catalogo = CatalogoCompilado.compilar(produtos, 1L);
+
+        request = new SimulacaoRequestDTO();
+        request.setClienteId(1);
+        request.setValor(new BigDecimal("75000"));
+        request.setPrazoMeses(24);
+    }
+
+    @Benchmark
+    public void kernelPorPerfil(Blackhole blackhole) {
+        for (TipoPerfilRisco perfil : TipoPerfilRisco.values()) {
+            blackhole.consume(calculator.encontrarMelhorProduto(catalogo, request, perfil));
+        }
+    }
+
+    @Benchmark
+    public void switchPorProduto(Blackhole blackhole) {
+        for (TipoPerfilRisco perfil : TipoPerfilRisco.values()) {
+            blackhole.consume(referencia.encontrarMelhorProduto(catalogo, request, perfil));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(KernelScoreBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
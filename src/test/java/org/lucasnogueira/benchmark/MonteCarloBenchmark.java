@@ -0,0 +1,67 @@
+package org.lucasnogueira.benchmark;
+
+import org.lucasnogueira.model.dto.ProjecaoEstocasticaDTO;
+import org.lucasnogueira.model.entities.Produto;
+import org.lucasnogueira.service.MonteCarloService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Projeção estocástica com 100 mil caminhos (configuração padrão, sem orçamento de tempo
+ * efetivo) para um produto de Ações de risco muito alto.
+ * <p>
+ * Execução: ver {@link GroupCommitBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MonteCarloBenchmark {
+
+    @Param({"12", "60", "360"})
+    int prazoMeses;
+
+    private final MonteCarloService monteCarloService = new MonteCarloService();
+    private Produto produto;
+    private final BigDecimal valor = new BigDecimal("10000");
+
+    @Setup
+    public void preparar() {
+        produto = new Produto();
+        produto.setId(1L);
+        produto.setNome("Ações BlueChip");
+        produto.setTipo("Ações");
+        produto.setTaxaAnualOferecida(new BigDecimal("0.25"));
+        produto.setRisco("Muito Alto");
+        produto.setLiquidezDias(1);
+    }
+
+    @Benchmark
+    public ProjecaoEstocasticaDTO projetar() {
+        return monteCarloService.projetar(produto, valor, prazoMeses).orElseThrow();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MonteCarloBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,81 @@
+package org.lucasnogueira.benchmark;
+
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+import org.lucasnogueira.service.PerfilRiscoCalculator;
+import org.lucasnogueira.service.PerfilRiscoCalculatorReferencia;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classificação do perfil de risco: tabelas pré-calculadas x cascata de interpolações original.
+ * Cada invocação classifica um lote de requisições com valores e prazos variados.
+ * <p>
+ * Execução: ver {@link GroupCommitBenchmark}; use {@code -prof gc} para confirmar a ausência de alocação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PerfilRiscoBenchmark {
+
+    private static final int REQUISICOES = 1024;
+
+    private final PerfilRiscoCalculator tabelado = new PerfilRiscoCalculator();
+    private final PerfilRiscoCalculatorReferencia referencia = new PerfilRiscoCalculatorReferencia();
+    private SimulacaoRequestDTO[] requisicoes;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42L);
+        requisicoes = new SimulacaoRequestDTO[REQUISICOES];
+        for (int i = 0; i < REQUISICOES; i++) {
+            SimulacaoRequestDTO request = new SimulacaoRequestDTO();
+            request.setValor(BigDecimal.valueOf(random.nextInt(600_000_000) + 100L, 2));
+            request.setPrazoMeses(random.nextInt(120) + 1);
+            request.setClienteId(i + 1);
+            requisicoes[i] = request;
+        }
+    }
+
+    @Benchmark
+    public void tabelas(Blackhole blackhole) {
+        for (SimulacaoRequestDTO request : requisicoes) {
+            TipoPerfilRisco perfil = tabelado.calcular(request);
+            blackhole.consume(perfil);
+        }
+    }
+
+    @Benchmark
+    public void cascataOriginal(Blackhole blackhole) {
+        for (SimulacaoRequestDTO request : requisicoes) {
+            TipoPerfilRisco perfil = referencia.calcular(request);
+            blackhole.consume(perfil);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PerfilRiscoBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
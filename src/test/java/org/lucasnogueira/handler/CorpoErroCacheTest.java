@@ -0,0 +1,85 @@
+package org.lucasnogueira.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+import org.lucasnogueira.model.dto.ErroDetailDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CorpoErroCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CorpoErroCache corpoErroCache;
+
+    @BeforeEach
+    void setUp() {
+        corpoErroCache = new CorpoErroCache();
+        corpoErroCache.objectMapper = objectMapper;
+        corpoErroCache.carregar();
+    }
+
+    @Test
+    @DisplayName("Deve montar o mesmo JSON que o Jackson gera para o ErroDetailDto")
+    void deveMontarMesmoJsonDoErroDetailDto() throws Exception {
+        for (String mensagem : new String[]{"O parâmetro top deve estar entre 1 e 20.", "aspas \" e \\ barra", null}) {
+            String esperado;
+            String corpo;
+            // Repete se o segundo virar entre as duas montagens
+            do {
+                long segundo = System.currentTimeMillis() / 1000;
+                corpo = new String(corpoErroCache.corpo(400, mensagem), StandardCharsets.UTF_8);
+                esperado = objectMapper.writeValueAsString(ErroDetailDto.builder()
+                        .timestamp(new Date(segundo * 1000)).status(400).message(mensagem).build());
+            } while (!corpo.startsWith(esperado.substring(0, esperado.indexOf(','))));
+
+            assertEquals(esperado, corpo);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve responder a validação com as mensagens do message.properties")
+    void deveResponderValidacaoComMensagensDoArquivo() {
+        assertEquals("prazo e obrigatorio.", corpoErroCache.mensagem("solicita_simulacao_investimento_prazo_nulo"));
+
+        ValidacaoExceptionHandler handler = new ValidacaoExceptionHandler();
+        handler.corpoErroCache = corpoErroCache;
+        ConstraintViolationException excecao = new ConstraintViolationException(Set.of(
+                violacao("{solicita_simulacao_investimento_prazo_nulo}"),
+                violacao("{solicita_simulacao_investimento_cliente_id_menor_que_zero}")));
+
+        Response response = handler.toResponse(excecao);
+
+        assertEquals(400, response.getStatus());
+        String corpo = new String((byte[]) response.getEntity(), StandardCharsets.UTF_8);
+        assertTrue(corpo.endsWith(",\"status\":400,\"message\":"
+                + "\"clienteId deve ser maior que zero. prazo e obrigatorio.\"}"), corpo);
+    }
+
+    @Test
+    @DisplayName("Deve lançar erros de negócio sem stack trace")
+    void deveLancarErrosDeNegocioSemStackTrace() {
+        SmartInvestApiException excecao = new SmartInvestApiException("valor inválido");
+        IllegalStateException causa = new IllegalStateException("causa");
+
+        assertEquals(0, excecao.getStackTrace().length);
+        assertSame(causa, new SmartInvestApiException("com causa", causa).getCause());
+    }
+
+    private static ConstraintViolation<?> violacao(String template) {
+        ConstraintViolation<?> violacao = mock(ConstraintViolation.class);
+        when(violacao.getMessageTemplate()).thenReturn(template);
+        when(violacao.getMessage()).thenReturn(template);
+        return violacao;
+    }
+}
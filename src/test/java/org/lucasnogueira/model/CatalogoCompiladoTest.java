@@ -0,0 +1,80 @@
+package org.lucasnogueira.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.lucasnogueira.model.entities.Produto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogoCompiladoTest {
+
+    private CatalogoCompilado catalogo;
+
+    @BeforeEach
+    void setUp() {
+        catalogo = CatalogoCompilado.compilar(List.of(
+                criarProduto(1L, "CDB"),
+                criarProduto(2L, "LCI"),
+                criarProduto(3L, "Fundos"),
+                criarProduto(4L, "Ações"),
+                criarProduto(5L, "CDB"),
+                criarProduto(6L, "Tesouro Direto")), 1L);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "CDB, CDB",
+            "cdb, CDB",
+            "Ações, Ações",
+            "acoes, Ações",
+            "AÇÕES, Ações",
+            "fund, Fundos",
+            "tesouro, Tesouro Direto",
+            "CDB pós-fixado, CDB",
+            "Fundos Imobiliários, Fundos"
+    })
+    @DisplayName("Deve resolver o tipo solicitado sem diferenciar maiúsculas, acentos ou trechos")
+    void deveResolverTipoSolicitado(String solicitado, String esperado) {
+        CatalogoCompilado resolvido = catalogo.resolverTipo(solicitado);
+
+        assertNotNull(resolvido);
+        assertEquals(esperado, resolvido.getTipo());
+        assertSame(catalogo.doTipo(esperado), resolvido);
+    }
+
+    @Test
+    @DisplayName("Deve escolher o primeiro tipo em ordem alfabética quando houver mais de um candidato")
+    void deveEscolherPrimeiroTipoEmOrdemAlfabetica() {
+        // "c" está contido em CDB e em Ações (acoes)
+        assertEquals("Ações", catalogo.resolverTipo("c").getTipo());
+        assertEquals("CDB", catalogo.resolverTipo("CDB e LCI").getTipo());
+    }
+
+    @Test
+    @DisplayName("Deve retornar null para tipos inexistentes e a mesma partição compartilhada nas repetições")
+    void deveRetornarNullParaTipoInexistente() {
+        assertNull(catalogo.resolverTipo("Debêntures"));
+        assertNull(catalogo.resolverTipo("Debêntures"));
+
+        CatalogoCompilado primeira = catalogo.resolverTipo("Renda Fixa CDB");
+        assertSame(primeira, catalogo.resolverTipo("Renda Fixa CDB"));
+        assertEquals(2, primeira.tamanho());
+    }
+
+    private Produto criarProduto(Long id, String tipo) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setNome("Produto " + id);
+        produto.setTipo(tipo);
+        produto.setTaxaAnualOferecida(new BigDecimal("0.10"));
+        produto.setRisco("Baixo");
+        produto.setLiquidezDias(30);
+        return produto;
+    }
+}
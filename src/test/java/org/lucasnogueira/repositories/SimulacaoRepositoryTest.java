@@ -0,0 +1,126 @@
+package org.lucasnogueira.repositories;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.jdbc.Work;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucasnogueira.model.entities.Simulacao;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+import org.lucasnogueira.service.LimiteTempoService;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SimulacaoRepositoryTest {
+
+    // Mesma tabela que o Hibernate gera no H2 do perfil dev
+    private static final String CREATE_SIMULACAO =
+            "CREATE TABLE SIMULACAO (CO_SIMULACAO BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                    "CO_ClIENTE INTEGER, CO_PRODUTO BIGINT, NO_RISCO VARCHAR(20), VR_INVESTIDO NUMERIC(18,2), " +
+                    "VR_APORTE_MENSAL NUMERIC(18,2), VR_FINAL NUMERIC(18,2), NU_PRAZO_MESES INTEGER, " +
+                    "TS_CRIACAO_SIMULACAO TIMESTAMP(6) WITH TIME ZONE, NU_PONTUACAO INTEGER, " +
+                    "IC_TIPO_PERFIL_RISCO TINYINT, PC_RENTABILIDADE_EFETIVA NUMERIC(5,4))";
+
+    private Connection conexao;
+    private SimulacaoRepository repository;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conexao = DriverManager.getConnection("jdbc:h2:mem:simulacao-repository;DB_CLOSE_DELAY=-1");
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS SIMULACAO");
+            statement.execute(CREATE_SIMULACAO);
+        }
+
+        // A sessão entrega a conexão do H2 ao trabalho JDBC, como o Hibernate faz com a conexão da transação
+        Session session = mock(Session.class);
+        doAnswer(invocacao -> {
+            invocacao.<Work>getArgument(0).execute(conexao);
+            return null;
+        }).when(session).doWork(any());
+        repository = new SimulacaoRepository();
+        repository.entityManager = mock(EntityManager.class);
+        when(repository.entityManager.unwrap(Session.class)).thenReturn(session);
+        repository.limiteTempoService = new LimiteTempoService();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conexao.close();
+    }
+
+    @Test
+    @DisplayName("Deve gravar todos os campos de cada simulação, inclusive o último lote incompleto")
+    void devePersistirTodosOsCamposEmLote() throws SQLException {
+        OffsetDateTime data = OffsetDateTime.of(2025, 3, 10, 15, 30, 0, 0, ZoneOffset.ofHours(-3));
+        Simulacao comAporte = criarSimulacao(1, 10L, "Baixo", "10000.00", "11200.50", 12, data, 35,
+                TipoPerfilRisco.CONSERVADOR, "0.1200", "500.00");
+        Simulacao semAporte = criarSimulacao(2, 20L, "Alto", "25000.00", "31000.75", 24, data.plusMinutes(1), 70,
+                TipoPerfilRisco.AGRESSIVO, "0.1185", null);
+        Simulacao semPerfil = criarSimulacao(3, 30L, "Médio", "5000.00", "5400.00", 6, data.plusMinutes(2), 50,
+                null, "0.0800", "0.00");
+
+        repository.persistirEmLote(List.of(comAporte, semAporte, semPerfil), 2);
+
+        try (Statement statement = conexao.createStatement();
+             ResultSet linhas = statement.executeQuery("SELECT * FROM SIMULACAO ORDER BY CO_SIMULACAO")) {
+            for (Simulacao esperada : List.of(comAporte, semAporte, semPerfil)) {
+                assertTrue(linhas.next());
+                assertEquals(esperada.getCodigoCliente(), linhas.getObject("CO_ClIENTE", Integer.class));
+                assertEquals(esperada.getCodigoProduto(), linhas.getObject("CO_PRODUTO", Long.class));
+                assertEquals(esperada.getRisco(), linhas.getString("NO_RISCO"));
+                assertEquals(esperada.getValorInvestido(), linhas.getBigDecimal("VR_INVESTIDO"));
+                assertEquals(esperada.getValorFinal(), linhas.getBigDecimal("VR_FINAL"));
+                assertEquals(esperada.getPrazoMeses(), linhas.getObject("NU_PRAZO_MESES", Integer.class));
+                assertTrue(esperada.getDataSimulacao().isEqual(
+                        linhas.getObject("TS_CRIACAO_SIMULACAO", OffsetDateTime.class)));
+                assertEquals(esperada.getPontuacao(), linhas.getObject("NU_PONTUACAO", Integer.class));
+                assertEquals(esperada.getTipoPerfilRisco() != null ? esperada.getTipoPerfilRisco().ordinal() : null,
+                        linhas.getObject("IC_TIPO_PERFIL_RISCO", Integer.class));
+                assertEquals(esperada.getRentabilidadeEfetiva(), linhas.getBigDecimal("PC_RENTABILIDADE_EFETIVA"));
+                assertEquals(esperada.getAporteMensal(), linhas.getBigDecimal("VR_APORTE_MENSAL"));
+            }
+            assertFalse(linhas.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Não deve abrir trabalho JDBC para um lote vazio")
+    void deveIgnorarLoteVazio() {
+        repository.persistirEmLote(List.of(), 50);
+
+        verify(repository.entityManager, never()).unwrap(any());
+    }
+
+    private static Simulacao criarSimulacao(int cliente, Long produto, String risco, String investido, String valorFinal,
+                                            int prazoMeses, OffsetDateTime data, int pontuacao,
+                                            TipoPerfilRisco perfil, String rentabilidade, String aporte) {
+        Simulacao simulacao = new Simulacao();
+        simulacao.setCodigoCliente(cliente);
+        simulacao.setCodigoProduto(produto);
+        simulacao.setRisco(risco);
+        simulacao.setValorInvestido(new BigDecimal(investido));
+        simulacao.setValorFinal(new BigDecimal(valorFinal));
+        simulacao.setPrazoMeses(prazoMeses);
+        simulacao.setDataSimulacao(data);
+        simulacao.setPontuacao(pontuacao);
+        simulacao.setTipoPerfilRisco(perfil);
+        simulacao.setRentabilidadeEfetiva(new BigDecimal(rentabilidade));
+        simulacao.setAporteMensal(aporte != null ? new BigDecimal(aporte) : null);
+        return simulacao;
+    }
+}
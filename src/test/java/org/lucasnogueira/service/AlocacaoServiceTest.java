@@ -0,0 +1,113 @@
+package org.lucasnogueira.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.dto.AlocacaoResponseDTO;
+import org.lucasnogueira.model.dto.ItemAlocacaoDTO;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.entities.Produto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlocacaoServiceTest {
+
+    private AlocacaoService alocacaoService;
+    private CatalogoCompilado catalogo;
+
+    @BeforeEach
+    void setUp() {
+        alocacaoService = new AlocacaoService();
+        alocacaoService.maximoPorProdutoPadrao = 0.40;
+        alocacaoService.reservaLiquidezPadrao = 0.20;
+        alocacaoService.liquidezDias = 30;
+        alocacaoService.orcamentoMs = 1000;
+        alocacaoService.perfilRiscoCalculator = new PerfilRiscoCalculator();
+        alocacaoService.crescimentoCompostoCalculator = new CrescimentoCompostoCalculator();
+        alocacaoService.simulacaoService = new SimulacaoService();
+        alocacaoService.produtoCacheService = new ProdutoCacheService() {
+            @Override
+            public CatalogoCompilado obterCatalogoCompilado() {
+                return catalogo;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Deve alocar todo o valor respeitando os limites do perfil conservador mesmo com muitos produtos de risco alto")
+    void deveAlocarRespeitandoLimitesDoPerfil() {
+        List<Produto> produtos = new ArrayList<>();
+        long id = 1;
+        // Muitos produtos de risco muito alto com rentabilidade alta, que não cabem no perfil conservador
+        for (int i = 0; i < 200; i++) {
+            produtos.add(criarProduto(id++, "Ações", "0.40", "Muito Alto", 3));
+        }
+        produtos.add(criarProduto(id++, "CDB", "0.11", "Baixo", 1));
+        produtos.add(criarProduto(id++, "LCI", "0.12", "Baixo", 90));
+        produtos.add(criarProduto(id++, "LCA", "0.10", "Muito Baixo", 180));
+        produtos.add(criarProduto(id, "Fundos", "0.16", "Médio", 30));
+        catalogo = CatalogoCompilado.compilar(produtos, 1L);
+
+        AlocacaoResponseDTO alocacao = alocacaoService.alocar(criarRequest("5000", 6), null, null);
+
+        assertEquals("CONSERVADOR", alocacao.getPerfil());
+        BigDecimal soma = BigDecimal.ZERO;
+        BigDecimal percentualMedio = BigDecimal.ZERO;
+        BigDecimal percentualLiquido = BigDecimal.ZERO;
+        for (ItemAlocacaoDTO item : alocacao.getAlocacoes()) {
+            assertNotEquals("Ações", item.getProduto().getTipo());
+            assertTrue(item.getPercentual().compareTo(new BigDecimal("0.40")) <= 0);
+            soma = soma.add(item.getValor());
+            if ("Fundos".equals(item.getProduto().getTipo())) {
+                percentualMedio = percentualMedio.add(item.getPercentual());
+            }
+            if (catalogo.liquidezDias(catalogo.indiceDoProduto(item.getProduto().getId())) <= 30) {
+                percentualLiquido = percentualLiquido.add(item.getPercentual());
+            }
+        }
+        assertEquals(0, soma.compareTo(new BigDecimal("5000")));
+        assertTrue(percentualMedio.compareTo(new BigDecimal("0.30")) <= 0);
+        assertTrue(percentualLiquido.compareTo(new BigDecimal("0.20")) >= 0);
+        assertEquals(0, percentualLiquido.compareTo(alocacao.getPercentualLiquidez()));
+        assertTrue(alocacao.isOtimoLocal());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar quando os produtos não comportam todo o valor dentro dos limites")
+    void deveRejeitarQuandoLimitesNaoComportamValor() {
+        catalogo = CatalogoCompilado.compilar(List.of(
+                criarProduto(1L, "CDB", "0.11", "Baixo", 1),
+                criarProduto(2L, "LCI", "0.12", "Baixo", 90)), 1L);
+
+        assertThrows(SmartInvestApiException.class, () -> alocacaoService.alocar(criarRequest("5000", 6), null, null));
+
+        AlocacaoResponseDTO alocacao = alocacaoService.alocar(criarRequest("5000", 6), 0.5, null);
+        assertEquals(2, alocacao.getAlocacoes().size());
+        assertThrows(SmartInvestApiException.class, () -> alocacaoService.alocar(criarRequest("5000", 6), 1.5, null));
+    }
+
+    private Produto criarProduto(Long id, String tipo, String taxa, String risco, int liquidezDias) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setNome("Produto " + id);
+        produto.setTipo(tipo);
+        produto.setTaxaAnualOferecida(new BigDecimal(taxa));
+        produto.setRisco(risco);
+        produto.setLiquidezDias(liquidezDias);
+        return produto;
+    }
+
+    private SimulacaoRequestDTO criarRequest(String valor, int prazoMeses) {
+        SimulacaoRequestDTO request = new SimulacaoRequestDTO();
+        request.setClienteId(1);
+        request.setValor(new BigDecimal(valor));
+        request.setPrazoMeses(prazoMeses);
+        return request;
+    }
+}
@@ -0,0 +1,108 @@
+package org.lucasnogueira.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalendarioDiasUteisTest {
+
+    private CalendarioDiasUteis calendario;
+
+    @BeforeEach
+    void setUp() {
+        calendario = new CalendarioDiasUteis();
+        calendario.carregar();
+    }
+
+    @Test
+    @DisplayName("Deve contar os mesmos dias úteis de um laço dia a dia em intervalos aleatórios")
+    void deveContarMesmosDiasUteisDoLacoDiaADia() {
+        Random random = new Random(20L);
+        long inicio = calendario.getInicio().toEpochDay();
+        long dias = calendario.getFim().toEpochDay() - inicio;
+
+        for (int i = 0; i < 2_000; i++) {
+            LocalDate de = LocalDate.ofEpochDay(inicio + random.nextLong(dias + 1));
+            LocalDate ate = de.plusDays(random.nextInt(3_000));
+            if (ate.isAfter(calendario.getFim())) {
+                ate = calendario.getFim();
+            }
+
+            int esperado = 0;
+            for (LocalDate dia = de; dia.isBefore(ate); dia = dia.plusDays(1)) {
+                esperado += calendario.isDiaUtil(dia) ? 1 : 0;
+            }
+            assertEquals(esperado, calendario.diasUteis(de, ate), de + " a " + ate);
+            assertEquals(-esperado, calendario.diasUteis(ate, de));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve excluir fins de semana e os feriados nacionais do arquivo")
+    void deveExcluirFinsDeSemanaEFeriados() {
+        assertFalse(calendario.isDiaUtil(LocalDate.of(2025, 3, 4)));    // Carnaval
+        assertFalse(calendario.isDiaUtil(LocalDate.of(2025, 4, 18)));   // Sexta-feira Santa
+        assertFalse(calendario.isDiaUtil(LocalDate.of(2025, 6, 19)));   // Corpus Christi
+        assertFalse(calendario.isDiaUtil(LocalDate.of(2025, 11, 20)));  // Consciência Negra
+        assertFalse(calendario.isDiaUtil(LocalDate.of(2025, 1, 4)));    // sábado
+        assertTrue(calendario.isDiaUtil(LocalDate.of(2025, 1, 2)));
+
+        // 2025 tem 252 dias úteis pelo calendário nacional
+        assertEquals(252, calendario.diasUteis(LocalDate.of(2025, 1, 1), LocalDate.of(2026, 1, 1)));
+    }
+
+    @Test
+    @DisplayName("Deve contar corretamente nas fronteiras das palavras do bitset")
+    void deveContarNasFronteirasDasPalavras() {
+        LocalDate inicio = LocalDate.of(2024, 1, 1);
+        CalendarioDiasUteis semFeriados = CalendarioDiasUteis.de(inicio, inicio.plusDays(128), List.of());
+
+        for (int de = 0; de <= 128; de++) {
+            int esperado = 0;
+            for (int ate = de; ate <= 128; ate++) {
+                assertEquals(esperado, semFeriados.diasUteis(inicio.plusDays(de), inicio.plusDays(ate)));
+                DayOfWeek dia = inicio.plusDays(ate).getDayOfWeek();
+                esperado += dia == DayOfWeek.SATURDAY || dia == DayOfWeek.SUNDAY ? 0 : 1;
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar datas anteriores ao período coberto pelo arquivo de feriados")
+    void deveRejeitarDatasAnterioresAoCalendario() {
+        LocalDate fim = calendario.getFim();
+
+        assertDoesNotThrow(() -> calendario.diasUteis(calendario.getInicio(), fim));
+        assertThrows(SmartInvestApiException.class,
+                () -> calendario.diasUteis(calendario.getInicio().minusDays(1), fim));
+    }
+
+    @Test
+    @DisplayName("Deve contar apenas os fins de semana como não úteis depois do fim do arquivo de feriados")
+    void deveEstenderCalendarioDepoisDoFim() {
+        LocalDate fim = calendario.getFim();
+        LocalDate de = fim.minusYears(1);
+        LocalDate ate = fim.plusYears(30).plusDays(3);
+
+        int esperado = 0;
+        for (LocalDate data = de; data.isBefore(ate); data = data.plusDays(1)) {
+            if (data.isBefore(fim) ? calendario.isDiaUtil(data)
+                    : data.getDayOfWeek() != DayOfWeek.SATURDAY && data.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                esperado++;
+            }
+        }
+
+        assertEquals(esperado, calendario.diasUteis(de, ate));
+        assertEquals(calendario.diasUteis(de, fim) + calendario.diasUteis(fim, ate), calendario.diasUteis(de, ate));
+        assertEquals(ate.getDayOfWeek() != DayOfWeek.SATURDAY && ate.getDayOfWeek() != DayOfWeek.SUNDAY,
+                calendario.isDiaUtil(ate));
+    }
+}
@@ -0,0 +1,119 @@
+package org.lucasnogueira.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.dto.ComparacaoRequestDTO;
+import org.lucasnogueira.model.dto.ComparacaoResponseDTO;
+import org.lucasnogueira.model.dto.ItemComparacaoDTO;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.entities.Produto;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComparacaoServiceTest {
+
+    private ComparacaoService comparacaoService;
+    private CatalogoCompilado catalogo;
+
+    @BeforeEach
+    void setUp() {
+        catalogo = CatalogoCompilado.compilar(List.of(
+                criarProduto(10L, "CDB", "0.12", "Baixo", 1),
+                criarProduto(20L, "LCI", "0.10", "Baixo", 90),
+                criarProduto(30L, "Ações", "0.25", "Muito Alto", 3),
+                criarProduto(40L, "Fundos", "0.18", "Alto", 30)), 1L);
+
+        comparacaoService = new ComparacaoService();
+        comparacaoService.maximoProdutos = 3;
+        comparacaoService.perfilRiscoCalculator = new PerfilRiscoCalculator();
+        comparacaoService.crescimentoCompostoCalculator = new CrescimentoCompostoCalculator();
+        comparacaoService.simulacaoService = new SimulacaoService();
+        comparacaoService.produtoCacheService = new ProdutoCacheService() {
+            @Override
+            public CatalogoCompilado obterCatalogoCompilado() {
+                return catalogo;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Deve comparar os produtos na ordem informada com o mesmo score da simulação")
+    void deveCompararProdutosNaOrdemInformada() {
+        ComparacaoResponseDTO comparacao = comparacaoService.comparar(criarRequest(List.of(30L, 10L, 30L, 20L)));
+
+        List<ItemComparacaoDTO> itens = comparacao.getItens();
+        assertEquals(List.of(30L, 10L, 20L), itens.stream().map(item -> item.getProduto().getId()).toList());
+
+        SimulacaoRequestDTO simulacao = new SimulacaoRequestDTO();
+        simulacao.setValor(new BigDecimal("10000"));
+        simulacao.setPrazoMeses(24);
+        TipoPerfilRisco perfil = new PerfilRiscoCalculator().calcular(simulacao);
+        assertEquals(perfil.name(), comparacao.getPerfil());
+
+        ProdutoScoreCalculator calculator = new ProdutoScoreCalculator();
+        for (ItemComparacaoDTO item : itens) {
+            int indice = catalogo.indiceDoProduto(item.getProduto().getId());
+            assertEquals(calculator.calcular(catalogo, indice, simulacao, perfil), item.getScore(), 0.0);
+            assertEquals(new CrescimentoCompostoCalculator().calcularValorFinal(new BigDecimal("10000"),
+                    catalogo.produto(indice).getTaxaAnualOferecida(), 24), item.getValorFinal());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve descontar o IR do prazo na rentabilidade e no rendimento")
+    void deveDescontarIrDoPrazo() {
+        List<ItemComparacaoDTO> itens = comparacaoService.comparar(criarRequest(List.of(10L, 20L, 30L))).getItens();
+
+        ItemComparacaoDTO cdb = itens.get(0);
+        assertEquals(0.175, cdb.getAliquotaIr());
+        assertEquals(0.12 * (1 - 0.175), cdb.getRentabilidadeLiquida(), 1e-12);
+        BigDecimal rendimento = cdb.getValorFinal().subtract(new BigDecimal("10000"));
+        assertEquals(new BigDecimal("10000").add(rendimento.multiply(new BigDecimal("0.825")))
+                .setScale(2, RoundingMode.HALF_UP), cdb.getValorFinalLiquido());
+
+        ItemComparacaoDTO lci = itens.get(1);
+        assertEquals(0.0, lci.getAliquotaIr());
+        assertEquals(lci.getValorFinal(), lci.getValorFinalLiquido());
+
+        assertEquals(0.15, itens.get(2).getAliquotaIr());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar produtos inexistentes e comparações acima do limite")
+    void deveRejeitarProdutosInexistentesELimite() {
+        SmartInvestApiException erro = assertThrows(SmartInvestApiException.class,
+                () -> comparacaoService.comparar(criarRequest(List.of(10L, 99L))));
+        assertTrue(erro.getMessage().contains("99"));
+
+        assertThrows(SmartInvestApiException.class,
+                () -> comparacaoService.comparar(criarRequest(List.of(10L, 20L, 30L, 40L))));
+    }
+
+    private ComparacaoRequestDTO criarRequest(List<Long> produtoIds) {
+        ComparacaoRequestDTO request = new ComparacaoRequestDTO();
+        request.setClienteId(1);
+        request.setValor(new BigDecimal("10000"));
+        request.setPrazoMeses(24);
+        request.setProdutoIds(produtoIds);
+        return request;
+    }
+
+    private Produto criarProduto(Long id, String tipo, String taxa, String risco, int liquidezDias) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setNome("Produto " + id);
+        produto.setTipo(tipo);
+        produto.setTaxaAnualOferecida(new BigDecimal(taxa));
+        produto.setRisco(risco);
+        produto.setLiquidezDias(liquidezDias);
+        return produto;
+    }
+}
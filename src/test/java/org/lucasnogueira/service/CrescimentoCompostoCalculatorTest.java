@@ -0,0 +1,207 @@
+package org.lucasnogueira.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucasnogueira.model.entities.Produto;
+import org.lucasnogueira.model.enums.Indexador;
+import org.lucasnogueira.service.CurvaIndexadores.Vigencia;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrescimentoCompostoCalculatorTest {
+
+    private CrescimentoCompostoCalculator calculator;
+
+    @BeforeEach
+    void setUp() {
+        calculator = new CrescimentoCompostoCalculator();
+    }
+
+    @Test
+    @DisplayName("Deve produzir exatamente o mesmo valor final da projeção original")
+    void deveProduzirMesmoValorFinalDaProjecaoOriginal() {
+        Random random = new Random(11L);
+        BigDecimal[] valores = {
+                new BigDecimal("0.01"), new BigDecimal("1000.00"), new BigDecimal("15000"),
+                new BigDecimal("75000.50"), new BigDecimal("999999999999.99")
+        };
+
+        for (int t = 0; t <= 300; t++) {
+            BigDecimal taxa = BigDecimal.valueOf(t, 3);
+            for (int meses = 0; meses <= 600; meses++) {
+                for (BigDecimal valor : valores) {
+                    assertEquals(calcularValorFinalOriginal(valor, taxa, meses), calculator.calcularValorFinal(valor, taxa, meses),
+                            "taxa " + taxa + " meses " + meses + " valor " + valor);
+                }
+                BigDecimal aleatorio = BigDecimal.valueOf(random.nextLong(1, 10_000_000_000L), 2);
+                assertEquals(calcularValorFinalOriginal(aleatorio, taxa, meses), calculator.calcularValorFinal(aleatorio, taxa, meses));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve calcular prazos fora da tabela sem usar o cache")
+    void deveCalcularPrazosForaDaTabela() {
+        BigDecimal taxa = new BigDecimal("0.12");
+        BigDecimal valor = new BigDecimal("10000");
+
+        assertEquals(calcularValorFinalOriginal(valor, taxa, 601), calculator.calcularValorFinal(valor, taxa, 601));
+        assertEquals(calcularValorFinalOriginal(valor, taxa, 1200), calculator.calcularValorFinal(valor, taxa, 1200));
+    }
+
+    @Test
+    @DisplayName("Deve continuar correto após atingir o limite de taxas em cache")
+    void deveContinuarCorretoAposLimiteDeTaxas() {
+        calculator.maximoTaxas = 2;
+        BigDecimal valor = new BigDecimal("5000");
+
+        for (int t = 1; t <= 10; t++) {
+            BigDecimal taxa = BigDecimal.valueOf(t, 2);
+            assertEquals(calcularValorFinalOriginal(valor, taxa, 24), calculator.calcularValorFinal(valor, taxa, 24));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar o mesmo fator para a mesma taxa e prazo")
+    void deveReutilizarMesmoFator() {
+        BigDecimal taxa = new BigDecimal("0.10");
+
+        assertSame(calculator.fator(taxa, 12), calculator.fator(new BigDecimal("0.10"), 12));
+    }
+
+    @Test
+    @DisplayName("Deve calcular aportes mensais pela fórmula fechada com o mesmo resultado do laço mês a mês")
+    void deveCalcularAportesMensaisPelaFormulaFechada() {
+        BigDecimal valor = new BigDecimal("10000");
+        BigDecimal aporte = new BigDecimal("500");
+
+        for (int t = 1; t <= 300; t += 7) {
+            BigDecimal taxa = BigDecimal.valueOf(t, 3);
+            BigDecimal fatorMensal = calculator.fator(taxa, 1);
+            BigDecimal saldo = valor;
+            for (int meses = 1; meses <= 360; meses++) {
+                saldo = saldo.multiply(fatorMensal).add(aporte);
+                BigDecimal valorFinal = calculator.calcularValorFinal(valor, aporte, taxa, meses);
+                // O expoente meses/12 é arredondado em 10 casas: o fator mensal composto mês a mês se afasta
+                // de (1 + taxa)^(meses/12) em menos de 1e-8 relativo em 30 anos
+                assertEquals(saldo.doubleValue(), valorFinal.doubleValue(), saldo.doubleValue() * 1e-8 + 0.01,
+                        "taxa " + taxa + " meses " + meses);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve manter o valor final sem aporte e somar os aportes quando a taxa for zero")
+    void deveTratarAporteAusenteETaxaZero() {
+        BigDecimal valor = new BigDecimal("10000");
+        BigDecimal taxa = new BigDecimal("0.12");
+
+        assertEquals(calculator.calcularValorFinal(valor, taxa, 24), calculator.calcularValorFinal(valor, null, taxa, 24));
+        assertEquals(calculator.calcularValorFinal(valor, taxa, 24),
+                calculator.calcularValorFinal(valor, BigDecimal.ZERO, taxa, 24));
+        assertEquals(new BigDecimal("16000.00"),
+                calculator.calcularValorFinal(valor, new BigDecimal("250"), BigDecimal.ZERO, 24));
+    }
+
+    @Test
+    @DisplayName("Deve capitalizar por dias úteis (du/252) a partir da data de referência")
+    void deveCapitalizarPorDiasUteis() {
+        CalendarioDiasUteis calendario = new CalendarioDiasUteis();
+        calendario.carregar();
+        calculator.calendarioDiasUteis = calendario;
+        calculator.capitalizacao = "dias-uteis";
+        calculator.relogio = Clock.fixed(Instant.parse("2025-01-02T12:00:00Z"), ZoneOffset.UTC);
+        LocalDate inicio = LocalDate.of(2025, 1, 2);
+        BigDecimal valor = new BigDecimal("10000");
+        BigDecimal aporte = new BigDecimal("500");
+
+        for (int t = 0; t <= 300; t += 13) {
+            BigDecimal taxa = BigDecimal.valueOf(t, 3);
+            double fatorDia = Math.pow(1 + taxa.doubleValue(), 1 / 252.0);
+            double saldo = valor.doubleValue();
+            for (int meses = 1; meses <= 360; meses++) {
+                int du = calendario.diasUteis(inicio.plusMonths(meses - 1), inicio.plusMonths(meses));
+                saldo = saldo * Math.pow(fatorDia, du) + aporte.doubleValue();
+
+                int duTotal = calendario.diasUteis(inicio, inicio.plusMonths(meses));
+                BigDecimal esperado = valor.multiply(BigDecimal.valueOf(Math.pow(1 + taxa.doubleValue(), duTotal / 252.0)))
+                        .setScale(2, RoundingMode.HALF_UP);
+                assertEquals(esperado, calculator.calcularValorFinal(valor, taxa, meses), "taxa " + taxa + " meses " + meses);
+                assertEquals(saldo, calculator.calcularValorFinal(valor, aporte, taxa, meses).doubleValue(), saldo * 1e-10 + 0.01);
+            }
+        }
+        // 2025 tem 252 dias úteis: um ano a partir de 02/01/2025 rende exatamente a taxa anual
+        assertEquals(new BigDecimal("11000.00"), calculator.calcularValorFinal(valor, new BigDecimal("0.10"), 12));
+    }
+
+    @Test
+    @DisplayName("Deve calcular os produtos indexados pela curva do índice e os prefixados pela taxa oferecida")
+    void deveCalcularProdutosIndexadosPelaCurva() {
+        CalendarioDiasUteis calendario = new CalendarioDiasUteis();
+        calendario.carregar();
+        calculator.calendarioDiasUteis = calendario;
+        calculator.curvaIndexadores = CurvaIndexadores.de(calendario, List.of(
+                new Vigencia(LocalDate.of(2025, 1, 1), Indexador.CDI, 0.10),
+                new Vigencia(LocalDate.of(2026, 1, 1), Indexador.CDI, 0.12),
+                new Vigencia(LocalDate.of(2025, 1, 1), Indexador.SELIC, 0.10),
+                new Vigencia(LocalDate.of(2025, 1, 1), Indexador.IPCA, 0.05)));
+        calculator.relogio = Clock.fixed(Instant.parse("2025-01-02T12:00:00Z"), ZoneOffset.UTC);
+        LocalDate inicio = LocalDate.of(2025, 1, 2);
+        BigDecimal valor = new BigDecimal("10000");
+        Produto cdb = produto(Indexador.CDI, "1.10");
+        Produto ipca = produto(Indexador.IPCA, "0.06");
+        Produto prefixado = produto(null, null);
+
+        for (int meses = 1; meses <= 360; meses++) {
+            LocalDate fim = inicio.plusMonths(meses);
+            double fatorCdb = Math.exp(1.10 * calculator.curvaIndexadores.logFator(Indexador.CDI, inicio, fim));
+            double fatorIpca = calculator.curvaIndexadores.fator(Indexador.IPCA, inicio, fim) * Math.pow(1.06, meses / 12.0);
+
+            assertEquals(10000 * fatorCdb, calculator.calcularValorFinal(cdb, valor, null, meses).doubleValue(), 0.005);
+            assertEquals(10000 * fatorIpca, calculator.calcularValorFinal(ipca, valor, null, meses).doubleValue(), 0.005);
+            // A taxa equivalente do prazo reproduz o valor final pelo fator de taxa fixa
+            assertEquals(calculator.calcularValorFinal(cdb, valor, null, meses).doubleValue(),
+                    calculator.calcularValorFinal(valor, calculator.taxaAnual(cdb, meses), meses).doubleValue(), 0.011);
+            assertEquals(calculator.calcularValorFinal(valor, new BigDecimal("0.11"), meses),
+                    calculator.calcularValorFinal(prefixado, valor, null, meses));
+        }
+
+        // Aportes de um indexado: a taxa mensal equivalente do prazo, sem laço por mês
+        BigDecimal aporte = new BigDecimal("500");
+        double fatorMes = Math.pow(calculator.fator(cdb, 24).doubleValue(), 1 / 24.0);
+        double saldo = 0.0;
+        for (int mes = 1; mes <= 24; mes++) {
+            saldo = saldo * fatorMes + 500;
+        }
+        assertEquals(calculator.calcularValorFinal(cdb, valor, null, 24).doubleValue() + saldo,
+                calculator.calcularValorFinal(cdb, valor, aporte, 24).doubleValue(), 0.01);
+        assertEquals(0.11, calculator.taxaAnual(prefixado, 24).doubleValue());
+    }
+
+    private static Produto produto(Indexador indexador, String taxaIndexador) {
+        Produto produto = new Produto();
+        produto.setTaxaAnualOferecida(new BigDecimal("0.11"));
+        produto.setIndexador(indexador);
+        produto.setTaxaIndexador(taxaIndexador != null ? new BigDecimal(taxaIndexador) : null);
+        return produto;
+    }
+
+    // Implementação original do SimulacaoService
+    private BigDecimal calcularValorFinalOriginal(BigDecimal valorInicial, BigDecimal taxa, int meses) {
+        BigDecimal anos = BigDecimal.valueOf(meses).divide(BigDecimal.valueOf(12), 10, RoundingMode.HALF_UP);
+        BigDecimal umMaisTaxa = BigDecimal.ONE.add(taxa);
+        double potencia = Math.pow(umMaisTaxa.doubleValue(), anos.doubleValue());
+        BigDecimal fator = BigDecimal.valueOf(potencia);
+        return valorInicial.multiply(fator).setScale(2, RoundingMode.HALF_UP);
+    }
+}
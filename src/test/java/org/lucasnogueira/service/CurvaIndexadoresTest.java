@@ -0,0 +1,119 @@
+package org.lucasnogueira.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+import org.lucasnogueira.model.enums.Indexador;
+import org.lucasnogueira.service.CurvaIndexadores.Vigencia;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurvaIndexadoresTest {
+
+    private CalendarioDiasUteis calendario;
+    private CurvaIndexadores curva;
+
+    @BeforeEach
+    void setUp() {
+        calendario = new CalendarioDiasUteis();
+        calendario.carregar();
+        curva = new CurvaIndexadores();
+        curva.calendarioDiasUteis = calendario;
+        curva.carregar();
+    }
+
+    @Test
+    @DisplayName("Deve acumular o mesmo fator de um laço dia a dia em intervalos aleatórios")
+    void deveAcumularMesmoFatorDoLacoDiaADia() {
+        List<Vigencia> vigencias = List.of(
+                new Vigencia(LocalDate.of(2024, 1, 1), Indexador.CDI, 0.1165),
+                new Vigencia(LocalDate.of(2025, 3, 20), Indexador.CDI, 0.1415),
+                new Vigencia(LocalDate.of(2027, 1, 1), Indexador.CDI, 0.10),
+                new Vigencia(LocalDate.of(2024, 1, 1), Indexador.SELIC, 0.1175),
+                new Vigencia(LocalDate.of(2024, 1, 1), Indexador.IPCA, 0.045));
+        CurvaIndexadores sintetica = CurvaIndexadores.de(calendario, vigencias);
+        Random random = new Random(22L);
+
+        for (int i = 0; i < 300; i++) {
+            LocalDate de = LocalDate.of(2020, 1, 1).plusDays(random.nextInt(4_000));
+            LocalDate ate = de.plusDays(random.nextInt(5_000));
+
+            double esperado = 1.0;
+            for (LocalDate dia = de; dia.isBefore(ate); dia = dia.plusDays(1)) {
+                if (calendario.isDiaUtil(dia)) {
+                    double taxa = dia.isBefore(LocalDate.of(2025, 3, 20)) ? 0.1165
+                            : dia.isBefore(LocalDate.of(2027, 1, 1)) ? 0.1415 : 0.10;
+                    esperado *= Math.pow(1 + taxa, 1 / 252.0);
+                }
+            }
+            assertEquals(esperado, sintetica.fator(Indexador.CDI, de, ate), esperado * 1e-12, de + " a " + ate);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve render a taxa anual em 252 dias úteis e manter a última taxa após a última vigência")
+    void deveRenderTaxaAnualEmUmAnoDeDiasUteis() {
+        CurvaIndexadores plana = CurvaIndexadores.de(calendario, List.of(
+                new Vigencia(LocalDate.of(2025, 1, 1), Indexador.CDI, 0.10),
+                new Vigencia(LocalDate.of(2025, 1, 1), Indexador.SELIC, 0.12),
+                new Vigencia(LocalDate.of(2025, 1, 1), Indexador.IPCA, 0.04)));
+
+        // 2025 tem 252 dias úteis
+        assertEquals(1.10, plana.fator(Indexador.CDI, LocalDate.of(2025, 1, 1), LocalDate.of(2026, 1, 1)), 1e-12);
+        assertEquals(1.12, plana.fator(Indexador.SELIC, LocalDate.of(2025, 1, 1), LocalDate.of(2026, 1, 1)), 1e-12);
+        // Depois da última vigência vale a última taxa; o fator de um intervalo vazio é 1
+        int du = calendario.diasUteis(LocalDate.of(2060, 1, 1), LocalDate.of(2090, 1, 1));
+        assertEquals(Math.pow(1.04, du / 252.0),
+                plana.fator(Indexador.IPCA, LocalDate.of(2060, 1, 1), LocalDate.of(2090, 1, 1)), 1e-9);
+        assertEquals(1.0, plana.fator(Indexador.CDI, LocalDate.of(2003, 5, 5), LocalDate.of(2003, 5, 5)));
+        assertEquals(1.0, plana.fator(Indexador.PREFIXADO, LocalDate.of(2025, 1, 1), LocalDate.of(2026, 1, 1)));
+    }
+
+    @Test
+    @DisplayName("Deve carregar o arquivo de indexadores com as três curvas")
+    void deveCarregarArquivoDeIndexadores() {
+        LocalDate inicio = LocalDate.of(2026, 1, 2);
+        for (Indexador indexador : Indexador.COM_CURVA) {
+            double fator = curva.fator(indexador, inicio, inicio.plusYears(1));
+            assertTrue(fator > 1.0 && fator < 1.25, indexador + " " + fator);
+        }
+        assertEquals(calendario.getInicio(), curva.getInicio());
+        assertEquals(calendario.getFim(), curva.getFim());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar datas anteriores ao período da curva")
+    void deveRejeitarDatasAnterioresACurva() {
+        LocalDate fim = curva.getFim();
+
+        assertDoesNotThrow(() -> curva.logFator(Indexador.CDI, curva.getInicio(), fim));
+        assertThrows(SmartInvestApiException.class,
+                () -> curva.logFator(Indexador.IPCA, curva.getInicio().minusDays(1), fim));
+    }
+
+    @Test
+    @DisplayName("Deve seguir com a taxa da última vigência depois do fim da curva")
+    void deveEstenderUltimaVigenciaDepoisDoFim() {
+        List<Vigencia> vigencias = List.of(
+                new Vigencia(LocalDate.of(2024, 1, 1), Indexador.CDI, 0.1165),
+                new Vigencia(LocalDate.of(2027, 1, 1), Indexador.CDI, 0.10),
+                new Vigencia(LocalDate.of(2024, 1, 1), Indexador.SELIC, 0.1175),
+                new Vigencia(LocalDate.of(2024, 1, 1), Indexador.IPCA, 0.045));
+        CurvaIndexadores sintetica = CurvaIndexadores.de(calendario, vigencias);
+        LocalDate fim = sintetica.getFim();
+        LocalDate de = fim.minusYears(2);
+        LocalDate ate = fim.plusYears(40);
+
+        double esperado = sintetica.logFator(Indexador.CDI, de, fim)
+                + calendario.diasUteis(fim, ate) * Math.log1p(0.10) / 252.0;
+
+        assertEquals(esperado, sintetica.logFator(Indexador.CDI, de, ate), 1e-9);
+        assertEquals(calendario.diasUteis(fim, ate) * Math.log1p(0.045) / 252.0,
+                sintetica.logFator(Indexador.IPCA, fim, ate), 1e-9);
+    }
+}
@@ -0,0 +1,148 @@
+package org.lucasnogueira.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.dto.SimulacaoResponseDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotenciaServiceTest {
+
+    private static final String OPCOES = "top=null;projecao=false;estocastica=false";
+
+    private IdempotenciaService service;
+    private AtomicInteger simulacoes;
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotenciaService();
+        simulacoes = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar a resposta de uma requisição canonicamente igual sem simular novamente")
+    void deveReaproveitarRequisicaoCanonicamenteIgual() {
+        SimulacaoResponseDTO original = service.executar(null, criarRequest("1000", "CDB"), OPCOES, simular());
+        SimulacaoResponseDTO repetida = service.executar(null, criarRequest("1000.00", " cdb "), OPCOES, simular());
+
+        assertSame(original, repetida);
+        assertEquals(1, simulacoes.get());
+        assertEquals(1, service.getReaproveitadas());
+    }
+
+    @Test
+    @DisplayName("Deve simular novamente quando parâmetros ou opções da resposta mudarem")
+    void deveSimularNovamenteQuandoParametrosMudarem() {
+        service.executar(null, criarRequest("1000", "CDB"), OPCOES, simular());
+        service.executar(null, criarRequest("2000", "CDB"), OPCOES, simular());
+        service.executar(null, criarRequest("1000", "LCI"), OPCOES, simular());
+        service.executar(null, criarRequest("1000", "CDB"), "top=3;projecao=false;estocastica=false", simular());
+
+        assertEquals(4, simulacoes.get());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar Idempotency-Key reutilizada com outros parâmetros")
+    void deveRejeitarChaveReutilizadaComOutrosParametros() {
+        SimulacaoResponseDTO original = service.executar("abc-123", criarRequest("1000", "CDB"), OPCOES, simular());
+
+        assertSame(original, service.executar("abc-123", criarRequest("1000", "CDB"), OPCOES, simular()));
+        assertEquals(1, simulacoes.get());
+        assertThrows(SmartInvestApiException.class,
+                () -> service.executar("abc-123", criarRequest("5000", "CDB"), OPCOES, simular()));
+    }
+
+    @Test
+    @DisplayName("Deve calcular novamente após a janela e após uma falha")
+    void deveCalcularNovamenteAposJanelaEFalha() {
+        service.janelaSegundos = 0;
+        service.executar(null, criarRequest("1000", "CDB"), OPCOES, simular());
+        service.executar(null, criarRequest("1000", "CDB"), OPCOES, simular());
+        assertEquals(2, simulacoes.get());
+
+        service.janelaSegundos = 60;
+        SimulacaoRequestDTO request = criarRequest("3000", "CDB");
+        assertThrows(IllegalStateException.class, () -> service.executar(null, request, OPCOES, () -> {
+            throw new IllegalStateException("falha no banco");
+        }));
+        service.executar(null, request, OPCOES, simular());
+        assertEquals(3, simulacoes.get());
+    }
+
+    @Test
+    @DisplayName("Deve fazer requisições concorrentes repetidas aguardarem a simulação em andamento")
+    void deveAguardarSimulacaoEmAndamento() throws Exception {
+        CountDownLatch iniciou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Supplier<SimulacaoResponseDTO> lenta = () -> {
+            iniciou.countDown();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return simular().get();
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<SimulacaoResponseDTO>> respostas = new ArrayList<>();
+            respostas.add(executor.submit(() -> service.executar("k1", criarRequest("1000", "CDB"), OPCOES, lenta)));
+            assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                respostas.add(executor.submit(() -> service.executar("k1", criarRequest("1000", "CDB"), OPCOES, simular())));
+            }
+            liberar.countDown();
+
+            SimulacaoResponseDTO primeira = respostas.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<SimulacaoResponseDTO> resposta : respostas) {
+                assertSame(primeira, resposta.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, simulacoes.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve continuar simulando sem reaproveitar quando a janela estiver cheia")
+    void deveSimularQuandoJanelaEstiverCheia() {
+        service.maximoEntradas = 1;
+        service.executar(null, criarRequest("1000", "CDB"), OPCOES, simular());
+        service.executar(null, criarRequest("2000", "CDB"), OPCOES, simular());
+        service.executar(null, criarRequest("2000", "CDB"), OPCOES, simular());
+
+        assertEquals(3, simulacoes.get());
+        assertEquals(1, service.tamanho());
+    }
+
+    private Supplier<SimulacaoResponseDTO> simular() {
+        return () -> {
+            simulacoes.incrementAndGet();
+            return new SimulacaoResponseDTO();
+        };
+    }
+
+    private SimulacaoRequestDTO criarRequest(String valor, String tipoProduto) {
+        SimulacaoRequestDTO request = new SimulacaoRequestDTO();
+        request.setClienteId(1);
+        request.setValor(new BigDecimal(valor));
+        request.setPrazoMeses(12);
+        request.setTipoProduto(tipoProduto);
+        return request;
+    }
+}
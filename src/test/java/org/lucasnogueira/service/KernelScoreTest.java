@@ -0,0 +1,107 @@
+package org.lucasnogueira.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.ProdutoComScore;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.entities.Produto;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+import org.lucasnogueira.service.ProdutoScoreCalculator.ParametrosScore;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Equivalência por propriedade: para catálogos e requisições aleatórios (com sementes fixas),
+ * os kernels por perfil produzem exatamente os mesmos bits do cálculo original.
+ */
+class KernelScoreTest {
+
+    private static final String[] TIPOS = {"CDB", "LCI", "LCA", "Ações", "Fundos", "Tesouro Direto"};
+    private static final String[] RISCOS = {"Muito Baixo", "Baixo", "Medio", "Alto", "Muito Alto", "desconhecido"};
+    private static final int CASOS = 300;
+
+    private final ProdutoScoreCalculatorReferencia referencia = new ProdutoScoreCalculatorReferencia();
+    private final ProdutoScoreCalculator calculator = new ProdutoScoreCalculator();
+
+    @Test
+    @DisplayName("Deve calcular scores bit a bit iguais ao cálculo original para entradas aleatórias")
+    void deveCalcularScoresIguaisAoOriginal() {
+        Random random = new Random(20251118L);
+
+        for (int caso = 0; caso < CASOS; caso++) {
+            CatalogoCompilado catalogo = CatalogoCompilado.compilar(gerarCatalogo(random, random.nextInt(40) + 1), caso);
+            SimulacaoRequestDTO request = gerarRequest(random);
+            TipoPerfilRisco perfil = TipoPerfilRisco.values()[random.nextInt(TipoPerfilRisco.values().length)];
+            ParametrosScore parametros = ProdutoScoreCalculator.prepararParametros(request, perfil);
+
+            double[] scores = new double[catalogo.tamanho()];
+            parametros.kernel().pontuarFaixa(catalogo, parametros, scores, 0, scores.length);
+
+            for (int i = 0; i < catalogo.tamanho(); i++) {
+                long esperado = Double.doubleToRawLongBits(referencia.pontuar(catalogo, i, request, perfil));
+                assertEquals(esperado, Double.doubleToRawLongBits(scores[i]), "caso " + caso + ", produto " + i);
+                assertEquals(esperado, Double.doubleToRawLongBits(calculator.calcular(catalogo, i, request, perfil)));
+                assertEquals(esperado, Double.doubleToRawLongBits(
+                        calculator.calcular(catalogo.produto(i), request, perfil, catalogo.getProdutos())));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve escolher o mesmo vencedor do cálculo original, inclusive nos empates")
+    void deveEscolherMesmoVencedorDoOriginal() {
+        Random random = new Random(7L);
+
+        for (int caso = 0; caso < CASOS; caso++) {
+            CatalogoCompilado catalogo = CatalogoCompilado.compilar(gerarCatalogo(random, random.nextInt(200) + 1), caso);
+            SimulacaoRequestDTO request = gerarRequest(random);
+
+            for (TipoPerfilRisco perfil : TipoPerfilRisco.values()) {
+                ProdutoComScore esperado = referencia.encontrarMelhorProduto(catalogo, request, perfil);
+                ProdutoComScore obtido = calculator.encontrarMelhorProduto(catalogo, request, perfil);
+
+                assertSame(esperado.getProduto(), obtido.getProduto(), "caso " + caso + ", perfil " + perfil);
+                assertEquals(Double.doubleToRawLongBits(esperado.getScore()), Double.doubleToRawLongBits(obtido.getScore()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve escolher uma única instância de kernel por perfil")
+    void deveEscolherKernelPorPerfil() {
+        assertInstanceOf(KernelScore.Conservador.class, KernelScore.para(TipoPerfilRisco.CONSERVADOR));
+        assertInstanceOf(KernelScore.Moderado.class, KernelScore.para(TipoPerfilRisco.MODERADO));
+        assertInstanceOf(KernelScore.Agressivo.class, KernelScore.para(TipoPerfilRisco.AGRESSIVO));
+        assertSame(KernelScore.para(TipoPerfilRisco.MODERADO), KernelScore.para(TipoPerfilRisco.MODERADO));
+    }
+
+    private List<Produto> gerarCatalogo(Random random, int tamanho) {
+        List<Produto> produtos = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            Produto produto = new Produto();
+            produto.setId((long) i);
+            produto.setNome("Produto " + i);
+            produto.setTipo(TIPOS[random.nextInt(TIPOS.length)]);
+            // Taxas discretizadas para provocar empates entre produtos
+            produto.setTaxaAnualOferecida(BigDecimal.valueOf(random.nextInt(300) + 1, 3));
+            produto.setRisco(RISCOS[random.nextInt(RISCOS.length)]);
+            produto.setLiquidezDias(random.nextInt(1500));
+            produtos.add(produto);
+        }
+        return produtos;
+    }
+
+    private SimulacaoRequestDTO gerarRequest(Random random) {
+        SimulacaoRequestDTO request = new SimulacaoRequestDTO();
+        request.setValor(BigDecimal.valueOf(random.nextInt(1_000_000_000) + 1L, 2));
+        request.setPrazoMeses(random.nextInt(400) + 1);
+        request.setClienteId(random.nextInt(1000) + 1);
+        return request;
+    }
+}
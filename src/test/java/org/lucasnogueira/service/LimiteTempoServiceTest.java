@@ -0,0 +1,98 @@
+package org.lucasnogueira.service;
+
+import jakarta.persistence.TypedQuery;
+import org.eclipse.microprofile.config.Config;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucasnogueira.exceptions.LimiteTempoExcedidoException;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LimiteTempoServiceTest {
+
+    private LimiteTempoService limiteTempoService;
+
+    @BeforeEach
+    void setUp() {
+        limiteTempoService = new LimiteTempoService();
+        limiteTempoService.requisicao = new LimiteTempoRequisicao();
+        limiteTempoService.config = mock(Config.class);
+        when(limiteTempoService.config.getPropertyNames()).thenReturn(List.of(
+                "app.requisicao.limite-tempo.padrao-ms",
+                "app.requisicao.limite-tempo.simulacoes-simular-investimento-ms",
+                "app.simulacao.lote.tamanho-maximo"));
+        when(limiteTempoService.config.getValue("app.requisicao.limite-tempo.simulacoes-simular-investimento-ms",
+                Long.class)).thenReturn(10_000L);
+        limiteTempoService.carregar();
+    }
+
+    @Test
+    @DisplayName("Deve nomear o endpoint pelo template do método de recurso, sem /api e sem parâmetros")
+    void deveNomearEndpointPeloTemplate() {
+        assertEquals("simulacoes-simular-investimento",
+                LimiteTempoService.endpoint("/api/simulacoes", "/simular-investimento"));
+        assertEquals("simulacoes-lote", LimiteTempoService.endpoint("/api/simulacoes", "/lote"));
+        assertEquals("simulacoes-meta-lote", LimiteTempoService.endpoint("/api/simulacoes", "/meta/lote"));
+        assertEquals("simulacoes-projecao", LimiteTempoService.endpoint("/api/simulacoes", "/{id}/projecao"));
+        assertEquals("perfil-risco", LimiteTempoService.endpoint("/api/perfil-risco", "/{clienteId}"));
+        assertEquals("jwt", LimiteTempoService.endpoint("/jwt", null));
+    }
+
+    @Test
+    @DisplayName("Deve usar o menor limite entre o header e o padrão do endpoint")
+    void deveUsarMenorLimiteEntreHeaderEPadrao() {
+        limiteTempoService.iniciar("simulacoes-simular-investimento", "60000");
+        assertTrue(limiteTempoService.restanteMs() > 9_000 && limiteTempoService.restanteMs() <= 10_000);
+
+        limiteTempoService.requisicao = new LimiteTempoRequisicao();
+        limiteTempoService.iniciar("simulacoes-simular-investimento", "2000");
+        assertTrue(limiteTempoService.restanteMs() <= 2_000);
+        assertEquals(2, limiteTempoService.timeoutSegundos());
+        assertEquals(500, limiteTempoService.limitar(500));
+
+        // Sem header nem padrão do endpoint não há limite
+        limiteTempoService.requisicao = new LimiteTempoRequisicao();
+        limiteTempoService.iniciar("comparar", null);
+        assertFalse(limiteTempoService.isAtivo());
+        assertEquals(Long.MAX_VALUE, limiteTempoService.restanteMs());
+        assertEquals(0, limiteTempoService.timeoutSegundos());
+        assertDoesNotThrow(() -> limiteTempoService.verificar("score"));
+
+        assertThrows(SmartInvestApiException.class, () -> limiteTempoService.iniciar("comparar", "abc"));
+        assertThrows(SmartInvestApiException.class, () -> limiteTempoService.iniciar("comparar", "0"));
+    }
+
+    @Test
+    @DisplayName("Deve falhar na etapa seguinte quando o limite da requisição já passou")
+    void deveFalharQuandoLimiteJaPassou() throws InterruptedException {
+        limiteTempoService.iniciar("comparar", "1");
+        Thread.sleep(5);
+
+        LimiteTempoExcedidoException excecao = assertThrows(LimiteTempoExcedidoException.class,
+                () -> limiteTempoService.verificar("persistencia"));
+        assertEquals("persistencia", excecao.getEtapa());
+        assertEquals(0, limiteTempoService.limitar(5_000));
+        assertThrows(LimiteTempoExcedidoException.class, () -> limiteTempoService.timeoutSegundos());
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o restante como timeout da consulta arredondado para cima em segundos")
+    void deveAplicarTimeoutNaConsulta() {
+        @SuppressWarnings("unchecked")
+        TypedQuery<Long> query = mock(TypedQuery.class);
+        when(query.setHint(anyString(), any())).thenReturn(query);
+
+        limiteTempoService.aplicar(query);
+        verify(query, never()).setHint(anyString(), any());
+
+        limiteTempoService.iniciar("comparar", "1500");
+        assertSame(query, limiteTempoService.aplicar(query));
+        verify(query).setHint("jakarta.persistence.query.timeout", 2000);
+    }
+}
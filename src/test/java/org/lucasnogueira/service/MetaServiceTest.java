@@ -0,0 +1,240 @@
+package org.lucasnogueira.service;
+
+import jakarta.validation.Validation;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.dto.MetaLoteResponseDTO;
+import org.lucasnogueira.model.dto.MetaRequestDTO;
+import org.lucasnogueira.model.dto.MetaResponseDTO;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.entities.Produto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetaServiceTest {
+
+    private MetaService metaService;
+    private CrescimentoCompostoCalculator calculator;
+    private CatalogoCompilado catalogo;
+    private RentabilidadeLiquidaCalculator rentabilidade;
+
+    @BeforeEach
+    void setUp() {
+        catalogo = CatalogoCompilado.compilar(List.of(
+                criarProduto(1L, "CDB", "0.12", "Baixo", 1),
+                criarProduto(2L, "LCI", "0.10", "Baixo", 90),
+                criarProduto(3L, "Tesouro Direto", "0.11", "Muito Baixo", 1),
+                criarProduto(4L, "Fundos", "0.18", "Alto", 30),
+                criarProduto(5L, "Ações", "0.25", "Muito Alto", 3)), 1L);
+        calculator = new CrescimentoCompostoCalculator();
+        calculator.relogio = Clock.fixed(Instant.parse("2025-01-02T12:00:00Z"), ZoneOffset.UTC);
+        rentabilidade = new RentabilidadeLiquidaCalculator();
+        rentabilidade.crescimentoCompostoCalculator = calculator;
+
+        SimulacaoService simulacaoService = new SimulacaoService();
+        simulacaoService.scoreCalculator = new ProdutoScoreCalculator();
+        simulacaoService.recomendacaoCacheService = new RecomendacaoCacheService();
+        simulacaoService.motorScore = "sequencial";
+
+        metaService = new MetaService();
+        metaService.simulacaoService = simulacaoService;
+        metaService.perfilRiscoCalculator = new PerfilRiscoCalculator();
+        metaService.crescimentoCompostoCalculator = calculator;
+        metaService.rentabilidadeLiquidaCalculator = rentabilidade;
+        metaService.validator = Validation.byDefaultProvider().configure()
+                .messageInterpolator(new ParameterMessageInterpolator())
+                .buildValidatorFactory().getValidator();
+        metaService.produtoCacheService = new ProdutoCacheService() {
+            @Override
+            public CatalogoCompilado obterCatalogoCompilado() {
+                return catalogo;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Deve calcular o menor valor, ao centavo, que atinge a meta líquida no produto da simulação")
+    void deveCalcularMenorValorQueAtingeMeta() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (int i = 0; i < 300; i++) {
+            BigDecimal valorMeta = BigDecimal.valueOf(random.nextLong(100_000, 500_000_000), 2);
+            int prazo = 1 + random.nextInt(480);
+            BigDecimal aporte = random.nextBoolean() ? null : BigDecimal.valueOf(random.nextLong(0, 200_000), 2);
+
+            MetaResponseDTO meta = metaService.resolver(criarRequest(valorMeta, null, prazo, aporte));
+
+            assertEquals(MetaService.INCOGNITA_VALOR, meta.getIncognita());
+            assertEquals(prazo, meta.getPrazoMeses());
+            assertTrue(meta.getValorFinalLiquido().compareTo(valorMeta) >= 0);
+            assertEquals(meta.getValorFinalLiquido(), valorLiquido(meta, meta.getValor(), prazo));
+            if (meta.getValor().compareTo(new BigDecimal("0.01")) > 0) {
+                BigDecimal menos = meta.getValor().subtract(new BigDecimal("0.01"));
+                assertTrue(valorLiquido(meta, menos, prazo).compareTo(valorMeta) < 0, "valor " + meta.getValor());
+            }
+            assertMesmoProdutoDaSimulacao(meta);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve calcular o menor prazo que atinge a meta líquida, considerando a tabela regressiva de IR")
+    void deveCalcularMenorPrazoQueAtingeMeta() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 300; i++) {
+            BigDecimal valor = BigDecimal.valueOf(random.nextLong(100_000, 100_000_000), 2);
+            BigDecimal valorMeta = valor.multiply(BigDecimal.valueOf(1.01 + random.nextDouble() * 4))
+                    .setScale(2, RoundingMode.HALF_UP);
+
+            MetaResponseDTO meta = metaService.resolver(criarRequest(valorMeta, valor, null, null));
+
+            assertEquals(MetaService.INCOGNITA_PRAZO, meta.getIncognita());
+            assertTrue(meta.getValorFinalLiquido().compareTo(valorMeta) >= 0);
+            if (meta.getPrazoMeses() > 1) {
+                assertTrue(valorLiquido(meta, valor, meta.getPrazoMeses() - 1).compareTo(valorMeta) < 0,
+                        "prazo " + meta.getPrazoMeses());
+            }
+            assertMesmoProdutoDaSimulacao(meta);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve atingir a meta pelo mesmo valor líquido da simulação quando o retorno líquido está habilitado")
+    void deveUsarRetornoLiquidoDaSimulacao() {
+        rentabilidade.habilitado = true;
+        metaService.simulacaoService.scoreCalculator.rentabilidadeLiquidaCalculator = rentabilidade;
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < 200; i++) {
+            BigDecimal valorMeta = BigDecimal.valueOf(random.nextLong(100_000, 500_000_000), 2);
+            BigDecimal aporte = random.nextBoolean() ? null : BigDecimal.valueOf(random.nextLong(0, 200_000), 2);
+            boolean incognitaValor = random.nextBoolean();
+            BigDecimal valor = BigDecimal.valueOf(random.nextLong(100_000, 100_000_000), 2);
+            if (!incognitaValor) {
+                valorMeta = valor.multiply(BigDecimal.valueOf(1.01 + random.nextDouble() * 4))
+                        .setScale(2, RoundingMode.HALF_UP);
+            }
+
+            MetaResponseDTO meta = metaService.resolver(incognitaValor
+                    ? criarRequest(valorMeta, null, 1 + random.nextInt(480), aporte)
+                    : criarRequest(valorMeta, valor, null, aporte));
+
+            Produto produto = catalogo.produto(catalogo.indiceDoProduto(meta.getProduto().getId()));
+            assertEquals(rentabilidade.calcularValorFinalLiquido(produto, meta.getValor(), meta.getAporteMensal(),
+                    meta.getPrazoMeses()), meta.getValorFinalLiquido());
+            assertTrue(meta.getValorFinalLiquido().compareTo(valorMeta) >= 0, "meta " + valorMeta);
+            assertEquals(rentabilidade.prazo(meta.getPrazoMeses()).aliquotaIr(catalogo,
+                    catalogo.indiceDoProduto(produto.getId())), meta.getAliquotaIr());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve exigir apenas um centavo quando os aportes sozinhos atingem a meta")
+    void deveExigirUmCentavoQuandoAportesAtingemMeta() {
+        MetaResponseDTO meta = metaService.resolver(
+                criarRequest(new BigDecimal("10000"), null, 24, new BigDecimal("1000")));
+
+        assertEquals(new BigDecimal("0.01"), meta.getValor());
+        assertTrue(meta.getValorFinalLiquido().compareTo(new BigDecimal("10000")) >= 0);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar metas sem incógnita única ou inatingíveis no prazo máximo")
+    void deveRejeitarMetasInvalidas() {
+        BigDecimal valorMeta = new BigDecimal("100000");
+
+        assertThrows(SmartInvestApiException.class,
+                () -> metaService.resolver(criarRequest(valorMeta, new BigDecimal("1000"), 12, null)));
+        assertThrows(SmartInvestApiException.class, () -> metaService.resolver(criarRequest(valorMeta, null, null, null)));
+        assertThrows(SmartInvestApiException.class,
+                () -> metaService.resolver(criarRequest(valorMeta, null, 601, null)));
+
+        metaService.prazoMaximoMeses = 24;
+        assertThrows(SmartInvestApiException.class,
+                () -> metaService.resolver(criarRequest(valorMeta, new BigDecimal("1000"), null, null)));
+    }
+
+    @Test
+    @DisplayName("Deve reportar os erros por item no lote")
+    void deveReportarErrosPorItemNoLote() {
+        MetaRequestDTO invalido = criarRequest(new BigDecimal("-1"), null, 12, null);
+        MetaLoteResponseDTO lote = metaService.resolverLote(Arrays.asList(
+                criarRequest(new BigDecimal("100000"), null, 120, null),
+                invalido,
+                null,
+                criarRequest(new BigDecimal("100000"), new BigDecimal("50000"), null, null)));
+
+        assertEquals(4, lote.getQtdItens());
+        assertEquals(2, lote.getQtdSucesso());
+        assertEquals(2, lote.getQtdErro());
+        assertTrue(lote.getItens().get(0).isSucesso());
+        assertFalse(lote.getItens().get(1).isSucesso());
+        assertNotNull(lote.getItens().get(1).getErro());
+        assertFalse(lote.getItens().get(2).isSucesso());
+        assertEquals(MetaService.INCOGNITA_PRAZO, lote.getItens().get(3).getMeta().getIncognita());
+        assertThrows(SmartInvestApiException.class, () -> metaService.resolverLote(List.of()));
+    }
+
+    // A simulação com o valor e o prazo calculados escolhe o mesmo produto
+    private void assertMesmoProdutoDaSimulacao(MetaResponseDTO meta) {
+        SimulacaoRequestDTO simulacao = new SimulacaoRequestDTO();
+        simulacao.setClienteId(1);
+        simulacao.setValor(meta.getValor());
+        simulacao.setPrazoMeses(meta.getPrazoMeses());
+        simulacao.setAporteMensal(meta.getAporteMensal());
+        var perfil = new PerfilRiscoCalculator().calcular(simulacao);
+        assertEquals(perfil.name(), meta.getPerfil());
+        assertEquals(new ProdutoScoreCalculator().encontrarMelhorProduto(catalogo, simulacao, perfil)
+                .getProduto().getId(), meta.getProduto().getId());
+    }
+
+    // Valor líquido no produto que a simulação escolhe para o valor e o prazo informados
+    private BigDecimal valorLiquido(MetaResponseDTO meta, BigDecimal valor, int prazo) {
+        SimulacaoRequestDTO simulacao = new SimulacaoRequestDTO();
+        simulacao.setValor(valor);
+        simulacao.setPrazoMeses(prazo);
+        simulacao.setAporteMensal(meta.getAporteMensal());
+        var perfil = new PerfilRiscoCalculator().calcular(simulacao);
+        int indice = catalogo.indiceDoProduto(new ProdutoScoreCalculator()
+                .encontrarMelhorProduto(catalogo, simulacao, perfil).getProduto().getId());
+        BigDecimal aporte = meta.getAporteMensal() != null ? meta.getAporteMensal() : BigDecimal.ZERO;
+        BigDecimal valorFinal = calculator.calcularValorFinal(
+                valor, aporte, catalogo.produto(indice).getTaxaAnualOferecida(), prazo);
+        BigDecimal investido = valor.add(aporte.multiply(BigDecimal.valueOf(prazo)));
+        BigDecimal rendimento = valorFinal.subtract(investido);
+        double aliquota = ProdutoScoreCalculator.aliquotaIr(catalogo, indice, prazo);
+        BigDecimal liquido = rendimento.signum() > 0 ? rendimento.multiply(BigDecimal.valueOf(1 - aliquota)) : rendimento;
+        return investido.add(liquido).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private Produto criarProduto(Long id, String tipo, String taxa, String risco, int liquidezDias) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setNome("Produto " + id);
+        produto.setTipo(tipo);
+        produto.setTaxaAnualOferecida(new BigDecimal(taxa));
+        produto.setRisco(risco);
+        produto.setLiquidezDias(liquidezDias);
+        return produto;
+    }
+
+    private MetaRequestDTO criarRequest(BigDecimal valorMeta, BigDecimal valor, Integer prazoMeses, BigDecimal aporte) {
+        MetaRequestDTO request = new MetaRequestDTO();
+        request.setClienteId(1);
+        request.setValorMeta(valorMeta);
+        request.setValor(valor);
+        request.setPrazoMeses(prazoMeses);
+        request.setAporteMensal(aporte);
+        return request;
+    }
+}
@@ -0,0 +1,116 @@
+package org.lucasnogueira.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucasnogueira.model.dto.ProjecaoEstocasticaDTO;
+import org.lucasnogueira.model.entities.Produto;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloServiceTest {
+
+    private static final double Z_95 = 1.6448536269514722;
+
+    private MonteCarloService monteCarloService;
+
+    @BeforeEach
+    void setUp() {
+        monteCarloService = new MonteCarloService();
+        monteCarloService.orcamentoMs = 10_000;
+    }
+
+    @Test
+    @DisplayName("Deve convergir para os percentis da distribuição log-normal do valor final")
+    void deveConvergirParaPercentisLogNormais() {
+        double taxa = 0.25;
+        double volatilidade = 0.28;
+        int prazo = 60;
+        double[] fatores = MonteCarloService.simularFatores(taxa, volatilidade, prazo, 100_000, 8192,
+                new SplittableRandom(42L), Long.MAX_VALUE);
+
+        double anos = prazo / 12.0;
+        double media = (Math.log1p(taxa) - volatilidade * volatilidade / 2) * anos;
+        double desvio = volatilidade * Math.sqrt(anos);
+
+        assertEquals(100_000, fatores.length);
+        assertEquals(Math.exp(media - Z_95 * desvio), MonteCarloService.percentil(fatores, 0.05), 0.02);
+        assertEquals(Math.exp(media), MonteCarloService.percentil(fatores, 0.50), 0.02);
+        assertEquals(Math.exp(media + Z_95 * desvio), MonteCarloService.percentil(fatores, 0.95), 0.05);
+        // A média dos caminhos reproduz a projeção determinística da taxa oferecida
+        assertEquals(Math.pow(1 + taxa, anos), Arrays.stream(fatores).average().orElseThrow(), 0.02);
+    }
+
+    @Test
+    @DisplayName("Deve produzir o mesmo resultado para a mesma semente")
+    void deveSerDeterministicoParaMesmaSemente() {
+        double[] primeira = MonteCarloService.simularFatores(0.18, 0.18, 36, 50_000, 1000,
+                new SplittableRandom(7L), Long.MAX_VALUE);
+        double[] segunda = MonteCarloService.simularFatores(0.18, 0.18, 36, 50_000, 1000,
+                new SplittableRandom(7L), Long.MAX_VALUE);
+
+        assertArrayEquals(primeira, segunda);
+    }
+
+    @Test
+    @DisplayName("Deve simular apenas o primeiro bloco quando o orçamento de tempo já se esgotou")
+    void deveRespeitarOrcamentoDeTempo() {
+        double[] fatores = MonteCarloService.simularFatores(0.18, 0.18, 36, 100_000, 8192,
+                new SplittableRandom(1L), System.nanoTime() - 1);
+
+        assertEquals(8192, fatores.length);
+        assertTrue(Arrays.stream(fatores).allMatch(fator -> fator > 0));
+    }
+
+    @Test
+    @DisplayName("Deve calcular o percentil pelo posto mais próximo igual à ordenação completa")
+    void deveCalcularPercentilIgualAOrdenacao() {
+        Random random = new Random(3L);
+        for (int n : new int[]{1, 2, 7, 100, 1001}) {
+            double[] valores = new double[n];
+            for (int i = 0; i < n; i++) {
+                // Valores repetidos exercitam as trocas com elementos iguais ao pivô
+                valores[i] = random.nextInt(50);
+            }
+            double[] ordenados = valores.clone();
+            Arrays.sort(ordenados);
+
+            for (double p : new double[]{0.0, 0.05, 0.5, 0.95, 1.0}) {
+                int k = Math.min(n - 1, Math.max(0, (int) Math.ceil(p * n) - 1));
+                assertEquals(ordenados[k], MonteCarloService.percentil(valores.clone(), p), "n=" + n + " p=" + p);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve projetar apenas produtos de renda variável")
+    void deveProjetarApenasRendaVariavel() {
+        BigDecimal valor = new BigDecimal("10000");
+
+        ProjecaoEstocasticaDTO acoes = monteCarloService.projetar(
+                criarProduto("Ações", "0.25", "Muito Alto"), valor, 60).orElseThrow();
+        assertEquals(100_000, acoes.getCaminhos());
+        assertEquals(0.28, acoes.getVolatilidadeAnual());
+        assertTrue(acoes.getP5().compareTo(acoes.getP50()) < 0);
+        assertTrue(acoes.getP50().compareTo(acoes.getP95()) < 0);
+
+        assertTrue(monteCarloService.projetar(criarProduto("Fundos", "0.18", "Alto"), valor, 12).isPresent());
+        assertTrue(monteCarloService.projetar(criarProduto("CDB", "0.12", "Baixo"), valor, 12).isEmpty());
+    }
+
+    private Produto criarProduto(String tipo, String taxa, String risco) {
+        Produto produto = new Produto();
+        produto.setId(1L);
+        produto.setNome("Produto " + tipo);
+        produto.setTipo(tipo);
+        produto.setTaxaAnualOferecida(new BigDecimal(taxa));
+        produto.setRisco(risco);
+        produto.setLiquidezDias(1);
+        return produto;
+    }
+}
@@ -0,0 +1,166 @@
+package org.lucasnogueira.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.ProdutoComScore;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.entities.Produto;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotorScoreColunarTest {
+
+    private static final String[] TIPOS = {"CDB", "LCI", "LCA", "Ações", "Fundos", "Tesouro Direto"};
+    private static final String[] RISCOS = {"Muito Baixo", "Baixo", "Medio", "Alto", "Muito Alto"};
+
+    private ProdutoScoreCalculator calculator;
+    private MotorScoreColunar motor;
+    private CatalogoCompilado catalogo;
+
+    @BeforeEach
+    void setUp() {
+        calculator = new ProdutoScoreCalculator();
+        motor = new MotorScoreColunar();
+        motor.limiarParalelo = 64;
+        catalogo = CatalogoCompilado.compilar(gerarCatalogo(5_000, 42L), 1L);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "500, 1",
+            "15000, 6",
+            "60000, 18",
+            "150000, 36",
+            "800000, 72",
+            "9000000, 240"
+    })
+    @DisplayName("Deve escolher exatamente o mesmo vencedor do calculador sequencial")
+    void deveEscolherMesmoVencedorDoCalculadorSequencial(long valor, int prazo) {
+        SimulacaoRequestDTO request = criarRequest(BigDecimal.valueOf(valor), prazo);
+
+        for (TipoPerfilRisco perfil : TipoPerfilRisco.values()) {
+            ProdutoComScore esperado = calculator.encontrarMelhorProduto(catalogo, request, perfil);
+            ProdutoComScore obtido = motor.encontrarMelhorProduto(catalogo, request, perfil);
+
+            assertSame(esperado.getProduto(), obtido.getProduto());
+            assertEquals(Double.doubleToRawLongBits(esperado.getScore()), Double.doubleToRawLongBits(obtido.getScore()));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve calcular os mesmos scores com e sem divisão paralela")
+    void deveCalcularMesmosScoresComESemParalelismo() {
+        SimulacaoRequestDTO request = criarRequest(BigDecimal.valueOf(75000), 24);
+
+        double[] paralelo = motor.calcularScores(catalogo, request, TipoPerfilRisco.MODERADO);
+        motor.limiarParalelo = Integer.MAX_VALUE;
+        double[] sequencial = motor.calcularScores(catalogo, request, TipoPerfilRisco.MODERADO);
+
+        assertArrayEquals(sequencial, paralelo);
+        for (int i = 0; i < paralelo.length; i++) {
+            assertEquals(calculator.calcular(catalogo, i, request, TipoPerfilRisco.MODERADO), paralelo[i], 0.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve manter o primeiro produto em caso de empate")
+    void deveManterPrimeiroProdutoEmCasoDeEmpate() {
+        List<Produto> iguais = List.of(
+                criarProduto(1L, "CDB", 0.10, "Baixo", 30),
+                criarProduto(2L, "CDB", 0.10, "Baixo", 30));
+        CatalogoCompilado empatado = CatalogoCompilado.compilar(iguais, 1L);
+
+        ProdutoComScore melhor = motor.encontrarMelhorProduto(empatado, criarRequest(BigDecimal.valueOf(1000), 12), TipoPerfilRisco.CONSERVADOR);
+
+        assertEquals(1L, melhor.getProduto().getId());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1",
+            "5",
+            "20",
+            "5000"
+    })
+    @DisplayName("Deve retornar os K melhores produtos na mesma ordem de uma ordenação completa estável")
+    void deveRetornarTopKNaOrdemDaOrdenacaoCompleta(int k) {
+        SimulacaoRequestDTO request = criarRequest(BigDecimal.valueOf(20000), 12);
+
+        for (TipoPerfilRisco perfil : TipoPerfilRisco.values()) {
+            double[] scores = motor.calcularScores(catalogo, request, perfil);
+            List<Integer> esperado = IntStream.range(0, scores.length).boxed()
+                    .sorted(Comparator.comparingDouble((Integer i) -> scores[i]).reversed())
+                    .limit(k)
+                    .toList();
+
+            List<ProdutoComScore> colunar = motor.encontrarMelhoresProdutos(catalogo, request, perfil, k);
+            List<ProdutoComScore> sequencial = calculator.encontrarMelhoresProdutos(catalogo, request, perfil, k);
+
+            assertEquals(esperado.size(), colunar.size());
+            for (int posicao = 0; posicao < esperado.size(); posicao++) {
+                Produto produtoEsperado = catalogo.produto(esperado.get(posicao));
+                assertSame(produtoEsperado, colunar.get(posicao).getProduto());
+                assertSame(produtoEsperado, sequencial.get(posicao).getProduto());
+                assertEquals(scores[esperado.get(posicao)], colunar.get(posicao).getScore(), 0.0);
+            }
+            assertSame(calculator.encontrarMelhorProduto(catalogo, request, perfil).getProduto(), colunar.get(0).getProduto());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve limitar o ranking ao tamanho do catálogo")
+    void deveLimitarRankingAoTamanhoDoCatalogo() {
+        List<Produto> poucos = List.of(
+                criarProduto(1L, "CDB", 0.10, "Baixo", 30),
+                criarProduto(2L, "LCI", 0.12, "Medio", 90));
+        CatalogoCompilado pequeno = CatalogoCompilado.compilar(poucos, 1L);
+
+        List<ProdutoComScore> ranking = motor.encontrarMelhoresProdutos(pequeno, criarRequest(BigDecimal.valueOf(1000), 12), TipoPerfilRisco.MODERADO, 10);
+
+        assertEquals(2, ranking.size());
+        assertTrue(ranking.get(0).getScore() >= ranking.get(1).getScore());
+    }
+
+    private List<Produto> gerarCatalogo(int tamanho, long semente) {
+        Random random = new Random(semente);
+        List<Produto> produtos = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            // Taxas discretizadas para provocar empates entre produtos
+            double taxa = (random.nextInt(300) + 1) / 1000.0;
+            produtos.add(criarProduto((long) i, TIPOS[random.nextInt(TIPOS.length)], taxa,
+                    RISCOS[random.nextInt(RISCOS.length)], random.nextInt(720)));
+        }
+        return produtos;
+    }
+
+    private Produto criarProduto(Long id, String tipo, double taxa, String risco, int liquidezDias) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setNome("Produto " + id);
+        produto.setTipo(tipo);
+        produto.setTaxaAnualOferecida(BigDecimal.valueOf(taxa));
+        produto.setRisco(risco);
+        produto.setLiquidezDias(liquidezDias);
+        return produto;
+    }
+
+    private SimulacaoRequestDTO criarRequest(BigDecimal valor, int prazoMeses) {
+        SimulacaoRequestDTO request = new SimulacaoRequestDTO();
+        request.setValor(valor);
+        request.setPrazoMeses(prazoMeses);
+        request.setClienteId(123);
+        return request;
+    }
+}
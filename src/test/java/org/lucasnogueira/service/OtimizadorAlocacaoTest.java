@@ -0,0 +1,165 @@
+package org.lucasnogueira.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OtimizadorAlocacaoTest {
+
+    private static final long SEM_LIMITE = Long.MAX_VALUE / 2;
+
+    @Test
+    @DisplayName("Deve encontrar o ótimo da força bruta quando não há reserva de liquidez")
+    void deveEncontrarOtimoSemReservaDeLiquidez() {
+        SplittableRandom random = new SplittableRandom(17);
+        for (int instancia = 0; instancia < 200; instancia++) {
+            Instancia inst = gerar(random, 5);
+
+            OtimizadorAlocacao.Resultado resultado = otimizar(inst, 0);
+            double otimo = forcaBruta(inst, 0);
+
+            if (Double.isNaN(otimo)) {
+                assertFalse(resultado.viavel());
+            } else {
+                assertTrue(resultado.viavel());
+                assertTrue(resultado.convergiu());
+                assertRespeitaRestricoes(inst, 0, resultado.unidades());
+                assertEquals(otimo, resultado.scorePonderado(inst.scores), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve respeitar a reserva de liquidez e nunca superar o ótimo da força bruta")
+    void deveRespeitarReservaDeLiquidez() {
+        SplittableRandom random = new SplittableRandom(29);
+        for (int instancia = 0; instancia < 200; instancia++) {
+            Instancia inst = gerar(random, 5);
+            int reserva = 10 * random.nextInt(6);
+
+            OtimizadorAlocacao.Resultado resultado = otimizar(inst, reserva);
+            double otimo = forcaBruta(inst, reserva);
+
+            assertEquals(!Double.isNaN(otimo), resultado.viavel());
+            if (resultado.viavel()) {
+                assertRespeitaRestricoes(inst, reserva, resultado.unidades());
+                assertTrue(resultado.scorePonderado(inst.scores) <= otimo + 1e-9);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve melhorar com busca local a solução gulosa que reservou liquidez no grupo errado")
+    void deveMelhorarSolucaoGulosaComBuscaLocal() {
+        // X (ilíquido) e L1 (líquido) dividem o grupo 0, limitado a 30%; L2 (líquido) está no grupo 1.
+        // A construção gulosa reserva a liquidez em L1 e sobra pouco espaço no grupo 0 para X.
+        Instancia inst = new Instancia(
+                new double[]{10, 9, 8},
+                new int[]{0, 0, 1},
+                new boolean[]{false, true, true},
+                new int[]{30, 100},
+                100);
+
+        OtimizadorAlocacao.Resultado resultado = otimizar(inst, 20);
+
+        assertArrayEquals(new int[]{30, 0, 70}, resultado.unidades());
+        assertEquals(8.6, resultado.scorePonderado(inst.scores), 1e-9);
+        assertTrue(resultado.convergiu());
+    }
+
+    @Test
+    @DisplayName("Deve retornar a solução gulosa viável quando o orçamento de tempo se esgotar")
+    void deveRetornarSolucaoViavelQuandoOrcamentoEsgotar() {
+        Instancia inst = new Instancia(
+                new double[]{10, 9, 8},
+                new int[]{0, 0, 1},
+                new boolean[]{false, true, true},
+                new int[]{30, 100},
+                100);
+
+        OtimizadorAlocacao.Resultado resultado = OtimizadorAlocacao.otimizar(inst.scores, inst.grupos, inst.liquidos,
+                inst.limiteGrupo, inst.limiteProduto, 20, System.nanoTime() - 1);
+
+        assertTrue(resultado.viavel());
+        assertFalse(resultado.convergiu());
+        assertRespeitaRestricoes(inst, 20, resultado.unidades());
+    }
+
+    private record Instancia(double[] scores, int[] grupos, boolean[] liquidos, int[] limiteGrupo, int limiteProduto) {}
+
+    // Limites múltiplos de 10: o ótimo inteiro coincide com o ótimo em passos de 10 unidades
+    private Instancia gerar(SplittableRandom random, int n) {
+        double[] scores = new double[n];
+        int[] grupos = new int[n];
+        boolean[] liquidos = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            scores[i] = random.nextDouble(0, 10);
+            grupos[i] = random.nextInt(3);
+            liquidos[i] = random.nextBoolean();
+        }
+        Arrays.sort(scores);
+        for (int i = 0; i < n / 2; i++) {
+            double troca = scores[i];
+            scores[i] = scores[n - 1 - i];
+            scores[n - 1 - i] = troca;
+        }
+        int[] limiteGrupo = {10 * random.nextInt(11), 10 * random.nextInt(11), 10 * random.nextInt(11)};
+        return new Instancia(scores, grupos, liquidos, limiteGrupo, 10 * (2 + random.nextInt(9)));
+    }
+
+    private OtimizadorAlocacao.Resultado otimizar(Instancia inst, int reserva) {
+        return OtimizadorAlocacao.otimizar(inst.scores, inst.grupos, inst.liquidos, inst.limiteGrupo,
+                inst.limiteProduto, reserva, System.nanoTime() + SEM_LIMITE);
+    }
+
+    private double forcaBruta(Instancia inst, int reserva) {
+        return forcaBruta(inst, reserva, new int[inst.scores.length], 0, OtimizadorAlocacao.UNIDADES);
+    }
+
+    // Enumera todas as alocações em passos de 10 unidades; NaN quando nenhuma é viável
+    private double forcaBruta(Instancia inst, int reserva, int[] unidades, int i, int restante) {
+        if (i == unidades.length - 1) {
+            unidades[i] = restante;
+            return viavel(inst, reserva, unidades)
+                    ? new OtimizadorAlocacao.Resultado(unidades, true, true).scorePonderado(inst.scores)
+                    : Double.NaN;
+        }
+        double melhor = Double.NaN;
+        for (int u = 0; u <= restante; u += 10) {
+            unidades[i] = u;
+            double valor = forcaBruta(inst, reserva, unidades, i + 1, restante - u);
+            if (!Double.isNaN(valor) && (Double.isNaN(melhor) || valor > melhor)) {
+                melhor = valor;
+            }
+        }
+        return melhor;
+    }
+
+    private boolean viavel(Instancia inst, int reserva, int[] unidades) {
+        int[] usoGrupo = new int[inst.limiteGrupo.length];
+        int total = 0;
+        int liquido = 0;
+        for (int i = 0; i < unidades.length; i++) {
+            if (unidades[i] > inst.limiteProduto) {
+                return false;
+            }
+            usoGrupo[inst.grupos[i]] += unidades[i];
+            total += unidades[i];
+            liquido += inst.liquidos[i] ? unidades[i] : 0;
+        }
+        for (int g = 0; g < usoGrupo.length; g++) {
+            if (usoGrupo[g] > inst.limiteGrupo[g]) {
+                return false;
+            }
+        }
+        return total == OtimizadorAlocacao.UNIDADES && liquido >= reserva;
+    }
+
+    private void assertRespeitaRestricoes(Instancia inst, int reserva, int[] unidades) {
+        assertTrue(viavel(inst, reserva, unidades), () -> "Alocação inválida: " + Arrays.toString(unidades));
+    }
+}
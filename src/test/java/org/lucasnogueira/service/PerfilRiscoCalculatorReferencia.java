@@ -0,0 +1,60 @@
+package org.lucasnogueira.service;
+
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+
+import java.math.BigDecimal;
+
+/**
+ * Implementação original do PerfilRiscoCalculator (cascata de interpolações),
+ * mantida como referência para o teste de equivalência e para o benchmark.
+ */
+public final class PerfilRiscoCalculatorReferencia {
+
+    public TipoPerfilRisco calcular(SimulacaoRequestDTO requestDTO) {
+        double score = calcularScoreTotal(requestDTO);
+        return determinarPerfil(score);
+    }
+
+    private double calcularScoreTotal(SimulacaoRequestDTO requestDTO) {
+        BigDecimal valor = requestDTO.getValor();
+        int prazo = requestDTO.getPrazoMeses();
+
+        double scoreValor = calcularScoreValor(valor.doubleValue());
+        double scorePrazo = calcularScorePrazo(prazo);
+
+        return scoreValor + scorePrazo;
+    }
+
+    double calcularScoreValor(double v) {
+        if (v <= 20000) return -1.0;
+        if (v <= 50000) return interpolate(-1.0, 0.5, v, 20000, 50000);
+        if (v <= 100000) return interpolate(0.5, 1.5, v, 50000, 100000);
+        if (v <= 300000) return interpolate(1.5, 2.5, v, 100000, 300000);
+        if (v <= 1000000) return interpolate(2.5, 3.5, v, 300000, 1000000);
+        if (v <= 5000000) return interpolate(3.5, 4.5, v, 1000000, 5000000);
+        return 5.0;
+    }
+
+    double calcularScorePrazo(int prazo) {
+        if (prazo <= 3) return -3.0;
+        if (prazo <= 6) return interpolate(-3.0, -2.0, prazo, 3, 6);
+        if (prazo <= 12) return interpolate(-2.0, -0.5, prazo, 6, 12);
+        if (prazo <= 24) return interpolate(-0.5, 0.5, prazo, 12, 24);
+        if (prazo <= 48) return interpolate(0.5, 1.5, prazo, 24, 48);
+        if (prazo <= 72) return interpolate(1.5, 2.0, prazo, 48, 72);
+        return 2.0;
+    }
+
+    private double interpolate(double minVal, double maxVal, double current, double minRange, double maxRange) {
+        if (maxRange <= minRange) return minVal;
+        double ratio = (current - minRange) / (maxRange - minRange);
+        return minVal + ratio * (maxVal - minVal);
+    }
+
+    TipoPerfilRisco determinarPerfil(double score) {
+        if (score <= 0.5) return TipoPerfilRisco.CONSERVADOR;
+        if (score <= 4.0) return TipoPerfilRisco.MODERADO;
+        return TipoPerfilRisco.AGRESSIVO;
+    }
+}
@@ -9,6 +9,7 @@ import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
 import org.lucasnogueira.model.enums.TipoPerfilRisco;
 
 import java.math.BigDecimal;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -126,6 +127,62 @@ class PerfilRiscoCalculatorTest {
         assertEquals(resultado1, resultado2);
     }
 
+    @Test
+    @DisplayName("Deve reproduzir exatamente a curva de prazo original em todo o domínio")
+    void deveReproduzirCurvaDePrazoOriginal() {
+        PerfilRiscoCalculatorReferencia referencia = new PerfilRiscoCalculatorReferencia();
+
+        for (int prazo = -1_000; prazo <= 100_000; prazo++) {
+            assertEquals(Double.doubleToRawLongBits(referencia.calcularScorePrazo(prazo)),
+                    Double.doubleToRawLongBits(PerfilRiscoCalculator.calcularScorePrazo(prazo)), "prazo " + prazo);
+        }
+        for (int prazo : new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE}) {
+            assertEquals(referencia.calcularScorePrazo(prazo), PerfilRiscoCalculator.calcularScorePrazo(prazo), 0.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve reproduzir exatamente a curva de valor original, inclusive nos pontos de quebra")
+    void deveReproduzirCurvaDeValorOriginal() {
+        PerfilRiscoCalculatorReferencia referencia = new PerfilRiscoCalculatorReferencia();
+
+        for (double ponto : new double[]{0.0, 20000, 50000, 100000, 300000, 1000000, 5000000}) {
+            for (double v : new double[]{Math.nextDown(ponto), ponto, Math.nextUp(ponto)}) {
+                assertEquals(Double.doubleToRawLongBits(referencia.calcularScoreValor(v)),
+                        Double.doubleToRawLongBits(PerfilRiscoCalculator.calcularScoreValor(v)), "valor " + v);
+            }
+        }
+
+        for (int v = 0; v <= 6_000_000; v++) {
+            assertEquals(Double.doubleToRawLongBits(referencia.calcularScoreValor(v + 0.5)),
+                    Double.doubleToRawLongBits(PerfilRiscoCalculator.calcularScoreValor(v + 0.5)), "valor " + v);
+        }
+
+        Random random = new Random(7L);
+        for (int i = 0; i < 1_000_000; i++) {
+            double v = random.nextDouble() * 1e10;
+            assertEquals(Double.doubleToRawLongBits(referencia.calcularScoreValor(v)),
+                    Double.doubleToRawLongBits(PerfilRiscoCalculator.calcularScoreValor(v)), "valor " + v);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve classificar o perfil exatamente como a implementação original")
+    void deveClassificarPerfilComoImplementacaoOriginal() {
+        PerfilRiscoCalculatorReferencia referencia = new PerfilRiscoCalculatorReferencia();
+
+        for (double score : new double[]{-10.0, 0.5, Math.nextUp(0.5), 4.0, Math.nextUp(4.0), 10.0}) {
+            assertEquals(referencia.determinarPerfil(score), PerfilRiscoCalculator.determinarPerfil(score));
+        }
+
+        for (int prazo = 1; prazo <= 120; prazo++) {
+            for (long valor = 1_000; valor <= 6_000_000; valor += 997) {
+                SimulacaoRequestDTO request = criarRequest(BigDecimal.valueOf(valor, 0), prazo);
+                assertEquals(referencia.calcular(request), calculator.calcular(request), "valor " + valor + " prazo " + prazo);
+            }
+        }
+    }
+
     private SimulacaoRequestDTO criarRequest(BigDecimal valor, int prazoMeses) {
         SimulacaoRequestDTO request = new SimulacaoRequestDTO();
         request.setValor(valor);
@@ -0,0 +1,120 @@
+package org.lucasnogueira.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.ProdutoComScore;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.entities.Produto;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProdutoCacheServiceTest {
+
+    private ProdutoCacheService service;
+    private RecomendacaoCacheService recomendacaoCache;
+    private AtomicInteger consultas;
+
+    @BeforeEach
+    void setUp() {
+        consultas = new AtomicInteger();
+        // A cada 10 consultas o "cache de produtos" devolve uma nova lista, como após uma recarga
+        service = new ProdutoCacheService() {
+            private volatile List<Produto> atual = novaLista();
+
+            @Override
+            public List<Produto> findAllProdutos() {
+                if (consultas.incrementAndGet() % 10 == 0) {
+                    atual = novaLista();
+                }
+                return atual;
+            }
+        };
+        recomendacaoCache = new RecomendacaoCacheService();
+        recomendacaoCache.habilitado = true;
+        recomendacaoCache.maximoEntradas = 100;
+        recomendacaoCache.crescimentoCompostoCalculator = new CrescimentoCompostoCalculator();
+        service.recomendacaoCacheService = recomendacaoCache;
+    }
+
+    @Test
+    @DisplayName("Deve compilar o catálogo na primeira consulta e reutilizá-lo enquanto a lista não mudar")
+    void deveReutilizarCatalogoDaMesmaLista() {
+        CatalogoCompilado primeiro = service.obterCatalogoCompilado();
+        CatalogoCompilado segundo = service.obterCatalogoCompilado();
+
+        assertSame(primeiro, segundo);
+        assertSame(primeiro, service.obterCatalogoEmMemoria());
+    }
+
+    @Test
+    @DisplayName("Deve manter o snapshot e a tabela de recomendações na mesma versão com recargas concorrentes")
+    void deveManterVersaoDaTabelaComRecargasConcorrentes() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < 500; i++) {
+                        service.obterCatalogoCompilado();
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // O snapshot publicado por último é o da versão vigente na tabela: a segunda consulta é hit
+        CatalogoCompilado catalogo = service.obterCatalogoEmMemoria();
+        SimulacaoRequestDTO request = new SimulacaoRequestDTO();
+        request.setValor(new BigDecimal("10000"));
+        request.setPrazoMeses(12);
+        request.setClienteId(1);
+        ProdutoScoreCalculator calculator = new ProdutoScoreCalculator();
+
+        ProdutoComScore calculado = recomendacaoCache.obter(catalogo, request, TipoPerfilRisco.MODERADO,
+                () -> calculator.encontrarMelhorProduto(catalogo, request, TipoPerfilRisco.MODERADO));
+        ProdutoComScore memoizado = recomendacaoCache.obter(catalogo, request, TipoPerfilRisco.MODERADO,
+                () -> calculator.encontrarMelhorProduto(catalogo, request, TipoPerfilRisco.MODERADO));
+
+        assertSame(calculado, memoizado);
+        assertEquals(1, recomendacaoCache.getHits());
+    }
+
+    private static List<Produto> novaLista() {
+        return List.of(
+                criarProduto(1L, "CDB", "0.12", "Baixo", 1),
+                criarProduto(2L, "LCI", "0.10", "Baixo", 90),
+                criarProduto(3L, "Ações", "0.25", "Muito Alto", 3));
+    }
+
+    private static Produto criarProduto(Long id, String tipo, String taxa, String risco, int liquidezDias) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setNome("Produto " + id);
+        produto.setTipo(tipo);
+        produto.setTaxaAnualOferecida(new BigDecimal(taxa));
+        produto.setRisco(risco);
+        produto.setLiquidezDias(liquidezDias);
+        return produto;
+    }
+}
@@ -0,0 +1,112 @@
+package org.lucasnogueira.service;
+
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.ProdutoComScore;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+
+/**
+ * Score original do ProdutoScoreCalculator (pesos e normalização de risco resolvidos
+ * por switch a cada produto), mantido como referência para o teste de equivalência
+ * e para o benchmark dos kernels por perfil.
+ */
+public final class ProdutoScoreCalculatorReferencia {
+
+    public ProdutoComScore encontrarMelhorProduto(CatalogoCompilado catalogo, SimulacaoRequestDTO req, TipoPerfilRisco perfil) {
+        // Como no original, o que não depende do produto é resolvido uma vez por requisição
+        int prazoMeses = req.getPrazoMeses();
+        PesosScore pesos = obterPesosPorPerfil(perfil);
+        double aliquotaTributavel = calcularAliquotaIr(prazoMeses * 30);
+        double volumeNorm = ProdutoScoreCalculator.normalizarVolume(req.getValor());
+
+        int melhorIndice = -1;
+        double melhorScore = 0.0;
+
+        for (int i = 0; i < catalogo.tamanho(); i++) {
+            double aliquotaIr = catalogo.isentoIr(i) ? 0.0 : catalogo.rendaVariavel(i) ? 0.15 : aliquotaTributavel;
+            double score = pontuar(pesos, catalogo.taxaBruta(i), aliquotaIr, catalogo.liquidezDias(i),
+                    catalogo.nivelRisco(i), perfil, prazoMeses, volumeNorm,
+                    catalogo.getRetornoMaximo(), catalogo.getLiquidezMinima(), catalogo.getLiquidezMaxima());
+
+            if (melhorIndice < 0 || score > melhorScore) {
+                melhorIndice = i;
+                melhorScore = score;
+            }
+        }
+
+        if (melhorIndice < 0) {
+            throw new IllegalStateException("Nenhum produto disponível para simulação");
+        }
+        return new ProdutoComScore(catalogo.produto(melhorIndice), melhorScore);
+    }
+
+    public double pontuar(CatalogoCompilado catalogo, int i, SimulacaoRequestDTO req, TipoPerfilRisco perfil) {
+        int prazoMeses = req.getPrazoMeses();
+        double aliquotaIr = catalogo.isentoIr(i) ? 0.0 : catalogo.rendaVariavel(i) ? 0.15 : calcularAliquotaIr(prazoMeses * 30);
+        double volumeNorm = ProdutoScoreCalculator.normalizarVolume(req.getValor());
+        return pontuar(obterPesosPorPerfil(perfil), catalogo.taxaBruta(i), aliquotaIr, catalogo.liquidezDias(i),
+                catalogo.nivelRisco(i), perfil, prazoMeses, volumeNorm,
+                catalogo.getRetornoMaximo(), catalogo.getLiquidezMinima(), catalogo.getLiquidezMaxima());
+    }
+
+    private static double pontuar(PesosScore pesos, double taxaBruta, double aliquotaIr, int liquidezDias, double nivelRisco,
+                                  TipoPerfilRisco perfil, int prazoMeses, double volumeNorm,
+                                  double retornoMaximo, double liquidezMinima, double liquidezMaxima) {
+        double taxaLiquida = taxaBruta * (1 - aliquotaIr);
+
+        double retornoNorm = taxaLiquida / retornoMaximo;
+        double liquidezNorm = normalizarLiquidez(liquidezDias, prazoMeses * 30, liquidezMinima, liquidezMaxima);
+        double riscoNorm = normalizarRisco(nivelRisco, perfil);
+
+        double frequenciaNorm = normalizarFrequencia(liquidezDias, prazoMeses);
+
+        double score = pesos.retorno() * retornoNorm +
+                pesos.liquidez() * liquidezNorm +
+                pesos.risco() * riscoNorm +
+                0.10 * volumeNorm +
+                0.10 * frequenciaNorm;
+
+        return Math.max(0.0, Math.min(1.0, score));
+    }
+
+    private static double normalizarFrequencia(int liquidezDias, int prazoMeses) {
+        if (prazoMeses <= 6) {
+            return liquidezDias <= 30 ? 1.0 : 0.3;
+        } else if (prazoMeses <= 24) {
+            return liquidezDias <= 90 ? 0.8 : 0.6;
+        } else {
+            return liquidezDias >= 90 ? 1.0 : 0.7;
+        }
+    }
+
+    private static PesosScore obterPesosPorPerfil(TipoPerfilRisco perfil) {
+        return switch (perfil) {
+            case CONSERVADOR -> new PesosScore(0.12, 0.36, 0.32);
+            case MODERADO -> new PesosScore(0.24, 0.20, 0.36);
+            default -> new PesosScore(0.32, 0.08, 0.40);
+        };
+    }
+
+    private static double calcularAliquotaIr(int dias) {
+        if (dias <= 180) return 0.225;
+        if (dias <= 360) return 0.20;
+        if (dias <= 720) return 0.175;
+        return 0.15;
+    }
+
+    private static double normalizarLiquidez(double diasLiquidez, int prazoClienteDias, double liquidezMin, double liquidezMax) {
+        if (diasLiquidez <= prazoClienteDias) return 1.0;
+        if (liquidezMax <= liquidezMin) return 0.0;
+        return Math.max(0, 1.0 - (diasLiquidez - prazoClienteDias) / (liquidezMax - liquidezMin));
+    }
+
+    private static double normalizarRisco(double nivelRisco, TipoPerfilRisco perfil) {
+        return switch (perfil) {
+            case CONSERVADOR -> 1.0 - (nivelRisco - 1.0) / 9.0;
+            case MODERADO -> 1.0 - Math.abs(5.0 - nivelRisco) / 5.0;
+            default -> (nivelRisco - 1.0) / 9.0;
+        };
+    }
+
+    private record PesosScore(double retorno, double liquidez, double risco) {}
+}
@@ -6,12 +6,21 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.EnumSource;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.ProdutoComScore;
 import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
 import org.lucasnogueira.model.entities.Produto;
+import org.lucasnogueira.model.enums.Indexador;
 import org.lucasnogueira.model.enums.TipoPerfilRisco;
+import org.lucasnogueira.service.CurvaIndexadores.Vigencia;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -169,6 +178,129 @@ class ProdutoScoreCalculatorTest {
                 "Score deve variar conforme perfil de risco");
     }
 
+    @ParameterizedTest
+    @EnumSource(TipoPerfilRisco.class)
+    @DisplayName("Deve calcular o mesmo score a partir do catálogo compilado")
+    void deveCalcularMesmoScoreComCatalogoCompilado(TipoPerfilRisco perfil) {
+        CatalogoCompilado catalogo = CatalogoCompilado.compilar(produtos, 1L);
+
+        for (int i = 0; i < produtos.size(); i++) {
+            double esperado = calculator.calcular(produtos.get(i), simulacaoRequest, perfil, produtos);
+            double obtido = calculator.calcular(catalogo, i, simulacaoRequest, perfil);
+
+            assertEquals(esperado, obtido, 0.0);
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "5000, 3",
+            "50000, 24",
+            "250000, 60",
+            "2000000, 120"
+    })
+    @DisplayName("Deve escolher o mesmo melhor produto com o catálogo compilado")
+    void deveEscolherMesmoMelhorProdutoComCatalogoCompilado(long valor, int prazo) {
+        CatalogoCompilado catalogo = CatalogoCompilado.compilar(produtos, 1L);
+        SimulacaoRequestDTO request = criarSimulacaoRequest(BigDecimal.valueOf(valor), prazo, 123);
+
+        for (TipoPerfilRisco perfil : TipoPerfilRisco.values()) {
+            ProdutoComScore esperado = produtos.stream()
+                    .map(p -> new ProdutoComScore(p, calculator.calcular(p, request, perfil, produtos)))
+                    .max(Comparator.comparingDouble(ProdutoComScore::getScore))
+                    .orElseThrow();
+
+            ProdutoComScore obtido = calculator.encontrarMelhorProduto(catalogo, request, perfil);
+
+            assertSame(esperado.getProduto(), obtido.getProduto());
+            assertEquals(esperado.getScore(), obtido.getScore(), 0.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve usar as estatísticas do sub-catálogo ao filtrar por tipo")
+    void deveUsarEstatisticasDoSubCatalogoAoFiltrarPorTipo() {
+        CatalogoCompilado catalogo = CatalogoCompilado.compilar(produtos, 1L);
+        CatalogoCompilado somenteCdb = catalogo.doTipo("cdb");
+        List<Produto> listaCdb = List.of(produtos.get(0));
+
+        assertNotNull(somenteCdb);
+        assertEquals(1, somenteCdb.tamanho());
+        assertEquals(calculator.calcular(produtos.get(0), simulacaoRequest, TipoPerfilRisco.MODERADO, listaCdb),
+                calculator.calcular(somenteCdb, 0, simulacaoRequest, TipoPerfilRisco.MODERADO), 0.0);
+        assertNull(catalogo.doTipo("Inexistente"));
+    }
+
+    @Test
+    @DisplayName("Deve pontuar os produtos indexados pela taxa da curva no prazo")
+    void devePontuarIndexadosPelaTaxaDaCurva() {
+        CalendarioDiasUteis calendario = new CalendarioDiasUteis();
+        calendario.carregar();
+        CrescimentoCompostoCalculator crescimento = new CrescimentoCompostoCalculator();
+        crescimento.calendarioDiasUteis = calendario;
+        crescimento.curvaIndexadores = CurvaIndexadores.de(calendario, List.of(
+                new Vigencia(LocalDate.of(2025, 1, 1), Indexador.CDI, 0.14),
+                new Vigencia(LocalDate.of(2025, 1, 1), Indexador.SELIC, 0.14),
+                new Vigencia(LocalDate.of(2025, 1, 1), Indexador.IPCA, 0.05)));
+        crescimento.relogio = Clock.fixed(Instant.parse("2025-01-02T12:00:00Z"), ZoneOffset.UTC);
+        calculator.crescimentoCompostoCalculator = crescimento;
+
+        // Cadastrado com taxa de referência 0.10, mas rende 110% de um CDI de 14% ao ano
+        Produto cdbPosFixado = produtos.get(0);
+        cdbPosFixado.setIndexador(Indexador.CDI);
+        cdbPosFixado.setTaxaIndexador(new BigDecimal("1.10"));
+        CatalogoCompilado catalogo = CatalogoCompilado.compilar(produtos, 1L);
+        assertTrue(catalogo.possuiIndexados());
+
+        double taxaCurva = crescimento.taxaAnual(cdbPosFixado, 24).doubleValue();
+        assertTrue(taxaCurva > 0.15);
+        double esperado = KernelScore.para(TipoPerfilRisco.MODERADO).pontuar(taxaCurva, 0.175, 1,
+                catalogo.nivelRisco(0), 24, 0.8, catalogo.getRetornoMaximo(), catalogo.getLiquidezMinima(),
+                catalogo.getLiquidezMaxima());
+        assertEquals(esperado, calculator.calcular(catalogo, 0, simulacaoRequest, TipoPerfilRisco.MODERADO), 0.0);
+        // Os prefixados continuam pela taxa oferecida
+        assertEquals(new ProdutoScoreCalculator().calcular(catalogo, 1, simulacaoRequest, TipoPerfilRisco.MODERADO),
+                calculator.calcular(catalogo, 1, simulacaoRequest, TipoPerfilRisco.MODERADO), 0.0);
+
+        // Só com o pós-fixado, o máximo cadastrado (0.10) ficaria abaixo da taxa da curva: normaliza pela curva
+        CatalogoCompilado somenteCdb = catalogo.doTipo("CDB");
+        assertEquals(0.10, somenteCdb.getRetornoMaximo());
+        double esperadoCdb = KernelScore.para(TipoPerfilRisco.MODERADO).pontuar(taxaCurva, 0.175, 1,
+                somenteCdb.nivelRisco(0), 24, 0.8, taxaCurva, somenteCdb.getLiquidezMinima(),
+                somenteCdb.getLiquidezMaxima());
+        assertEquals(esperadoCdb, calculator.calcular(somenteCdb, 0, simulacaoRequest, TipoPerfilRisco.MODERADO), 0.0);
+    }
+
+    @Test
+    @DisplayName("Deve pontuar indexados em prazos que passam do fim do calendário")
+    void devePontuarIndexadosAlemDoFimDoCalendario() {
+        CalendarioDiasUteis calendario = new CalendarioDiasUteis();
+        calendario.carregar();
+        CrescimentoCompostoCalculator crescimento = new CrescimentoCompostoCalculator();
+        crescimento.calendarioDiasUteis = calendario;
+        crescimento.curvaIndexadores = CurvaIndexadores.de(calendario, List.of(
+                new Vigencia(LocalDate.of(2025, 1, 1), Indexador.CDI, 0.14),
+                new Vigencia(LocalDate.of(2025, 1, 1), Indexador.SELIC, 0.14),
+                new Vigencia(LocalDate.of(2025, 1, 1), Indexador.IPCA, 0.05)));
+        crescimento.relogio = Clock.fixed(Instant.parse("2025-01-02T12:00:00Z"), ZoneOffset.UTC);
+        calculator.crescimentoCompostoCalculator = crescimento;
+
+        Produto cdbPosFixado = produtos.get(0);
+        cdbPosFixado.setIndexador(Indexador.CDI);
+        cdbPosFixado.setTaxaIndexador(new BigDecimal("1.10"));
+        CatalogoCompilado catalogo = CatalogoCompilado.compilar(produtos, 1L);
+        int prazoMeses = 1200;
+        assertTrue(LocalDate.of(2025, 1, 2).plusMonths(prazoMeses).isAfter(calendario.getFim()));
+        simulacaoRequest.setPrazoMeses(prazoMeses);
+
+        // A última vigência (CDI de 14%) segue valendo depois do fim do arquivo
+        double taxaCurva = crescimento.taxaAnual(cdbPosFixado, prazoMeses).doubleValue();
+        assertEquals(taxaCurva, crescimento.taxaAnual(cdbPosFixado, 600).doubleValue(), 0.005);
+        double score = assertDoesNotThrow(
+                () -> calculator.calcular(catalogo, 0, simulacaoRequest, TipoPerfilRisco.MODERADO));
+        assertTrue(score > 0.0);
+    }
+
     private Produto criarProduto(Long id, String nome, String tipo, BigDecimal taxa, String risco, int liquidezDias) {
         Produto produto = new Produto();
         produto.setId(id);
@@ -0,0 +1,113 @@
+package org.lucasnogueira.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+import org.lucasnogueira.model.dto.PontoProjecaoDTO;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjecaoServiceTest {
+
+    private ProjecaoService projecaoService;
+    private CrescimentoCompostoCalculator crescimentoCompostoCalculator;
+
+    @BeforeEach
+    void setUp() {
+        projecaoService = new ProjecaoService();
+        projecaoService.prazoMaximoMeses = 1200;
+        crescimentoCompostoCalculator = new CrescimentoCompostoCalculator();
+        projecaoService.crescimentoCompostoCalculator = crescimentoCompostoCalculator;
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1000.00, 0.10, 12",
+            "15000, 0.13, 36",
+            "250000.55, 0.095, 120",
+            "1000000, 0.18, 600"
+    })
+    @DisplayName("Deve gerar a série incremental acompanhando a capitalização composta mês a mês")
+    void deveGerarSerieIncremental(BigDecimal valor, BigDecimal taxa, int prazo) throws Exception {
+        double[] saldos = new double[prazo + 1];
+        ProjecaoService.gerarSerie(valor.doubleValue(), taxa.doubleValue(), prazo, (mes, saldo) -> saldos[mes] = saldo);
+
+        assertEquals(valor.doubleValue(), saldos[0], 0.0);
+        for (int mes = 1; mes <= prazo; mes++) {
+            double esperado = valor.doubleValue() * Math.pow(1 + taxa.doubleValue(), mes / 12.0);
+            assertEquals(esperado, saldos[mes], esperado * 1e-12, "mês " + mes);
+            assertTrue(saldos[mes] > saldos[mes - 1]);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve terminar a série exatamente no valor final da simulação")
+    void deveTerminarSerieNoValorFinal() {
+        BigDecimal valor = new BigDecimal("15000");
+        BigDecimal taxa = new BigDecimal("0.12");
+        BigDecimal valorFinal = crescimentoCompostoCalculator.calcularValorFinal(valor, taxa, 24);
+
+        List<PontoProjecaoDTO> serie = projecaoService.projetar(valor, taxa, 24, valorFinal);
+
+        assertEquals(25, serie.size());
+        assertEquals(0, serie.get(0).getMes());
+        assertEquals(new BigDecimal("15000.00"), serie.get(0).getSaldo());
+        assertEquals(24, serie.get(24).getMes());
+        assertSame(valorFinal, serie.get(24).getSaldo());
+        assertEquals(new BigDecimal("16800.00"), serie.get(12).getSaldo());
+        assertTrue(serie.get(23).getSaldo().compareTo(valorFinal) < 0);
+    }
+
+    @Test
+    @DisplayName("Deve incluir os aportes mensais na série e chegar ao valor final da fórmula fechada")
+    void deveIncluirAportesMensaisNaSerie() {
+        BigDecimal valor = new BigDecimal("15000");
+        BigDecimal aporte = new BigDecimal("300");
+        BigDecimal taxa = new BigDecimal("0.12");
+        BigDecimal valorFinal = crescimentoCompostoCalculator.calcularValorFinal(valor, aporte, taxa, 360);
+
+        List<PontoProjecaoDTO> serie = projecaoService.projetar(valor, aporte, taxa, 360, valorFinal);
+
+        assertEquals(new BigDecimal("15000.00"), serie.get(0).getSaldo());
+        assertSame(valorFinal, serie.get(360).getSaldo());
+        // O penúltimo mês calculado pela série, capitalizado e somado ao aporte, chega ao valor final
+        double mensal = Math.pow(1.12, 1.0 / 12.0);
+        assertEquals(valorFinal.doubleValue(), serie.get(359).getSaldo().doubleValue() * mensal + 300, 0.05);
+    }
+
+    @Test
+    @DisplayName("Deve acompanhar os dias úteis de cada mês quando a capitalização é por dias úteis")
+    void deveAcompanharDiasUteisDeCadaMes() {
+        CalendarioDiasUteis calendario = new CalendarioDiasUteis();
+        calendario.carregar();
+        crescimentoCompostoCalculator.calendarioDiasUteis = calendario;
+        crescimentoCompostoCalculator.capitalizacao = "dias-uteis";
+        crescimentoCompostoCalculator.relogio = Clock.fixed(Instant.parse("2025-01-02T12:00:00Z"), ZoneOffset.UTC);
+        BigDecimal valor = new BigDecimal("10000");
+        BigDecimal aporte = new BigDecimal("300");
+        BigDecimal taxa = new BigDecimal("0.1375");
+
+        List<PontoProjecaoDTO> serie = projecaoService.projetar(valor, aporte, taxa, 120, null);
+
+        for (int mes = 1; mes <= 120; mes++) {
+            BigDecimal esperado = crescimentoCompostoCalculator.calcularValorFinal(valor, aporte, taxa, mes);
+            assertEquals(esperado.doubleValue(), serie.get(mes).getSaldo().doubleValue(), 0.02, "mês " + mes);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar prazos acima do limite da projeção")
+    void deveRejeitarPrazoAcimaDoLimite() {
+        assertDoesNotThrow(() -> projecaoService.validarPrazo(1200));
+        assertThrows(SmartInvestApiException.class, () -> projecaoService.validarPrazo(1201));
+    }
+}
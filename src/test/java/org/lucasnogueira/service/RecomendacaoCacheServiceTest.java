@@ -0,0 +1,177 @@
+package org.lucasnogueira.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.ProdutoComScore;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.entities.Produto;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecomendacaoCacheServiceTest {
+
+    private static final ZoneId ZONA = ZoneId.of("America/Sao_Paulo");
+
+    private RecomendacaoCacheService cache;
+    private CrescimentoCompostoCalculator crescimento;
+    private ProdutoScoreCalculator calculator;
+    private List<Produto> produtos;
+    private AtomicInteger calculos;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RecomendacaoCacheService();
+        cache.habilitado = true;
+        cache.maximoEntradas = 100;
+        crescimento = new CrescimentoCompostoCalculator();
+        crescimento.relogio = Clock.fixed(Instant.parse("2025-03-10T15:00:00Z"), ZONA);
+        cache.crescimentoCompostoCalculator = crescimento;
+        calculator = new ProdutoScoreCalculator();
+        calculos = new AtomicInteger();
+
+        produtos = List.of(
+                criarProduto(1L, "CDB", new BigDecimal("0.10"), "Baixo", 1),
+                criarProduto(2L, "LCI", new BigDecimal("0.12"), "Médio", 30),
+                criarProduto(3L, "Ações", new BigDecimal("0.25"), "Alto", 0));
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar a recomendação para outro cliente e outro valor na mesma faixa de volume")
+    void deveReutilizarRecomendacaoNaMesmaFaixaDeVolume() {
+        CatalogoCompilado catalogo = CatalogoCompilado.compilar(produtos, 1L);
+        SimulacaoRequestDTO primeira = criarRequest(new BigDecimal("12000"), 12, 1);
+        SimulacaoRequestDTO segunda = criarRequest(new BigDecimal("45000"), 12, 2);
+
+        ProdutoComScore calculado = cache.obter(catalogo, primeira, TipoPerfilRisco.MODERADO, calcular(catalogo, primeira));
+        ProdutoComScore memoizado = cache.obter(catalogo, segunda, TipoPerfilRisco.MODERADO, calcular(catalogo, segunda));
+
+        assertSame(calculado, memoizado);
+        assertEquals(1, calculos.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertSame(calculator.encontrarMelhorProduto(catalogo, segunda, TipoPerfilRisco.MODERADO).getProduto(),
+                memoizado.getProduto());
+    }
+
+    @Test
+    @DisplayName("Deve calcular novamente quando perfil, prazo, faixa de volume ou tipo mudarem")
+    void deveCalcularNovamenteQuandoChaveMudar() {
+        CatalogoCompilado catalogo = CatalogoCompilado.compilar(produtos, 1L);
+        SimulacaoRequestDTO base = criarRequest(new BigDecimal("12000"), 12, 1);
+
+        cache.obter(catalogo, base, TipoPerfilRisco.MODERADO, calcular(catalogo, base));
+        cache.obter(catalogo, base, TipoPerfilRisco.AGRESSIVO, calcular(catalogo, base));
+        cache.obter(catalogo, criarRequest(new BigDecimal("12000"), 24, 1), TipoPerfilRisco.MODERADO, calcular(catalogo, base));
+        cache.obter(catalogo, criarRequest(new BigDecimal("60000"), 12, 1), TipoPerfilRisco.MODERADO, calcular(catalogo, base));
+        CatalogoCompilado soLci = catalogo.doTipo("LCI");
+        cache.obter(soLci, base, TipoPerfilRisco.MODERADO, calcular(soLci, base));
+
+        assertEquals(5, calculos.get());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("Deve descartar as recomendações quando o catálogo for recarregado")
+    void deveDescartarRecomendacoesQuandoCatalogoForRecarregado() {
+        CatalogoCompilado versao1 = CatalogoCompilado.compilar(produtos, 1L);
+        SimulacaoRequestDTO request = criarRequest(new BigDecimal("12000"), 12, 1);
+        cache.obter(versao1, request, TipoPerfilRisco.MODERADO, calcular(versao1, request));
+
+        CatalogoCompilado versao2 = CatalogoCompilado.compilar(produtos.subList(0, 1), 2L);
+        cache.invalidar(2L);
+        ProdutoComScore recalculado = cache.obter(versao2, request, TipoPerfilRisco.MODERADO, calcular(versao2, request));
+
+        assertEquals(2, calculos.get());
+        assertEquals(1L, recalculado.getProduto().getId());
+
+        // Requisições ainda com o catálogo antigo não voltam a popular a tabela
+        cache.obter(versao1, request, TipoPerfilRisco.MODERADO, calcular(versao1, request));
+        cache.obter(versao2, request, TipoPerfilRisco.MODERADO, calcular(versao2, request));
+        assertEquals(3, calculos.get());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("Deve descartar as recomendações quando a data de referência mudar")
+    void deveDescartarRecomendacoesQuandoDataDeReferenciaMudar() {
+        CatalogoCompilado catalogo = CatalogoCompilado.compilar(produtos, 1L);
+        SimulacaoRequestDTO request = criarRequest(new BigDecimal("12000"), 12, 1);
+        cache.obter(catalogo, request, TipoPerfilRisco.MODERADO, calcular(catalogo, request));
+        cache.obter(catalogo, request, TipoPerfilRisco.MODERADO, calcular(catalogo, request));
+
+        // Virada do dia sem recarregar o catálogo: curvas e tributação partem da nova data
+        crescimento.relogio = Clock.fixed(Instant.parse("2025-03-11T03:30:00Z"), ZONA);
+        cache.obter(catalogo, request, TipoPerfilRisco.MODERADO, calcular(catalogo, request));
+        cache.obter(catalogo, request, TipoPerfilRisco.MODERADO, calcular(catalogo, request));
+
+        assertEquals(2, calculos.get());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o número máximo de entradas")
+    void deveRespeitarNumeroMaximoDeEntradas() {
+        cache.maximoEntradas = 1;
+        CatalogoCompilado catalogo = CatalogoCompilado.compilar(produtos, 1L);
+
+        for (int prazo = 1; prazo <= 3; prazo++) {
+            SimulacaoRequestDTO request = criarRequest(new BigDecimal("12000"), prazo, 1);
+            cache.obter(catalogo, request, TipoPerfilRisco.MODERADO, calcular(catalogo, request));
+            cache.obter(catalogo, request, TipoPerfilRisco.MODERADO, calcular(catalogo, request));
+        }
+
+        assertEquals(1, cache.getHits());
+        assertEquals(5, calculos.get());
+    }
+
+    @Test
+    @DisplayName("Deve sempre calcular quando desabilitado")
+    void deveSempreCalcularQuandoDesabilitado() {
+        cache.habilitado = false;
+        CatalogoCompilado catalogo = CatalogoCompilado.compilar(produtos, 1L);
+        SimulacaoRequestDTO request = criarRequest(new BigDecimal("12000"), 12, 1);
+
+        cache.obter(catalogo, request, TipoPerfilRisco.MODERADO, calcular(catalogo, request));
+        cache.obter(catalogo, request, TipoPerfilRisco.MODERADO, calcular(catalogo, request));
+
+        assertEquals(2, calculos.get());
+        assertEquals(0, cache.getHits());
+    }
+
+    private Supplier<ProdutoComScore> calcular(CatalogoCompilado catalogo, SimulacaoRequestDTO request) {
+        return () -> {
+            calculos.incrementAndGet();
+            return calculator.encontrarMelhorProduto(catalogo, request, TipoPerfilRisco.MODERADO);
+        };
+    }
+
+    private Produto criarProduto(Long id, String tipo, BigDecimal taxa, String risco, int liquidezDias) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setNome("Produto " + id);
+        produto.setTipo(tipo);
+        produto.setTaxaAnualOferecida(taxa);
+        produto.setRisco(risco);
+        produto.setLiquidezDias(liquidezDias);
+        return produto;
+    }
+
+    private SimulacaoRequestDTO criarRequest(BigDecimal valor, int prazoMeses, int clienteId) {
+        SimulacaoRequestDTO request = new SimulacaoRequestDTO();
+        request.setValor(valor);
+        request.setPrazoMeses(prazoMeses);
+        request.setClienteId(clienteId);
+        return request;
+    }
+}
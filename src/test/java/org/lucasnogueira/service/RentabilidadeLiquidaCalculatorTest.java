@@ -0,0 +1,214 @@
+package org.lucasnogueira.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.entities.Produto;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+import org.lucasnogueira.service.RentabilidadeLiquidaCalculator.PrazoTributario;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RentabilidadeLiquidaCalculatorTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2025, 1, 2);
+
+    private RentabilidadeLiquidaCalculator calculator;
+    private CrescimentoCompostoCalculator crescimento;
+
+    @BeforeEach
+    void setUp() {
+        crescimento = new CrescimentoCompostoCalculator();
+        crescimento.relogio = Clock.fixed(Instant.parse("2025-01-02T12:00:00Z"), ZoneOffset.UTC);
+        calculator = new RentabilidadeLiquidaCalculator();
+        calculator.crescimentoCompostoCalculator = crescimento;
+        calculator.habilitado = true;
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o IR pelos dias corridos reais e o IOF nos primeiros 29 dias")
+    void deveAplicarIrPorDiasCorridosEIof() {
+        // 6 meses a partir de 02/01/2025 são 181 dias: já na faixa de 20%
+        PrazoTributario seisMeses = calculator.prazo(6);
+        assertEquals(181, seisMeses.dias());
+        assertEquals(0.20, seisMeses.aliquotaIr());
+        assertEquals(0.0, seisMeses.iof());
+
+        // 1 mês a partir de 01/02/2025 são 28 dias: IOF de 6% do rendimento
+        PrazoTributario fevereiro = calculator.calcularPrazo(1, LocalDate.of(2025, 2, 1));
+        assertEquals(28, fevereiro.dias());
+        assertEquals(0.06, fevereiro.iof());
+
+        double cota = Math.pow(1.12, 1 / 12.0);
+        double rendimento = cota - 1;
+        double esperado = cota - 0.06 * rendimento - 0.225 * (rendimento - 0.06 * rendimento);
+        assertEquals(esperado, fevereiro.multiploLiquido(0.12, 0.0, false, false, false), 1e-15);
+        assertEquals(cota, fevereiro.multiploLiquido(0.12, 0.0, true, false, false) + 0.06 * rendimento, 1e-15);
+    }
+
+    @Test
+    @DisplayName("Deve calcular os come-cotas em forma fechada como a aplicação evento a evento")
+    void deveCalcularComeCotasComoEventoAEvento() {
+        Random random = new Random(21L);
+        for (int i = 0; i < 500; i++) {
+            int prazoMeses = random.nextInt(1, 361);
+            double taxa = random.nextDouble(-0.05, 0.30);
+            double taxaAdministracao = random.nextDouble(0.0, 0.03);
+            LocalDate inicio = INICIO.plusDays(random.nextInt(3650));
+
+            PrazoTributario prazo = calculator.calcularPrazo(prazoMeses, inicio);
+            double esperado = comeCotasEventoAEvento(taxa, taxaAdministracao, prazoMeses, inicio, prazo.aliquotaIr());
+
+            // O intervalo médio entre eventos difere em no máximo um ou dois dias de cada intervalo real
+            assertEquals(esperado, prazo.multiploLiquido(taxa, taxaAdministracao, false, false, true), esperado * 1e-5,
+                    "prazo " + prazoMeses + " início " + inicio + " taxa " + taxa);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve somar os aportes por faixa do IR como o cálculo aporte a aporte")
+    void deveSomarAportesPorFaixaDoIr() {
+        for (int prazoMeses = 1; prazoMeses <= 120; prazoMeses++) {
+            PrazoTributario prazo = calculator.prazo(prazoMeses);
+            LocalDate fim = INICIO.plusMonths(prazoMeses);
+            double cotaMes = Math.pow(1.11, 1 / 12.0);
+
+            double esperado = 0.0;
+            for (int mes = 1; mes <= prazoMeses; mes++) {
+                int rendeMeses = prazoMeses - mes;
+                long dias = fim.toEpochDay() - fim.minusMonths(rendeMeses).toEpochDay();
+                double bruto = Math.pow(cotaMes, rendeMeses);
+                esperado += bruto - aliquotaIr(dias) * (bruto - 1);
+            }
+            assertEquals(esperado, prazo.multiploAportes(0.11, 0.0, false, false), 1e-9, "prazo " + prazoMeses);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve pontuar pela taxa líquida quando habilitado e pela taxa bruta caso contrário")
+    void devePontuarPelaTaxaLiquida() {
+        ProdutoScoreCalculator scoreCalculator = new ProdutoScoreCalculator();
+        scoreCalculator.rentabilidadeLiquidaCalculator = calculator;
+        SimulacaoRequestDTO request = new SimulacaoRequestDTO();
+        request.setValor(new BigDecimal("10000"));
+        request.setPrazoMeses(24);
+        List<Produto> produtos = List.of(produto(1L, "CDB", "0.13", null), produto(2L, "LCI", "0.13", null),
+                produto(3L, "Fundos", "0.13", "0.02"));
+        CatalogoCompilado catalogo = CatalogoCompilado.compilar(produtos, 1L);
+
+        // Mesma taxa bruta: a LCI isenta rende mais líquido que o CDB, que rende mais que o fundo com taxa e come-cotas
+        PrazoTributario prazo = calculator.prazo(24);
+        double[] liquidas = new double[produtos.size()];
+        for (int i = 0; i < produtos.size(); i++) {
+            liquidas[i] = prazo.taxaLiquidaAnual(catalogo, i, catalogo.taxaBruta(i));
+        }
+        assertTrue(liquidas[1] > liquidas[0]);
+        assertTrue(liquidas[0] > liquidas[2]);
+        // O retorno é normalizado pela maior taxa líquida, não pela maior taxa bruta do catálogo
+        double maximo = Math.max(liquidas[0], Math.max(liquidas[1], liquidas[2]));
+        for (int i = 0; i < produtos.size(); i++) {
+            double esperado = KernelScore.para(TipoPerfilRisco.MODERADO).pontuar(liquidas[i], 0.0,
+                    catalogo.liquidezDias(i), catalogo.nivelRisco(i), 24, 0.6, maximo,
+                    catalogo.getLiquidezMinima(), catalogo.getLiquidezMaxima());
+            assertEquals(esperado, scoreCalculator.calcular(catalogo, i, request, TipoPerfilRisco.MODERADO));
+        }
+
+        calculator.habilitado = false;
+        assertEquals(new ProdutoScoreCalculator().calcular(catalogo, 0, request, TipoPerfilRisco.MODERADO),
+                scoreCalculator.calcular(catalogo, 0, request, TipoPerfilRisco.MODERADO));
+    }
+
+    @Test
+    @DisplayName("Deve recalcular a recomendação pela taxa líquida da nova data de referência")
+    void deveRecalcularRecomendacaoQuandoDataMudar() {
+        ProdutoScoreCalculator scoreCalculator = new ProdutoScoreCalculator();
+        scoreCalculator.rentabilidadeLiquidaCalculator = calculator;
+        RecomendacaoCacheService cache = new RecomendacaoCacheService();
+        cache.habilitado = true;
+        cache.maximoEntradas = 100;
+        cache.crescimentoCompostoCalculator = crescimento;
+        SimulacaoRequestDTO request = new SimulacaoRequestDTO();
+        request.setValor(new BigDecimal("10000"));
+        request.setPrazoMeses(1);
+        // Ações (sem IOF) fixam o retorno máximo e perdem no risco: o CDB vence nas duas datas
+        Produto acoes = produto(2L, "Ações", "0.30", null);
+        acoes.setRisco("Muito Alto");
+        CatalogoCompilado catalogo = CatalogoCompilado.compilar(List.of(produto(1L, "CDB", "0.13", null), acoes), 1L);
+
+        // 1 mês a partir de 01/02 são 28 dias, com IOF; a partir de 01/03 são 31 dias, sem IOF
+        crescimento.relogio = Clock.fixed(Instant.parse("2025-02-01T12:00:00Z"), ZoneOffset.UTC);
+        double comIof = cache.obter(catalogo, request, TipoPerfilRisco.MODERADO,
+                () -> scoreCalculator.encontrarMelhorProduto(catalogo, request, TipoPerfilRisco.MODERADO)).getScore();
+        crescimento.relogio = Clock.fixed(Instant.parse("2025-03-01T12:00:00Z"), ZoneOffset.UTC);
+        double semIof = cache.obter(catalogo, request, TipoPerfilRisco.MODERADO,
+                () -> scoreCalculator.encontrarMelhorProduto(catalogo, request, TipoPerfilRisco.MODERADO)).getScore();
+
+        assertEquals(scoreCalculator.encontrarMelhorProduto(catalogo, request, TipoPerfilRisco.MODERADO).getScore(), semIof);
+        assertEquals(1L, scoreCalculator.encontrarMelhorProduto(catalogo, request, TipoPerfilRisco.MODERADO)
+                .getProduto().getId());
+        assertTrue(semIof > comIof);
+        assertEquals(0, cache.getHits());
+    }
+
+    // Referência: cada come-cotas aplicado na sua data, com o ganho desde o evento anterior
+    private double comeCotasEventoAEvento(double taxa, double taxaAdministracao, int prazoMeses, LocalDate inicio,
+                                          double aliquotaIr) {
+        LocalDate fim = inicio.plusMonths(prazoMeses);
+        double anosPorDia = prazoMeses / 12.0 / (fim.toEpochDay() - inicio.toEpochDay());
+        double logCota = Math.log1p(taxa) + Math.log1p(-taxaAdministracao);
+
+        List<LocalDate> eventos = new ArrayList<>();
+        for (int ano = inicio.getYear(); ano <= fim.getYear(); ano++) {
+            for (LocalDate evento : List.of(LocalDate.of(ano, Month.MAY, 31), LocalDate.of(ano, Month.NOVEMBER, 30))) {
+                if (evento.isAfter(inicio) && evento.isBefore(fim)) {
+                    eventos.add(evento);
+                }
+            }
+        }
+
+        double cotas = 1.0;
+        double cotaAnterior = 1.0;
+        for (LocalDate evento : eventos) {
+            double cota = Math.exp(logCota * (evento.toEpochDay() - inicio.toEpochDay()) * anosPorDia);
+            cotas -= 0.15 * cotas * Math.max(0.0, cota - cotaAnterior) / cota;
+            cotaAnterior = cota;
+        }
+
+        double cotaFinal = Math.exp(logCota * prazoMeses / 12.0);
+        double rendimento = cotas * (cotaFinal - 1.0);
+        double iof = calculator.calcularPrazo(prazoMeses, inicio).iof() * Math.max(0.0, rendimento);
+        double ir = aliquotaIr * (rendimento - iof) - 0.15 * cotas * Math.max(0.0, cotaAnterior - 1.0);
+        return cotas * cotaFinal - iof - Math.max(0.0, ir);
+    }
+
+    private static double aliquotaIr(long dias) {
+        if (dias <= 180) return 0.225;
+        if (dias <= 360) return 0.20;
+        if (dias <= 720) return 0.175;
+        return 0.15;
+    }
+
+    private static Produto produto(Long id, String tipo, String taxa, String taxaAdministracao) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setNome(tipo + " " + id);
+        produto.setTipo(tipo);
+        produto.setTaxaAnualOferecida(new BigDecimal(taxa));
+        produto.setTaxaAdministracao(taxaAdministracao != null ? new BigDecimal(taxaAdministracao) : null);
+        produto.setLiquidezDias(30);
+        produto.setRisco("Medio");
+        return produto;
+    }
+}
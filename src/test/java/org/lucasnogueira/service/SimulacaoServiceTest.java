@@ -0,0 +1,178 @@
+package org.lucasnogueira.service;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucasnogueira.exceptions.CatalogoIndisponivelException;
+import org.lucasnogueira.exceptions.LimiteTempoExcedidoException;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.ProdutoComScore;
+import org.lucasnogueira.model.dto.ItemSimulacaoLoteDTO;
+import org.lucasnogueira.model.dto.SimulacaoLoteResponseDTO;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.dto.SimulacaoResponseDTO;
+import org.lucasnogueira.model.entities.Produto;
+import org.lucasnogueira.model.entities.Simulacao;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+import org.lucasnogueira.repositories.SimulacaoRepository;
+import org.lucasnogueira.util.SimulacaoFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulacaoServiceTest {
+
+    private SimulacaoService simulacaoService;
+    private AtomicInteger consultasAoBanco;
+    private List<Produto> produtos;
+
+    @BeforeEach
+    void setUp() {
+        produtos = List.of(
+                criarProduto(1L, "CDB", "0.12", "Baixo", 1),
+                criarProduto(2L, "LCI", "0.10", "Baixo", 90),
+                criarProduto(3L, "Ações", "0.25", "Muito Alto", 3),
+                criarProduto(4L, "Fundos", "0.18", "Alto", 30));
+        consultasAoBanco = new AtomicInteger();
+
+        ProdutoCacheService produtoCacheService = new ProdutoCacheService() {
+            @Override
+            public List<Produto> findAllProdutos() {
+                consultasAoBanco.incrementAndGet();
+                return produtos;
+            }
+        };
+        CrescimentoCompostoCalculator crescimento = new CrescimentoCompostoCalculator();
+        produtoCacheService.recomendacaoCacheService = new RecomendacaoCacheService();
+        produtoCacheService.recomendacaoCacheService.crescimentoCompostoCalculator = crescimento;
+
+        // Sem repositório, factory nem serviços de persistência: a prévia não pode depender deles
+        simulacaoService = new SimulacaoService();
+        simulacaoService.produtoCacheService = produtoCacheService;
+        simulacaoService.perfilRiscoCalculator = new PerfilRiscoCalculator();
+        simulacaoService.scoreCalculator = new ProdutoScoreCalculator();
+        simulacaoService.recomendacaoCacheService = produtoCacheService.recomendacaoCacheService;
+        simulacaoService.crescimentoCompostoCalculator = crescimento;
+        simulacaoService.rentabilidadeLiquidaCalculator = new RentabilidadeLiquidaCalculator();
+        simulacaoService.rentabilidadeLiquidaCalculator.crescimentoCompostoCalculator =
+                simulacaoService.crescimentoCompostoCalculator;
+        simulacaoService.projecaoService = new ProjecaoService();
+        simulacaoService.projecaoService.prazoMaximoMeses = 1200;
+        simulacaoService.projecaoService.crescimentoCompostoCalculator = simulacaoService.crescimentoCompostoCalculator;
+        simulacaoService.limiteTempoService = new LimiteTempoService();
+        simulacaoService.topMaximo = 20;
+    }
+
+    @Test
+    @DisplayName("Deve calcular a prévia a partir do catálogo em memória sem consultar o banco")
+    void deveCalcularPreviaSemConsultarBanco() {
+        CatalogoCompilado catalogo = simulacaoService.produtoCacheService.obterCatalogoCompilado();
+        assertEquals(1, consultasAoBanco.get());
+
+        SimulacaoRequestDTO request = criarRequest();
+        SimulacaoResponseDTO previa = simulacaoService.simularPrevia(request, 3, true);
+
+        assertEquals(1, consultasAoBanco.get());
+        TipoPerfilRisco perfil = new PerfilRiscoCalculator().calcular(request);
+        ProdutoComScore esperado = new ProdutoScoreCalculator().encontrarMelhorProduto(
+                simulacaoService.obterProdutosFiltrados(catalogo, request), request, perfil);
+        assertEquals(esperado.getProduto().getId(), previa.getProdutoValidado().getId());
+        assertEquals(3, previa.getRanking().size());
+        assertEquals(request.getPrazoMeses() + 1, previa.getProjecao().size());
+        assertNull(previa.getProjecaoEstocastica());
+    }
+
+    @Test
+    @DisplayName("Deve recusar a prévia enquanto o catálogo não foi compilado")
+    void deveRecusarPreviaSemCatalogoEmMemoria() {
+        assertThrows(CatalogoIndisponivelException.class, () -> simulacaoService.simularPrevia(criarRequest(), null, false));
+        assertEquals(0, consultasAoBanco.get());
+    }
+
+    @Test
+    @DisplayName("Deve encerrar o lote sem persistir quando o limite de tempo da requisição já passou")
+    void deveEncerrarLoteQuandoLimiteDeTempoPassou() throws InterruptedException {
+        simulacaoService.produtoCacheService.obterCatalogoCompilado();
+        simulacaoService.tamanhoMaximoLote = 10;
+        simulacaoService.limiteTempoService.requisicao = new LimiteTempoRequisicao();
+        simulacaoService.limiteTempoService.iniciar("simulacoes-lote", "1");
+        Thread.sleep(5);
+
+        // Sem repositório: o limite precisa encerrar o lote antes de qualquer gravação
+        assertThrows(LimiteTempoExcedidoException.class,
+                () -> simulacaoService.simularLote(List.of(criarRequest(), criarRequest())));
+    }
+
+    @Test
+    @DisplayName("Deve informar o resultado de cada item do lote e persistir apenas os válidos")
+    void deveInformarResultadoPorItemDoLote() {
+        List<Simulacao> persistidas = new ArrayList<>();
+        simulacaoService.simulacaoRepository = new SimulacaoRepository() {
+            @Override
+            public void persistirEmLote(List<Simulacao> simulacoes, int tamanhoLote) {
+                persistidas.addAll(simulacoes);
+            }
+        };
+        simulacaoService.simulacaoFactory = new SimulacaoFactory();
+        simulacaoService.validator = Validation.buildDefaultValidatorFactory().getValidator();
+        simulacaoService.tamanhoMaximoLote = 10;
+
+        SimulacaoRequestDTO semPrazo = criarRequest();
+        semPrazo.setPrazoMeses(null);
+        SimulacaoRequestDTO valorNegativo = criarRequest();
+        valorNegativo.setValor(new BigDecimal("-100"));
+        SimulacaoRequestDTO outroCliente = criarRequest();
+        outroCliente.setClienteId(2);
+        List<SimulacaoRequestDTO> requests = new ArrayList<>(
+                List.of(criarRequest(), semPrazo, outroCliente, valorNegativo));
+        requests.add(null);
+
+        SimulacaoLoteResponseDTO resposta = simulacaoService.simularLote(requests);
+
+        assertEquals(5, resposta.getQtdItens());
+        assertEquals(2, resposta.getQtdSucesso());
+        assertEquals(3, resposta.getQtdErro());
+        List<ItemSimulacaoLoteDTO> itens = resposta.getItens();
+        boolean[] sucessoEsperado = {true, false, true, false, false};
+        for (int i = 0; i < itens.size(); i++) {
+            ItemSimulacaoLoteDTO item = itens.get(i);
+            assertEquals(i, item.getIndice());
+            assertEquals(sucessoEsperado[i], item.isSucesso());
+            if (item.isSucesso()) {
+                assertNotNull(item.getSimulacao());
+                assertNull(item.getErro());
+            } else {
+                assertNull(item.getSimulacao());
+                assertFalse(item.getErro().isBlank());
+            }
+        }
+        assertEquals("Item da simulação não informado.", itens.get(4).getErro());
+
+        assertEquals(List.of(1, 2), persistidas.stream().map(Simulacao::getCodigoCliente).toList());
+        assertEquals(itens.get(0).getSimulacao().getProdutoValidado().getId(), persistidas.get(0).getCodigoProduto());
+    }
+
+    private static SimulacaoRequestDTO criarRequest() {
+        SimulacaoRequestDTO request = new SimulacaoRequestDTO();
+        request.setClienteId(1);
+        request.setValor(new BigDecimal("10000"));
+        request.setPrazoMeses(24);
+        return request;
+    }
+
+    private static Produto criarProduto(Long id, String tipo, String taxa, String risco, int liquidezDias) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setNome(tipo + " " + id);
+        produto.setTipo(tipo);
+        produto.setTaxaAnualOferecida(new BigDecimal(taxa));
+        produto.setRisco(risco);
+        produto.setLiquidezDias(liquidezDias);
+        return produto;
+    }
+}
@@ -0,0 +1,141 @@
+package org.lucasnogueira.service;
+
+import io.opentelemetry.api.OpenTelemetry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucasnogueira.model.entities.Simulacao;
+import org.lucasnogueira.repositories.SimulacaoRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulacaoWriteBehindServiceTest {
+
+    private SimulacaoWriteBehindService service;
+    private List<List<Simulacao>> lotes;
+    private CountDownLatch liberarGravacao;
+    private CountDownLatch gravando;
+
+    @BeforeEach
+    void setUp() {
+        lotes = new CopyOnWriteArrayList<>();
+        liberarGravacao = new CountDownLatch(0);
+        gravando = new CountDownLatch(1);
+
+        service = new SimulacaoWriteBehindService();
+        service.openTelemetry = OpenTelemetry.noop();
+        service.habilitado = true;
+        service.capacidade = 100;
+        service.maxLote = 100;
+        service.maxAtrasoMs = 10_000;
+        service.timeoutDesligamentoSegundos = 5;
+        service.simulacaoRepository = new SimulacaoRepository() {
+            @Override
+            public void persistirEmLote(List<Simulacao> simulacoes, int tamanhoLote) {
+                gravando.countDown();
+                try {
+                    liberarGravacao.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                lotes.add(new ArrayList<>(simulacoes));
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberarGravacao.countDown();
+        service.onStop(null);
+    }
+
+    @Test
+    @DisplayName("Deve gravar o lote assim que atingir o tamanho máximo, sem esperar o atraso máximo")
+    void deveGravarAoAtingirTamanhoMaximo() throws InterruptedException {
+        service.maxLote = 3;
+        service.onStart(null);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(service.enfileirar(criarSimulacao(i)));
+        }
+
+        assertTrue(aguardarLotes(1, 2_000));
+        assertEquals(3, lotes.get(0).size());
+    }
+
+    @Test
+    @DisplayName("Deve gravar o lote incompleto quando o atraso máximo do primeiro item passar")
+    void deveGravarAoAtingirAtrasoMaximo() throws InterruptedException {
+        service.maxAtrasoMs = 50;
+        service.onStart(null);
+
+        long inicio = System.nanoTime();
+        assertTrue(service.enfileirar(criarSimulacao(1)));
+
+        assertTrue(aguardarLotes(1, 2_000));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) >= 40);
+        assertEquals(1, lotes.get(0).size());
+    }
+
+    @Test
+    @DisplayName("Deve recusar a simulação com a fila cheia para o chamador gravar de forma síncrona")
+    void deveRecusarComFilaCheia() throws InterruptedException {
+        service.capacidade = 1;
+        service.maxLote = 1;
+        liberarGravacao = new CountDownLatch(1);
+        service.onStart(null);
+
+        // O gravador fica preso no primeiro lote; a fila comporta apenas mais um item
+        assertTrue(service.enfileirar(criarSimulacao(1)));
+        assertTrue(gravando.await(2, TimeUnit.SECONDS));
+        assertTrue(service.enfileirar(criarSimulacao(2)));
+        assertFalse(service.enfileirar(criarSimulacao(3)));
+
+        liberarGravacao.countDown();
+        assertTrue(aguardarLotes(2, 2_000));
+    }
+
+    @Test
+    @DisplayName("Deve gravar as simulações pendentes no desligamento e recusar as que chegarem depois")
+    void deveGravarPendentesNoDesligamento() {
+        service.onStart(null);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(service.enfileirar(criarSimulacao(i)));
+        }
+
+        service.onStop(null);
+
+        assertEquals(5, lotes.stream().mapToInt(List::size).sum());
+        assertFalse(service.enfileirar(criarSimulacao(6)));
+    }
+
+    @Test
+    @DisplayName("Deve recusar tudo quando desabilitado")
+    void deveRecusarQuandoDesabilitado() {
+        service.habilitado = false;
+        service.onStart(null);
+
+        assertFalse(service.enfileirar(criarSimulacao(1)));
+    }
+
+    private boolean aguardarLotes(int quantidade, long timeoutMs) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (lotes.size() < quantidade && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        return lotes.size() >= quantidade;
+    }
+
+    private static Simulacao criarSimulacao(int clienteId) {
+        Simulacao simulacao = new Simulacao();
+        simulacao.setCodigoCliente(clienteId);
+        return simulacao;
+    }
+}
@@ -0,0 +1,189 @@
+package org.lucasnogueira.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lucasnogueira.exceptions.SmartInvestApiException;
+import org.lucasnogueira.model.CatalogoCompilado;
+import org.lucasnogueira.model.dto.SimulacaoRequestDTO;
+import org.lucasnogueira.model.dto.VarreduraRequestDTO;
+import org.lucasnogueira.model.entities.Produto;
+import org.lucasnogueira.model.enums.TipoPerfilRisco;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VarreduraServiceTest {
+
+    private VarreduraService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new VarreduraService();
+        service.maximoCelulas = 100;
+        service.celulasPorTarefa = 8;
+
+        CatalogoCompilado catalogo = CatalogoCompilado.compilar(List.of(
+                criarProduto(1L, "CDB", "0.12", "Baixo"),
+                criarProduto(2L, "LCI", "0.10", "Baixo"),
+                criarProduto(3L, "Ações", "0.25", "Muito Alto")), 1L);
+        SimulacaoService simulacaoService = new SimulacaoService();
+        simulacaoService.scoreCalculator = new ProdutoScoreCalculator();
+        simulacaoService.recomendacaoCacheService = new RecomendacaoCacheService();
+        simulacaoService.motorScore = "sequencial";
+        service.simulacaoService = simulacaoService;
+        service.produtoCacheService = new ProdutoCacheService() {
+            @Override
+            public CatalogoCompilado obterCatalogoCompilado() {
+                return catalogo;
+            }
+        };
+        service.perfilRiscoCalculator = new PerfilRiscoCalculator();
+        service.crescimentoCompostoCalculator = new CrescimentoCompostoCalculator();
+        service.objectMapper = new ObjectMapper();
+        service.limiteTempoService = new LimiteTempoService();
+    }
+
+    @Test
+    @DisplayName("Deve enviar cada célula da grade exatamente uma vez, uma por linha em JSON válido")
+    void deveEnviarCadaCelulaUmaVez() throws IOException {
+        // 7 valores x 12 prazos = 84 células em blocos de até 8
+        VarreduraRequestDTO request = criarRequest("1000", "61000", "10000", 1, 12, null);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> service.varrer(request).write(saida));
+
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(84, linhas.length);
+        Set<String> celulas = new HashSet<>();
+        for (String linha : linhas) {
+            JsonNode celula = service.objectMapper.readTree(linha);
+            assertFalse(celula.has("erro"), linha);
+            assertNotNull(celula.get("produto"), linha);
+            assertTrue(celulas.add(celula.get("valor").decimalValue().stripTrailingZeros() + "x"
+                    + celula.get("prazoMeses").asInt()), "célula repetida: " + linha);
+        }
+        for (int valor = 1000; valor <= 61000; valor += 10000) {
+            for (int prazo = 1; prazo <= 12; prazo++) {
+                assertTrue(celulas.contains(new BigDecimal(valor).stripTrailingZeros() + "x" + prazo));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve encerrar o envio com uma linha de erro quando uma tarefa falha com Error")
+    void deveEncerrarEnvioQuandoTarefaFalhaComError() throws IOException {
+        service.perfilRiscoCalculator = new PerfilRiscoCalculator() {
+            @Override
+            public TipoPerfilRisco calcular(SimulacaoRequestDTO request) {
+                if (request.getPrazoMeses() == 7) {
+                    throw new AssertionError("falha na célula");
+                }
+                return super.calcular(request);
+            }
+        };
+        VarreduraRequestDTO request = criarRequest("1000", "61000", "10000", 1, 12, null);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> service.varrer(request).write(saida));
+
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        JsonNode ultima = service.objectMapper.readTree(linhas[linhas.length - 1]);
+        assertEquals("falha na célula", ultima.get("erro").asText());
+        assertTrue(linhas.length < 84);
+    }
+
+    @Test
+    @DisplayName("Deve encerrar o envio com uma linha de erro quando o tempo máximo passa")
+    void deveEncerrarEnvioQuandoTempoMaximoPassa() throws IOException {
+        CountDownLatch liberar = new CountDownLatch(1);
+        service.perfilRiscoCalculator = new PerfilRiscoCalculator() {
+            @Override
+            public TipoPerfilRisco calcular(SimulacaoRequestDTO request) {
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.calcular(request);
+            }
+        };
+        service.tempoMaximoMs = 50;
+        VarreduraRequestDTO request = criarRequest("1000", "61000", "10000", 1, 12, null);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> service.varrer(request).write(saida));
+        } finally {
+            liberar.countDown();
+        }
+
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, linhas.length);
+        assertTrue(service.objectMapper.readTree(linhas[0]).get("erro").asText()
+                .contains(VarreduraService.ETAPA_VARREDURA));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar grade com valor mínimo maior que o máximo")
+    void deveRejeitarValorMinimoMaiorQueMaximo() {
+        VarreduraRequestDTO request = criarRequest("5000", "1000", "1000", 1, 12, null);
+
+        assertThrows(SmartInvestApiException.class, () -> service.varrer(request));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar grade com prazo mínimo maior que o máximo")
+    void deveRejeitarPrazoMinimoMaiorQueMaximo() {
+        VarreduraRequestDTO request = criarRequest("1000", "5000", "1000", 24, 12, null);
+
+        assertThrows(SmartInvestApiException.class, () -> service.varrer(request));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar grade acima do limite de células sem materializar a grade")
+    void deveRejeitarGradeAcimaDoLimite() {
+        // 11 valores x 10 prazos = 110 células
+        VarreduraRequestDTO acima = criarRequest("0", "10000", "1000", 1, 10, null);
+        // Passo de centavos sobre uma faixa enorme não pode estourar a contagem
+        VarreduraRequestDTO enorme = criarRequest("0.01", "99999999999", "0.01", 1, 600, null);
+
+        SmartInvestApiException erro = assertThrows(SmartInvestApiException.class, () -> service.varrer(acima));
+        assertTrue(erro.getMessage().contains("100"));
+        assertThrows(SmartInvestApiException.class, () -> service.varrer(enorme));
+    }
+
+    private Produto criarProduto(Long id, String tipo, String taxa, String risco) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setNome("Produto " + id);
+        produto.setTipo(tipo);
+        produto.setTaxaAnualOferecida(new BigDecimal(taxa));
+        produto.setRisco(risco);
+        produto.setLiquidezDias(30);
+        return produto;
+    }
+
+    private VarreduraRequestDTO criarRequest(String valorMinimo, String valorMaximo, String passoValor,
+                                             int prazoMinimo, int prazoMaximo, Integer passoPrazo) {
+        VarreduraRequestDTO request = new VarreduraRequestDTO();
+        request.setValorMinimo(new BigDecimal(valorMinimo));
+        request.setValorMaximo(new BigDecimal(valorMaximo));
+        request.setPassoValor(new BigDecimal(passoValor));
+        request.setPrazoMinimo(prazoMinimo);
+        request.setPrazoMaximo(prazoMaximo);
+        request.setPassoPrazo(passoPrazo);
+        return request;
+    }
+}
@@ -0,0 +1,152 @@
+package org.lucasnogueira.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgrupadorCommitTest {
+
+    private AgrupadorCommit<Integer> agrupador;
+    private ExecutorService executor;
+
+    @AfterEach
+    void tearDown() {
+        if (agrupador != null) {
+            agrupador.encerrar(1000);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve agrupar gravações concorrentes em poucos commits")
+    void deveAgruparGravacoesConcorrentes() throws Exception {
+        List<List<Integer>> lotes = Collections.synchronizedList(new ArrayList<>());
+        agrupador = iniciar(lote -> lotes.add(List.copyOf(lote)), item -> fail("Não deveria gravar individualmente"),
+                TimeUnit.MILLISECONDS.toNanos(50), 16);
+
+        int chamadores = 32;
+        executor = Executors.newFixedThreadPool(chamadores);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+        for (int i = 0; i < chamadores; i++) {
+            int item = i;
+            resultados.add(executor.submit(() -> {
+                largada.await();
+                return agrupador.gravarEAguardar(item, 5000);
+            }));
+        }
+        largada.countDown();
+
+        for (Future<Boolean> resultado : resultados) {
+            assertTrue(resultado.get(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(chamadores, lotes.stream().mapToInt(List::size).sum());
+        assertTrue(lotes.stream().allMatch(lote -> lote.size() <= 16));
+        assertTrue(lotes.size() < chamadores);
+        assertEquals(lotes.size(), agrupador.getCommits());
+        assertEquals(chamadores, agrupador.getItensGravados());
+    }
+
+    @Test
+    @DisplayName("Deve liberar o chamador somente após o commit do lote")
+    void deveLiberarChamadorSomenteAposCommit() throws Exception {
+        CountDownLatch commitLiberado = new CountDownLatch(1);
+        agrupador = iniciar(lote -> aguardar(commitLiberado), item -> {}, 0, 64);
+
+        executor = Executors.newSingleThreadExecutor();
+        Future<Boolean> resultado = executor.submit(() -> agrupador.gravarEAguardar(1, 5000));
+
+        Thread.sleep(100);
+        assertFalse(resultado.isDone());
+
+        commitLiberado.countDown();
+        assertTrue(resultado.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Deve gravar individualmente quando o lote falhar e propagar apenas o erro do item inválido")
+    void deveGravarIndividualmenteQuandoLoteFalhar() throws Exception {
+        List<Integer> gravados = Collections.synchronizedList(new ArrayList<>());
+        agrupador = iniciar(
+                lote -> { throw new IllegalStateException("lote inválido"); },
+                item -> {
+                    if (item < 0) throw new IllegalArgumentException("item inválido");
+                    gravados.add(item);
+                },
+                TimeUnit.MILLISECONDS.toNanos(50), 64);
+
+        executor = Executors.newFixedThreadPool(2);
+        Future<Boolean> valido = executor.submit(() -> agrupador.gravarEAguardar(1, 5000));
+        Future<Boolean> invalido = executor.submit(() -> agrupador.gravarEAguardar(-1, 5000));
+
+        assertTrue(valido.get(5, TimeUnit.SECONDS));
+        Exception erro = assertThrows(Exception.class, () -> invalido.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, erro.getCause());
+        assertEquals(List.of(1), gravados);
+    }
+
+    @Test
+    @DisplayName("Não deve gravar o item cujo chamador desistiu por timeout")
+    void naoDeveGravarItemComTimeout() throws Exception {
+        CountDownLatch primeiroLote = new CountDownLatch(1);
+        CountDownLatch loteLiberado = new CountDownLatch(1);
+        List<Integer> gravados = Collections.synchronizedList(new ArrayList<>());
+        agrupador = iniciar(lote -> {
+            primeiroLote.countDown();
+            aguardar(loteLiberado);
+            gravados.addAll(lote);
+        }, gravados::add, 0, 1);
+
+        // O primeiro item ocupa a thread de gravação; o segundo espera na fila até o timeout
+        executor = Executors.newSingleThreadExecutor();
+        Future<Boolean> primeiro = executor.submit(() -> agrupador.gravarEAguardar(1, 5000));
+        assertTrue(primeiroLote.await(5, TimeUnit.SECONDS));
+
+        assertThrows(IllegalStateException.class, () -> agrupador.gravarEAguardar(2, 50));
+        assertEquals(0, agrupador.tamanhoFila());
+
+        loteLiberado.countDown();
+        assertTrue(primeiro.get(5, TimeUnit.SECONDS));
+        assertTrue(agrupador.gravarEAguardar(3, 5000));
+        assertEquals(List.of(1, 3), gravados);
+        assertEquals(2, agrupador.getItensGravados());
+    }
+
+    @Test
+    @DisplayName("Deve recusar a gravação quando não estiver em execução")
+    void deveRecusarQuandoNaoEstiverEmExecucao() {
+        agrupador = new AgrupadorCommit<>(lote -> {}, item -> {}, 0, 64, 16);
+
+        assertFalse(agrupador.gravarEAguardar(1, 100));
+    }
+
+    private AgrupadorCommit<Integer> iniciar(Consumer<List<Integer>> gravadorLote, Consumer<Integer> gravadorIndividual,
+                                             long janelaNanos, int maxLote) {
+        AgrupadorCommit<Integer> novo = new AgrupadorCommit<>(gravadorLote, gravadorIndividual, janelaNanos, maxLote, 1024);
+        novo.iniciar("teste-group-commit");
+        return novo;
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.lucasnogueira.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArquivoDadosTest {
+
+    @Test
+    @DisplayName("Deve ler o arquivo do sistema de arquivos em UTF-8, sem linhas em branco e comentários")
+    void deveLerArquivoSemComentarios(@TempDir Path diretorio) throws IOException {
+        Path arquivo = diretorio.resolve("dados.txt");
+        Files.writeString(arquivo, "# Vigências\n\n  2025-01-01;CDI;0.1215  \n   # São Paulo\n2025-02-01;IPCA;0.05\n",
+                StandardCharsets.UTF_8);
+
+        assertEquals(List.of("2025-01-01;CDI;0.1215", "2025-02-01;IPCA;0.05"),
+                ArquivoDados.lerLinhas(arquivo.toString(), "indexadores"));
+    }
+
+    @Test
+    @DisplayName("Deve procurar no classpath quando o caminho não existe no sistema de arquivos")
+    void deveLerDoClasspath() {
+        assertFalse(ArquivoDados.lerLinhas("feriados.txt", "feriados").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve informar o arquivo ausente na mensagem de erro")
+    void deveFalharComArquivoAusente() {
+        UncheckedIOException erro = assertThrows(UncheckedIOException.class,
+                () -> ArquivoDados.lerLinhas("inexistente.txt", "feriados"));
+        assertTrue(erro.getMessage().contains("feriados"));
+        assertTrue(erro.getMessage().contains("inexistente.txt"));
+    }
+}